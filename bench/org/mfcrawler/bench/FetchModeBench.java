@@ -0,0 +1,230 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+import org.mfcrawler.model.pojo.site.link.Link;
+import org.mfcrawler.model.process.fetch.HttpConnectionPool;
+import org.mfcrawler.model.process.fetch.IFetchListener;
+import org.mfcrawler.model.process.fetch.PooledPageFetcher;
+import org.mfcrawler.model.process.fetch.VirtualThreadPageFetcher;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Benchmark of the fetch modes against a local stub http server whose pages
+ * are slow to answer : the same fetches run through the crawl threads (each
+ * thread waits for its fetch) then through the virtual threads fetcher
+ * (bounded by the number of fetches in flight). It isn't part of the
+ * application jar, it is compiled and run against the compiled classes :
+ * 
+ * <pre>
+ * javac -cp target/classes -d target/bench bench/org/mfcrawler/bench/FetchModeBench.java
+ * java -cp target/classes:target/bench org.mfcrawler.bench.FetchModeBench [fetches] [delay] [threads] [inFlight]
+ * </pre>
+ * 
+ * @author lbertelo
+ */
+public class FetchModeBench {
+
+	/**
+	 * Number of bytes of a stub page
+	 */
+	private static final int PAGE_SIZE = 8 * 1024;
+
+	/**
+	 * Read timeout of the fetches (in ms)
+	 */
+	private static final int TIMEOUT = 30_000;
+
+	public static void main(String[] args) throws Exception {
+		int fetchNumber = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000;
+		int delay = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+		int threadNumber = (args.length > 2) ? Integer.parseInt(args[2]) : 5;
+		int inFlightNumber = (args.length > 3) ? Integer.parseInt(args[3]) : 200;
+
+		HttpServer server = startStubServer(delay);
+		String host = "127.0.0.1:" + server.getAddress().getPort();
+		System.out.println(fetchNumber + " fetches, " + delay + " ms by page, virtual threads supported : "
+				+ VirtualThreadPageFetcher.isVirtualThreadSupported());
+
+		// The first round warms up the JVM and the server
+		for (int round = 0; round < 2; round++) {
+			double threadRate = runThreadMode(host, fetchNumber, threadNumber);
+			double virtualRate = runVirtualThreadMode(host, fetchNumber, inFlightNumber);
+			if (round > 0) {
+				System.out.println(String.format("THREADS (%d crawl threads) : %.1f pages/s", threadNumber,
+						threadRate));
+				System.out.println(String.format("VIRTUAL_THREADS (%d in flight) : %.1f pages/s", inFlightNumber,
+						virtualRate));
+			}
+		}
+
+		server.stop(0);
+		System.exit(0);
+	}
+
+	/**
+	 * Starts the stub server : each page is answered after the delay (kept
+	 * alive connections)
+	 * @param delay the delay of a page (in ms)
+	 * @return the server
+	 * @throws IOException
+	 */
+	private static HttpServer startStubServer(final int delay) throws IOException {
+		final byte[] page = new byte[PAGE_SIZE];
+		for (int i = 0; i < page.length; i++) {
+			page[i] = (byte) ('a' + i % 26);
+		}
+
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4_096);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+				exchange.sendResponseHeaders(200, page.length);
+				OutputStream outputStream = exchange.getResponseBody();
+				outputStream.write(page);
+				outputStream.close();
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		return server;
+	}
+
+	/**
+	 * Fetches the pages with crawl threads waiting for their fetch
+	 * @param host the host and port of the server
+	 * @param fetchNumber the number of fetches
+	 * @param threadNumber the number of crawl threads
+	 * @return the number of pages by second
+	 * @throws InterruptedException
+	 */
+	private static double runThreadMode(final String host, final int fetchNumber, int threadNumber)
+			throws InterruptedException {
+		final PooledPageFetcher fetcher = new PooledPageFetcher("bench", TIMEOUT, PAGE_SIZE * 2, TIMEOUT);
+		final AtomicInteger nextFetch = new AtomicInteger();
+		final AtomicInteger errorNumber = new AtomicInteger();
+		ExecutorService threads = Executors.newFixedThreadPool(threadNumber);
+		final CountDownLatch latch = new CountDownLatch(threadNumber);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < threadNumber; i++) {
+			threads.execute(new Runnable() {
+				@Override
+				public void run() {
+					int fetch = nextFetch.getAndIncrement();
+					while (fetch < fetchNumber) {
+						if (fetcher.fetch(newOrder(host, fetch), TIMEOUT).getError() != null) {
+							errorNumber.incrementAndGet();
+						}
+						fetch = nextFetch.getAndIncrement();
+					}
+					latch.countDown();
+				}
+			});
+		}
+		latch.await();
+		long elapsed = System.nanoTime() - start;
+
+		threads.shutdown();
+		HttpConnectionPool.get().closeAll();
+		checkErrors(errorNumber);
+		return fetchNumber * 1e9 / elapsed;
+	}
+
+	/**
+	 * Fetches the pages with the virtual threads fetcher
+	 * @param host the host and port of the server
+	 * @param fetchNumber the number of fetches
+	 * @param inFlightNumber the maximum number of fetches in flight
+	 * @return the number of pages by second
+	 * @throws InterruptedException
+	 */
+	private static double runVirtualThreadMode(String host, int fetchNumber, int inFlightNumber)
+			throws InterruptedException {
+		VirtualThreadPageFetcher fetcher = new VirtualThreadPageFetcher("bench", TIMEOUT, PAGE_SIZE * 2, TIMEOUT);
+		final Semaphore inFlight = new Semaphore(inFlightNumber);
+		final AtomicInteger errorNumber = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(fetchNumber);
+		IFetchListener listener = new IFetchListener() {
+			@Override
+			public void fetchCompleted(FetchResult fetchResult) {
+				if (fetchResult.getError() != null) {
+					errorNumber.incrementAndGet();
+				}
+				inFlight.release();
+				latch.countDown();
+			}
+		};
+
+		long start = System.nanoTime();
+		for (int i = 0; i < fetchNumber; i++) {
+			inFlight.acquire();
+			fetcher.fetch(newOrder(host, i), TIMEOUT, listener);
+		}
+		latch.await();
+		long elapsed = System.nanoTime() - start;
+
+		fetcher.close();
+		HttpConnectionPool.get().closeAll();
+		checkErrors(errorNumber);
+		return fetchNumber * 1e9 / elapsed;
+	}
+
+	/**
+	 * Creates the crawl order of a stub page
+	 * @param host the host and port of the server
+	 * @param fetch the number of the fetch
+	 * @return the crawl order
+	 */
+	private static CrawlOrder newOrder(String host, int fetch) {
+		CrawlOrder order = new CrawlOrder();
+		order.setLink(new Link("http", host, "/page" + fetch));
+		return order;
+	}
+
+	/**
+	 * Stops the benchmark if fetches have failed
+	 * @param errorNumber the number of failed fetches
+	 */
+	private static void checkErrors(AtomicInteger errorNumber) {
+		if (errorNumber.get() > 0) {
+			throw new IllegalStateException(errorNumber.get() + " fetches have failed");
+		}
+	}
+
+}
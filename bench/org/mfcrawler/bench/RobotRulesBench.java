@@ -0,0 +1,171 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.mfcrawler.model.pojo.site.RobotPath;
+import org.mfcrawler.model.pojo.site.RobotRules;
+import org.mfcrawler.model.pojo.site.Site;
+import org.mfcrawler.model.pojo.site.link.Domain;
+
+/**
+ * Benchmark of the robots.txt rules : the same paths are checked against the
+ * same rules with the former loop (a regular expression built and matched for
+ * each rule and each path), then with RobotRules. Both must give the same
+ * decisions. It isn't part of the application jar, it is compiled and run
+ * against the compiled classes :
+ * 
+ * <pre>
+ * javac -cp target/classes -d target/bench bench/org/mfcrawler/bench/RobotRulesBench.java
+ * java -cp target/classes:target/bench org.mfcrawler.bench.RobotRulesBench [paths]
+ * </pre>
+ * 
+ * @author lbertelo
+ */
+public class RobotRulesBench {
+
+	/**
+	 * Start of pattern of the former "checkPath"
+	 */
+	private static final String PATTERN_START = "^\\Q";
+
+	/**
+	 * Pattern for replacing "*"
+	 */
+	private static final String PATTERN_REPLACE = "\\*";
+
+	/**
+	 * Pattern for replacing by "\E\S+\Q"
+	 */
+	private static final String PATTERN_REPLACE_BY = "\\\\E\\\\S+\\\\Q";
+
+	/**
+	 * End of pattern of the former "checkPath"
+	 */
+	private static final String PATTERN_END = "\\E";
+
+	/**
+	 * Number of allowed paths (kept so that the checks aren't optimized away)
+	 */
+	private static long allowNumber = 0;
+
+	public static void main(String[] args) {
+		int pathNumber = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000;
+
+		Random random = new Random(1);
+		List<RobotPath> robotPathList = createRobotPaths(random);
+		Site site = new Site(new Domain("bench.org"));
+		site.setRobotPathList(robotPathList);
+		RobotRules robotRules = new RobotRules(site);
+
+		String[] paths = new String[pathNumber];
+		for (int i = 0; i < pathNumber; i++) {
+			paths[i] = "/dir" + random.nextInt(40) + "/page" + random.nextInt(9)
+					+ ((random.nextInt(10) == 0) ? ".pdf" : "");
+		}
+
+		int differenceNumber = 0;
+		for (String path : paths) {
+			if (isAllowedByLoop(robotPathList, path) != robotRules.isAllowed(path)) {
+				differenceNumber++;
+			}
+		}
+		System.out.println(robotPathList.size() + " rules, " + pathNumber + " paths, " + differenceNumber
+				+ " different decisions");
+
+		// The first rounds warm up the JVM
+		for (int round = 0; round < 5; round++) {
+			double loopRate = run(robotPathList, null, paths);
+			double rulesRate = run(null, robotRules, paths);
+			if (round > 1) {
+				System.out.println(String.format("loop %.0f decisions/s, RobotRules %.0f decisions/s", loopRate,
+						rulesRate));
+			}
+		}
+	}
+
+	/**
+	 * Creates the rules : literal paths, directories ending with "*" and a
+	 * rule by extension
+	 * @param random the random generator
+	 * @return the list of robotPath
+	 */
+	private static List<RobotPath> createRobotPaths(Random random) {
+		List<RobotPath> robotPathList = new ArrayList<RobotPath>();
+		for (int i = 0; i < 40; i++) {
+			robotPathList.add(new RobotPath(random.nextBoolean(), "/dir" + (i % 30) + "/page" + (i % 7)));
+		}
+		for (int i = 0; i < 10; i++) {
+			robotPathList.add(new RobotPath(random.nextBoolean(), "/dir" + i + "/*"));
+		}
+		robotPathList.add(new RobotPath(false, "/*.pdf"));
+		Collections.shuffle(robotPathList, random);
+		return robotPathList;
+	}
+
+	/**
+	 * Checks the paths during at least one second
+	 * @param robotPathList the list of robotPath checked by the former loop
+	 *            (null to use the rules)
+	 * @param robotRules the rules
+	 * @param paths the paths
+	 * @return the number of decisions by second
+	 */
+	private static double run(List<RobotPath> robotPathList, RobotRules robotRules, String[] paths) {
+		int decisionNumber = 0;
+		long start = System.nanoTime();
+
+		while (System.nanoTime() - start < 1_000_000_000L) {
+			for (String path : paths) {
+				boolean allow = (robotPathList != null) ? isAllowedByLoop(robotPathList, path) : robotRules
+						.isAllowed(path);
+				if (allow) {
+					allowNumber++;
+				}
+			}
+			decisionNumber += paths.length;
+		}
+
+		return decisionNumber * 1e9 / (System.nanoTime() - start);
+	}
+
+	/**
+	 * Former check : the last rule matching the path decides
+	 * @param robotPathList the list of robotPath
+	 * @param urlPath the path of the URL
+	 * @return true if the path is allowed
+	 */
+	private static boolean isAllowedByLoop(List<RobotPath> robotPathList, String urlPath) {
+		boolean allow = true;
+		for (RobotPath robotPath : robotPathList) {
+			StringBuilder pathPattern = new StringBuilder();
+			pathPattern.append(PATTERN_START);
+			pathPattern.append(robotPath.getPath().replaceAll(PATTERN_REPLACE, PATTERN_REPLACE_BY));
+			pathPattern.append(PATTERN_END);
+			if (urlPath.matches(pathPattern.toString())) {
+				allow = robotPath.isAllow();
+			}
+		}
+		return allow;
+	}
+
+}
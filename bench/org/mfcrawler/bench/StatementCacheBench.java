@@ -0,0 +1,184 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+import org.mfcrawler.model.dao.BaseDAO;
+import org.mfcrawler.model.dao.site.IPageQueryList;
+import org.mfcrawler.model.dao.site.ISiteQueryList;
+
+/**
+ * Benchmark of the prepared statement cache of BaseDAO on an in-memory
+ * database : the same queries of the pages (selections and updates by link)
+ * run with a statement prepared for each query, then with the cached
+ * statements. It isn't part of the application jar, it is compiled and run
+ * against the compiled classes :
+ * 
+ * <pre>
+ * javac -cp target/classes -d target/bench bench/org/mfcrawler/bench/StatementCacheBench.java
+ * java -cp target/classes:target/bench:h2.jar org.mfcrawler.bench.StatementCacheBench [pages] [queries]
+ * </pre>
+ * 
+ * @author lbertelo
+ */
+public class StatementCacheBench {
+
+	/**
+	 * Queries of the pages : the SQL query, the number of parameters before
+	 * the link and the number of parameters after the link
+	 */
+	private static final Object[][] QUERIES = { { IPageQueryList.SELECT_PAGE, 0, 0 },
+			{ IPageQueryList.UPDATE_CRAWL_NOW, 1, 0 }, { IPageQueryList.SELECT_CRAWL_STATE, 0, 0 },
+			{ IPageQueryList.UPDATE_ALLOW_CRAWL, 1, 0 }, { IPageQueryList.UPDATE_FOUND_PAGE_SCORE, 1, 1 },
+			{ IPageQueryList.UPDATE_INNER_DEEP, 1, 2 }, { IPageQueryList.UPDATE_OUTER_DEEP, 2, 1 },
+			{ IPageQueryList.UPDATE_INCOMING_INTERN_LINKS_NUMBER, 0, 0 },
+			{ IPageQueryList.UPDATE_INCOMING_EXTERN_LINKS_NUMBER, 0, 0 } };
+
+	public static void main(String[] args) throws Exception {
+		int pageNumber = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000;
+		int queryNumber = (args.length > 1) ? Integer.parseInt(args[1]) : 200_000;
+
+		Class.forName("org.h2.Driver");
+		Connection connection = DriverManager.getConnection("jdbc:h2:mem:bench");
+		createPages(connection, pageNumber);
+		CachedDAO dao = new CachedDAO(connection);
+		System.out.println(pageNumber + " pages, " + queryNumber + " statements by run");
+
+		// Two queries (SELECT_PAGE and UPDATE_CRAWL_NOW) then all the queries
+		// (more than the 8 queries of the H2 query cache)
+		int[] queryKindNumbers = { 2, QUERIES.length };
+		for (int queryKindNumber : queryKindNumbers) {
+			// The first rounds warm up the JVM
+			for (int round = 0; round < 5; round++) {
+				double preparedRate = run(connection, null, queryKindNumber, pageNumber, queryNumber);
+				double cachedRate = run(connection, dao, queryKindNumber, pageNumber, queryNumber);
+				if (round > 1) {
+					System.out.println(String.format(
+							"%d queries : prepareStatement %.0f statements/s, cache %.0f statements/s",
+							queryKindNumber, preparedRate, cachedRate));
+				}
+			}
+		}
+		connection.close();
+	}
+
+	/**
+	 * Runs the queries in turn on random pages
+	 * @param connection the connection
+	 * @param dao the DAO giving the cached statements (null to prepare the
+	 *            statements on the connection)
+	 * @param queryKindNumber the number of different queries
+	 * @param pageNumber the number of pages
+	 * @param queryNumber the number of queries
+	 * @return the number of statements by second
+	 * @throws SQLException
+	 */
+	private static double run(Connection connection, CachedDAO dao, int queryKindNumber, int pageNumber,
+			int queryNumber) throws SQLException {
+		Random random = new Random(1);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < queryNumber; i++) {
+			Object[] query = QUERIES[i % queryKindNumber];
+			String sql = (String) query[0];
+			PreparedStatement preStatement = (dao == null) ? connection.prepareStatement(sql) : dao
+					.getPreparedStatement(sql);
+
+			int parameterIndex = 1;
+			for (int j = 0; j < (Integer) query[1]; j++) {
+				preStatement.setInt(parameterIndex++, 1);
+			}
+			preStatement.setString(parameterIndex++, "bench.org");
+			preStatement.setString(parameterIndex++, "/page" + random.nextInt(pageNumber));
+			preStatement.setString(parameterIndex++, "http");
+			for (int j = 0; j < (Integer) query[2]; j++) {
+				preStatement.setInt(parameterIndex++, 1);
+			}
+
+			ResultSet result = null;
+			if (sql.trim().startsWith("SELECT")) {
+				result = preStatement.executeQuery();
+				result.next();
+			} else {
+				preStatement.executeUpdate();
+			}
+
+			if (dao == null) {
+				if (result != null) {
+					result.close();
+				}
+				preStatement.close();
+			} else {
+				dao.close(result, preStatement);
+			}
+		}
+
+		return queryNumber * 1e9 / (System.nanoTime() - start);
+	}
+
+	/**
+	 * Creates the tables and the pages
+	 * @param connection the connection
+	 * @param pageNumber the number of pages
+	 * @throws SQLException
+	 */
+	private static void createPages(Connection connection, int pageNumber) throws SQLException {
+		Statement statement = connection.createStatement();
+		String[] sqlTab = (IPageQueryList.CREATE_TABLES + ISiteQueryList.CREATE_TABLES).trim().split(";");
+		for (int i = 0; i < sqlTab.length; i++) {
+			statement.execute(sqlTab[i]);
+		}
+		statement.close();
+
+		PreparedStatement preStatement = connection.prepareStatement(" INSERT INTO PAGE ( DOMAIN, PATH, PROTOCOL,"
+				+ " INNER_DEEP, OUTER_DEEP, SCORE, CRAWL_NOW ) VALUES ( 'bench.org', ?, 'http', 0, 0, 0, false ) ");
+		for (int i = 0; i < pageNumber; i++) {
+			preStatement.setString(1, "/page" + i);
+			preStatement.addBatch();
+		}
+		preStatement.executeBatch();
+		preStatement.close();
+	}
+
+	/**
+	 * DAO giving access to the statement cache of BaseDAO
+	 */
+	private static class CachedDAO extends BaseDAO {
+
+		/**
+		 * Default constructor
+		 * @param connection the connection
+		 */
+		public CachedDAO(Connection connection) {
+			super(connection);
+		}
+
+		@Override
+		public PreparedStatement getPreparedStatement(String sql) throws SQLException {
+			return super.getPreparedStatement(sql);
+		}
+	}
+
+}
@@ -95,6 +95,14 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 		return supervisor;
 	}
 
+	/**
+	 * Indicates if the crawls are stopped
+	 * @return true if the crawls are stopped or if no project is opened
+	 */
+	public boolean isCrawlStopped() {
+		return (supervisor == null || supervisor.isStopped());
+	}
+
 	/**
 	 * Initialize the model (load configuration and crawl project)
 	 */
@@ -114,9 +122,11 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 		new Thread(new Runnable() {
 			@Override
 			public void run() {
-				getConfig().setLastOpenedProject(currentCrawlProject.getName());
+				if (currentCrawlProject != null) {
+					getConfig().setLastOpenedProject(currentCrawlProject.getName());
+					LoadCrawlProjectConfig.saveCrawlProject(currentCrawlProject);
+				}
 				LoadApplicationConfig.saveApplicationConfig(getConfig());
-				LoadCrawlProjectConfig.saveCrawlProject(currentCrawlProject);
 				DbmsManager.get().disconnect();
 				ApplicationModel.this.notify(IPropertyName.LOADED, null);
 			}
@@ -157,30 +167,62 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 			@Override
 			public void run() {
 				DbmsManager dbmsManager = DbmsManager.get();
+				String previousProjectName = null;
 
 				// Close the current project
 				if (currentCrawlProject != null) {
+					previousProjectName = currentCrawlProject.getName();
 					LoadCrawlProjectConfig.saveCrawlProject(currentCrawlProject);
 					dbmsManager.disconnect();
+					currentCrawlProject = null;
+					supervisor = null;
 				}
 
-				// Load the new project
-				currentCrawlProject = LoadCrawlProjectConfig.loadCrawlProject(projectName);
-				KeywordManager.setKeywordMap(currentCrawlProject.getKeywordMap());
-				dbmsManager.connect(currentCrawlProject.getName(), config.getCacheSizeOfDbms());
-				dbmsManager.init();
-				supervisor = new Supervisor(ApplicationModel.this, currentCrawlProject);
+				// Load the new project (or the previous one if the new can't be opened)
+				if (!openCrawlProject(projectName)) {
+					ApplicationModel.this.notify(IPropertyName.ERROR, I18nUtil.getMessage("error.openProject") + " \""
+							+ projectName + "\"");
+					if (previousProjectName != null && !previousProjectName.equals(projectName)) {
+						openCrawlProject(previousProjectName);
+					}
+				}
 
 				// Notify
-				ApplicationModel.this.notify(IPropertyName.PROCESSING, I18nUtil.getMessage("processing.init"));
-				ApplicationModel.this.notify(IPropertyName.LAUNCHED_THREADS, 0);
-				ApplicationModel.this.notify(IPropertyName.SITES_PAGES_NUMBER, null);
-				ApplicationModel.this.notify(IPropertyName.PROJECT_LOADED, currentCrawlProject);
+				if (currentCrawlProject != null) {
+					ApplicationModel.this.notify(IPropertyName.PROCESSING, I18nUtil.getMessage("processing.init"));
+					ApplicationModel.this.notify(IPropertyName.LAUNCHED_THREADS, 0);
+					ApplicationModel.this.notify(IPropertyName.SITES_PAGES_NUMBER, dbmsManager.getCrawlCounters()
+							.getSnapshot());
+					ApplicationModel.this.notify(IPropertyName.PROJECT_LOADED, currentCrawlProject);
+				}
 				ApplicationModel.this.notify(IPropertyName.LOADED, null);
 			}
 		}, "Loading").start();
 	}
 
+	/**
+	 * Open a crawl project : connect to its database, upgrade the tables and
+	 * create the supervisor (nothing is opened if the tables can't be upgraded)
+	 * @param projectName the name of the crawl project
+	 * @return true if the project is opened, false otherwise
+	 */
+	private boolean openCrawlProject(String projectName) {
+		DbmsManager dbmsManager = DbmsManager.get();
+		CrawlProject crawlProject = LoadCrawlProjectConfig.loadCrawlProject(projectName);
+		dbmsManager.connect(crawlProject.getName(), config.getCacheSizeOfDbms());
+		if (!dbmsManager.init()) {
+			dbmsManager.disconnect();
+			return false;
+		}
+
+		currentCrawlProject = crawlProject;
+		KeywordManager.setKeywordMap(currentCrawlProject.getKeywordMap());
+		dbmsManager.initSeenLinkFilter(config.getSeenLinkFilterSize());
+		dbmsManager.initCrawlCounters();
+		supervisor = new Supervisor(this, currentCrawlProject);
+		return true;
+	}
+
 	/**
 	 * Delete a crawl project
 	 * @param projectName the name of the crawl project
@@ -208,7 +250,8 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 			@Override
 			public void run() {
 				DbmsManager.get().clearTables();
-				ApplicationModel.this.notify(IPropertyName.SITES_PAGES_NUMBER, null);
+				ApplicationModel.this.notify(IPropertyName.SITES_PAGES_NUMBER, DbmsManager.get().getCrawlCounters()
+						.getSnapshot());
 				ApplicationModel.this.notify(IPropertyName.PROJECT_LOADED, currentCrawlProject);
 				ApplicationModel.this.notify(IPropertyName.LOADED, null);
 			}
@@ -227,6 +270,7 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 		if (supervisor.isStarted()) {
 			supervisor.launchCrawlThread();
 		}
+		supervisor.reloadFoundPages();
 		supervisor.setRemainingCrawlNumber(crawlConfig.getRemainingCrawlNumber());
 	}
 
@@ -256,6 +300,9 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 					siteDao.endTransaction();
 					
 					currentCrawlProject.setBlacklistDomains(blacklistDomains);
+					DbmsManager.get().initCrawlCounters();
+					ApplicationModel.this.notify(IPropertyName.SITES_PAGES_NUMBER, DbmsManager.get()
+							.getCrawlCounters().getSnapshot());
 				}
 
 				// Recalculate score
@@ -263,7 +310,7 @@ public final class ApplicationModel extends SwingPropertyChangeModel {
 					ApplicationModel.this.notify(IPropertyName.LOADING,
 							I18nUtil.getMessage("loading.recalculateScores.step1"));
 					KeywordManager.setKeywordMap(keywordMap);
-					KeywordManager.recalculateAllPages(ApplicationModel.this);
+					KeywordManager.recalculateAllPages(ApplicationModel.this, currentCrawlProject.getKeywordMap());
 					currentCrawlProject.setKeywordMap(keywordMap);
 				}
 
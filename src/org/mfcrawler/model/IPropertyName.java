@@ -40,6 +40,7 @@ public interface IPropertyName {
 	String CRAWL_THREAD_INFO = "crawlThreadInfo";
 	String SITES_PAGES_NUMBER = "sitesPagesNumber";
 	String REMAINING_CRAWL_NUMBER = "remainingCrawlNumber";
+	String QUEUE_DEPTHS = "queueDepths";
 
 	// Filters Panel
 	String ADD_BLACKLIST_DOMAIN = "addBlacklistDomain";
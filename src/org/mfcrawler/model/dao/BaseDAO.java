@@ -18,10 +18,13 @@
 package org.mfcrawler.model.dao;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -39,6 +42,25 @@ public class BaseDAO {
 	 */
 	private static Map<Connection, Boolean> errorConnectionMap = new HashMap<Connection, Boolean>();
 
+	/**
+	 * Maximum number of prepared statements cached for a connection (the
+	 * least recently used statement is closed)
+	 */
+	private static final int STATEMENT_CACHE_SIZE = 64;
+
+	/**
+	 * Prepared statements cached by SQL query for each connection. The cache
+	 * is held by thread : a cached statement is only used by the thread which
+	 * has prepared it (the main connection is shared between threads).
+	 */
+	private static final ThreadLocal<Map<Connection, Map<String, PreparedStatement>>> statementCache =
+			new ThreadLocal<Map<Connection, Map<String, PreparedStatement>>>() {
+		@Override
+		protected Map<Connection, Map<String, PreparedStatement>> initialValue() {
+			return new HashMap<Connection, Map<String, PreparedStatement>>();
+		}
+	};
+
 	/**
 	 * A connection to the database
 	 */
@@ -75,12 +97,15 @@ public class BaseDAO {
 	/**
 	 * End transaction, commit or rollback the transaction if errors have
 	 * occurred then set the autoCommit to true
+	 * @return true if the transaction has been committed
 	 */
-	public void endTransaction() {
+	public boolean endTransaction() {
+		boolean committed = false;
 		try {
 			Boolean error = errorConnectionMap.get(connection);
 			if (error != null && error.equals(Boolean.FALSE)) {
 				connection.commit();
+				committed = true;
 			} else {
 				Logger.getLogger(BaseDAO.class.getName()).log(Level.WARNING, "Rollback transaction");
 				connection.rollback();
@@ -88,6 +113,66 @@ public class BaseDAO {
 			connection.setAutoCommit(true);
 		} catch (SQLException e) {
 			Logger.getLogger(BaseDAO.class.getName()).log(Level.SEVERE, "Error to end transaction", e);
+			committed = false;
+		}
+		return committed;
+	}
+
+	/**
+	 * Returns the prepared statement of the SQL query (prepared once per
+	 * connection then reused, so it mustn't be kept after its close)
+	 * @param sql the SQL query (the dynamic queries are cached by shape)
+	 * @return the prepared statement
+	 * @throws SQLException
+	 */
+	protected PreparedStatement getPreparedStatement(String sql) throws SQLException {
+		Map<String, PreparedStatement> connectionCache = getStatementCache();
+		PreparedStatement preStatement = connectionCache.get(sql);
+		if (preStatement == null || preStatement.isClosed()) {
+			preStatement = connection.prepareStatement(sql);
+			connectionCache.put(sql, preStatement);
+		}
+		return preStatement;
+	}
+
+	/**
+	 * Returns the statement cache of the connection for the current thread
+	 * @return the statement cache
+	 */
+	private Map<String, PreparedStatement> getStatementCache() {
+		Map<String, PreparedStatement> connectionCache = statementCache.get().get(connection);
+		if (connectionCache == null) {
+			removeClosedConnections();
+			connectionCache = new LinkedHashMap<String, PreparedStatement>(STATEMENT_CACHE_SIZE, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+					if (size() > STATEMENT_CACHE_SIZE) {
+						closeStatement(eldest.getValue());
+						return true;
+					}
+					return false;
+				}
+			};
+			statementCache.get().put(connection, connectionCache);
+		}
+		return connectionCache;
+	}
+
+	/**
+	 * Removes the caches of the closed connections (for the current thread)
+	 */
+	private static void removeClosedConnections() {
+		Iterator<Connection> connectionIterator = statementCache.get().keySet().iterator();
+		while (connectionIterator.hasNext()) {
+			try {
+				if (connectionIterator.next().isClosed()) {
+					connectionIterator.remove();
+				}
+			} catch (SQLException e) {
+				connectionIterator.remove();
+			}
 		}
 	}
 
@@ -99,10 +184,32 @@ public class BaseDAO {
 	}
 
 	/**
-	 * Close the statement passed in parameter (catch SQL Exception)
+	 * Close the statement passed in parameter (catch SQL Exception), a cached
+	 * statement is only cleared to be reused
 	 * @param statement the statement
 	 */
 	public void close(Statement statement) {
+		Map<String, PreparedStatement> connectionCache = statementCache.get().get(connection);
+		if (statement != null && connectionCache != null && connectionCache.containsValue(statement)) {
+			try {
+				PreparedStatement preStatement = (PreparedStatement) statement;
+				preStatement.clearParameters();
+				preStatement.clearBatch();
+			} catch (SQLException e) {
+				Logger.getLogger(BaseDAO.class.getName()).log(Level.WARNING, "Error to clear cached statement", e);
+				connectionCache.values().remove(statement);
+				closeStatement(statement);
+			}
+		} else {
+			closeStatement(statement);
+		}
+	}
+
+	/**
+	 * Close the statement (catch SQL Exception)
+	 * @param statement the statement
+	 */
+	private static void closeStatement(Statement statement) {
 		try {
 			if (statement != null && !statement.isClosed()) {
 				statement.close();
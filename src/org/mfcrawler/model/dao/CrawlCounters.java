@@ -0,0 +1,153 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.dao;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mfcrawler.model.pojo.crawl.CrawlStatistics;
+import org.mfcrawler.model.pojo.site.Page;
+
+/**
+ * Counters of the sites and pages saved in database, seeded once from the
+ * database then updated when the crawled pages are saved (so the monitoring
+ * doesn't count the tables). The pages of the blacklisted sites aren't counted
+ * when the counters are seeded ; the found pages of a site blacklisted during
+ * the crawl stay counted until the next seeding.
+ * 
+ * @author lbertelo
+ */
+public class CrawlCounters {
+
+	/**
+	 * Domains of the crawled sites
+	 */
+	private final Set<String> crawledDomains = Collections
+			.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/**
+	 * Number of crawled pages
+	 */
+	private final AtomicInteger crawledPagesNumber = new AtomicInteger();
+
+	/**
+	 * Number of found pages not crawled yet
+	 */
+	private final AtomicInteger foundPagesNumber = new AtomicInteger();
+
+	/**
+	 * Number of pages in error
+	 */
+	private final AtomicInteger errorPagesNumber = new AtomicInteger();
+
+	/**
+	 * Number of redirect pages (without error)
+	 */
+	private final AtomicInteger redirectPagesNumber = new AtomicInteger();
+
+	/**
+	 * Number of crawled pages whose content is truncated
+	 */
+	private final AtomicInteger truncatedPagesNumber = new AtomicInteger();
+
+	/**
+	 * Adds the domain of a crawled site
+	 * @param domain the name of the domain
+	 */
+	public void addCrawledDomain(String domain) {
+		crawledDomains.add(domain);
+	}
+
+	/**
+	 * Adds numbers of pages to the counters (to seed them)
+	 * @param crawledPages the number of crawled pages
+	 * @param foundPages the number of found pages not crawled yet
+	 * @param errorPages the number of pages in error
+	 * @param redirectPages the number of redirect pages
+	 * @param truncatedPages the number of truncated pages
+	 */
+	public void addPagesNumbers(int crawledPages, int foundPages, int errorPages, int redirectPages,
+			int truncatedPages) {
+		crawledPagesNumber.addAndGet(crawledPages);
+		foundPagesNumber.addAndGet(foundPages);
+		errorPagesNumber.addAndGet(errorPages);
+		redirectPagesNumber.addAndGet(redirectPages);
+		truncatedPagesNumber.addAndGet(truncatedPages);
+	}
+
+	/**
+	 * Adds found pages inserted in database
+	 * @param newPagesNumber the number of inserted pages
+	 */
+	public void addFoundPages(int newPagesNumber) {
+		foundPagesNumber.addAndGet(newPagesNumber);
+	}
+
+	/**
+	 * Updates the counters with the new state of a crawled page
+	 * @param previousPage the state of the page before the crawl
+	 * @param crawledPage the crawled page
+	 */
+	public void updateCrawledPage(Page previousPage, Page crawledPage) {
+		if (previousPage.getCrawlTime() == null) {
+			crawledPagesNumber.incrementAndGet();
+			foundPagesNumber.decrementAndGet();
+		}
+		crawledDomains.add(crawledPage.getLink().getDomain().getName());
+
+		update(errorPagesNumber, previousPage.getCrawlError() != null, crawledPage.getCrawlError() != null);
+		update(redirectPagesNumber, isRedirect(previousPage), isRedirect(crawledPage));
+		update(truncatedPagesNumber, previousPage.getTruncation() != null, crawledPage.getTruncation() != null);
+	}
+
+	/**
+	 * Return a snapshot of the counters
+	 * @return the crawl statistics
+	 */
+	public CrawlStatistics getSnapshot() {
+		return new CrawlStatistics(crawledDomains.size(), crawledPagesNumber.get(), foundPagesNumber.get(),
+				errorPagesNumber.get(), redirectPagesNumber.get(), truncatedPagesNumber.get());
+	}
+
+	/**
+	 * Updates a counter when a page enters or leaves the counted state
+	 * @param counter the counter
+	 * @param previouslyCounted true if the previous state of the page is
+	 *            counted
+	 * @param counted true if the new state of the page is counted
+	 */
+	private static void update(AtomicInteger counter, boolean previouslyCounted, boolean counted) {
+		if (counted && !previouslyCounted) {
+			counter.incrementAndGet();
+		} else if (previouslyCounted && !counted) {
+			counter.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Indicates if a page is a redirect page (and not an error)
+	 * @param page the page
+	 * @return true if the page is a redirect page
+	 */
+	private static boolean isRedirect(Page page) {
+		return Boolean.TRUE.equals(page.getRedirectPage()) && page.getCrawlError() == null;
+	}
+
+}
@@ -17,11 +17,13 @@
 
 package org.mfcrawler.model.dao;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,6 +69,11 @@ public final class DbmsManager {
 	 */
 	private static final int VALID_CONNECTION_TIME_OUT = 5_000;
 
+	/**
+	 * Suffix of the backup of the tables made before an upgrade
+	 */
+	private static final String UPGRADE_BACKUP_SUFFIX = ".upgrade.zip";
+
 	/**
 	 * Singleton instance
 	 */
@@ -87,6 +94,21 @@ public final class DbmsManager {
 	 */
 	private JdbcConnectionPool connectionPool;
 
+	/**
+	 * Filter of the links saved in the page table (null if not initialized)
+	 */
+	private volatile SeenLinkFilter seenLinkFilter;
+
+	/**
+	 * Counters of the sites and pages in database (empty if not initialized)
+	 */
+	private volatile CrawlCounters crawlCounters = new CrawlCounters();
+
+	/**
+	 * Cache of the compiled robots.txt rules
+	 */
+	private final RobotRulesCache robotRulesCache = new RobotRulesCache();
+
 	/**
 	 * Private constructor for Singleton, fetch the JDBC Driver
 	 */
@@ -131,12 +153,61 @@ public final class DbmsManager {
 	/**
 	 * Initializes the DbmsManager by checking and creating tables, and testing
 	 * the connection
+	 * @return true if the tables are ready, false if their upgrade failed (the
+	 *         database mustn't be used)
 	 */
-	public void init() {
+	public boolean init() {
+		boolean ready = true;
 		if (!checkTables()) {
 			createTables();
+		} else {
+			ready = upgradeTables();
 		}
 		testConnection();
+		return ready;
+	}
+
+	/**
+	 * Builds the filter of the links saved in the page table
+	 * @param memorySize the memory size of the filter (in Mo)
+	 */
+	public void initSeenLinkFilter(int memorySize) {
+		SeenLinkFilter filter = new SeenLinkFilter(memorySize);
+		new PageDAO().addAllLinks(filter);
+		seenLinkFilter = filter;
+	}
+
+	/**
+	 * Seeds the counters of the sites and pages from the database
+	 */
+	public void initCrawlCounters() {
+		CrawlCounters counters = new CrawlCounters();
+		new PageDAO().addPagesNumbers(counters);
+		crawlCounters = counters;
+	}
+
+	/**
+	 * Return the counters of the sites and pages in database
+	 * @return the crawl counters
+	 */
+	public CrawlCounters getCrawlCounters() {
+		return crawlCounters;
+	}
+
+	/**
+	 * Return the filter of the links saved in the page table
+	 * @return the seen link filter (null if not initialized)
+	 */
+	public SeenLinkFilter getSeenLinkFilter() {
+		return seenLinkFilter;
+	}
+
+	/**
+	 * Return the cache of the compiled robots.txt rules
+	 * @return the robot rules cache
+	 */
+	public RobotRulesCache getRobotRulesCache() {
+		return robotRulesCache;
 	}
 
 	/**
@@ -198,12 +269,151 @@ public final class DbmsManager {
 		}
 	}
 
+	/**
+	 * Upgrade the tables created by a previous version (add the new columns,
+	 * number the pages if the links are still keyed by URL, encode the
+	 * contents saved as text, then move them to the content table). Each
+	 * migration runs in a transaction, and as H2 commits the structure changes,
+	 * the tables are saved before and restored if a migration fails (or was
+	 * interrupted)
+	 * @return true if the tables are upgraded, false otherwise
+	 */
+	private boolean upgradeTables() {
+		File backupFile = new File(dbname + UPGRADE_BACKUP_SUFFIX);
+		if (backupFile.exists()) {
+			Logger.getLogger(DbmsManager.class.getName()).log(Level.WARNING, "Restore tables of interrupted upgrade");
+			if (!restoreTables(backupFile)) {
+				return false;
+			}
+		}
+
+		boolean upgraded = false;
+		try {
+			Statement statement = mainConnection.createStatement();
+			executeQueries(statement, PageDAO.getSqlTablesUpgrade());
+
+			boolean pageIdsUpgrade = (getColumnType(ITablesVocabulary.TABLE_LINK, ITablesVocabulary.SOURCE_ID) == null);
+			Integer contentType = getColumnType(ITablesVocabulary.TABLE_PAGE, ITablesVocabulary.CONTENT);
+			if (pageIdsUpgrade || contentType != null) {
+				statement.execute("SCRIPT TO '" + toSqlString(backupFile) + "' COMPRESSION ZIP");
+			}
+
+			if (pageIdsUpgrade) {
+				Logger.getLogger(DbmsManager.class.getName()).log(Level.INFO, "Upgrade tables to page ids");
+				mainConnection.setAutoCommit(false);
+				executeQueries(statement, PageDAO.getSqlPageIdsUpgrade());
+				mainConnection.commit();
+			}
+
+			if (contentType != null && contentType == Types.CLOB) {
+				Logger.getLogger(DbmsManager.class.getName()).log(Level.INFO, "Upgrade tables to encoded contents");
+				mainConnection.setAutoCommit(false);
+				new PageDAO(mainConnection).upgradeContents();
+				mainConnection.commit();
+			}
+
+			if (contentType != null) {
+				Logger.getLogger(DbmsManager.class.getName()).log(Level.INFO, "Upgrade tables to page contents");
+				mainConnection.setAutoCommit(false);
+				executeQueries(statement, PageDAO.getSqlPageContentUpgrade());
+				mainConnection.commit();
+			}
+			mainConnection.setAutoCommit(true);
+			statement.close();
+			upgraded = true;
+		} catch (SQLException e) {
+			Logger.getLogger(DbmsManager.class.getName()).log(Level.SEVERE, "Error to upgrade tables", e);
+			try {
+				mainConnection.rollback();
+				mainConnection.setAutoCommit(true);
+			} catch (SQLException e2) {
+				Logger.getLogger(DbmsManager.class.getName()).log(Level.SEVERE, "Error to rollback upgrade", e2);
+			}
+			if (backupFile.exists()) {
+				restoreTables(backupFile);
+			}
+		}
+
+		if (upgraded && backupFile.exists() && !backupFile.delete()) {
+			Logger.getLogger(DbmsManager.class.getName()).log(Level.WARNING, "Error to delete upgrade backup");
+			upgraded = false;
+		}
+		return upgraded;
+	}
+
+	/**
+	 * Restores the tables saved before an upgrade, then deletes the backup
+	 * (kept if the restoration fails)
+	 * @param backupFile the backup of the tables
+	 * @return true if the tables are restored, false otherwise
+	 */
+	private boolean restoreTables(File backupFile) {
+		boolean restored = false;
+		try {
+			Statement statement = mainConnection.createStatement();
+			statement.execute("DROP ALL OBJECTS");
+			statement.execute("RUNSCRIPT FROM '" + toSqlString(backupFile) + "' COMPRESSION ZIP");
+			statement.close();
+			restored = backupFile.delete();
+		} catch (SQLException e) {
+			Logger.getLogger(DbmsManager.class.getName()).log(Level.SEVERE,
+					"Error to restore tables from " + backupFile.getPath(), e);
+		}
+		return restored;
+	}
+
+	/**
+	 * Return the path of a file as the content of a SQL string
+	 * @param file the file
+	 * @return the path with the quotes doubled
+	 */
+	private static String toSqlString(File file) {
+		return file.getPath().replace("'", "''");
+	}
+
+	/**
+	 * Executes the SQL queries separated by ";"
+	 * @param statement the statement
+	 * @param sqlQueries the SQL queries
+	 * @throws SQLException
+	 */
+	private static void executeQueries(Statement statement, String sqlQueries) throws SQLException {
+		String[] sqlTab = sqlQueries.trim().split(";");
+		for (int i = 0; i < sqlTab.length; i++) {
+			statement.execute(sqlTab[i]);
+		}
+	}
+
+	/**
+	 * Return the SQL type of a column
+	 * @param table the table name
+	 * @param column the column name
+	 * @return the SQL type (see java.sql.Types), null if the column doesn't
+	 *         exist
+	 * @throws SQLException
+	 */
+	private Integer getColumnType(String table, String column) throws SQLException {
+		ResultSet result = mainConnection.getMetaData().getColumns(null, null, table, column);
+		Integer columnType = null;
+		if (result.next()) {
+			columnType = result.getInt("DATA_TYPE");
+		}
+		result.close();
+		return columnType;
+	}
+
 	/**
 	 * Clears the tables by dropping then creating tables
 	 */
 	public void clearTables() {
 		dropTables();
 		createTables();
+
+		if (seenLinkFilter != null) {
+			seenLinkFilter = new SeenLinkFilter(seenLinkFilter.getMemorySize());
+		}
+		crawlCounters = new CrawlCounters();
+		robotRulesCache.clear();
 	}
 
 	/**
@@ -254,6 +464,9 @@ public final class DbmsManager {
 	 * connection pool)
 	 */
 	public void disconnect() {
+		seenLinkFilter = null;
+		robotRulesCache.clear();
+
 		try {
 			if (mainConnection != null && !mainConnection.isClosed()) {
 				mainConnection.close();
@@ -31,6 +31,8 @@ public interface ITablesVocabulary {
 	String PROTOCOL = "PROTOCOL";
 	String TITLE = "TITLE";
 	String CONTENT = "CONTENT";
+	String ENCODED_CONTENT = "ENCODED_CONTENT";
+	String TERM_VECTOR = "TERM_VECTOR";
 	String SCORE = "SCORE";
 	String INNER_DEEP = "INNER_DEEP";
 	String OUTER_DEEP = "OUTER_DEEP";
@@ -39,10 +41,20 @@ public interface ITablesVocabulary {
 	String REDIRECT_PAGE = "REDIRECT_PAGE";
 	String CRAWL_NOW = "CRAWL_NOW";
 	String CRAWL_ERROR = "CRAWL_ERROR";
+	String TRUNCATION = "TRUNCATION";
+	String ETAG = "ETAG";
+	String LAST_MODIFIED = "LAST_MODIFIED";
+	String CONTENT_DIGEST = "CONTENT_DIGEST";
 	String INCOMING_INTERN_LINKS_NUMBER = "INCOMING_INTERN_LINKS_NUMBER";
 	String INCOMING_EXTERN_LINKS_NUMBER = "INCOMING_EXTERN_LINKS_NUMBER";
 	String OUTGOING_INTERN_LINKS_NUMBER = "OUTGOING_INTERN_LINKS_NUMBER";
 	String OUTGOING_EXTERN_LINKS_NUMBER = "OUTGOING_EXTERN_LINKS_NUMBER";
+	String PAGE_ID = "PAGE_ID";
+	String SOURCE_ID = "SOURCE_ID";
+	String TARGET_ID = "TARGET_ID";
+
+	String TABLE_PAGE_CONTENT = "PAGE_CONTENT";
+	String TABLE_PAGE_CONTENT_P = TABLE_PAGE_CONTENT + ".";
 
 	String TABLE_LINK = "LINK";
 	String TABLE_LINK_P = TABLE_LINK + ".";
@@ -17,9 +17,12 @@
 
 package org.mfcrawler.model.dao;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -161,6 +164,39 @@ public class JdbcTools {
 		}
 	}
 
+	/**
+	 * Get bytes from resultSet (read Blob)
+	 * @param result the resultSet
+	 * @param columnLabel the column label
+	 * @return the bytes or null
+	 * @throws SQLException
+	 */
+	public static byte[] getBlob(ResultSet result, String columnLabel) throws SQLException {
+		Blob blob = result.getBlob(columnLabel);
+
+		if (result.wasNull()) {
+			return null;
+		} else {
+			byte[] bytes = new byte[(int) blob.length()];
+			try {
+				InputStream inputStream = blob.getBinaryStream();
+				int offset = 0;
+				int readSize = 0;
+
+				while (offset < bytes.length && readSize >= 0) {
+					readSize = inputStream.read(bytes, offset, bytes.length - offset);
+					offset += Math.max(readSize, 0);
+				}
+
+				inputStream.close();
+			} catch (IOException e) {
+				Logger.getLogger(JdbcTools.class.getName()).log(Level.SEVERE, "Error to get Blob", e);
+			}
+
+			return bytes;
+		}
+	}
+
 	// Setter to PreparedStatement
 
 	/**
@@ -275,4 +311,19 @@ public class JdbcTools {
 		}
 	}
 
+	/**
+	 * Set a Blob in the prepared statement
+	 * @param preStatement the prepared statement
+	 * @param parameterIndex the parameter index
+	 * @param value the bytes or null
+	 * @throws SQLException
+	 */
+	public static void setBlob(PreparedStatement preStatement, int parameterIndex, byte[] value) throws SQLException {
+		if (value == null) {
+			preStatement.setNull(parameterIndex, Types.BLOB);
+		} else {
+			preStatement.setBlob(parameterIndex, new ByteArrayInputStream(value), value.length);
+		}
+	}
+
 }
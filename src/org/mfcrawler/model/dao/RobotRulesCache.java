@@ -0,0 +1,101 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.mfcrawler.model.pojo.site.RobotRules;
+import org.mfcrawler.model.pojo.site.link.Domain;
+
+/**
+ * LRU cache of the compiled robots.txt rules by domain, shared by all the
+ * DAO. The rules of a domain are removed when its robots.txt is updated, and
+ * they are only used if they come from the last crawl of robots.txt.
+ * 
+ * @author lbertelo
+ */
+public class RobotRulesCache {
+
+	/**
+	 * Maximum number of domains in the cache (the least recently used rules
+	 * are removed)
+	 */
+	private static final int MAX_SIZE = 4096;
+
+	/**
+	 * Rules by domain
+	 */
+	private final Map<Domain, RobotRules> rulesMap;
+
+	/**
+	 * Default constructor
+	 */
+	public RobotRulesCache() {
+		rulesMap = new LinkedHashMap<Domain, RobotRules>(MAX_SIZE, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Domain, RobotRules> eldest) {
+				return size() > MAX_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Returns the rules of a domain
+	 * @param domain the domain
+	 * @param crawlTime the time of the last crawl of robots.txt (in
+	 *            milliseconds)
+	 * @return the rules or null if they aren't in the cache (or come from a
+	 *         previous crawl)
+	 */
+	public synchronized RobotRules get(Domain domain, long crawlTime) {
+		RobotRules robotRules = rulesMap.get(domain);
+		if (robotRules != null && robotRules.getCrawlTime() != crawlTime) {
+			rulesMap.remove(domain);
+			robotRules = null;
+		}
+		return robotRules;
+	}
+
+	/**
+	 * Adds the rules of a domain
+	 * @param domain the domain
+	 * @param robotRules the rules
+	 */
+	public synchronized void put(Domain domain, RobotRules robotRules) {
+		rulesMap.put(domain, robotRules);
+	}
+
+	/**
+	 * Removes the rules of a domain
+	 * @param domain the domain
+	 */
+	public synchronized void remove(Domain domain) {
+		rulesMap.remove(domain);
+	}
+
+	/**
+	 * Removes all the rules
+	 */
+	public synchronized void clear() {
+		rulesMap.clear();
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * Bloom filter of the links saved in the page table. It never gives a false
+ * negative : a link unknown by the filter isn't in the database, so it can be
+ * inserted without selecting it first. A link known by the filter may be in
+ * the database (false positives are possible), it must be selected.
+ * 
+ * @author lbertelo
+ */
+public class SeenLinkFilter {
+
+	/**
+	 * Number of hash functions (about 1% of false positives with 10 bits by
+	 * link)
+	 */
+	private static final int HASH_NUMBER = 7;
+
+	/**
+	 * Number of bits in a Mo
+	 */
+	private static final long BITS_BY_MO = 8L * 1024 * 1024;
+
+	/**
+	 * FNV-1a offset basis
+	 */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a prime
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Array of bits
+	 */
+	private final AtomicLongArray bits;
+
+	/**
+	 * Number of bits
+	 */
+	private final long bitNumber;
+
+	/**
+	 * Memory size (in Mo)
+	 */
+	private final int memorySize;
+
+	/**
+	 * Number of links added to the filter (approximately : the links whose
+	 * bits were all set already are not counted)
+	 */
+	private final AtomicLong linkNumber;
+
+	/**
+	 * Default constructor
+	 * @param memorySize the memory size of the filter (in Mo)
+	 */
+	public SeenLinkFilter(int memorySize) {
+		this.memorySize = memorySize;
+		bitNumber = memorySize * BITS_BY_MO;
+		bits = new AtomicLongArray((int) (bitNumber / Long.SIZE));
+		linkNumber = new AtomicLong();
+	}
+
+	/**
+	 * Getter of memory size
+	 * @return the memory size of the filter (in Mo)
+	 */
+	public int getMemorySize() {
+		return memorySize;
+	}
+
+	/**
+	 * Getter of link number
+	 * @return the approximate number of links added to the filter
+	 */
+	public long getLinkNumber() {
+		return linkNumber.get();
+	}
+
+	/**
+	 * Return the expected rate of false positives with the current number of
+	 * links
+	 * @return the false positive rate (between 0 and 1)
+	 */
+	public double getFalsePositiveRate() {
+		double exponent = -(double) HASH_NUMBER * linkNumber.get() / bitNumber;
+		return Math.pow(1 - Math.exp(exponent), HASH_NUMBER);
+	}
+
+	/**
+	 * Add a link to the filter
+	 * @param link the link
+	 */
+	public void add(Link link) {
+		add(link.getLinkPath().getProtocol(), link.getDomain().getName(), link.getLinkPath().getPath());
+	}
+
+	/**
+	 * Add a link to the filter
+	 * @param protocol the protocol of the link
+	 * @param domain the domain name of the link
+	 * @param path the path of the link
+	 */
+	public void add(String protocol, String domain, String path) {
+		long hash1 = hash(protocol, domain, path);
+		long hash2 = mix(hash1);
+		boolean changed = false;
+
+		for (int i = 0; i < HASH_NUMBER; i++) {
+			long bitIndex = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitNumber;
+			int wordIndex = (int) (bitIndex >>> 6);
+			long mask = 1L << bitIndex;
+
+			long word = bits.get(wordIndex);
+			while ((word & mask) == 0) {
+				if (bits.compareAndSet(wordIndex, word, word | mask)) {
+					changed = true;
+					break;
+				}
+				word = bits.get(wordIndex);
+			}
+		}
+
+		if (changed) {
+			linkNumber.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Indicates if the link may have been added to the filter
+	 * @param link the link
+	 * @return false if the link has never been added, true if it may have been
+	 */
+	public boolean mightContain(Link link) {
+		long hash1 = hash(link.getLinkPath().getProtocol(), link.getDomain().getName(), link.getLinkPath().getPath());
+		long hash2 = mix(hash1);
+
+		for (int i = 0; i < HASH_NUMBER; i++) {
+			long bitIndex = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitNumber;
+			if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the 64 bits FNV-1a hash of a link
+	 * @param protocol the protocol of the link
+	 * @param domain the domain name of the link
+	 * @param path the path of the link
+	 * @return the hash
+	 */
+	private static long hash(String protocol, String domain, String path) {
+		long hash = FNV_OFFSET_BASIS;
+		hash = hash(hash, protocol);
+		hash = hash(hash, domain);
+		hash = hash(hash, path);
+		return hash;
+	}
+
+	/**
+	 * Continues a FNV-1a hash with a string (followed by a separator)
+	 * @param hash the current hash
+	 * @param value the string
+	 * @return the new hash
+	 */
+	private static long hash(long hash, String value) {
+		if (value != null) {
+			for (int i = 0; i < value.length(); i++) {
+				hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+			}
+		}
+		return (hash ^ 0xFFFF) * FNV_PRIME;
+	}
+
+	/**
+	 * Derives a second hash (never zero, so that the positions of a link are
+	 * distinct) with the finalizer of MurmurHash3
+	 * @param hash the first hash
+	 * @return the second hash
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash | 1;
+	}
+
+}
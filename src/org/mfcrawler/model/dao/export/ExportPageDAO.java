@@ -44,8 +44,8 @@ public class ExportPageDAO extends BaseDAO implements IPageQueryList {
 	/**
 	 * Query which selects pages to export
 	 */
-	private static final String EXPORT_PAGE_LIST_START = " SELECT * FROM " + TABLE_PAGE + " WHERE " + CONTENT
-			+ " IS NOT NULL ";
+	private static final String EXPORT_PAGE_LIST_START = " SELECT " + TABLE_PAGE_P + "* " + JOIN_PAGE_CONTENT
+			+ " WHERE " + CONTENT + " IS NOT NULL ";
 
 	/**
 	 * Selects pages to export : extension for domains
@@ -65,34 +65,31 @@ public class ExportPageDAO extends BaseDAO implements IPageQueryList {
 	/**
 	 * Query which selects outgoing links to export
 	 */
-	private static final String EXPORT_EXTERN_LINKS_START = " SELECT " + LINK_DOMAIN + ", " + LINK_PATH + ", "
-			+ LINK_PROTOCOL + " FROM " + TABLE_LINK + " WHERE " + DOMAIN + " = ? AND " + PATH + " =  ? AND " + PROTOCOL
-			+ " = ? AND " + LINK_DOMAIN + " IN ( ";
+	private static final String EXPORT_EXTERN_LINKS_START = " SELECT " + TARGET_LINK_COLUMNS + " FROM " + TABLE_LINK
+			+ JOIN_TARGET_PAGE + " WHERE " + TABLE_LINK_P + SOURCE_ID + " = ( " + SELECT_PAGE_ID + " ) AND T." + DOMAIN
+			+ " IN ( ";
 
 	/**
 	 * "Order by" for query which selects outgoing links to export
 	 */
-	private static final String EXPORT_EXTERN_LINKS_ORDER = " ORDER BY " + LINK_DOMAIN + " ASC, " + LINK_PATH
-			+ " ASC, " + LINK_PROTOCOL;
+	private static final String EXPORT_EXTERN_LINKS_ORDER = " ORDER BY T." + DOMAIN + " ASC, T." + PATH
+			+ " ASC, T." + PROTOCOL;
 
 	/**
 	 * Query which selects source links
 	 */
-	private static final String EXPORT_SOURCE_LINKS = " SELECT " + PROTOCOL + ", " + DOMAIN + ", " + PATH + " FROM "
-			+ TABLE_PAGE + " WHERE " + CONTENT + " IS NOT NULL AND " + SCORE + " >= ? ORDER BY " + DOMAIN + " ASC, "
-			+ PATH + " ASC, " + PROTOCOL + " ASC ";
+	private static final String EXPORT_SOURCE_LINKS = " SELECT " + PROTOCOL + ", " + DOMAIN + ", " + PATH
+			+ JOIN_PAGE_CONTENT + " WHERE " + CONTENT + " IS NOT NULL AND " + SCORE + " >= ? ORDER BY " + DOMAIN
+			+ " ASC, " + PATH + " ASC, " + PROTOCOL + " ASC ";
 
 	/**
 	 * Query which selects target links
 	 */
-	private static final String EXPORT_TARGET_LINKS = " SELECT " + TABLE_LINK_P + LINK_PROTOCOL + ", " + TABLE_LINK_P
-			+ LINK_DOMAIN + ", " + TABLE_LINK_P + LINK_PATH + " FROM " + TABLE_LINK + " INNER JOIN " + TABLE_PAGE
-			+ " ON ( " + TABLE_PAGE_P + PROTOCOL + " = " + TABLE_LINK_P + LINK_PROTOCOL + " AND " + TABLE_PAGE_P
-			+ DOMAIN + " = " + TABLE_LINK_P + LINK_DOMAIN + " AND " + TABLE_PAGE_P + PATH + " = " + TABLE_LINK_P
-			+ LINK_PATH + " ) WHERE " + TABLE_PAGE_P + CONTENT + " IS NOT NULL AND " + TABLE_PAGE_P + SCORE
-			+ " >= ? AND " + TABLE_LINK_P + PROTOCOL + " = ? AND " + TABLE_LINK_P + DOMAIN + " = ? AND " + TABLE_LINK_P
-			+ PATH + " = ? ORDER BY " + TABLE_LINK_P + LINK_DOMAIN + " ASC, " + TABLE_LINK_P + LINK_PATH + " ASC, "
-			+ TABLE_LINK_P + LINK_PROTOCOL + " ASC ";
+	private static final String EXPORT_TARGET_LINKS = " SELECT " + TARGET_LINK_COLUMNS + " FROM " + TABLE_LINK
+			+ JOIN_TARGET_PAGE + " JOIN " + TABLE_PAGE_CONTENT + " ON ( " + TABLE_PAGE_CONTENT_P + PAGE_ID + " = T."
+			+ PAGE_ID + " ) WHERE " + CONTENT + " IS NOT NULL AND T." + SCORE + " >= ? AND " + TABLE_LINK_P
+			+ SOURCE_ID + " = ( " + SELECT_PAGE_ID + " ) ORDER BY T." + DOMAIN + " ASC, T." + PATH + " ASC, T."
+			+ PROTOCOL + " ASC ";
 
 	// Pages to export
 
@@ -125,7 +122,7 @@ public class ExportPageDAO extends BaseDAO implements IPageQueryList {
 			}
 
 			ResultSet result = preStatement.executeQuery();
-			pageIterator = new PageDbIterator(result, false);
+			pageIterator = new PageDbIterator(result);
 		} catch (SQLException e) {
 			Logger.getLogger(ExportPageDAO.class.getName()).log(Level.SEVERE, "Error to get page list to export", e);
 		}
@@ -148,7 +145,7 @@ public class ExportPageDAO extends BaseDAO implements IPageQueryList {
 			PreparedStatement preStatement = connection.prepareStatement(sql.toString());
 			JdbcTools.setDouble(preStatement, 1, minScore);
 			ResultSet result = preStatement.executeQuery();
-			pageIterator = new PageDbIterator(result, false);
+			pageIterator = new PageDbIterator(result);
 		} catch (SQLException e) {
 			Logger.getLogger(ExportPageDAO.class.getName()).log(Level.SEVERE, "Error to get page list to export", e);
 		}
@@ -239,9 +236,9 @@ public class ExportPageDAO extends BaseDAO implements IPageQueryList {
 		try {
 			preStatement = connection.prepareStatement(EXPORT_TARGET_LINKS);
 			JdbcTools.setDouble(preStatement, 1, minScore);
-			JdbcTools.setString(preStatement, 2, sourceLink.getLinkPath().getProtocol());
-			JdbcTools.setString(preStatement, 3, sourceLink.getDomain().getName());
-			JdbcTools.setString(preStatement, 4, sourceLink.getLinkPath().getPath());
+			JdbcTools.setString(preStatement, 2, sourceLink.getDomain().getName());
+			JdbcTools.setString(preStatement, 3, sourceLink.getLinkPath().getPath());
+			JdbcTools.setString(preStatement, 4, sourceLink.getLinkPath().getProtocol());
 
 			result = preStatement.executeQuery();
 			while (result.next()) {
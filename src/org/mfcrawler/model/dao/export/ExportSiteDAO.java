@@ -53,13 +53,13 @@ public class ExportSiteDAO extends BaseDAO implements ISiteQueryList {
 	/**
 	 * Query which selects target domains to export
 	 */
-	private static final String EXPORT_TARGET_DOMAINS_START = " SELECT " + LINK_DOMAIN + " FROM " + TABLE_LINK
-			+ " WHERE " + DOMAIN + " = ? AND " + DOMAIN + " <> " + LINK_DOMAIN + " AND " + LINK_DOMAIN + " IN ( ";
+	private static final String EXPORT_TARGET_DOMAINS_START = SELECT_DOMAIN_LINKS_START + " AND S." + DOMAIN
+			+ " = ? AND T." + DOMAIN + " IN ( ";
 
 	/**
 	 * "Order by" for query which selects target domains to export
 	 */
-	private static final String EXPORT_TARGET_DOMAINS_ORDER = " ORDER BY " + LINK_DOMAIN + " ASC ";
+	private static final String EXPORT_TARGET_DOMAINS_ORDER = " ORDER BY T." + DOMAIN + " ASC ";
 
 	/**
 	 * Select all sites allowed to export with a minimum total score
@@ -82,7 +82,7 @@ public class ExportSiteDAO extends BaseDAO implements ISiteQueryList {
 				Double totalScore = JdbcTools.getDouble(result, "totalScore");
 				Integer crawledPagesNumber = JdbcTools.getInteger(result, "crawledPagesNumber");
 
-				PreparedStatement preStatement2 = connection.prepareStatement(SELECT_SITE);
+				PreparedStatement preStatement2 = getPreparedStatement(SELECT_SITE);
 				JdbcTools.setString(preStatement2, 1, domain);
 				ResultSet result2 = preStatement2.executeQuery();
 				if (result2.next()) {
@@ -0,0 +1,69 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.dao.iterator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A iterator DAO for links identified by the rows of their pages
+ * 
+ * @author lbertelo
+ */
+public class LinkIdDbIterator extends DbIterator {
+
+	/**
+	 * Default constructor
+	 */
+	public LinkIdDbIterator() {
+		super();
+	}
+
+	/**
+	 * Constructor with a resultSet
+	 * @param resultSet the resultSet
+	 */
+	public LinkIdDbIterator(ResultSet resultSet) {
+		super(resultSet);
+	}
+
+	/**
+	 * Return the next link and move the cursor
+	 * @return the identifiers of the source page and the target page
+	 */
+	public long[] next() {
+		long[] linkIds = null;
+		try {
+			if (hasNext()) {
+				linkIds = new long[] { getResultSet().getLong(SOURCE_ID), getResultSet().getLong(TARGET_ID) };
+				setHasNext(getResultSet().next());
+				if (!hasNext()) {
+					getResultSet().close();
+				}
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(LinkIdDbIterator.class.getName()).log(Level.SEVERE, "Error to get next linkIdDb iterator",
+					e);
+		}
+		return linkIds;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.dao.iterator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.dao.JdbcTools;
+import org.mfcrawler.model.pojo.site.PageContent;
+
+/**
+ * A iterator DAO for page contents
+ * 
+ * @author lbertelo
+ */
+public class PageContentDbIterator extends DbIterator {
+
+	/**
+	 * Default constructor
+	 */
+	public PageContentDbIterator() {
+		super();
+	}
+
+	/**
+	 * Constructor with a resultSet
+	 * @param resultSet the resultSet
+	 */
+	public PageContentDbIterator(ResultSet resultSet) {
+		super(resultSet);
+	}
+
+	/**
+	 * Return the next page content and move the cursor
+	 * @return the page content
+	 */
+	public PageContent next() {
+		PageContent pageContent = null;
+		try {
+			if (hasNext()) {
+				pageContent = new PageContent(getResultSet().getLong(PAGE_ID), JdbcTools.getDouble(getResultSet(),
+						SCORE), JdbcTools.getBlob(getResultSet(), TERM_VECTOR), JdbcTools.getBlob(getResultSet(),
+						CONTENT));
+				setHasNext(getResultSet().next());
+				if (!hasNext()) {
+					getResultSet().close();
+				}
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageContentDbIterator.class.getName()).log(Level.SEVERE,
+					"Error to get next pageContentDb iterator", e);
+		}
+		return pageContent;
+	}
+
+}
@@ -33,9 +33,10 @@ import org.mfcrawler.model.pojo.site.Page;
 public class PageDbIterator extends DbIterator {
 
 	/**
-	 * Indicates if the iterator return the page with or without its content
+	 * DAO which selects the contents of the pages on their first access (null
+	 * if the pages are returned without their content)
 	 */
-	private boolean withContent;
+	private PageDAO contentDao;
 
 	/**
 	 * Default constructor
@@ -45,13 +46,23 @@ public class PageDbIterator extends DbIterator {
 	}
 
 	/**
-	 * Constructor with a resultSet
+	 * Constructor with a resultSet, the pages are returned without their
+	 * content
 	 * @param resultSet the resultSet
-	 * @param withContent indicates if the page is returned with the content
 	 */
-	public PageDbIterator(ResultSet resultSet, boolean withContent) {
+	public PageDbIterator(ResultSet resultSet) {
 		super(resultSet);
-		this.withContent = withContent;
+	}
+
+	/**
+	 * Constructor with a resultSet, the contents of the pages are selected on
+	 * their first access
+	 * @param resultSet the resultSet
+	 * @param contentDao the DAO which selects the contents
+	 */
+	public PageDbIterator(ResultSet resultSet, PageDAO contentDao) {
+		super(resultSet);
+		this.contentDao = contentDao;
 	}
 
 	/**
@@ -62,8 +73,8 @@ public class PageDbIterator extends DbIterator {
 		Page page = null;
 		try {
 			if (hasNext()) {
-				if (withContent) {
-					page = PageDAO.toPageWithContent(getResultSet());
+				if (contentDao != null) {
+					page = contentDao.toPageWithLazyContent(getResultSet());
 				} else {
 					page = PageDAO.toPageWithoutContent(getResultSet());
 				}
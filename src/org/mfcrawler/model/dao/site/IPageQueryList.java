@@ -28,54 +28,98 @@ public interface IPageQueryList extends ITablesVocabulary {
 
 	// Create and drop
 
-	String CREATE_TABLES = " CREATE TABLE " + TABLE_PAGE + " ( " + PROTOCOL + " VARCHAR(10) NOT NULL, " + DOMAIN
-			+ " VARCHAR(255) NOT NULL, " + PATH + " VARCHAR(2048) NOT NULL, " + TITLE + " VARCHAR(2048), " + CONTENT
-			+ " CLOB, " + SCORE + " DOUBLE, " + INNER_DEEP + " INTEGER NOT NULL, " + OUTER_DEEP + " INTEGER NOT NULL, "
-			+ CRAWL_TIME + " TIMESTAMP, " + ALLOW_CRAWL + " BOOLEAN, " + REDIRECT_PAGE + " BOOLEAN, " + CRAWL_NOW
-			+ " BOOLEAN, " + CRAWL_ERROR + " VARCHAR(10000), " + INCOMING_INTERN_LINKS_NUMBER + " INTEGER DEFAULT 0, "
+	String CREATE_TABLES = " CREATE TABLE " + TABLE_PAGE + " ( " + PAGE_ID + " BIGINT AUTO_INCREMENT NOT NULL, "
+			+ PROTOCOL + " VARCHAR(10) NOT NULL, " + DOMAIN + " VARCHAR(255) NOT NULL, " + PATH
+			+ " VARCHAR(2048) NOT NULL, " + TITLE + " VARCHAR(2048), " + SCORE + " DOUBLE, " + INNER_DEEP
+			+ " INTEGER NOT NULL, " + OUTER_DEEP + " INTEGER NOT NULL, " + CRAWL_TIME + " TIMESTAMP, " + ALLOW_CRAWL
+			+ " BOOLEAN, " + REDIRECT_PAGE + " BOOLEAN, " + CRAWL_NOW + " BOOLEAN, " + CRAWL_ERROR
+			+ " VARCHAR(10000), " + ETAG + " VARCHAR(255), " + LAST_MODIFIED + " VARCHAR(64), " + CONTENT_DIGEST
+			+ " VARCHAR(64), " + INCOMING_INTERN_LINKS_NUMBER + " INTEGER DEFAULT 0, "
 			+ INCOMING_EXTERN_LINKS_NUMBER + " INTEGER DEFAULT 0, " + OUTGOING_INTERN_LINKS_NUMBER
-			+ " INTEGER DEFAULT 0, " + OUTGOING_EXTERN_LINKS_NUMBER + " INTEGER DEFAULT 0, PRIMARY KEY ( " + DOMAIN
-			+ ", " + PATH + ", " + PROTOCOL + " ) ); "
+			+ " INTEGER DEFAULT 0, " + OUTGOING_EXTERN_LINKS_NUMBER + " INTEGER DEFAULT 0, "
+			+ "PRIMARY KEY ( " + PAGE_ID + " ) ); "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + DOMAIN + "_INDEX " + "ON " + TABLE_PAGE + " ( " + DOMAIN + " );  "
+			+ " CREATE UNIQUE INDEX " + TABLE_PAGE + "_LINK_INDEX " + "ON " + TABLE_PAGE + " ( " + DOMAIN + ", " + PATH
+			+ ", " + PROTOCOL + " );  "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + PATH + "_INDEX " + "ON " + TABLE_PAGE + " ( " + PATH + " );  "
+			+ " CREATE INDEX " + TABLE_PAGE + "_STATE_INDEX " + "ON " + TABLE_PAGE + " ( " + CRAWL_TIME + ", "
+			+ CRAWL_NOW + ", " + SCORE + " DESC );  "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + SCORE + "_INDEX " + "ON " + TABLE_PAGE + " ( " + SCORE + " );  "
+			+ " CREATE TABLE " + TABLE_PAGE_CONTENT + " ( " + PAGE_ID + " BIGINT NOT NULL, " + CONTENT + " BLOB, "
+			+ TERM_VECTOR + " BLOB, " + TRUNCATION + " VARCHAR(255), PRIMARY KEY ( " + PAGE_ID + " ) );  "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + CRAWL_TIME + "_INDEX " + "ON " + TABLE_PAGE + " ( " + CRAWL_TIME
-			+ " );  "
+			+ " CREATE TABLE " + TABLE_LINK + " ( " + SOURCE_ID + " BIGINT NOT NULL, " + TARGET_ID
+			+ " BIGINT NOT NULL, PRIMARY KEY ( " + SOURCE_ID + ", " + TARGET_ID + " ) );  "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + INNER_DEEP + "_INDEX " + "ON " + TABLE_PAGE + " ( " + INNER_DEEP
-			+ " );  "
+			+ " CREATE INDEX " + TABLE_LINK + "_" + TARGET_ID + "_INDEX " + "ON " + TABLE_LINK + " ( " + TARGET_ID
+			+ " );  ";
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + OUTER_DEEP + "_INDEX " + "ON " + TABLE_PAGE + " ( " + OUTER_DEEP
-			+ " );  "
+	String DROP_TABLES = " DROP TABLE " + TABLE_PAGE + " ; " + " DROP TABLE " + TABLE_PAGE_CONTENT + " ; "
+			+ " DROP TABLE " + TABLE_LINK + " ; ";
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + ALLOW_CRAWL + "_INDEX " + "ON " + TABLE_PAGE + " ( " + ALLOW_CRAWL
-			+ " );  "
+	String UPGRADE_TABLES = " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + ETAG + " VARCHAR(255) ; "
+			+ " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + LAST_MODIFIED + " VARCHAR(64) ; "
+			+ " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + CONTENT_DIGEST + " VARCHAR(64) ; ";
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + CRAWL_NOW + "_INDEX " + "ON " + TABLE_PAGE + " ( " + CRAWL_NOW
-			+ " );  "
+	String UPGRADE_TO_PAGE_IDS = " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + PAGE_ID
+			+ " BIGINT AUTO_INCREMENT NOT NULL ; " + " ALTER TABLE " + TABLE_PAGE + " DROP PRIMARY KEY ; "
+			+ " ALTER TABLE " + TABLE_PAGE + " ADD PRIMARY KEY ( " + PAGE_ID + " ) ; "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + INCOMING_INTERN_LINKS_NUMBER + "_INDEX " + "ON " + TABLE_PAGE
-			+ " ( " + INCOMING_INTERN_LINKS_NUMBER + " );  "
+			+ " CREATE UNIQUE INDEX " + TABLE_PAGE + "_LINK_INDEX " + "ON " + TABLE_PAGE + " ( " + DOMAIN + ", " + PATH
+			+ ", " + PROTOCOL + " ) ; "
 
-			+ " CREATE INDEX " + TABLE_PAGE + "_" + INCOMING_EXTERN_LINKS_NUMBER + "_INDEX " + "ON " + TABLE_PAGE
-			+ " ( " + INCOMING_EXTERN_LINKS_NUMBER + " );  "
+			+ " CREATE TABLE " + TABLE_LINK + "_ID ( " + SOURCE_ID + " BIGINT NOT NULL, " + TARGET_ID
+			+ " BIGINT NOT NULL, PRIMARY KEY ( " + SOURCE_ID + ", " + TARGET_ID + " ) ) ; "
 
-			+ " CREATE TABLE " + TABLE_LINK + " ( " + DOMAIN + " VARCHAR(255) NOT NULL, " + PATH
-			+ " VARCHAR(2048) NOT NULL, " + PROTOCOL + " VARCHAR(10) NOT NULL, " + LINK_DOMAIN
-			+ " VARCHAR(255) NOT NULL, " + LINK_PATH + " VARCHAR(2048) NOT NULL, " + LINK_PROTOCOL
-			+ " VARCHAR(10) NOT NULL, PRIMARY KEY (" + DOMAIN + ", " + PATH + ", " + PROTOCOL + ", " + LINK_DOMAIN
-			+ ", " + LINK_PATH + ", " + LINK_PROTOCOL + " ) );  "
+			+ " INSERT INTO " + TABLE_LINK + "_ID SELECT DISTINCT S." + PAGE_ID + ", T." + PAGE_ID + " FROM "
+			+ TABLE_LINK + " JOIN " + TABLE_PAGE + " S ON ( S." + DOMAIN + " = " + TABLE_LINK_P + DOMAIN + " AND S."
+			+ PATH + " = " + TABLE_LINK_P + PATH + " AND S." + PROTOCOL + " = " + TABLE_LINK_P + PROTOCOL + " ) JOIN "
+			+ TABLE_PAGE + " T ON ( T." + DOMAIN + " = " + TABLE_LINK_P + LINK_DOMAIN + " AND T." + PATH + " = "
+			+ TABLE_LINK_P + LINK_PATH + " AND T." + PROTOCOL + " = " + TABLE_LINK_P + LINK_PROTOCOL + " ) ; "
 
-			+ " CREATE INDEX " + TABLE_LINK + "_" + DOMAIN + "_INDEX " + "ON " + TABLE_LINK + " ( " + DOMAIN + " );  "
+			+ " DROP TABLE " + TABLE_LINK + " ; " + " ALTER TABLE " + TABLE_LINK + "_ID RENAME TO " + TABLE_LINK
+			+ " ; "
 
-			+ " CREATE INDEX " + TABLE_LINK + "_" + LINK_DOMAIN + "_INDEX " + "ON " + TABLE_LINK + " ( " + LINK_DOMAIN
-			+ " );  ";
+			+ " CREATE INDEX " + TABLE_LINK + "_" + TARGET_ID + "_INDEX " + "ON " + TABLE_LINK + " ( " + TARGET_ID
+			+ " ) ; ";
+
+	String UPGRADE_CONTENT_START = " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + ENCODED_CONTENT
+			+ " BLOB ";
+
+	String SELECT_TEXT_CONTENTS = " SELECT " + PAGE_ID + ", " + CONTENT + " FROM " + TABLE_PAGE + " WHERE " + PAGE_ID
+			+ " > ? AND " + CONTENT + " IS NOT NULL ORDER BY " + PAGE_ID + " LIMIT ? ";
+
+	String UPDATE_ENCODED_CONTENT = " UPDATE " + TABLE_PAGE + " SET " + ENCODED_CONTENT + " = ? WHERE " + PAGE_ID
+			+ " = ? ";
+
+	String UPGRADE_CONTENT_END = " ALTER TABLE " + TABLE_PAGE + " DROP COLUMN " + CONTENT + " ; " + " ALTER TABLE "
+			+ TABLE_PAGE + " ALTER COLUMN " + ENCODED_CONTENT + " RENAME TO " + CONTENT + " ; ";
+
+	String UPGRADE_TO_PAGE_CONTENT = " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + TERM_VECTOR
+			+ " BLOB ; " + " ALTER TABLE " + TABLE_PAGE + " ADD COLUMN IF NOT EXISTS " + TRUNCATION + " VARCHAR(255) ; "
+
+			+ " CREATE TABLE " + TABLE_PAGE_CONTENT + " ( " + PAGE_ID + " BIGINT NOT NULL, " + CONTENT + " BLOB, "
+			+ TERM_VECTOR + " BLOB, " + TRUNCATION + " VARCHAR(255), PRIMARY KEY ( " + PAGE_ID + " ) ) ; "
+
+			+ " INSERT INTO " + TABLE_PAGE_CONTENT + " SELECT " + PAGE_ID + ", " + CONTENT + ", " + TERM_VECTOR + ", "
+			+ TRUNCATION + " FROM " + TABLE_PAGE + " WHERE " + CONTENT + " IS NOT NULL OR " + TERM_VECTOR
+			+ " IS NOT NULL OR " + TRUNCATION + " IS NOT NULL ; "
 
-	String DROP_TABLES = " DROP TABLE " + TABLE_PAGE + " ; " + " DROP TABLE " + TABLE_LINK + " ; ";
+			+ " ALTER TABLE " + TABLE_PAGE + " DROP COLUMN " + CONTENT + " ; " + " ALTER TABLE " + TABLE_PAGE
+			+ " DROP COLUMN " + TERM_VECTOR + " ; " + " ALTER TABLE " + TABLE_PAGE + " DROP COLUMN " + TRUNCATION
+			+ " ; "
+
+			+ " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + DOMAIN + "_INDEX ; " + " DROP INDEX IF EXISTS "
+			+ TABLE_PAGE + "_" + PATH + "_INDEX ; " + " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + SCORE
+			+ "_INDEX ; " + " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + CRAWL_TIME + "_INDEX ; "
+			+ " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + INNER_DEEP + "_INDEX ; " + " DROP INDEX IF EXISTS "
+			+ TABLE_PAGE + "_" + OUTER_DEEP + "_INDEX ; " + " DROP INDEX IF EXISTS " + TABLE_PAGE + "_"
+			+ ALLOW_CRAWL + "_INDEX ; " + " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + CRAWL_NOW + "_INDEX ; "
+			+ " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + INCOMING_INTERN_LINKS_NUMBER + "_INDEX ; "
+			+ " DROP INDEX IF EXISTS " + TABLE_PAGE + "_" + INCOMING_EXTERN_LINKS_NUMBER + "_INDEX ; "
+
+			+ " CREATE INDEX " + TABLE_PAGE + "_STATE_INDEX " + "ON " + TABLE_PAGE + " ( " + CRAWL_TIME + ", "
+			+ CRAWL_NOW + ", " + SCORE + " DESC ) ; ";
 
 	// Select
 
@@ -84,29 +128,47 @@ public interface IPageQueryList extends ITablesVocabulary {
 	String SELECT_PAGE = " SELECT * FROM " + TABLE_PAGE + " WHERE " + DOMAIN + " = ? AND " + PATH + " =  ? AND "
 			+ PROTOCOL + " = ? ";
 
-	String SELECT_LINKS = " SELECT " + TABLE_LINK_P + "*, " + TABLE_PAGE_P + CRAWL_TIME + " FROM " + TABLE_LINK
-			+ " LEFT JOIN " + TABLE_PAGE + " ON (" + TABLE_PAGE_P + DOMAIN + " = " + TABLE_LINK_P + LINK_DOMAIN
-			+ " AND " + TABLE_PAGE_P + PATH + " = " + TABLE_LINK_P + LINK_PATH + " ) WHERE ( " + TABLE_LINK_P + DOMAIN
-			+ " = ? " + " AND " + TABLE_LINK_P + PATH + " = ? AND " + TABLE_LINK_P + PROTOCOL + " = ? ) ";
+	String SELECT_PAGE_WITH_TRUNCATION = " SELECT " + TABLE_PAGE_P + "*, " + TABLE_PAGE_CONTENT_P + TRUNCATION
+			+ " FROM " + TABLE_PAGE + " LEFT JOIN " + TABLE_PAGE_CONTENT + " ON ( " + TABLE_PAGE_CONTENT_P + PAGE_ID
+			+ " = " + TABLE_PAGE_P + PAGE_ID + " ) WHERE " + DOMAIN + " = ? AND " + PATH + " =  ? AND " + PROTOCOL
+			+ " = ? ";
+
+	String SELECT_CRAWL_STATE = " SELECT " + CRAWL_TIME + ", " + REDIRECT_PAGE + ", " + CRAWL_ERROR + ", "
+			+ TABLE_PAGE_CONTENT_P + TRUNCATION + " FROM " + TABLE_PAGE + " LEFT JOIN " + TABLE_PAGE_CONTENT + " ON ( "
+			+ TABLE_PAGE_CONTENT_P + PAGE_ID + " = " + TABLE_PAGE_P + PAGE_ID + " ) WHERE " + DOMAIN + " = ? AND "
+			+ PATH + " =  ? AND " + PROTOCOL + " = ? ";
+
+	String SELECT_CONTENT = " SELECT " + CONTENT + " FROM " + TABLE_PAGE_CONTENT + " WHERE " + PAGE_ID + " = ? ";
 
-	String SELECT_LINKS_INCOMING = " OR ( " + TABLE_LINK_P + LINK_DOMAIN + " = ? " + " AND " + TABLE_LINK_P + LINK_PATH
-			+ " = ? AND " + TABLE_LINK_P + LINK_PROTOCOL + " = ? ) ";
+	String SELECT_ALL_LINKS = " SELECT " + PROTOCOL + ", " + DOMAIN + ", " + PATH + " FROM " + TABLE_PAGE;
 
-	String SELECT_INTERESTING_FOUND_PAGE_START = " SELECT * FROM " + TABLE_PAGE + " WHERE ( ( " + CRAWL_TIME
-			+ " IS NULL  AND " + SCORE + " >= ? ) OR " + CRAWL_NOW + " = true ) " + " AND " + DOMAIN + " NOT IN "
-			+ " ( SELECT " + DOMAIN + " FROM " + TABLE_SITE + " WHERE " + BLACKLISTED + " = true ) ";
+	String SELECT_DOMAIN_LINKS = SELECT_ALL_LINKS + " WHERE " + DOMAIN + " = ? ";
 
-	String SELECT_INTERESTING_FOUND_PAGE_INNER_DEEP = " AND " + INNER_DEEP + " <= ? ";
+	String SELECT_PAGE_ID = " SELECT " + PAGE_ID + " FROM " + TABLE_PAGE + " WHERE " + DOMAIN + " = ? AND " + PATH
+			+ " =  ? AND " + PROTOCOL + " = ? ";
 
-	String SELECT_INTERESTING_FOUND_PAGE_OUTER_DEEP = " AND " + OUTER_DEEP + " <= ? ";
+	String TARGET_LINK_COLUMNS = " T." + PROTOCOL + " AS " + LINK_PROTOCOL + ", T." + DOMAIN + " AS " + LINK_DOMAIN
+			+ ", T." + PATH + " AS " + LINK_PATH + " ";
 
-	String SELECT_INTERESTING_FOUND_PAGE_ALLOW_CRAWL = " AND (" + ALLOW_CRAWL + " = true OR " + ALLOW_CRAWL
-			+ " IS NULL ) ";
+	String JOIN_TARGET_PAGE = " JOIN " + TABLE_PAGE + " T ON ( T." + PAGE_ID + " = " + TABLE_LINK_P + TARGET_ID
+			+ " ) ";
 
-	String SELECT_INTERESTING_FOUND_PAGE_FORBIDDEN_DOMAIN = " AND " + DOMAIN + " NOT IN ( ?";
+	String SELECT_LINKS_START = " SELECT S." + PROTOCOL + ", S." + DOMAIN + ", S." + PATH + ", "
+			+ TARGET_LINK_COLUMNS + ", T." + CRAWL_TIME + " FROM " + TABLE_LINK + " JOIN " + TABLE_PAGE + " S ON ( S."
+			+ PAGE_ID + " = " + TABLE_LINK_P + SOURCE_ID + " ) " + JOIN_TARGET_PAGE;
 
-	String SELECT_INTERESTING_FOUND_PAGE_END = " ORDER BY " + CRAWL_NOW + " DESC, " + SCORE + " DESC, "
-			+ INCOMING_EXTERN_LINKS_NUMBER + " DESC, " + INCOMING_INTERN_LINKS_NUMBER + " DESC ";
+	String SELECT_LINKS = SELECT_LINKS_START + " WHERE " + TABLE_LINK_P + SOURCE_ID + " = ( " + SELECT_PAGE_ID
+			+ " ) ";
+
+	String SELECT_LINKS_INCOMING = " UNION " + SELECT_LINKS_START + " WHERE " + TABLE_LINK_P + TARGET_ID + " = ( "
+			+ SELECT_PAGE_ID + " ) ";
+
+	String SELECT_FOUND_PAGES_TO_CRAWL = " SELECT " + PROTOCOL + ", " + DOMAIN + ", " + PATH + ", " + TITLE + ", "
+			+ SCORE + ", " + INNER_DEEP + ", " + OUTER_DEEP + ", " + CRAWL_TIME + ", " + ALLOW_CRAWL + ", "
+			+ REDIRECT_PAGE + ", " + CRAWL_NOW + ", " + CRAWL_ERROR + ", " + INCOMING_INTERN_LINKS_NUMBER + ", "
+			+ INCOMING_EXTERN_LINKS_NUMBER + ", " + ETAG + ", " + LAST_MODIFIED + ", " + CONTENT_DIGEST + " FROM "
+			+ TABLE_PAGE + " WHERE ( " + CRAWL_TIME + " IS NULL OR " + CRAWL_NOW + " = true ) AND " + DOMAIN
+			+ " NOT IN ( SELECT " + DOMAIN + " FROM " + TABLE_SITE + " WHERE " + BLACKLISTED + " = true ) ";
 
 	String SELECT_STARTING_PAGE_LIST = " SELECT * FROM " + TABLE_PAGE + " WHERE " + INNER_DEEP + " = 0 " + " AND "
 			+ OUTER_DEEP + " = 0 " + " ORDER BY " + DOMAIN + " ASC, " + PATH + " ASC ";
@@ -137,34 +199,86 @@ public interface IPageQueryList extends ITablesVocabulary {
 
 	String SELECT_CRAWLED_PAGES = " SELECT * FROM " + TABLE_PAGE + " WHERE " + CRAWL_TIME + " IS NOT NULL ";
 
-	String SELECT_CRAWLED_PAGES_TO_RECALCULATE = SELECT_CRAWLED_PAGES + " ORDER BY " + CRAWL_TIME + " ASC ";
+	String SELECT_CRAWLED_PAGE_IDS = " SELECT " + PAGE_ID + ", " + REDIRECT_PAGE + " FROM " + TABLE_PAGE + " WHERE "
+			+ CRAWL_TIME + " IS NOT NULL ORDER BY " + CRAWL_TIME + " ASC ";
+
+	String SELECT_PAGE_CONTENT_START = " SELECT " + TABLE_PAGE_P + PAGE_ID + ", " + SCORE + ", " + TERM_VECTOR
+			+ ", ";
+
+	String CONTENT_IF_NO_TERM_VECTOR = " CASE WHEN " + TERM_VECTOR + " IS NULL THEN " + CONTENT + " END AS "
+			+ CONTENT + " ";
 
-	String SELECT_PAGES_WITH_CONTENT = SELECT_CRAWLED_PAGES + " AND " + CONTENT + " IS NOT NULL ";
+	String JOIN_PAGE_CONTENT = " FROM " + TABLE_PAGE + " JOIN " + TABLE_PAGE_CONTENT + " ON ( "
+			+ TABLE_PAGE_CONTENT_P + PAGE_ID + " = " + TABLE_PAGE_P + PAGE_ID + " ) ";
+
+	String CONTENTS_TO_SCORE_CONDITION = JOIN_PAGE_CONTENT + " WHERE " + TABLE_PAGE_P + PAGE_ID
+			+ " BETWEEN ? AND ? AND " + CRAWL_TIME + " IS NOT NULL AND " + REDIRECT_PAGE + " = false AND "
+			+ CRAWL_ERROR + " IS NULL AND " + CONTENT + " IS NOT NULL ";
+
+	String SELECT_CONTENTS_TO_SCORE = SELECT_PAGE_CONTENT_START + CONTENT + CONTENTS_TO_SCORE_CONDITION;
+
+	String SELECT_TERM_VECTORS_TO_SCORE = SELECT_PAGE_CONTENT_START + CONTENT_IF_NO_TERM_VECTOR
+			+ CONTENTS_TO_SCORE_CONDITION;
+
+	String SELECT_CRAWLED_LINK_IDS = " SELECT " + SOURCE_ID + ", " + TARGET_ID + " FROM " + TABLE_LINK + " JOIN "
+			+ TABLE_PAGE + " ON ( " + TABLE_PAGE_P + PAGE_ID + " = " + TABLE_LINK_P + SOURCE_ID + " ) WHERE "
+			+ TABLE_PAGE_P + CRAWL_TIME + " IS NOT NULL ";
+
+	String PAGES_WITH_CONTENT_CONDITION = JOIN_PAGE_CONTENT + " WHERE " + CRAWL_TIME + " IS NOT NULL AND "
+			+ CONTENT + " IS NOT NULL ";
+
+	String SELECT_PAGES_WITH_CONTENT = SELECT_PAGE_CONTENT_START + CONTENT + PAGES_WITH_CONTENT_CONDITION;
+
+	String SELECT_PAGES_WITH_TERM_VECTOR = SELECT_PAGE_CONTENT_START + CONTENT_IF_NO_TERM_VECTOR
+			+ PAGES_WITH_CONTENT_CONDITION;
 
 	String WITH_CONTENT_AND_DOMAIN = " AND " + DOMAIN + " = ? ";
 
-	String COUNT_CRAWLED_PAGES_NUMBER = " SELECT COUNT(*) as crawledPagesNumber FROM " + TABLE_PAGE + " WHERE "
-			+ CRAWL_TIME + " IS NOT NULL " + " AND " + DOMAIN + " NOT IN " + " ( SELECT " + DOMAIN + " FROM "
+	String COUNT_TRUNCATED_PAGES_NUMBER = " SELECT COUNT(*) as truncatedPagesNumber " + JOIN_PAGE_CONTENT
+			+ " WHERE " + TRUNCATION + " IS NOT NULL " + " AND " + DOMAIN + " NOT IN " + " ( SELECT " + DOMAIN + " FROM "
 			+ TABLE_SITE + " WHERE " + BLACKLISTED + " = true ) ";
 
+	String COUNT_PAGES_NUMBERS = " SELECT COUNT(" + CRAWL_TIME + ") as crawledPagesNumber, COUNT(*) - COUNT("
+			+ CRAWL_TIME + ") as foundPagesNumber, COUNT(" + CRAWL_ERROR + ") as errorPagesNumber, "
+			+ " SUM( CASE WHEN " + FILTER_TO_DISPLAY_REDIRECT_PAGE + " THEN 1 ELSE 0 END ) as redirectPagesNumber "
+			+ " FROM " + TABLE_PAGE + " WHERE " + DOMAIN + " NOT IN " + " ( SELECT " + DOMAIN + " FROM " + TABLE_SITE
+			+ " WHERE " + BLACKLISTED + " = true ) ";
+
+	String SELECT_CRAWLED_DOMAINS = " SELECT DISTINCT " + DOMAIN + " FROM " + TABLE_PAGE + " WHERE " + CRAWL_TIME
+			+ " IS NOT NULL " + " AND " + DOMAIN + " NOT IN " + " ( SELECT " + DOMAIN + " FROM " + TABLE_SITE
+			+ " WHERE " + BLACKLISTED + " = true ) ";
+
 	// Update and delete
 
-	String UPDATE_CRAWLED_PAGE = " UPDATE " + TABLE_PAGE + " SET " + SCORE + " = ?, " + TITLE + " = ?, " + CONTENT
-			+ " = ?, " + CRAWL_TIME + " = ?, " + REDIRECT_PAGE + " = ?, " + CRAWL_NOW + " = ?, " + CRAWL_ERROR
-			+ " = ?, " + OUTGOING_INTERN_LINKS_NUMBER + " = ?, " + OUTGOING_EXTERN_LINKS_NUMBER + " = ?  WHERE "
-			+ DOMAIN + " = ? AND " + PATH + " = ? AND " + PROTOCOL + " = ?";
+	String UPDATE_CRAWLED_PAGE = " UPDATE " + TABLE_PAGE + " SET " + SCORE + " = ?, " + TITLE + " = ?, " + CRAWL_TIME
+			+ " = ?, " + REDIRECT_PAGE + " = ?, " + CRAWL_NOW + " = ?, " + CRAWL_ERROR + " = ?, "
+			+ OUTGOING_INTERN_LINKS_NUMBER + " = ?, " + OUTGOING_EXTERN_LINKS_NUMBER + " = ?, " + ETAG + " = ?, "
+			+ LAST_MODIFIED + " = ?, " + CONTENT_DIGEST + " = ?  WHERE " + DOMAIN + " = ? AND " + PATH + " = ? AND "
+			+ PROTOCOL + " = ?";
 
-	String DELETE_LINKS = " DELETE FROM " + TABLE_LINK + " WHERE " + DOMAIN + " = ? AND " + PATH + " =  ? AND "
-			+ PROTOCOL + " = ? ";
+	String MERGE_PAGE_CONTENT = " MERGE INTO " + TABLE_PAGE_CONTENT + " ( " + PAGE_ID + ", " + CONTENT + ", "
+			+ TERM_VECTOR + ", " + TRUNCATION + " ) KEY ( " + PAGE_ID + " ) VALUES ( ?, ?, ?, ? ) ";
+
+	String UPDATE_UNCHANGED_PAGE = " UPDATE " + TABLE_PAGE + " SET " + CRAWL_TIME + " = ?, " + CRAWL_NOW + " = ?, "
+			+ ETAG + " = ?, " + LAST_MODIFIED + " = ?  WHERE " + DOMAIN + " = ? AND " + PATH + " = ? AND " + PROTOCOL
+			+ " = ?";
 
-	String INSERT_LINKS = " INSERT INTO " + TABLE_LINK + " ( " + DOMAIN + ", " + PATH + ", " + PROTOCOL + ", "
-			+ LINK_DOMAIN + ", " + LINK_PATH + ", " + LINK_PROTOCOL + " ) VALUES ( ?, ?, ?, ?, ?, ? )";
+	String DELETE_LINKS = " DELETE FROM " + TABLE_LINK + " WHERE " + SOURCE_ID + " = ? ";
 
-	String INSERT_LINKS_PARAMS = ", ( ?, ?, ?, ?, ?, ? )";
+	String INSERT_LINKS = " INSERT INTO " + TABLE_LINK + " ( " + SOURCE_ID + ", " + TARGET_ID + " ) VALUES ( ?, ? )";
 
 	String INSERT_PAGE = " INSERT INTO " + TABLE_PAGE + " ( " + DOMAIN + ", " + PATH + ", " + PROTOCOL + ", "
 			+ INNER_DEEP + ", " + OUTER_DEEP + ", " + SCORE + ", " + CRAWL_NOW + " ) VALUES ( ?, ?, ?, ?, ?, ?, ? ) ";
 
+	String INSERT_FOUND_PAGE = " INSERT INTO " + TABLE_PAGE + " ( " + DOMAIN + ", " + PATH + ", " + PROTOCOL + ", "
+			+ INNER_DEEP + ", " + OUTER_DEEP + ", " + SCORE + ", " + CRAWL_NOW + ", " + INCOMING_INTERN_LINKS_NUMBER
+			+ ", " + INCOMING_EXTERN_LINKS_NUMBER + ", " + ALLOW_CRAWL + " ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ?, ?, ? ) ";
+
+	String MERGE_FOUND_PAGE = " MERGE INTO " + TABLE_PAGE + " ( " + DOMAIN + ", " + PATH + ", " + PROTOCOL + ", "
+			+ INNER_DEEP + ", " + OUTER_DEEP + ", " + SCORE + ", " + CRAWL_NOW + ", " + INCOMING_INTERN_LINKS_NUMBER
+			+ ", " + INCOMING_EXTERN_LINKS_NUMBER + ", " + ALLOW_CRAWL + " ) KEY ( " + DOMAIN + ", " + PATH + ", "
+			+ PROTOCOL + " ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ?, ?, ? ) ";
+
 	String UPDATE_OUTER_DEEP = " UPDATE " + TABLE_PAGE + " SET " + OUTER_DEEP + " = ?, " + INNER_DEEP + " = ?  WHERE "
 			+ DOMAIN + " = ? AND " + PATH + " = ? AND " + PROTOCOL + " = ? AND " + OUTER_DEEP + " > ? ";
 
@@ -190,8 +304,19 @@ public interface IPageQueryList extends ITablesVocabulary {
 
 	String UPDATE_INIT_ALL_SCORES = " UPDATE " + TABLE_PAGE + " SET " + SCORE + " = NULL ";
 
-	String UPDATE_SCORE_PAGE = " UPDATE " + TABLE_PAGE + " SET " + SCORE + " = ?  WHERE " + DOMAIN + " = ? AND " + PATH
-			+ " = ? AND " + PROTOCOL + " = ? ";
+	String UPDATE_SCORE_BY_ID = " UPDATE " + TABLE_PAGE + " SET " + SCORE + " = ? WHERE " + PAGE_ID + " = ? ";
+
+	String UPDATE_TERM_VECTOR_BY_ID = " UPDATE " + TABLE_PAGE_CONTENT + " SET " + TERM_VECTOR + " = ? WHERE " + PAGE_ID
+			+ " = ? ";
+
+	String BLACKLISTED_PAGE_IDS = " SELECT " + PAGE_ID + " FROM " + TABLE_PAGE + " WHERE " + DOMAIN + " IN ( SELECT "
+			+ DOMAIN + " FROM " + TABLE_SITE + " WHERE " + BLACKLISTED + " =  true ) ";
+
+	String DELETE_BLACKLISTED_LINKS = " DELETE FROM " + TABLE_LINK + " WHERE " + SOURCE_ID + " IN ( "
+			+ BLACKLISTED_PAGE_IDS + " ) OR " + TARGET_ID + " IN ( " + BLACKLISTED_PAGE_IDS + " ) ";
+
+	String DELETE_BLACKLISTED_CONTENTS = " DELETE FROM " + TABLE_PAGE_CONTENT + " WHERE " + PAGE_ID + " IN ( "
+			+ BLACKLISTED_PAGE_IDS + " ) ";
 
 	String DELETE_BLACKLISTED_PAGES = " DELETE FROM " + TABLE_PAGE + " WHERE " + DOMAIN + " IN ( SELECT " + DOMAIN
 			+ " FROM " + TABLE_SITE + " WHERE " + BLACKLISTED + " =  true ) ";
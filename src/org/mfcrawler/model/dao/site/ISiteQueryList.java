@@ -44,6 +44,12 @@ public interface ISiteQueryList extends ITablesVocabulary {
 
 	String SELECT_SITE = " SELECT * FROM " + TABLE_SITE + " WHERE " + DOMAIN + " = ? ";
 
+	String SELECT_SITE_WITHOUT_ROBOT_FILE = " SELECT " + DOMAIN + ", " + BLACKLISTED + ", " + CRAWL_TIME + ", "
+			+ ROBOT_FILE_EXIST + " FROM " + TABLE_SITE + " WHERE " + DOMAIN + " = ? ";
+
+	String SELECT_ROBOT_FILE_CONTENT = " SELECT " + ROBOT_FILE_CONTENT + " FROM " + TABLE_SITE + " WHERE " + DOMAIN
+			+ " = ? ";
+
 	String SELECT_SITE_SCORE = " SELECT " + TABLE_SITE_P + DOMAIN + " as " + DOMAIN + " , SUM( " + TABLE_PAGE_P + SCORE
 			+ " ) as totalScore " + " , COUNT(*) as crawledPagesNumber " + " FROM " + TABLE_SITE + " LEFT JOIN "
 			+ TABLE_PAGE + " ON " + TABLE_PAGE_P + DOMAIN + " = " + TABLE_SITE_P + DOMAIN + " WHERE " + TABLE_SITE_P
@@ -53,9 +59,13 @@ public interface ISiteQueryList extends ITablesVocabulary {
 	String SELECT_MIN_OUTER_DEEP = " SELECT MIN(" + OUTER_DEEP + ") as minOuterDeep " + " FROM " + TABLE_PAGE
 			+ " WHERE " + DOMAIN + " = ? ";
 
-	String SELECT_LINKS = " SELECT " + DOMAIN + " , " + LINK_DOMAIN + " FROM " + TABLE_LINK + " WHERE ( " + DOMAIN
-			+ " = ? " + " OR " + LINK_DOMAIN + " = ? ) " + " AND " + DOMAIN + " <> " + LINK_DOMAIN + " GROUP BY "
-			+ DOMAIN + " , " + LINK_DOMAIN;
+	String SELECT_DOMAIN_LINKS_START = " SELECT S." + DOMAIN + " AS " + DOMAIN + " , T." + DOMAIN + " AS "
+			+ LINK_DOMAIN + " FROM " + TABLE_PAGE + " S JOIN " + TABLE_LINK + " ON ( " + TABLE_LINK_P + SOURCE_ID
+			+ " = S." + PAGE_ID + " ) JOIN " + TABLE_PAGE + " T ON ( T." + PAGE_ID + " = " + TABLE_LINK_P + TARGET_ID
+			+ " ) WHERE S." + DOMAIN + " <> T." + DOMAIN;
+
+	String SELECT_LINKS = SELECT_DOMAIN_LINKS_START + " AND S." + DOMAIN + " = ? UNION " + SELECT_DOMAIN_LINKS_START
+			+ " AND T." + DOMAIN + " = ? ";
 
 	String SELECT_DOMAIN_LIST_TO_DISPLAY_START1 = " SELECT " + TABLE_SITE_P + DOMAIN + " as " + DOMAIN;
 
@@ -91,11 +101,6 @@ public interface ISiteQueryList extends ITablesVocabulary {
 
 	String SELECT_DOMAIN_LIST_TO_DISPLAY_END = " GROUP BY " + TABLE_SITE_P + DOMAIN + ", " + TABLE_SITE_P + ROOT_DOMAIN;
 
-	String COUNT_CRAWLED_SITES_NUMBER = " SELECT COUNT( DISTINCT " + TABLE_SITE_P + DOMAIN
-			+ " ) as crawledSitesNumber " + " FROM " + TABLE_SITE + " LEFT JOIN " + TABLE_PAGE + " ON " + TABLE_PAGE_P
-			+ DOMAIN + " = " + TABLE_SITE_P + DOMAIN + " WHERE ( " + TABLE_SITE_P + BLACKLISTED + " = false OR "
-			+ TABLE_SITE_P + BLACKLISTED + " IS NULL ) AND " + TABLE_PAGE_P + CRAWL_TIME + " IS NOT NULL ";
-
 	// Update and delete
 
 	String UPDATE_SITE_ROBOT = " UPDATE " + TABLE_SITE + " SET " + CRAWL_TIME + " =  ?, " + ROBOT_FILE_EXIST
@@ -106,6 +111,9 @@ public interface ISiteQueryList extends ITablesVocabulary {
 	String INSERT_EMPTY_SITE = " INSERT INTO " + TABLE_SITE + " ( " + DOMAIN + ", " + ROOT_DOMAIN
 			+ ") VALUES ( ?, ? ) ";
 
+	String MERGE_EMPTY_SITE = " MERGE INTO " + TABLE_SITE + " ( " + DOMAIN + ", " + ROOT_DOMAIN + " ) KEY ( "
+			+ DOMAIN + " ) VALUES ( ?, ? ) ";
+
 	String UPDATE_BLACKLIST = " UPDATE " + TABLE_SITE + " SET " + BLACKLISTED + " = ? WHERE " + DOMAIN + " = ? OR "
 			+ DOMAIN + " LIKE ? escape '$' ";
 
@@ -22,21 +22,33 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.mfcrawler.model.dao.BaseDAO;
+import org.mfcrawler.model.dao.CrawlCounters;
+import org.mfcrawler.model.dao.DbmsManager;
 import org.mfcrawler.model.dao.JdbcTools;
+import org.mfcrawler.model.dao.SeenLinkFilter;
+import org.mfcrawler.model.dao.iterator.LinkIdDbIterator;
+import org.mfcrawler.model.dao.iterator.PageContentDbIterator;
 import org.mfcrawler.model.dao.iterator.PageDbIterator;
 import org.mfcrawler.model.pojo.OverviewParams;
-import org.mfcrawler.model.pojo.crawl.CrawlConfig;
+import org.mfcrawler.model.pojo.site.IContentLoader;
 import org.mfcrawler.model.pojo.site.Page;
 import org.mfcrawler.model.pojo.site.link.Domain;
 import org.mfcrawler.model.pojo.site.link.Link;
 import org.mfcrawler.model.pojo.site.link.LinkPath;
 import org.mfcrawler.model.pojo.site.link.OutgoingLink;
+import org.mfcrawler.model.util.ContentCodec;
 
 /**
  * DAO for Pages
@@ -45,6 +57,11 @@ import org.mfcrawler.model.pojo.site.link.OutgoingLink;
  */
 public class PageDAO extends BaseDAO implements IPageQueryList {
 
+	/**
+	 * Number of pages whose content is upgraded in one batch
+	 */
+	private static final int UPGRADE_CONTENT_PAGE_NUMBER = 1000;
+
 	/**
 	 * Default constructor which uses the main database connection
 	 */
@@ -78,6 +95,83 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		return DROP_TABLES;
 	}
 
+	/**
+	 * Return the sql queries which permits to upgrade the tables referring to
+	 * pages created by a previous version
+	 * @return the sql queries
+	 */
+	public static String getSqlTablesUpgrade() {
+		return UPGRADE_TABLES;
+	}
+
+	/**
+	 * Return the sql queries which permits to upgrade the tables keyed by URL
+	 * (created by a previous version) to tables keyed by page identifier
+	 * @return the sql queries
+	 */
+	public static String getSqlPageIdsUpgrade() {
+		return UPGRADE_TO_PAGE_IDS;
+	}
+
+	/**
+	 * Return the sql queries which permits to move the contents saved in the
+	 * page table (by a previous version) to the content table
+	 * @return the sql queries
+	 */
+	public static String getSqlPageContentUpgrade() {
+		return UPGRADE_TO_PAGE_CONTENT;
+	}
+
+	/**
+	 * Upgrade the contents saved as text by a previous version to encoded
+	 * contents (see ContentCodec), by group of pages in the transaction of the
+	 * caller
+	 * @throws SQLException
+	 */
+	public void upgradeContents() throws SQLException {
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		try {
+			preStatement = connection.prepareStatement(UPGRADE_CONTENT_START);
+			preStatement.executeUpdate();
+			close(preStatement);
+
+			long lastId = -1;
+			int pageNumber;
+			do {
+				Map<Long, byte[]> encodedContents = new LinkedHashMap<Long, byte[]>();
+				preStatement = getPreparedStatement(SELECT_TEXT_CONTENTS);
+				preStatement.setLong(1, lastId);
+				preStatement.setInt(2, UPGRADE_CONTENT_PAGE_NUMBER);
+				result = preStatement.executeQuery();
+				while (result.next()) {
+					lastId = result.getLong(PAGE_ID);
+					encodedContents.put(lastId, ContentCodec.encode(JdbcTools.getClob(result, CONTENT)));
+				}
+				close(result, preStatement);
+				pageNumber = encodedContents.size();
+
+				preStatement = getPreparedStatement(UPDATE_ENCODED_CONTENT);
+				for (Map.Entry<Long, byte[]> encodedContent : encodedContents.entrySet()) {
+					JdbcTools.setBlob(preStatement, 1, encodedContent.getValue());
+					preStatement.setLong(2, encodedContent.getKey());
+					preStatement.addBatch();
+				}
+				preStatement.executeBatch();
+				close(preStatement);
+			} while (pageNumber == UPGRADE_CONTENT_PAGE_NUMBER);
+
+			for (String sql : UPGRADE_CONTENT_END.trim().split(";")) {
+				preStatement = connection.prepareStatement(sql);
+				preStatement.executeUpdate();
+				close(preStatement);
+			}
+		} finally {
+			close(result, preStatement);
+		}
+	}
+
 	// BASE
 
 	/**
@@ -102,6 +196,11 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 			page.setRedirectPage(JdbcTools.getBoolean(result, REDIRECT_PAGE));
 			page.setCrawlNow(JdbcTools.getBoolean(result, CRAWL_NOW));
 			page.setCrawlError(JdbcTools.getString(result, CRAWL_ERROR));
+			page.setIncomingExternLinksNumber(JdbcTools.getInteger(result, INCOMING_EXTERN_LINKS_NUMBER));
+			page.setIncomingInternLinksNumber(JdbcTools.getInteger(result, INCOMING_INTERN_LINKS_NUMBER));
+			page.setETag(JdbcTools.getString(result, ETAG));
+			page.setLastModified(JdbcTools.getString(result, LAST_MODIFIED));
+			page.setContentDigest(JdbcTools.getString(result, CONTENT_DIGEST));
 		} catch (SQLException e) {
 			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to read page in DB", e);
 		}
@@ -110,16 +209,24 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	}
 
 	/**
-	 * Extract a page with the content from a resultSet
-	 * @param result the resultSet
+	 * Extract a page from a resultSet, its content is selected on the first
+	 * access to the content
+	 * @param result the resultSet (with the truncation of the content)
 	 * @return the page
 	 */
-	public static Page toPageWithContent(ResultSet result) {
+	public Page toPageWithLazyContent(ResultSet result) {
 		Page page = toPageWithoutContent(result);
 
 		if (page != null) {
 			try {
-				page.setContent(JdbcTools.getClob(result, CONTENT));
+				final long pageId = result.getLong(PAGE_ID);
+				page.setContentLoader(new IContentLoader() {
+					@Override
+					public byte[] loadEncodedContent() {
+						return getEncodedContent(pageId);
+					}
+				});
+				page.setTruncation(JdbcTools.getString(result, TRUNCATION));
 			} catch (SQLException e) {
 				Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to read content in DB", e);
 			}
@@ -128,6 +235,32 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		return page;
 	}
 
+	/**
+	 * Select the content of a page
+	 * @param pageId the identifier of the page
+	 * @return the content as saved in database (null if there is no content)
+	 */
+	public byte[] getEncodedContent(long pageId) {
+		byte[] encodedContent = null;
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		try {
+			preStatement = getPreparedStatement(SELECT_CONTENT);
+			preStatement.setLong(1, pageId);
+			result = preStatement.executeQuery();
+			if (result.next()) {
+				encodedContent = JdbcTools.getBlob(result, CONTENT);
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get content", e);
+		} finally {
+			close(result, preStatement);
+		}
+
+		return encodedContent;
+	}
+
 	/**
 	 * Extract a link from a resultSet and add it to the page
 	 * @param page the page
@@ -178,7 +311,7 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 				sql.append(SELECT_LINKS_INCOMING);
 			}
 
-			preStatement = connection.prepareStatement(sql.toString());
+			preStatement = getPreparedStatement(sql.toString());
 
 			JdbcTools.setString(preStatement, 1, page.getLink().getDomain().getName());
 			JdbcTools.setString(preStatement, 2, page.getLink().getLinkPath().getPath());
@@ -207,67 +340,22 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	}
 
 	/**
-	 * Select interesting found page for crawling
-	 * @param forbiddenDomainList the list of domain which must not crawl
-	 * @param crawlConfig the crawl config
-	 * @return the interesting found page
+	 * Selects the found pages which can be crawled (not crawled yet or to crawl
+	 * now, from sites not blacklisted) and return an iterator
+	 * @return the page iterator
 	 */
-	public Page getInterestingFoundPage(List<Domain> forbiddenDomainList, CrawlConfig crawlConfig) {
-		Page page = null;
-		StringBuilder sql = new StringBuilder(SELECT_INTERESTING_FOUND_PAGE_START);
-
-		if (!crawlConfig.getInnerDeep().equals(-1)) {
-			sql.append(SELECT_INTERESTING_FOUND_PAGE_INNER_DEEP);
-		}
-
-		if (!crawlConfig.getOuterDeep().equals(-1)) {
-			sql.append(SELECT_INTERESTING_FOUND_PAGE_OUTER_DEEP);
-		}
-
-		if (!crawlConfig.getForceCrawl()) {
-			sql.append(SELECT_INTERESTING_FOUND_PAGE_ALLOW_CRAWL);
-		}
-
-		if (!forbiddenDomainList.isEmpty()) {
-			sql.append(SELECT_INTERESTING_FOUND_PAGE_FORBIDDEN_DOMAIN);
-			int forbiddenDomainSize = forbiddenDomainList.size();
-			for (int i = 1; i < forbiddenDomainSize; i++) {
-				sql.append(", ?");
-			}
-			sql.append(" ) ");
-		}
-
-		sql.append(SELECT_INTERESTING_FOUND_PAGE_END);
+	public PageDbIterator getFoundPagesToCrawl() {
+		PageDbIterator pageIterator = new PageDbIterator();
 
-		PreparedStatement preStatement = null;
-		ResultSet result = null;
 		try {
-			preStatement = connection.prepareStatement(sql.toString());
-			int i = 1;
-			JdbcTools.setInteger(preStatement, i++, crawlConfig.getMinimumScore());
-			if (!crawlConfig.getInnerDeep().equals(-1)) {
-				JdbcTools.setInteger(preStatement, i++, crawlConfig.getInnerDeep());
-			}
-			if (!crawlConfig.getOuterDeep().equals(-1)) {
-				JdbcTools.setInteger(preStatement, i++, crawlConfig.getOuterDeep());
-			}
-			for (Domain forbiddenDomain : forbiddenDomainList) {
-				JdbcTools.setString(preStatement, i++, forbiddenDomain.getName());
-			}
-
-			preStatement.setMaxRows(1);
-			result = preStatement.executeQuery();
-			if (result.next()) {
-				page = toPageWithoutContent(result);
-			}
-
+			PreparedStatement preStatement = connection.prepareStatement(SELECT_FOUND_PAGES_TO_CRAWL);
+			ResultSet result = preStatement.executeQuery();
+			pageIterator = new PageDbIterator(result);
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get interesting found page", e);
-		} finally {
-			close(result, preStatement);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get found pages to crawl", e);
 		}
 
-		return page;
+		return pageIterator;
 	}
 
 	/**
@@ -281,13 +369,13 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		ResultSet result = null;
 
 		try {
-			preStatement = connection.prepareStatement(SELECT_PAGE);
+			preStatement = getPreparedStatement(SELECT_PAGE_WITH_TRUNCATION);
 			JdbcTools.setString(preStatement, 1, link.getDomain().getName());
 			JdbcTools.setString(preStatement, 2, link.getLinkPath().getPath());
 			JdbcTools.setString(preStatement, 3, link.getLinkPath().getProtocol());
 			result = preStatement.executeQuery();
 			if (result.next()) {
-				page = toPageWithContent(result);
+				page = toPageWithLazyContent(result);
 				loadLinks(page, true);
 			}
 		} catch (SQLException e) {
@@ -309,7 +397,7 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		ResultSet result = null;
 
 		try {
-			preStatement = connection.prepareStatement(SELECT_STARTING_PAGE_LIST);
+			preStatement = getPreparedStatement(SELECT_STARTING_PAGE_LIST);
 			result = preStatement.executeQuery();
 			while (result.next()) {
 				Page page = toPageWithoutContent(result);
@@ -412,7 +500,7 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		PreparedStatement preStatement = null;
 		ResultSet result = null;
 		try {
-			preStatement = connection.prepareStatement(sql.toString());
+			preStatement = getPreparedStatement(sql.toString());
 			JdbcTools.setString(preStatement, 1, domain.getName());
 			result = preStatement.executeQuery();
 			while (result.next()) {
@@ -446,7 +534,7 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		PreparedStatement preStatement = null;
 		ResultSet result = null;
 		try {
-			preStatement = connection.prepareStatement(sql.toString());
+			preStatement = getPreparedStatement(sql.toString());
 			result = preStatement.executeQuery();
 			if (result.next()) {
 				pathNumber = JdbcTools.getInteger(result, "countPath");
@@ -461,198 +549,629 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	}
 
 	/**
-	 * Selects crawled pages to recalculate score and return an iterator
-	 * @return the page iterator
+	 * Selects the identifiers of the crawled pages ordered by crawl time
+	 * @param redirectPages set with the positions of the redirect pages
+	 * @return the identifiers of the crawled pages
 	 */
-	public PageDbIterator getCrawledPagesToRecalculate() {
-		PageDbIterator pageIterator = new PageDbIterator();
+	public long[] getCrawledPageIds(BitSet redirectPages) {
+		long[] pageIds = new long[1024];
+		int pageNumber = 0;
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		try {
+			preStatement = connection.prepareStatement(SELECT_CRAWLED_PAGE_IDS);
+			result = preStatement.executeQuery();
+			while (result.next()) {
+				if (pageNumber == pageIds.length) {
+					pageIds = Arrays.copyOf(pageIds, pageNumber * 2);
+				}
+				if (Boolean.TRUE.equals(JdbcTools.getBoolean(result, REDIRECT_PAGE))) {
+					redirectPages.set(pageNumber);
+				}
+				pageIds[pageNumber++] = result.getLong(PAGE_ID);
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get crawled page ids", e);
+		} finally {
+			close(result, preStatement);
+		}
+
+		return Arrays.copyOf(pageIds, pageNumber);
+	}
+
+	/**
+	 * Selects the contents to score (crawled pages without error and which
+	 * aren't redirect pages) in a range of identifiers and return an iterator
+	 * @param firstId the first identifier of the range
+	 * @param lastId the last identifier of the range
+	 * @param withContent true to select all the contents, false to select
+	 *            only the contents of the pages without term vector
+	 * @return the page content iterator
+	 */
+	public PageContentDbIterator getContentsToScore(long firstId, long lastId, boolean withContent) {
+		PageContentDbIterator pageContentIterator = new PageContentDbIterator();
 
 		try {
-			PreparedStatement preStatement = connection.prepareStatement(SELECT_CRAWLED_PAGES_TO_RECALCULATE);
+			PreparedStatement preStatement = connection.prepareStatement(withContent ? SELECT_CONTENTS_TO_SCORE
+					: SELECT_TERM_VECTORS_TO_SCORE);
+			preStatement.setLong(1, firstId);
+			preStatement.setLong(2, lastId);
 			ResultSet result = preStatement.executeQuery();
-			pageIterator = new PageDbIterator(result, true);
+			pageContentIterator = new PageContentDbIterator(result);
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get crawled pages to recalculate score", e);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get contents to score", e);
 		}
 
-		return pageIterator;
+		return pageContentIterator;
+	}
+
+	/**
+	 * Selects the outgoing links of the crawled pages (to pages in database)
+	 * and return an iterator
+	 * @return the link identifier iterator
+	 */
+	public LinkIdDbIterator getCrawledLinkIds() {
+		LinkIdDbIterator linkIdIterator = new LinkIdDbIterator();
+
+		try {
+			PreparedStatement preStatement = connection.prepareStatement(SELECT_CRAWLED_LINK_IDS);
+			ResultSet result = preStatement.executeQuery();
+			linkIdIterator = new LinkIdDbIterator(result);
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get crawled link ids", e);
+		}
+
+		return linkIdIterator;
 	}
 
 	/**
 	 * Selects crawled pages with a content and return an iterator
-	 * @return the page iterator
+	 * @param withContent true to select all the contents, false to select
+	 *            only the contents of the pages without term vector
+	 * @return the page content iterator
 	 */
-	public PageDbIterator getPagesWithContent() {
-		PageDbIterator pageIterator = new PageDbIterator();
+	public PageContentDbIterator getPagesWithContent(boolean withContent) {
+		PageContentDbIterator pageContentIterator = new PageContentDbIterator();
 
 		try {
-			PreparedStatement preStatement = connection.prepareStatement(SELECT_PAGES_WITH_CONTENT);
+			PreparedStatement preStatement = connection.prepareStatement(withContent ? SELECT_PAGES_WITH_CONTENT
+					: SELECT_PAGES_WITH_TERM_VECTOR);
 			ResultSet result = preStatement.executeQuery();
-			pageIterator = new PageDbIterator(result, true);
+			pageContentIterator = new PageContentDbIterator(result);
 		} catch (SQLException e) {
 			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get pages with a content", e);
 		}
 
-		return pageIterator;
+		return pageContentIterator;
 	}
 
 	/**
 	 * Selects crawled pages with a content from a domain and return an iterator
-	 * @return the page iterator
+	 * @param domain the domain
+	 * @param withContent true to select all the contents, false to select
+	 *            only the contents of the pages without term vector
+	 * @return the page content iterator
 	 */
-	public PageDbIterator getPagesWithContent(Domain domain) {
-		PageDbIterator pageIterator = new PageDbIterator();
+	public PageContentDbIterator getPagesWithContent(Domain domain, boolean withContent) {
+		PageContentDbIterator pageContentIterator = new PageContentDbIterator();
 
 		try {
-			StringBuilder sql = new StringBuilder(SELECT_PAGES_WITH_CONTENT);
+			StringBuilder sql = new StringBuilder(withContent ? SELECT_PAGES_WITH_CONTENT
+					: SELECT_PAGES_WITH_TERM_VECTOR);
 			sql.append(WITH_CONTENT_AND_DOMAIN);
 
 			PreparedStatement preStatement = connection.prepareStatement(sql.toString());
 			JdbcTools.setString(preStatement, 1, domain.getName());
 
 			ResultSet result = preStatement.executeQuery();
-			pageIterator = new PageDbIterator(result, true);
+			pageContentIterator = new PageContentDbIterator(result);
 		} catch (SQLException e) {
 			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE,
 					"Error to get pages from a domain with a content", e);
 		}
 
-		return pageIterator;
+		return pageContentIterator;
 	}
 
 	/**
-	 * Return the number of crawled pages
-	 * @return the number of crawled pages
+	 * Seed the crawl counters with the numbers of pages and the crawled sites
+	 * (the blacklisted sites aren't counted)
+	 * @param crawlCounters the crawl counters
 	 */
-	public int getCrawledPagesNumber() {
-		Integer crawledPagesNumber = 0;
+	public void addPagesNumbers(CrawlCounters crawlCounters) {
 		PreparedStatement preStatement = null;
 		ResultSet result = null;
 
 		try {
-			preStatement = connection.prepareStatement(COUNT_CRAWLED_PAGES_NUMBER);
+			preStatement = getPreparedStatement(COUNT_TRUNCATED_PAGES_NUMBER);
+			result = preStatement.executeQuery();
+			result.next();
+			int truncatedPagesNumber = result.getInt("truncatedPagesNumber");
+			close(result, preStatement);
+
+			preStatement = getPreparedStatement(COUNT_PAGES_NUMBERS);
 			result = preStatement.executeQuery();
 			result.next();
-			crawledPagesNumber = JdbcTools.getInteger(result, "crawledPagesNumber");
+			crawlCounters.addPagesNumbers(result.getInt("crawledPagesNumber"), result.getInt("foundPagesNumber"),
+					result.getInt("errorPagesNumber"), result.getInt("redirectPagesNumber"), truncatedPagesNumber);
+			close(result, preStatement);
+
+			preStatement = getPreparedStatement(SELECT_CRAWLED_DOMAINS);
+			result = preStatement.executeQuery();
+			while (result.next()) {
+				crawlCounters.addCrawledDomain(JdbcTools.getString(result, DOMAIN));
+			}
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get crawled pages number", e);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get pages numbers", e);
+		} finally {
+			close(result, preStatement);
+		}
+	}
+
+	/**
+	 * Get the crawl state of the pages before they are updated (crawl time,
+	 * redirection, crawl error and truncation)
+	 * @param pages the pages
+	 * @return the crawl states by link (the pages not in database are missing)
+	 */
+	public Map<Link, Page> getCrawlStates(List<Page> pages) {
+		Map<Link, Page> crawlStateMap = new HashMap<Link, Page>();
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		try {
+			preStatement = getPreparedStatement(SELECT_CRAWL_STATE);
+			for (Page page : pages) {
+				Link link = page.getLink();
+				JdbcTools.setString(preStatement, 1, link.getDomain().getName());
+				JdbcTools.setString(preStatement, 2, link.getLinkPath().getPath());
+				JdbcTools.setString(preStatement, 3, link.getLinkPath().getProtocol());
+				result = preStatement.executeQuery();
+				if (result.next()) {
+					Page crawlState = new Page(link);
+					crawlState.setCrawlTime(JdbcTools.getDate(result, CRAWL_TIME));
+					crawlState.setRedirectPage(JdbcTools.getBoolean(result, REDIRECT_PAGE));
+					crawlState.setCrawlError(JdbcTools.getString(result, CRAWL_ERROR));
+					crawlState.setTruncation(JdbcTools.getString(result, TRUNCATION));
+					crawlStateMap.put(link, crawlState);
+				}
+				result.close();
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get crawl states", e);
+			errorOccurred();
 		} finally {
 			close(result, preStatement);
 		}
 
-		return crawledPagesNumber;
+		return crawlStateMap;
 	}
 
-	// UPDATE AND INSERT
+	/**
+	 * Get the links of all the pages of a domain
+	 * @param domain the domain
+	 * @return the links of the pages
+	 */
+	public List<Link> getDomainLinks(Domain domain) {
+		List<Link> linkList = new ArrayList<Link>();
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		try {
+			preStatement = getPreparedStatement(SELECT_DOMAIN_LINKS);
+			JdbcTools.setString(preStatement, 1, domain.getName());
+			result = preStatement.executeQuery();
+			while (result.next()) {
+				linkList.add(new Link(JdbcTools.getString(result, PROTOCOL), JdbcTools.getString(result, DOMAIN),
+						JdbcTools.getString(result, PATH)));
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get domain links", e);
+			errorOccurred();
+		} finally {
+			close(result, preStatement);
+		}
+
+		return linkList;
+	}
 
 	/**
-	 * Update the crawled page
-	 * @param crawledPage the crawled page
+	 * Selects the identifiers of the pages
+	 * @param links the links of the pages
+	 * @return the identifiers by link (the pages not in database are missing)
 	 */
-	public void updateCrawledPage(Page crawledPage) {
-		int internLinksNumber = crawledPage.getOutgoingInternLinks().size();
-		int externLinksNumber = crawledPage.getOutgoingExternLinks().size();
+	public Map<Link, Long> getPageIds(Collection<Link> links) {
+		Map<Link, Long> pageIds = new HashMap<Link, Long>();
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
 
-		// Update page
-		StringBuilder sql = new StringBuilder(UPDATE_CRAWLED_PAGE);
+		try {
+			preStatement = getPreparedStatement(SELECT_PAGE_ID);
+			for (Link link : links) {
+				if (!pageIds.containsKey(link)) {
+					JdbcTools.setString(preStatement, 1, link.getDomain().getName());
+					JdbcTools.setString(preStatement, 2, link.getLinkPath().getPath());
+					JdbcTools.setString(preStatement, 3, link.getLinkPath().getProtocol());
+					result = preStatement.executeQuery();
+					if (result.next()) {
+						pageIds.put(link, result.getLong(PAGE_ID));
+					}
+					result.close();
+				}
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get page ids", e);
+			errorOccurred();
+		} finally {
+			close(result, preStatement);
+		}
+
+		return pageIds;
+	}
 
+	/**
+	 * Add the links of all the pages to the seen link filter
+	 * @param seenLinkFilter the seen link filter
+	 */
+	public void addAllLinks(SeenLinkFilter seenLinkFilter) {
 		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
 		try {
-			preStatement = connection.prepareStatement(sql.toString());
-
-			JdbcTools.setDouble(preStatement, 1, crawledPage.getScore());
-			JdbcTools.setString(preStatement, 2, crawledPage.getTitle(), 2048);
-			JdbcTools.setClob(preStatement, 3, crawledPage.getContent());
-			JdbcTools.setDate(preStatement, 4, crawledPage.getCrawlTime());
-			JdbcTools.setBoolean(preStatement, 5, crawledPage.getRedirectPage());
-			JdbcTools.setBoolean(preStatement, 6, false);
-			JdbcTools.setString(preStatement, 7, crawledPage.getCrawlError(), 10_000);
-			JdbcTools.setInteger(preStatement, 8, internLinksNumber);
-			JdbcTools.setInteger(preStatement, 9, externLinksNumber);
-			JdbcTools.setString(preStatement, 10, crawledPage.getLink().getDomain().getName());
-			JdbcTools.setString(preStatement, 11, crawledPage.getLink().getLinkPath().getPath());
-			JdbcTools.setString(preStatement, 12, crawledPage.getLink().getLinkPath().getProtocol());
+			preStatement = connection.prepareStatement(SELECT_ALL_LINKS);
+			result = preStatement.executeQuery();
+			while (result.next()) {
+				seenLinkFilter.add(JdbcTools.getString(result, PROTOCOL), JdbcTools.getString(result, DOMAIN),
+						JdbcTools.getString(result, PATH));
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to get all links", e);
+		} finally {
+			close(result, preStatement);
+		}
+	}
 
-			preStatement.executeUpdate();
+	// UPDATE AND INSERT
+
+	/**
+	 * Update the crawled pages with a JDBC batch (the lock of the page table is
+	 * held until the end of the transaction)
+	 * @param crawledPages the crawled pages
+	 */
+	public void updateCrawledPages(List<Page> crawledPages) {
+		PreparedStatement preStatement = null;
+		try {
+			preStatement = getPreparedStatement(UPDATE_CRAWLED_PAGE);
+			for (Page crawledPage : crawledPages) {
+				JdbcTools.setDouble(preStatement, 1, crawledPage.getScore());
+				JdbcTools.setString(preStatement, 2, crawledPage.getTitle(), 2048);
+				JdbcTools.setDate(preStatement, 3, crawledPage.getCrawlTime());
+				JdbcTools.setBoolean(preStatement, 4, crawledPage.getRedirectPage());
+				JdbcTools.setBoolean(preStatement, 5, false);
+				JdbcTools.setString(preStatement, 6, crawledPage.getCrawlError(), 10_000);
+				JdbcTools.setInteger(preStatement, 7, crawledPage.getOutgoingInternLinks().size());
+				JdbcTools.setInteger(preStatement, 8, crawledPage.getOutgoingExternLinks().size());
+				JdbcTools.setString(preStatement, 9, crawledPage.getETag(), 255);
+				JdbcTools.setString(preStatement, 10, crawledPage.getLastModified(), 64);
+				JdbcTools.setString(preStatement, 11, crawledPage.getContentDigest(), 64);
+				JdbcTools.setString(preStatement, 12, crawledPage.getLink().getDomain().getName());
+				JdbcTools.setString(preStatement, 13, crawledPage.getLink().getLinkPath().getPath());
+				JdbcTools.setString(preStatement, 14, crawledPage.getLink().getLinkPath().getProtocol());
+				preStatement.addBatch();
+			}
+			preStatement.executeBatch();
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update crawled page", e);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update crawled pages", e);
 			errorOccurred();
 		} finally {
 			close(preStatement);
 		}
 
-		// Insert links (but before delete old links)
+	}
+
+	/**
+	 * Save the contents of the crawled pages (in the content table) with a
+	 * JDBC batch
+	 * @param crawledPages the crawled pages
+	 * @param pageIds the identifiers of the crawled pages
+	 */
+	public void updateContents(List<Page> crawledPages, Map<Link, Long> pageIds) {
+		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(DELETE_LINKS);
-			JdbcTools.setString(preStatement, 1, crawledPage.getLink().getDomain().getName());
-			JdbcTools.setString(preStatement, 2, crawledPage.getLink().getLinkPath().getPath());
-			JdbcTools.setString(preStatement, 3, crawledPage.getLink().getLinkPath().getProtocol());
-			preStatement.executeUpdate();
+			preStatement = getPreparedStatement(MERGE_PAGE_CONTENT);
+			for (Page crawledPage : crawledPages) {
+				Long pageId = pageIds.get(crawledPage.getLink());
+				if (pageId != null) {
+					preStatement.setLong(1, pageId);
+					JdbcTools.setBlob(preStatement, 2, ContentCodec.encode(crawledPage.getContent()));
+					JdbcTools.setBlob(preStatement, 3, crawledPage.getTermVector());
+					JdbcTools.setString(preStatement, 4, crawledPage.getTruncation(), 255);
+					preStatement.addBatch();
+				}
+			}
+			preStatement.executeBatch();
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to delete links", e);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update page contents", e);
 			errorOccurred();
 		} finally {
 			close(preStatement);
 		}
+	}
+
+	/**
+	 * Replace the outgoing links of the crawled pages with JDBC batches (the
+	 * targets of the links must be saved before)
+	 * @param crawledPages the crawled pages
+	 * @param pageIds the identifiers of the crawled pages and of their targets
+	 */
+	public void updateLinks(List<Page> crawledPages, Map<Link, Long> pageIds) {
+		PreparedStatement preStatement = null;
 
-		if (internLinksNumber + externLinksNumber > 0) {
-			sql = new StringBuilder(INSERT_LINKS);
-			for (int i = 1; i < internLinksNumber + externLinksNumber; i++) {
-				sql.append(INSERT_LINKS_PARAMS);
+		// Insert links (but before delete old links)
+		try {
+			preStatement = getPreparedStatement(DELETE_LINKS);
+			for (Page crawledPage : crawledPages) {
+				Long sourceId = pageIds.get(crawledPage.getLink());
+				if (sourceId != null) {
+					preStatement.setLong(1, sourceId);
+					preStatement.addBatch();
+				}
 			}
+			preStatement.executeBatch();
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to delete links", e);
+			errorOccurred();
+		} finally {
+			close(preStatement);
+		}
 
-			try {
-				preStatement = connection.prepareStatement(sql.toString());
+		try {
+			preStatement = getPreparedStatement(INSERT_LINKS);
+			for (Page crawledPage : crawledPages) {
+				Long sourceId = pageIds.get(crawledPage.getLink());
 				List<Link> outgoingLinks = new ArrayList<Link>(crawledPage.getOutgoingInternLinks());
 				outgoingLinks.addAll(crawledPage.getOutgoingExternLinks());
-				int paramIndex = 1;
 				for (Link link : outgoingLinks) {
-					JdbcTools.setString(preStatement, paramIndex++, crawledPage.getLink().getDomain().getName());
-					JdbcTools.setString(preStatement, paramIndex++, crawledPage.getLink().getLinkPath().getPath());
-					JdbcTools.setString(preStatement, paramIndex++, crawledPage.getLink().getLinkPath().getProtocol());
-					JdbcTools.setString(preStatement, paramIndex++, link.getDomain().getName());
-					JdbcTools.setString(preStatement, paramIndex++, link.getLinkPath().getPath());
-					JdbcTools.setString(preStatement, paramIndex++, link.getLinkPath().getProtocol());
+					Long targetId = pageIds.get(link);
+					if (sourceId != null && targetId != null) {
+						preStatement.setLong(1, sourceId);
+						preStatement.setLong(2, targetId);
+						preStatement.addBatch();
+					}
 				}
-				preStatement.executeUpdate();
+			}
+			preStatement.executeBatch();
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to insert links", e);
+			errorOccurred();
+		} finally {
+			close(preStatement);
+		}
+	}
+
+
+	/**
+	 * Update the pages which haven't changed since their previous crawl (only
+	 * the crawl time and the validators are updated, the content and the
+	 * links are kept)
+	 * @param unchangedPages the unchanged pages
+	 */
+	public void updateUnchangedPages(List<Page> unchangedPages) {
+		PreparedStatement preStatement = null;
+		try {
+			preStatement = getPreparedStatement(UPDATE_UNCHANGED_PAGE);
+			for (Page unchangedPage : unchangedPages) {
+				JdbcTools.setDate(preStatement, 1, unchangedPage.getCrawlTime());
+				JdbcTools.setBoolean(preStatement, 2, false);
+				JdbcTools.setString(preStatement, 3, unchangedPage.getETag(), 255);
+				JdbcTools.setString(preStatement, 4, unchangedPage.getLastModified(), 64);
+				JdbcTools.setString(preStatement, 5, unchangedPage.getLink().getDomain().getName());
+				JdbcTools.setString(preStatement, 6, unchangedPage.getLink().getLinkPath().getPath());
+				JdbcTools.setString(preStatement, 7, unchangedPage.getLink().getLinkPath().getProtocol());
+				preStatement.addBatch();
+			}
+			preStatement.executeBatch();
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update unchanged pages", e);
+			errorOccurred();
+		} finally {
+			close(preStatement);
+		}
+	}
+
+	/**
+	 * Merge the found pages (found after crawling) with a JDBC batch. Each found
+	 * page gathers all its occurrences : the minimal deep, the maximal score
+	 * and all the incoming links. The pages unknown by the seen link filter
+	 * are inserted without being selected. It must be called in a transaction
+	 * which already holds the lock of the page table (see updateCrawledPages).
+	 * @param foundPages the found pages
+	 * @return the state of the found pages after the update (without content,
+	 *         a page inserted in database is the given found page)
+	 */
+	public Map<Link, Page> mergeFoundPages(Collection<Page> foundPages) {
+		Map<Link, Page> updatedPageMap = new HashMap<Link, Page>();
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		SeenLinkFilter seenLinkFilter = DbmsManager.get().getSeenLinkFilter();
+		List<Page> newPages = new ArrayList<Page>();
+
+		try {
+			preStatement = getPreparedStatement(SELECT_PAGE);
+			for (Page foundPage : foundPages) {
+				// A link unknown by the filter isn't in database : no need to select it
+				if (seenLinkFilter != null && !seenLinkFilter.mightContain(foundPage.getLink())) {
+					seenLinkFilter.add(foundPage.getLink());
+					foundPage.setIncomingInternLinksNumber(foundPage.getIncomingInternLinks().size());
+					foundPage.setIncomingExternLinksNumber(foundPage.getIncomingExternLinks().size());
+					newPages.add(foundPage);
+					continue;
+				}
+
+				JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
+				JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
+				JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
+				result = preStatement.executeQuery();
+				Page updatedPage;
+				if (result.next()) {
+					updatedPage = mergeFoundPage(toPageWithoutContent(result), foundPage);
+				} else {
+					updatedPage = foundPage;
+					updatedPage.setIncomingInternLinksNumber(foundPage.getIncomingInternLinks().size());
+					updatedPage.setIncomingExternLinksNumber(foundPage.getIncomingExternLinks().size());
+					if (seenLinkFilter != null) {
+						seenLinkFilter.add(foundPage.getLink());
+					}
+				}
+				result.close();
+				updatedPageMap.put(updatedPage.getLink(), updatedPage);
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to select found pages", e);
+			errorOccurred();
+		} finally {
+			close(result, preStatement);
+		}
+
+		if (!newPages.isEmpty()) {
+			try {
+				preStatement = getPreparedStatement(INSERT_FOUND_PAGE);
+				for (Page newPage : newPages) {
+					setFoundPageParameters(preStatement, newPage);
+					preStatement.addBatch();
+				}
+				preStatement.executeBatch();
+			} catch (SQLException e) {
+				Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to insert found pages", e);
+				errorOccurred();
+			} finally {
+				close(preStatement);
+			}
+		}
+
+		if (!updatedPageMap.isEmpty()) {
+			try {
+				preStatement = getPreparedStatement(MERGE_FOUND_PAGE);
+				for (Page updatedPage : updatedPageMap.values()) {
+					setFoundPageParameters(preStatement, updatedPage);
+					preStatement.addBatch();
+				}
+				preStatement.executeBatch();
 			} catch (SQLException e) {
-				Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to insert links", e);
+				Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to merge found pages", e);
 				errorOccurred();
 			} finally {
 				close(preStatement);
 			}
 		}
+
+		for (Page newPage : newPages) {
+			updatedPageMap.put(newPage.getLink(), newPage);
+		}
+		return updatedPageMap;
+	}
+
+	/**
+	 * Set the parameters of INSERT_FOUND_PAGE and MERGE_FOUND_PAGE
+	 * @param preStatement the prepared statement
+	 * @param foundPage the found page
+	 * @throws SQLException if a parameter can't be set
+	 */
+	private static void setFoundPageParameters(PreparedStatement preStatement, Page foundPage) throws SQLException {
+		JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
+		JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
+		JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
+		JdbcTools.setInteger(preStatement, 4, foundPage.getInnerDeep());
+		JdbcTools.setInteger(preStatement, 5, foundPage.getOuterDeep());
+		JdbcTools.setDouble(preStatement, 6, foundPage.getScore());
+		JdbcTools.setBoolean(preStatement, 7, foundPage.getCrawlNow());
+		JdbcTools.setInteger(preStatement, 8, foundPage.getIncomingInternLinksNumber());
+		JdbcTools.setInteger(preStatement, 9, foundPage.getIncomingExternLinksNumber());
+		JdbcTools.setBoolean(preStatement, 10, foundPage.getAllowCrawl());
+	}
+
+	/**
+	 * Merge a found page with its state in database (same rules as
+	 * updateFoundPage)
+	 * @param pageInDatabase the page in database
+	 * @param foundPage the found page
+	 * @return the state of the found page after the merge
+	 */
+	private static Page mergeFoundPage(Page pageInDatabase, Page foundPage) {
+		if (pageInDatabase.getOuterDeep().intValue() > foundPage.getOuterDeep().intValue()) {
+			pageInDatabase.setOuterDeep(foundPage.getOuterDeep());
+			pageInDatabase.setInnerDeep(foundPage.getInnerDeep());
+		} else if (pageInDatabase.getOuterDeep().intValue() == foundPage.getOuterDeep().intValue()
+				&& pageInDatabase.getInnerDeep().intValue() > foundPage.getInnerDeep().intValue()) {
+			pageInDatabase.setInnerDeep(foundPage.getInnerDeep());
+		}
+
+		// The score isn't updated if CRAWL_NOW = true
+		if (foundPage.getCrawlNow()) {
+			pageInDatabase.setCrawlNow(true);
+		} else if (pageInDatabase.getCrawlTime() == null
+				&& (pageInDatabase.getScore() == null || pageInDatabase.getScore() < foundPage.getScore())) {
+			pageInDatabase.setScore(foundPage.getScore());
+		}
+
+		int internLinksNumber = foundPage.getIncomingInternLinks().size();
+		if (pageInDatabase.getIncomingInternLinksNumber() != null) {
+			internLinksNumber += pageInDatabase.getIncomingInternLinksNumber();
+		}
+		pageInDatabase.setIncomingInternLinksNumber(internLinksNumber);
+
+		int externLinksNumber = foundPage.getIncomingExternLinks().size();
+		if (pageInDatabase.getIncomingExternLinksNumber() != null) {
+			externLinksNumber += pageInDatabase.getIncomingExternLinksNumber();
+		}
+		pageInDatabase.setIncomingExternLinksNumber(externLinksNumber);
+
+		return pageInDatabase;
 	}
 
 	/**
 	 * Update the found page (found after crawling)
 	 * @param foundPage the found page
+	 * @return the state of the found page after the update (without content)
+	 *         or null if it can't be known
 	 */
-	public void updateFoundPage(Page foundPage) {
+	public Page updateFoundPage(Page foundPage) {
 		Page foundPageInDatabase = null;
+		Page updatedPage = null;
 		PreparedStatement preStatement = null;
 		ResultSet result = null;
 
-		try {
-			preStatement = connection.prepareStatement(SELECT_PAGE);
-			JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
-			JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
-			JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
-			result = preStatement.executeQuery();
-			if (result.next()) {
-				foundPageInDatabase = toPageWithoutContent(result);
+		// A link unknown by the filter isn't in database : no need to select it
+		SeenLinkFilter seenLinkFilter = DbmsManager.get().getSeenLinkFilter();
+		if (seenLinkFilter == null || seenLinkFilter.mightContain(foundPage.getLink())) {
+			try {
+				preStatement = getPreparedStatement(SELECT_PAGE);
+				JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
+				JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
+				JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
+				result = preStatement.executeQuery();
+				if (result.next()) {
+					foundPageInDatabase = toPageWithoutContent(result);
+				}
+			} catch (SQLException e) {
+				Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to select found page", e);
+				errorOccurred();
+			} finally {
+				close(result, preStatement);
 			}
-		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to select found page", e);
-			errorOccurred();
-		} finally {
-			close(result, preStatement);
 		}
 
 		// if foundPage doesn't exist in database
 		if (foundPageInDatabase == null) {
+			// The filter is updated before the insert so that it never misses a link in database
+			if (seenLinkFilter != null) {
+				seenLinkFilter.add(foundPage.getLink());
+			}
+
 			try {
-				preStatement = connection.prepareStatement(INSERT_PAGE);
+				preStatement = getPreparedStatement(INSERT_PAGE);
 				JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
 				JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
 				JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
@@ -661,6 +1180,10 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 				JdbcTools.setDouble(preStatement, 6, foundPage.getScore());
 				JdbcTools.setBoolean(preStatement, 7, foundPage.getCrawlNow());
 				preStatement.executeUpdate();
+
+				updatedPage = foundPage;
+				updatedPage.setIncomingInternLinksNumber(0);
+				updatedPage.setIncomingExternLinksNumber(0);
 			} catch (SQLException e) {
 				if (!e.getSQLState().equals(DUPLICATE_KEY_SQL_STATE)) {
 					Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to insert found page", e);
@@ -672,10 +1195,11 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 
 		} else {
 			// if foundPage exists in database
+			updatedPage = foundPageInDatabase;
 			try {
 
 				if (foundPageInDatabase.getOuterDeep().intValue() > foundPage.getOuterDeep().intValue()) {
-					preStatement = connection.prepareStatement(UPDATE_OUTER_DEEP);
+					preStatement = getPreparedStatement(UPDATE_OUTER_DEEP);
 					JdbcTools.setInteger(preStatement, 1, foundPage.getOuterDeep());
 					JdbcTools.setInteger(preStatement, 2, foundPage.getInnerDeep());
 					JdbcTools.setString(preStatement, 3, foundPage.getLink().getDomain().getName());
@@ -683,10 +1207,12 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 					JdbcTools.setString(preStatement, 5, foundPage.getLink().getLinkPath().getProtocol());
 					JdbcTools.setInteger(preStatement, 6, foundPage.getOuterDeep());
 					preStatement.executeUpdate();
+					updatedPage.setOuterDeep(foundPage.getOuterDeep());
+					updatedPage.setInnerDeep(foundPage.getInnerDeep());
 
 				} else if (foundPageInDatabase.getOuterDeep().intValue() == foundPage.getOuterDeep().intValue()
 						&& foundPageInDatabase.getInnerDeep().intValue() > foundPage.getInnerDeep().intValue()) {
-					preStatement = connection.prepareStatement(UPDATE_INNER_DEEP);
+					preStatement = getPreparedStatement(UPDATE_INNER_DEEP);
 					JdbcTools.setInteger(preStatement, 1, foundPage.getInnerDeep());
 					JdbcTools.setString(preStatement, 2, foundPage.getLink().getDomain().getName());
 					JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getPath());
@@ -694,29 +1220,32 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 					JdbcTools.setInteger(preStatement, 5, foundPage.getInnerDeep());
 					JdbcTools.setInteger(preStatement, 6, foundPage.getOuterDeep());
 					preStatement.executeUpdate();
+					updatedPage.setInnerDeep(foundPage.getInnerDeep());
 				}
 
 				close(preStatement);
 
 				if (foundPage.getCrawlNow()) {
-					preStatement = connection.prepareStatement(UPDATE_CRAWL_NOW);
+					preStatement = getPreparedStatement(UPDATE_CRAWL_NOW);
 					JdbcTools.setBoolean(preStatement, 1, foundPage.getCrawlNow());
 					JdbcTools.setString(preStatement, 2, foundPage.getLink().getDomain().getName());
 					JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getPath());
 					JdbcTools.setString(preStatement, 4, foundPage.getLink().getLinkPath().getProtocol());
 					preStatement.executeUpdate();
+					updatedPage.setCrawlNow(true);
 
 					// "else if" used because we dont update the score if
 					// CRAWL_NOW = true
 				} else if (foundPageInDatabase.getCrawlTime() == null
 						&& foundPageInDatabase.getScore() < foundPage.getScore()) {
-					preStatement = connection.prepareStatement(UPDATE_FOUND_PAGE_SCORE);
+					preStatement = getPreparedStatement(UPDATE_FOUND_PAGE_SCORE);
 					JdbcTools.setDouble(preStatement, 1, foundPage.getScore());
 					JdbcTools.setString(preStatement, 2, foundPage.getLink().getDomain().getName());
 					JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getPath());
 					JdbcTools.setString(preStatement, 4, foundPage.getLink().getLinkPath().getProtocol());
 					JdbcTools.setDouble(preStatement, 5, foundPage.getScore());
 					preStatement.executeUpdate();
+					updatedPage.setScore(foundPage.getScore());
 				}
 			} catch (SQLException e) {
 				Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update found page", e);
@@ -728,17 +1257,23 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 
 		try {
 			if (!foundPage.getIncomingInternLinks().isEmpty()) {
-				preStatement = connection.prepareStatement(UPDATE_INCOMING_INTERN_LINKS_NUMBER);
+				preStatement = getPreparedStatement(UPDATE_INCOMING_INTERN_LINKS_NUMBER);
 				JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
 				JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
 				JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
 				preStatement.executeUpdate();
+				if (updatedPage != null && updatedPage.getIncomingInternLinksNumber() != null) {
+					updatedPage.setIncomingInternLinksNumber(updatedPage.getIncomingInternLinksNumber() + 1);
+				}
 			} else if (!foundPage.getIncomingExternLinks().isEmpty()) {
-				preStatement = connection.prepareStatement(UPDATE_INCOMING_EXTERN_LINKS_NUMBER);
+				preStatement = getPreparedStatement(UPDATE_INCOMING_EXTERN_LINKS_NUMBER);
 				JdbcTools.setString(preStatement, 1, foundPage.getLink().getDomain().getName());
 				JdbcTools.setString(preStatement, 2, foundPage.getLink().getLinkPath().getPath());
 				JdbcTools.setString(preStatement, 3, foundPage.getLink().getLinkPath().getProtocol());
 				preStatement.executeUpdate();
+				if (updatedPage != null && updatedPage.getIncomingExternLinksNumber() != null) {
+					updatedPage.setIncomingExternLinksNumber(updatedPage.getIncomingExternLinksNumber() + 1);
+				}
 			}
 		} catch (SQLException e) {
 			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update found page", e);
@@ -746,25 +1281,30 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 		} finally {
 			close(preStatement);
 		}
+
+		return updatedPage;
 	}
 
 	/**
-	 * Update the column "allowCrawl" for a page ("allowCrawl" indicates if the
-	 * robots.txt allow to crawl)
-	 * @param pageLink the link of a page
-	 * @param allowCrawl the value of "allowCrawl"
+	 * Update the column "allowCrawl" for several pages with a JDBC batch
+	 * ("allowCrawl" indicates if the robots.txt allow to crawl)
+	 * @param allowCrawlMap the values of "allowCrawl" by page link
 	 */
-	public void updateAllowCrawlPage(Link pageLink, boolean allowCrawl) {
+	public void updateAllowCrawlPages(Map<Link, Boolean> allowCrawlMap) {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(UPDATE_ALLOW_CRAWL);
-			JdbcTools.setBoolean(preStatement, 1, allowCrawl);
-			JdbcTools.setString(preStatement, 2, pageLink.getDomain().getName());
-			JdbcTools.setString(preStatement, 3, pageLink.getLinkPath().getPath());
-			JdbcTools.setString(preStatement, 4, pageLink.getLinkPath().getProtocol());
-			preStatement.executeUpdate();
+			preStatement = getPreparedStatement(UPDATE_ALLOW_CRAWL);
+			for (Map.Entry<Link, Boolean> allowCrawlEntry : allowCrawlMap.entrySet()) {
+				Link pageLink = allowCrawlEntry.getKey();
+				JdbcTools.setBoolean(preStatement, 1, allowCrawlEntry.getValue());
+				JdbcTools.setString(preStatement, 2, pageLink.getDomain().getName());
+				JdbcTools.setString(preStatement, 3, pageLink.getLinkPath().getPath());
+				JdbcTools.setString(preStatement, 4, pageLink.getLinkPath().getProtocol());
+				preStatement.addBatch();
+			}
+			preStatement.executeBatch();
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update allow crawl page", e);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update allow crawl pages", e);
 			errorOccurred();
 		} finally {
 			close(preStatement);
@@ -780,7 +1320,7 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	public void updateCrawlNow(Link pageLink, boolean crawlNow) {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(UPDATE_CRAWL_NOW);
+			preStatement = getPreparedStatement(UPDATE_CRAWL_NOW);
 			JdbcTools.setBoolean(preStatement, 1, crawlNow);
 			JdbcTools.setString(preStatement, 2, pageLink.getDomain().getName());
 			JdbcTools.setString(preStatement, 3, pageLink.getLinkPath().getPath());
@@ -795,24 +1335,48 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	}
 
 	/**
-	 * Update the score of a page
-	 * @param pageLink the link of a page
-	 * @param score the score
-	 * @param crawledPage indicates if the page is already crawled
+	 * Update the scores of pages with a JDBC batch
+	 * @param pageIds the identifiers of the pages
+	 * @param scores the scores (same order as the identifiers)
+	 * @param pageNumber the number of pages to update
 	 */
-	public void updateScorePage(Link pageLink, Double score) {
-		StringBuilder sql = new StringBuilder(UPDATE_SCORE_PAGE);
+	public void updateScores(long[] pageIds, double[] scores, int pageNumber) {
+		PreparedStatement preStatement = null;
+		try {
+			preStatement = getPreparedStatement(UPDATE_SCORE_BY_ID);
+			for (int i = 0; i < pageNumber; i++) {
+				preStatement.setDouble(1, scores[i]);
+				preStatement.setLong(2, pageIds[i]);
+				preStatement.addBatch();
+			}
+			preStatement.executeBatch();
+		} catch (SQLException e) {
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update scores", e);
+			errorOccurred();
+		} finally {
+			close(preStatement);
+		}
+	}
 
+	/**
+	 * Update the term vectors of pages with a JDBC batch
+	 * @param pageIds the identifiers of the pages
+	 * @param termVectors the encoded term vectors (same order as the
+	 *            identifiers)
+	 * @param pageNumber the number of pages to update
+	 */
+	public void updateTermVectors(long[] pageIds, byte[][] termVectors, int pageNumber) {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(sql.toString());
-			JdbcTools.setDouble(preStatement, 1, score);
-			JdbcTools.setString(preStatement, 2, pageLink.getDomain().getName());
-			JdbcTools.setString(preStatement, 3, pageLink.getLinkPath().getPath());
-			JdbcTools.setString(preStatement, 4, pageLink.getLinkPath().getProtocol());
-			preStatement.executeUpdate();
+			preStatement = getPreparedStatement(UPDATE_TERM_VECTOR_BY_ID);
+			for (int i = 0; i < pageNumber; i++) {
+				JdbcTools.setBlob(preStatement, 1, termVectors[i]);
+				preStatement.setLong(2, pageIds[i]);
+				preStatement.addBatch();
+			}
+			preStatement.executeBatch();
 		} catch (SQLException e) {
-			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update score page", e);
+			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to update term vectors", e);
 			errorOccurred();
 		} finally {
 			close(preStatement);
@@ -825,7 +1389,7 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	public void initAllScores() {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(UPDATE_INIT_ALL_SCORES);
+			preStatement = getPreparedStatement(UPDATE_INIT_ALL_SCORES);
 			preStatement.executeUpdate();
 		} catch (SQLException e) {
 			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to init all scores", e);
@@ -836,12 +1400,21 @@ public class PageDAO extends BaseDAO implements IPageQueryList {
 	}
 
 	/**
-	 * Delete all blacklisted pages (from SITE.BLACKLISTED)
+	 * Delete all blacklisted pages (from SITE.BLACKLISTED) and their links
 	 */
 	public void deleteBlacklistedPages() {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(DELETE_BLACKLISTED_PAGES);
+			// The identifiers of the deleted pages aren't reused
+			preStatement = getPreparedStatement(DELETE_BLACKLISTED_LINKS);
+			preStatement.executeUpdate();
+			close(preStatement);
+
+			preStatement = getPreparedStatement(DELETE_BLACKLISTED_CONTENTS);
+			preStatement.executeUpdate();
+			close(preStatement);
+
+			preStatement = getPreparedStatement(DELETE_BLACKLISTED_PAGES);
 			preStatement.executeUpdate();
 		} catch (SQLException e) {
 			Logger.getLogger(PageDAO.class.getName()).log(Level.SEVERE, "Error to delete all blacklisted pages", e);
@@ -22,6 +22,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -29,8 +30,11 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.mfcrawler.model.dao.BaseDAO;
+import org.mfcrawler.model.dao.DbmsManager;
 import org.mfcrawler.model.dao.JdbcTools;
+import org.mfcrawler.model.dao.RobotRulesCache;
 import org.mfcrawler.model.pojo.OverviewParams;
+import org.mfcrawler.model.pojo.site.RobotRules;
 import org.mfcrawler.model.pojo.site.Site;
 import org.mfcrawler.model.pojo.site.link.Domain;
 import org.mfcrawler.model.process.extraction.RobotExtractionUtil;
@@ -123,7 +127,8 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 	// SELECT
 
 	/**
-	 * Get site with robots.txt information from domain
+	 * Get site with robots.txt information from domain (the compiled rules of
+	 * robots.txt are cached)
 	 * @param domain the domain
 	 * @return the site
 	 */
@@ -133,13 +138,11 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		ResultSet result = null;
 
 		try {
-			preStatement = connection.prepareStatement(SELECT_SITE);
+			preStatement = getPreparedStatement(SELECT_SITE_WITHOUT_ROBOT_FILE);
 			JdbcTools.setString(preStatement, 1, domain.getName());
 			result = preStatement.executeQuery();
 			if (result.next()) {
 				site = toSite(result);
-				String robotFileContent = JdbcTools.getClob(result, ROBOT_FILE_CONTENT);
-				RobotExtractionUtil.extraction(site, robotFileContent);
 			}
 		} catch (SQLException e) {
 			Logger.getLogger(SiteDAO.class.getName()).log(Level.SEVERE, "Error to get site with robot info", e);
@@ -147,9 +150,53 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 			close(result, preStatement);
 		}
 
+		if (site != null) {
+			RobotRulesCache robotRulesCache = DbmsManager.get().getRobotRulesCache();
+			long crawlTime = (site.getCrawlTime() == null) ? 0 : site.getCrawlTime().getTime();
+			RobotRules robotRules = robotRulesCache.get(domain, crawlTime);
+			if (robotRules == null) {
+				RobotExtractionUtil.extraction(site, getRobotFileContent(domain));
+				robotRules = new RobotRules(site);
+				// The rules are cached once robots.txt is crawled
+				if (site.getRobotFileExist() != null) {
+					robotRulesCache.put(domain, robotRules);
+				}
+			}
+
+			site.setRobotPathList(robotRules.getRobotPathList());
+			site.setRobotCrawlDelay(robotRules.getRobotCrawlDelay());
+			site.setRobotRules(robotRules);
+		}
+
 		return site;
 	}
 
+	/**
+	 * Get the content of robots.txt of a site
+	 * @param domain the domain of the site
+	 * @return the content of robots.txt (null if it doesn't exist)
+	 */
+	private String getRobotFileContent(Domain domain) {
+		String robotFileContent = null;
+		PreparedStatement preStatement = null;
+		ResultSet result = null;
+
+		try {
+			preStatement = getPreparedStatement(SELECT_ROBOT_FILE_CONTENT);
+			JdbcTools.setString(preStatement, 1, domain.getName());
+			result = preStatement.executeQuery();
+			if (result.next()) {
+				robotFileContent = JdbcTools.getClob(result, ROBOT_FILE_CONTENT);
+			}
+		} catch (SQLException e) {
+			Logger.getLogger(SiteDAO.class.getName()).log(Level.SEVERE, "Error to get robot file content", e);
+		} finally {
+			close(result, preStatement);
+		}
+
+		return robotFileContent;
+	}
+
 	/**
 	 * Get site with all information from domain
 	 * @param domain the domain
@@ -162,7 +209,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 
 		try {
 			// site data
-			preStatement = connection.prepareStatement(SELECT_SITE);
+			preStatement = getPreparedStatement(SELECT_SITE);
 			JdbcTools.setString(preStatement, 1, domain.getName());
 			result = preStatement.executeQuery();
 			if (result.next()) {
@@ -173,7 +220,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 				close(result, preStatement);
 
 				// totalScore and CrawledPagesNumber
-				preStatement = connection.prepareStatement(SELECT_SITE_SCORE);
+				preStatement = getPreparedStatement(SELECT_SITE_SCORE);
 				JdbcTools.setString(preStatement, 1, domain.getName());
 				result = preStatement.executeQuery();
 				if (result.next()) {
@@ -188,7 +235,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 				close(result, preStatement);
 
 				// min outer deep
-				preStatement = connection.prepareStatement(SELECT_MIN_OUTER_DEEP);
+				preStatement = getPreparedStatement(SELECT_MIN_OUTER_DEEP);
 				JdbcTools.setString(preStatement, 1, domain.getName());
 				result = preStatement.executeQuery();
 				if (result.next()) {
@@ -199,7 +246,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 				close(result, preStatement);
 
 				// domain links
-				preStatement = connection.prepareStatement(SELECT_LINKS);
+				preStatement = getPreparedStatement(SELECT_LINKS);
 				JdbcTools.setString(preStatement, 1, domain.getName());
 				JdbcTools.setString(preStatement, 2, domain.getName());
 				result = preStatement.executeQuery();
@@ -302,7 +349,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		PreparedStatement preStatement = null;
 		ResultSet result = null;
 		try {
-			preStatement = connection.prepareStatement(sql.toString());
+			preStatement = getPreparedStatement(sql.toString());
 			result = preStatement.executeQuery();
 			while (result.next()) {
 				Domain domain = new Domain(JdbcTools.getString(result, DOMAIN));
@@ -317,31 +364,6 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		return domainList;
 	}
 
-	/**
-	 * Return the number of sites, build from overviewParams
-	 * @param params the overviewParams
-	 * @return the number of sites
-	 */
-	public int getCrawledSitesNumber() {
-		Integer crawledSitesNumber = 0;
-		PreparedStatement preStatement = null;
-		ResultSet result = null;
-
-		try {
-			preStatement = connection.prepareStatement(COUNT_CRAWLED_SITES_NUMBER);
-			result = preStatement.executeQuery();
-			if (result.next()) {
-				crawledSitesNumber = JdbcTools.getInteger(result, "crawledSitesNumber");
-			}
-		} catch (SQLException e) {
-			Logger.getLogger(SiteDAO.class.getName()).log(Level.SEVERE, "Error to get crawled sites number", e);
-		} finally {
-			close(result, preStatement);
-		}
-
-		return crawledSitesNumber;
-	}
-
 	// UPDATE AND INSERT
 
 	/**
@@ -354,7 +376,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		PreparedStatement preStatement = null;
 
 		try {
-			preStatement = connection.prepareStatement(UPDATE_SITE_ROBOT);
+			preStatement = getPreparedStatement(UPDATE_SITE_ROBOT);
 			JdbcTools.setDate(preStatement, 1, site.getCrawlTime());
 			JdbcTools.setBoolean(preStatement, 2, site.getRobotFileExist());
 			JdbcTools.setClob(preStatement, 3, robotFileContent);
@@ -366,6 +388,8 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		} finally {
 			close(preStatement);
 		}
+
+		DbmsManager.get().getRobotRulesCache().remove(site.getDomain());
 	}
 
 	/**
@@ -374,7 +398,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 	public void initBlacklist() {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(UPDATE_INIT_BLACKLIST);
+			preStatement = getPreparedStatement(UPDATE_INIT_BLACKLIST);
 			preStatement.executeUpdate();
 		} catch (SQLException e) {
 			Logger.getLogger(SiteDAO.class.getName()).log(Level.SEVERE, "Error to init blacklist", e);
@@ -391,7 +415,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 	public void insertEmptySite(Domain domain) {
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(INSERT_EMPTY_SITE);
+			preStatement = getPreparedStatement(INSERT_EMPTY_SITE);
 			JdbcTools.setString(preStatement, 1, domain.getName());
 			JdbcTools.setString(preStatement, 2, domain.getRootDomain());
 			preStatement.executeUpdate();
@@ -405,6 +429,29 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		}
 	}
 
+	/**
+	 * Insert the sites which don't exist yet with a JDBC batch (without
+	 * attribute except domain and root domain)
+	 * @param domains the domains of the sites
+	 */
+	public void mergeEmptySites(Collection<Domain> domains) {
+		PreparedStatement preStatement = null;
+		try {
+			preStatement = getPreparedStatement(MERGE_EMPTY_SITE);
+			for (Domain domain : domains) {
+				JdbcTools.setString(preStatement, 1, domain.getName());
+				JdbcTools.setString(preStatement, 2, domain.getRootDomain());
+				preStatement.addBatch();
+			}
+			preStatement.executeBatch();
+		} catch (SQLException e) {
+			Logger.getLogger(SiteDAO.class.getName()).log(Level.SEVERE, "Error to merge empty sites", e);
+			errorOccurred();
+		} finally {
+			close(preStatement);
+		}
+	}
+
 	/**
 	 * Update the column "blacklist" for a site
 	 * @param blacklistDomain the domain of the site
@@ -423,7 +470,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 				insertEmptySite(blacklistDomain);
 			}
 
-			preStatement = connection.prepareStatement(UPDATE_BLACKLIST);
+			preStatement = getPreparedStatement(UPDATE_BLACKLIST);
 			JdbcTools.setBoolean(preStatement, 1, blacklisted);
 			JdbcTools.setString(preStatement, 2, blacklistValue);
 			JdbcTools.setString(preStatement, 3, blacklistValueLike);
@@ -446,7 +493,7 @@ public class SiteDAO extends BaseDAO implements ISiteQueryList {
 		// This method update all the pages but don't update the site
 		PreparedStatement preStatement = null;
 		try {
-			preStatement = connection.prepareStatement(UPDATE_PAGES_CRAWL_NOW);
+			preStatement = getPreparedStatement(UPDATE_PAGES_CRAWL_NOW);
 			JdbcTools.setBoolean(preStatement, 1, crawlNow);
 			JdbcTools.setString(preStatement, 2, domain.getName());
 			preStatement.executeUpdate();
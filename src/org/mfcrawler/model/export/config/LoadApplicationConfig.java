@@ -29,6 +29,9 @@ import java.util.logging.Logger;
 
 import org.json.simple.JSONValue;
 import org.mfcrawler.model.pojo.ApplicationConfig;
+import org.mfcrawler.model.pojo.EAnalysisMode;
+import org.mfcrawler.model.pojo.EFetchMode;
+import org.mfcrawler.model.pojo.EParseMode;
 
 /**
  * Allows to load and save the application configuration
@@ -62,11 +65,61 @@ public class LoadApplicationConfig {
 	 */
 	private static final String AC_ROBOTS_TIMEOUT = "robotsRequestTimeout";
 
+	/**
+	 * Connect timeout key in json configuration file
+	 */
+	private static final String AC_CONNECT_TIMEOUT = "connectTimeout";
+
+	/**
+	 * Page maximum size key in json configuration file
+	 */
+	private static final String AC_PAGE_MAX_SIZE = "pageMaxSize";
+
+	/**
+	 * Page maximum download time key in json configuration file
+	 */
+	private static final String AC_PAGE_MAX_DOWNLOAD_TIME = "pageMaxDownloadTime";
+
 	/**
 	 * Forbidden file extensions key in json configuration file
 	 */
 	private static final String AC_FORBIDDEN_EXTENSIONS = "forbiddenFileExtensions";
 
+	/**
+	 * Fetch mode key in json configuration file
+	 */
+	private static final String AC_FETCH_MODE = "fetchMode";
+
+	/**
+	 * Async fetch number key in json configuration file
+	 */
+	private static final String AC_ASYNC_FETCH_NUMBER = "asyncFetchNumber";
+
+	/**
+	 * Seen link filter size key in json configuration file
+	 */
+	private static final String AC_SEEN_LINK_FILTER_SIZE = "seenLinkFilterSize";
+
+	/**
+	 * Parse mode key in json configuration file
+	 */
+	private static final String AC_PARSE_MODE = "parseMode";
+
+	/**
+	 * Analysis mode key in json configuration file
+	 */
+	private static final String AC_ANALYSIS_MODE = "analysisMode";
+
+	/**
+	 * Analysis word number key in json configuration file
+	 */
+	private static final String AC_ANALYSIS_WORD_NUMBER = "analysisWordNumber";
+
+	/**
+	 * Analysis sketch size key in json configuration file
+	 */
+	private static final String AC_ANALYSIS_SKETCH_SIZE = "analysisSketchSize";
+
 	/**
 	 * Proxy use key in json configuration file
 	 */
@@ -104,6 +157,37 @@ public class LoadApplicationConfig {
 				applicationConfig.setProxyUse((Boolean) jsonMap.get(AC_PROXY_USE));
 				applicationConfig.setProxyHost((String) jsonMap.get(AC_PROXY_HOST));
 				applicationConfig.setProxyPort(((Number) jsonMap.get(AC_PROXY_PORT)).intValue());
+				if (jsonMap.get(AC_CONNECT_TIMEOUT) != null) {
+					applicationConfig.setConnectTimeout(((Number) jsonMap.get(AC_CONNECT_TIMEOUT)).intValue());
+				}
+				if (jsonMap.get(AC_PAGE_MAX_SIZE) != null) {
+					applicationConfig.setPageMaxSize(((Number) jsonMap.get(AC_PAGE_MAX_SIZE)).intValue());
+				}
+				if (jsonMap.get(AC_PAGE_MAX_DOWNLOAD_TIME) != null) {
+					applicationConfig.setPageMaxDownloadTime(((Number) jsonMap.get(AC_PAGE_MAX_DOWNLOAD_TIME))
+							.intValue());
+				}
+				if (jsonMap.get(AC_FETCH_MODE) != null) {
+					applicationConfig.setFetchMode(EFetchMode.valueOf((String) jsonMap.get(AC_FETCH_MODE)));
+				}
+				if (jsonMap.get(AC_ASYNC_FETCH_NUMBER) != null) {
+					applicationConfig.setAsyncFetchNumber(((Number) jsonMap.get(AC_ASYNC_FETCH_NUMBER)).intValue());
+				}
+				if (jsonMap.get(AC_SEEN_LINK_FILTER_SIZE) != null) {
+					applicationConfig.setSeenLinkFilterSize(((Number) jsonMap.get(AC_SEEN_LINK_FILTER_SIZE)).intValue());
+				}
+				if (jsonMap.get(AC_PARSE_MODE) != null) {
+					applicationConfig.setParseMode(EParseMode.valueOf((String) jsonMap.get(AC_PARSE_MODE)));
+				}
+				if (jsonMap.get(AC_ANALYSIS_MODE) != null) {
+					applicationConfig.setAnalysisMode(EAnalysisMode.valueOf((String) jsonMap.get(AC_ANALYSIS_MODE)));
+				}
+				if (jsonMap.get(AC_ANALYSIS_WORD_NUMBER) != null) {
+					applicationConfig.setAnalysisWordNumber(((Number) jsonMap.get(AC_ANALYSIS_WORD_NUMBER)).intValue());
+				}
+				if (jsonMap.get(AC_ANALYSIS_SKETCH_SIZE) != null) {
+					applicationConfig.setAnalysisSketchSize(((Number) jsonMap.get(AC_ANALYSIS_SKETCH_SIZE)).intValue());
+				}
 			} catch (Exception e) {
 				Logger.getLogger(LoadApplicationConfig.class.getName()).log(Level.SEVERE, "Error to read config", e);
 			}
@@ -124,7 +208,17 @@ public class LoadApplicationConfig {
 			jsonMap.put(AC_USER_AGENT, applicationConfig.getUserAgent());
 			jsonMap.put(AC_PAGE_TIMEOUT, applicationConfig.getPageRequestTimeout());
 			jsonMap.put(AC_ROBOTS_TIMEOUT, applicationConfig.getRobotsRequestTimeout());
+			jsonMap.put(AC_CONNECT_TIMEOUT, applicationConfig.getConnectTimeout());
+			jsonMap.put(AC_PAGE_MAX_SIZE, applicationConfig.getPageMaxSize());
+			jsonMap.put(AC_PAGE_MAX_DOWNLOAD_TIME, applicationConfig.getPageMaxDownloadTime());
 			jsonMap.put(AC_FORBIDDEN_EXTENSIONS, applicationConfig.getForbiddenFileExtensions());
+			jsonMap.put(AC_FETCH_MODE, applicationConfig.getFetchMode().name());
+			jsonMap.put(AC_ASYNC_FETCH_NUMBER, applicationConfig.getAsyncFetchNumber());
+			jsonMap.put(AC_SEEN_LINK_FILTER_SIZE, applicationConfig.getSeenLinkFilterSize());
+			jsonMap.put(AC_PARSE_MODE, applicationConfig.getParseMode().name());
+			jsonMap.put(AC_ANALYSIS_MODE, applicationConfig.getAnalysisMode().name());
+			jsonMap.put(AC_ANALYSIS_WORD_NUMBER, applicationConfig.getAnalysisWordNumber());
+			jsonMap.put(AC_ANALYSIS_SKETCH_SIZE, applicationConfig.getAnalysisSketchSize());
 			jsonMap.put(AC_PROXY_USE, applicationConfig.getProxyUse());
 			jsonMap.put(AC_PROXY_HOST, applicationConfig.getProxyHost());
 			jsonMap.put(AC_PROXY_PORT, applicationConfig.getProxyPort());
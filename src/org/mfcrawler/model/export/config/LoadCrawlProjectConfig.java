@@ -66,6 +66,31 @@ public class LoadCrawlProjectConfig {
 	 */
 	private static final String CC_THREAD_NUMBER = "threadNumber";
 
+	/**
+	 * Parse thread number key in json configuration file
+	 */
+	private static final String CC_PARSE_THREAD_NUMBER = "parseThreadNumber";
+
+	/**
+	 * Score thread number key in json configuration file
+	 */
+	private static final String CC_SCORE_THREAD_NUMBER = "scoreThreadNumber";
+
+	/**
+	 * Persist thread number key in json configuration file
+	 */
+	private static final String CC_PERSIST_THREAD_NUMBER = "persistThreadNumber";
+
+	/**
+	 * Persist batch size key in json configuration file
+	 */
+	private static final String CC_PERSIST_BATCH_SIZE = "persistBatchSize";
+
+	/**
+	 * Persist flush interval key in json configuration file
+	 */
+	private static final String CC_PERSIST_FLUSH_INTERVAL = "persistFlushInterval";
+
 	/**
 	 * Inner deep key in json configuration file
 	 */
@@ -290,6 +315,21 @@ public class LoadCrawlProjectConfig {
 				crawlConfig.setCrawlDelay(((Number) jsonMap.get(CC_CRAWL_DELAY)).intValue());
 				crawlConfig.setForceCrawl((Boolean) jsonMap.get(CC_FORCE_CRAWL));
 				crawlConfig.setForceCrawlDelay(((Number) jsonMap.get(CC_FORCE_CRAWL_DELAY)).intValue());
+				if (jsonMap.get(CC_PARSE_THREAD_NUMBER) != null) {
+					crawlConfig.setParseThreadNumber(((Number) jsonMap.get(CC_PARSE_THREAD_NUMBER)).intValue());
+				}
+				if (jsonMap.get(CC_SCORE_THREAD_NUMBER) != null) {
+					crawlConfig.setScoreThreadNumber(((Number) jsonMap.get(CC_SCORE_THREAD_NUMBER)).intValue());
+				}
+				if (jsonMap.get(CC_PERSIST_THREAD_NUMBER) != null) {
+					crawlConfig.setPersistThreadNumber(((Number) jsonMap.get(CC_PERSIST_THREAD_NUMBER)).intValue());
+				}
+				if (jsonMap.get(CC_PERSIST_BATCH_SIZE) != null) {
+					crawlConfig.setPersistBatchSize(((Number) jsonMap.get(CC_PERSIST_BATCH_SIZE)).intValue());
+				}
+				if (jsonMap.get(CC_PERSIST_FLUSH_INTERVAL) != null) {
+					crawlConfig.setPersistFlushInterval(((Number) jsonMap.get(CC_PERSIST_FLUSH_INTERVAL)).intValue());
+				}
 			} catch (Exception e) {
 				Logger.getLogger(LoadCrawlProjectConfig.class.getName()).log(Level.SEVERE,
 						"Error to read crawl project", e);
@@ -316,6 +356,11 @@ public class LoadCrawlProjectConfig {
 			jsonMap.put(CC_CRAWL_DELAY, crawlConfig.getCrawlDelay());
 			jsonMap.put(CC_FORCE_CRAWL, crawlConfig.getForceCrawl());
 			jsonMap.put(CC_FORCE_CRAWL_DELAY, crawlConfig.getForceCrawlDelay());
+			jsonMap.put(CC_PARSE_THREAD_NUMBER, crawlConfig.getParseThreadNumber());
+			jsonMap.put(CC_SCORE_THREAD_NUMBER, crawlConfig.getScoreThreadNumber());
+			jsonMap.put(CC_PERSIST_THREAD_NUMBER, crawlConfig.getPersistThreadNumber());
+			jsonMap.put(CC_PERSIST_BATCH_SIZE, crawlConfig.getPersistBatchSize());
+			jsonMap.put(CC_PERSIST_FLUSH_INTERVAL, crawlConfig.getPersistFlushInterval());
 
 			File crawlConfigFile = new File(getCompleteFilename(projectName, CRAWL_CONFIG_FILENAME));
 			BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(crawlConfigFile));
@@ -49,11 +49,63 @@ public class ApplicationConfig implements IAppConfigParams {
 	 */
 	private Integer robotsRequestTimeout;
 
+	/**
+	 * Http connect timeout (in ms)
+	 */
+	private Integer connectTimeout;
+
+	/**
+	 * Maximum size of a fetched page (in ko), the rest of the content isn't
+	 * read
+	 */
+	private Integer pageMaxSize;
+
+	/**
+	 * Maximum download time of a page (in ms), the rest of the content isn't
+	 * read
+	 */
+	private Integer pageMaxDownloadTime;
+
 	/**
 	 * Forbidden filename extensions (separated by '|')
 	 */
 	private String forbiddenFileExtensions;
 
+	/**
+	 * The way the pages are fetched
+	 */
+	private EFetchMode fetchMode;
+
+	/**
+	 * Maximum number of fetches in flight (asynchronous fetch mode)
+	 */
+	private Integer asyncFetchNumber;
+
+	/**
+	 * Memory size of the seen links filter (in Mo)
+	 */
+	private Integer seenLinkFilterSize;
+
+	/**
+	 * The way the fetched pages are parsed
+	 */
+	private EParseMode parseMode;
+
+	/**
+	 * The way the words of all the crawled pages are analyzed
+	 */
+	private EAnalysisMode analysisMode;
+
+	/**
+	 * Number of words kept by the streaming analysis
+	 */
+	private Integer analysisWordNumber;
+
+	/**
+	 * Memory size of the streaming analysis sketch (in Mo)
+	 */
+	private Integer analysisSketchSize;
+
 	/**
 	 * Indicates if the crawler must use a proxy
 	 */
@@ -78,7 +130,17 @@ public class ApplicationConfig implements IAppConfigParams {
 		cacheSizeOfDbms = CACHE_SIZE_OF_DBMS_DEFAULT;
 		pageRequestTimeout = PAGE_REQUEST_TIMEOUT_DEFAULT;
 		robotsRequestTimeout = ROBOTS_REQUEST_TIMEOUT_DEFAULT;
+		connectTimeout = CONNECT_TIMEOUT_DEFAULT;
+		pageMaxSize = PAGE_MAX_SIZE_DEFAULT;
+		pageMaxDownloadTime = PAGE_MAX_DOWNLOAD_TIME_DEFAULT;
 		forbiddenFileExtensions = FORBIDDEN_FILE_EXTENSIONS;
+		fetchMode = FETCH_MODE_DEFAULT;
+		asyncFetchNumber = ASYNC_FETCH_NUMBER_DEFAULT;
+		seenLinkFilterSize = SEEN_LINK_FILTER_SIZE_DEFAULT;
+		parseMode = PARSE_MODE_DEFAULT;
+		analysisMode = ANALYSIS_MODE_DEFAULT;
+		analysisWordNumber = ANALYSIS_WORD_NUMBER_DEFAULT;
+		analysisSketchSize = ANALYSIS_SKETCH_SIZE_DEFAULT;
 
 		proxyUse = PROXY_USE_DEFAULT;
 		proxyHost = PROXY_HOST_DEFAULT;
@@ -165,6 +227,54 @@ public class ApplicationConfig implements IAppConfigParams {
 		this.robotsRequestTimeout = robotsRequestTimeout;
 	}
 
+	/**
+	 * Getter of the connect timeout
+	 * @return the connect timeout
+	 */
+	public Integer getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Setter of the connect timeout
+	 * @param connectTimeout the connect timeout
+	 */
+	public void setConnectTimeout(Integer connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Getter of the maximum size of a fetched page
+	 * @return the maximum size of a fetched page (in ko)
+	 */
+	public Integer getPageMaxSize() {
+		return pageMaxSize;
+	}
+
+	/**
+	 * Setter of the maximum size of a fetched page
+	 * @param pageMaxSize the maximum size of a fetched page (in ko)
+	 */
+	public void setPageMaxSize(Integer pageMaxSize) {
+		this.pageMaxSize = pageMaxSize;
+	}
+
+	/**
+	 * Getter of the maximum download time of a page
+	 * @return the maximum download time of a page (in ms)
+	 */
+	public Integer getPageMaxDownloadTime() {
+		return pageMaxDownloadTime;
+	}
+
+	/**
+	 * Setter of the maximum download time of a page
+	 * @param pageMaxDownloadTime the maximum download time of a page (in ms)
+	 */
+	public void setPageMaxDownloadTime(Integer pageMaxDownloadTime) {
+		this.pageMaxDownloadTime = pageMaxDownloadTime;
+	}
+
 	/**
 	 * Getter of the forbidden file extensions
 	 * @return the forbidden file extensions
@@ -181,6 +291,120 @@ public class ApplicationConfig implements IAppConfigParams {
 		this.forbiddenFileExtensions = forbiddenFileExtensions;
 	}
 
+	/**
+	 * Getter of the fetch mode
+	 * @return the fetch mode
+	 */
+	public EFetchMode getFetchMode() {
+		return fetchMode;
+	}
+
+	/**
+	 * Setter of the fetch mode
+	 * @param fetchMode the fetch mode
+	 */
+	public void setFetchMode(EFetchMode fetchMode) {
+		this.fetchMode = fetchMode;
+	}
+
+	/**
+	 * Getter of the async fetch number
+	 * @return the maximum number of fetches in flight
+	 */
+	public Integer getAsyncFetchNumber() {
+		return asyncFetchNumber;
+	}
+
+	/**
+	 * Setter of the async fetch number
+	 * @param asyncFetchNumber the maximum number of fetches in flight
+	 */
+	public void setAsyncFetchNumber(Integer asyncFetchNumber) {
+		this.asyncFetchNumber = asyncFetchNumber;
+	}
+
+	/**
+	 * Getter of the seen link filter size
+	 * @return the memory size of the seen links filter (in Mo)
+	 */
+	public Integer getSeenLinkFilterSize() {
+		return seenLinkFilterSize;
+	}
+
+	/**
+	 * Setter of the seen link filter size
+	 * @param seenLinkFilterSize the memory size of the seen links filter (in Mo)
+	 */
+	public void setSeenLinkFilterSize(Integer seenLinkFilterSize) {
+		this.seenLinkFilterSize = seenLinkFilterSize;
+	}
+
+	/**
+	 * Getter of the parse mode
+	 * @return the parse mode
+	 */
+	public EParseMode getParseMode() {
+		return parseMode;
+	}
+
+	/**
+	 * Setter of the parse mode
+	 * @param parseMode the parse mode
+	 */
+	public void setParseMode(EParseMode parseMode) {
+		this.parseMode = parseMode;
+	}
+
+	/**
+	 * Getter of the analysis mode
+	 * @return the global word analysis mode
+	 */
+	public EAnalysisMode getAnalysisMode() {
+		return analysisMode;
+	}
+
+	/**
+	 * Setter of the analysis mode
+	 * @param analysisMode the global word analysis mode
+	 */
+	public void setAnalysisMode(EAnalysisMode analysisMode) {
+		this.analysisMode = analysisMode;
+	}
+
+	/**
+	 * Getter of the analysis word number
+	 * @return the number of words kept by the streaming analysis
+	 */
+	public Integer getAnalysisWordNumber() {
+		return analysisWordNumber;
+	}
+
+	/**
+	 * Setter of the analysis word number
+	 * @param analysisWordNumber the number of words kept by the streaming
+	 *            analysis
+	 */
+	public void setAnalysisWordNumber(Integer analysisWordNumber) {
+		this.analysisWordNumber = analysisWordNumber;
+	}
+
+	/**
+	 * Getter of the analysis sketch size
+	 * @return the memory size of the streaming analysis sketch (in Mo)
+	 */
+	public Integer getAnalysisSketchSize() {
+		return analysisSketchSize;
+	}
+
+	/**
+	 * Setter of the analysis sketch size
+	 * @param analysisSketchSize the memory size of the streaming analysis
+	 *            sketch (in Mo)
+	 */
+	public void setAnalysisSketchSize(Integer analysisSketchSize) {
+		this.analysisSketchSize = analysisSketchSize;
+	}
+
 	/**
 	 * Getter of the proxy use
 	 * @return the proxy use
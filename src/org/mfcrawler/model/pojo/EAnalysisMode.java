@@ -0,0 +1,49 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013-2014  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.pojo;
+
+import org.mfcrawler.model.util.I18nUtil;
+
+/**
+ * Enumeration for the way the words of all the crawled pages are analyzed
+ * 
+ * @author lbertelo
+ */
+public enum EAnalysisMode {
+
+	EXACT("model.eAnalysisMode.exact"),
+	STREAMING("model.eAnalysisMode.streaming");
+
+	/**
+	 * The internationalized name of the analysis mode
+	 */
+	private String display;
+
+	/**
+	 * Private constructor of the enumeration
+	 * @param message the i18n message key
+	 */
+	private EAnalysisMode(String message) {
+		display = I18nUtil.getMessage(message);
+	}
+
+	@Override
+	public String toString() {
+		return display;
+	}
+}
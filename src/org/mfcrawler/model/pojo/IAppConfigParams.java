@@ -49,6 +49,11 @@ public interface IAppConfigParams {
 	 */
 	static final Integer ROBOTS_REQUEST_TIMEOUT_DEFAULT = 4_000;
 
+	/**
+	 * Default value of connect timeout (in ms)
+	 */
+	static final Integer CONNECT_TIMEOUT_DEFAULT = 4_000;
+
 	/**
 	 * Minimum value for request timeout
 	 */
@@ -63,6 +68,46 @@ public interface IAppConfigParams {
 	 * Step of the spinner for request timeout
 	 */
 	static final int REQUEST_TIMEOUT_SPINNER_STEP = 200;
+
+	/**
+	 * Default value of the maximum size of a fetched page (in ko)
+	 */
+	static final Integer PAGE_MAX_SIZE_DEFAULT = 5_120;
+
+	/**
+	 * Minimum value for the maximum size of a fetched page
+	 */
+	static final int PAGE_MAX_SIZE_MIN = 16;
+
+	/**
+	 * Maximum value for the maximum size of a fetched page
+	 */
+	static final int PAGE_MAX_SIZE_MAX = 1_048_576;
+
+	/**
+	 * Step of the spinner for the maximum size of a fetched page
+	 */
+	static final int PAGE_MAX_SIZE_STEP = 128;
+
+	/**
+	 * Default value of the maximum download time of a page (in ms)
+	 */
+	static final Integer PAGE_MAX_DOWNLOAD_TIME_DEFAULT = 60_000;
+
+	/**
+	 * Minimum value for the maximum download time of a page
+	 */
+	static final int PAGE_MAX_DOWNLOAD_TIME_MIN = 1_000;
+
+	/**
+	 * Maximum value for the maximum download time of a page
+	 */
+	static final int PAGE_MAX_DOWNLOAD_TIME_MAX = 600_000;
+
+	/**
+	 * Step of the spinner for the maximum download time of a page
+	 */
+	static final int PAGE_MAX_DOWNLOAD_TIME_STEP = 1_000;
 	
 	/**
 	 * Minimum value for cache size of dbms
@@ -84,6 +129,105 @@ public interface IAppConfigParams {
 	 */
 	static final String FORBIDDEN_FILE_EXTENSIONS = ".apk|.avi|.exe|.flv|.gif|.gz|.jpeg|.jpg|.mkv|.mp3|.mp4|.png|.pdf|.rar|.swf|.zip";
 
+	/**
+	 * Default value of fetch mode
+	 */
+	static final EFetchMode FETCH_MODE_DEFAULT = EFetchMode.BLOCKING;
+
+	/**
+	 * Default value of the maximum number of fetches in flight (asynchronous
+	 * fetch mode)
+	 */
+	static final Integer ASYNC_FETCH_NUMBER_DEFAULT = 200;
+
+	/**
+	 * Minimum value for async fetch number
+	 */
+	static final int ASYNC_FETCH_NUMBER_MIN = 1;
+
+	/**
+	 * Maximum value for async fetch number
+	 */
+	static final int ASYNC_FETCH_NUMBER_MAX = 5_000;
+
+	/**
+	 * Step of the spinner for async fetch number
+	 */
+	static final int ASYNC_FETCH_NUMBER_STEP = 10;
+
+	/**
+	 * Default value of the memory size of the seen links filter (in Mo)
+	 */
+	static final Integer SEEN_LINK_FILTER_SIZE_DEFAULT = 16;
+
+	/**
+	 * Minimum value for the memory size of the seen links filter
+	 */
+	static final int SEEN_LINK_FILTER_SIZE_MIN = 1;
+
+	/**
+	 * Maximum value for the memory size of the seen links filter
+	 */
+	static final int SEEN_LINK_FILTER_SIZE_MAX = 1_024;
+
+	/**
+	 * Step of the spinner for the memory size of the seen links filter
+	 */
+	static final int SEEN_LINK_FILTER_SIZE_STEP = 1;
+
+	/**
+	 * Default value of parse mode
+	 */
+	static final EParseMode PARSE_MODE_DEFAULT = EParseMode.FULL;
+
+	/**
+	 * Default value of the global word analysis mode
+	 */
+	static final EAnalysisMode ANALYSIS_MODE_DEFAULT = EAnalysisMode.EXACT;
+
+	/**
+	 * Default value of the number of words kept by the streaming analysis
+	 */
+	static final Integer ANALYSIS_WORD_NUMBER_DEFAULT = 10_000;
+
+	/**
+	 * Minimum value for the number of words kept by the streaming analysis
+	 */
+	static final int ANALYSIS_WORD_NUMBER_MIN = 100;
+
+	/**
+	 * Maximum value for the number of words kept by the streaming analysis
+	 */
+	static final int ANALYSIS_WORD_NUMBER_MAX = 1_000_000;
+
+	/**
+	 * Step of the spinner for the number of words kept by the streaming
+	 * analysis
+	 */
+	static final int ANALYSIS_WORD_NUMBER_STEP = 1_000;
+
+	/**
+	 * Default value of the memory size of the streaming analysis sketch (in
+	 * Mo)
+	 */
+	static final Integer ANALYSIS_SKETCH_SIZE_DEFAULT = 16;
+
+	/**
+	 * Minimum value for the memory size of the streaming analysis sketch
+	 */
+	static final int ANALYSIS_SKETCH_SIZE_MIN = 1;
+
+	/**
+	 * Maximum value for the memory size of the streaming analysis sketch
+	 */
+	static final int ANALYSIS_SKETCH_SIZE_MAX = 1_024;
+
+	/**
+	 * Step of the spinner for the memory size of the streaming analysis
+	 * sketch
+	 */
+	static final int ANALYSIS_SKETCH_SIZE_STEP = 1;
+
 	/**
 	 * Default value of the use of a proxy
 	 */
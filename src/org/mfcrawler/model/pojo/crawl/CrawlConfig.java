@@ -25,10 +25,35 @@ package org.mfcrawler.model.pojo.crawl;
 public class CrawlConfig implements ICrawlConfigParams {
 
 	/**
-	 * Number of crawling thread
+	 * Number of crawling thread (fetch stage)
 	 */
 	private Integer threadNumber;
 
+	/**
+	 * Number of threads of the parse stage
+	 */
+	private Integer parseThreadNumber;
+
+	/**
+	 * Number of threads of the score stage
+	 */
+	private Integer scoreThreadNumber;
+
+	/**
+	 * Number of threads of the persist stage
+	 */
+	private Integer persistThreadNumber;
+
+	/**
+	 * Maximum number of pages saved in one transaction
+	 */
+	private Integer persistBatchSize;
+
+	/**
+	 * Maximum time (in milliseconds) the pages wait before being saved
+	 */
+	private Integer persistFlushInterval;
+
 	/**
 	 * Maximum of inner deep for crawling ("< 0" means no maximum) inner deep is
 	 * the distance between pages in a same site
@@ -73,6 +98,11 @@ public class CrawlConfig implements ICrawlConfigParams {
 	 */
 	public CrawlConfig() {
 		threadNumber = THREAD_NUMBER_DEFAULT;
+		parseThreadNumber = PARSE_THREAD_NUMBER_DEFAULT;
+		scoreThreadNumber = SCORE_THREAD_NUMBER_DEFAULT;
+		persistThreadNumber = PERSIST_THREAD_NUMBER_DEFAULT;
+		persistBatchSize = PERSIST_BATCH_SIZE_DEFAULT;
+		persistFlushInterval = PERSIST_FLUSH_INTERVAL_DEFAULT;
 		innerDeep = INNER_DEEP_DEFAULT;
 		outerDeep = OUTER_DEEP_DEFAULT;
 		remainingCrawlNumber = REMAINING_CRAWL_NUMBER_DEFAULT;
@@ -98,6 +128,86 @@ public class CrawlConfig implements ICrawlConfigParams {
 		this.threadNumber = threadNumber;
 	}
 
+	/**
+	 * Getter of parse thread number
+	 * @return the parse thread number
+	 */
+	public Integer getParseThreadNumber() {
+		return parseThreadNumber;
+	}
+
+	/**
+	 * Setter of parse thread number
+	 * @param parseThreadNumber the parse thread number
+	 */
+	public void setParseThreadNumber(Integer parseThreadNumber) {
+		this.parseThreadNumber = parseThreadNumber;
+	}
+
+	/**
+	 * Getter of score thread number
+	 * @return the score thread number
+	 */
+	public Integer getScoreThreadNumber() {
+		return scoreThreadNumber;
+	}
+
+	/**
+	 * Setter of score thread number
+	 * @param scoreThreadNumber the score thread number
+	 */
+	public void setScoreThreadNumber(Integer scoreThreadNumber) {
+		this.scoreThreadNumber = scoreThreadNumber;
+	}
+
+	/**
+	 * Getter of persist thread number
+	 * @return the persist thread number
+	 */
+	public Integer getPersistThreadNumber() {
+		return persistThreadNumber;
+	}
+
+	/**
+	 * Setter of persist thread number
+	 * @param persistThreadNumber the persist thread number
+	 */
+	public void setPersistThreadNumber(Integer persistThreadNumber) {
+		this.persistThreadNumber = persistThreadNumber;
+	}
+
+	/**
+	 * Getter of persist batch size
+	 * @return the persist batch size
+	 */
+	public Integer getPersistBatchSize() {
+		return persistBatchSize;
+	}
+
+	/**
+	 * Setter of persist batch size
+	 * @param persistBatchSize the persist batch size
+	 */
+	public void setPersistBatchSize(Integer persistBatchSize) {
+		this.persistBatchSize = persistBatchSize;
+	}
+
+	/**
+	 * Getter of persist flush interval
+	 * @return the persist flush interval
+	 */
+	public Integer getPersistFlushInterval() {
+		return persistFlushInterval;
+	}
+
+	/**
+	 * Setter of persist flush interval
+	 * @param persistFlushInterval the persist flush interval
+	 */
+	public void setPersistFlushInterval(Integer persistFlushInterval) {
+		this.persistFlushInterval = persistFlushInterval;
+	}
+
 	/**
 	 * Getter of inner deep
 	 * @return the inner deep
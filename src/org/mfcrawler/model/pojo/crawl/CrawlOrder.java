@@ -57,6 +57,30 @@ public class CrawlOrder {
 	 */
 	private Double expectedScore;
 
+	/**
+	 * The "ETag" header field of the previous crawl (null if the page hasn't
+	 * been crawled)
+	 */
+	private String eTag;
+
+	/**
+	 * The "Last-Modified" header field of the previous crawl (null if the page
+	 * hasn't been crawled)
+	 */
+	private String lastModified;
+
+	/**
+	 * The digest of the content of the previous crawl (null if the page hasn't
+	 * been crawled)
+	 */
+	private String contentDigest;
+
+	/**
+	 * Result of the fetch if the page has already been fetched (null
+	 * otherwise)
+	 */
+	private FetchResult fetchResult;
+
 	/**
 	 * Default constructor
 	 */
@@ -76,6 +100,11 @@ public class CrawlOrder {
 		innerDeep = page.getInnerDeep();
 		outerDeep = page.getOuterDeep();
 		expectedScore = page.getScore();
+		if (page.getCrawlTime() != null) {
+			eTag = page.getETag();
+			lastModified = page.getLastModified();
+			contentDigest = page.getContentDigest();
+		}
 	}
 
 	/**
@@ -174,4 +203,69 @@ public class CrawlOrder {
 		this.expectedScore = expectedScore;
 	}
 
+	/**
+	 * Getter of eTag
+	 * @return the "ETag" header field of the previous crawl
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Setter of eTag
+	 * @param eTag the "ETag" header field of the previous crawl
+	 */
+	public void setETag(String eTag) {
+		this.eTag = eTag;
+	}
+
+	/**
+	 * Getter of last modified
+	 * @return the "Last-Modified" header field of the previous crawl
+	 */
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Setter of last modified
+	 * @param lastModified the "Last-Modified" header field of the previous
+	 *            crawl
+	 */
+	public void setLastModified(String lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Getter of content digest
+	 * @return the digest of the content of the previous crawl
+	 */
+	public String getContentDigest() {
+		return contentDigest;
+	}
+
+	/**
+	 * Setter of content digest
+	 * @param contentDigest the digest of the content of the previous crawl
+	 */
+	public void setContentDigest(String contentDigest) {
+		this.contentDigest = contentDigest;
+	}
+
+	/**
+	 * Getter of fetch result
+	 * @return the fetch result (null if the page hasn't been fetched)
+	 */
+	public FetchResult getFetchResult() {
+		return fetchResult;
+	}
+
+	/**
+	 * Setter of fetch result
+	 * @param fetchResult the fetch result
+	 */
+	public void setFetchResult(FetchResult fetchResult) {
+		this.fetchResult = fetchResult;
+	}
+
 }
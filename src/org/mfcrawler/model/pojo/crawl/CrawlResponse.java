@@ -18,7 +18,10 @@
 package org.mfcrawler.model.pojo.crawl;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
+import org.mfcrawler.model.pojo.site.Page;
 import org.mfcrawler.model.pojo.site.link.Link;
 
 /**
@@ -38,6 +41,17 @@ public class CrawlResponse {
 	 */
 	private Date crawlDate;
 
+	/**
+	 * Found pages of the crawled page (as saved in database)
+	 */
+	private List<Page> foundPages;
+
+	/**
+	 * "Allow crawl" values of the pages of the site, evaluated when its
+	 * robots.txt is saved (null if the crawled page isn't a robots.txt)
+	 */
+	private Map<Link, Boolean> allowCrawlMap;
+
 	/**
 	 * Default constructor
 	 * @param crawlOrder the crawl order
@@ -78,4 +92,37 @@ public class CrawlResponse {
 		this.crawlDate = crawlDate;
 	}
 
+	/**
+	 * Getter of found pages
+	 * @return the found pages
+	 */
+	public List<Page> getFoundPages() {
+		return foundPages;
+	}
+
+	/**
+	 * Setter of found pages
+	 * @param foundPages the found pages
+	 */
+	public void setFoundPages(List<Page> foundPages) {
+		this.foundPages = foundPages;
+	}
+
+	/**
+	 * Getter of allow crawl map
+	 * @return the "allow crawl" values of the pages of the site (only for a
+	 *         robots.txt)
+	 */
+	public Map<Link, Boolean> getAllowCrawlMap() {
+		return allowCrawlMap;
+	}
+
+	/**
+	 * Setter of allow crawl map
+	 * @param allowCrawlMap the "allow crawl" values of the pages of the site
+	 */
+	public void setAllowCrawlMap(Map<Link, Boolean> allowCrawlMap) {
+		this.allowCrawlMap = allowCrawlMap;
+	}
+
 }
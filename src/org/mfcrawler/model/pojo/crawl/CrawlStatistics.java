@@ -0,0 +1,124 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.pojo.crawl;
+
+/**
+ * Snapshot of the crawl counters (numbers of sites and pages in database)
+ * 
+ * @author lbertelo
+ */
+public class CrawlStatistics {
+
+	/**
+	 * Number of crawled sites
+	 */
+	private final int crawledSitesNumber;
+
+	/**
+	 * Number of crawled pages (including the redirections and the errors)
+	 */
+	private final int crawledPagesNumber;
+
+	/**
+	 * Number of found pages not crawled yet
+	 */
+	private final int foundPagesNumber;
+
+	/**
+	 * Number of pages in error
+	 */
+	private final int errorPagesNumber;
+
+	/**
+	 * Number of redirect pages
+	 */
+	private final int redirectPagesNumber;
+
+	/**
+	 * Number of crawled pages whose content is truncated
+	 */
+	private final int truncatedPagesNumber;
+
+	/**
+	 * Default constructor
+	 * @param crawledSitesNumber the number of crawled sites
+	 * @param crawledPagesNumber the number of crawled pages
+	 * @param foundPagesNumber the number of found pages not crawled yet
+	 * @param errorPagesNumber the number of pages in error
+	 * @param redirectPagesNumber the number of redirect pages
+	 * @param truncatedPagesNumber the number of truncated pages
+	 */
+	public CrawlStatistics(int crawledSitesNumber, int crawledPagesNumber, int foundPagesNumber,
+			int errorPagesNumber, int redirectPagesNumber, int truncatedPagesNumber) {
+		this.crawledSitesNumber = crawledSitesNumber;
+		this.crawledPagesNumber = crawledPagesNumber;
+		this.foundPagesNumber = foundPagesNumber;
+		this.errorPagesNumber = errorPagesNumber;
+		this.redirectPagesNumber = redirectPagesNumber;
+		this.truncatedPagesNumber = truncatedPagesNumber;
+	}
+
+	/**
+	 * Getter of crawled sites number
+	 * @return the number of crawled sites
+	 */
+	public int getCrawledSitesNumber() {
+		return crawledSitesNumber;
+	}
+
+	/**
+	 * Getter of crawled pages number
+	 * @return the number of crawled pages
+	 */
+	public int getCrawledPagesNumber() {
+		return crawledPagesNumber;
+	}
+
+	/**
+	 * Getter of found pages number
+	 * @return the number of found pages not crawled yet
+	 */
+	public int getFoundPagesNumber() {
+		return foundPagesNumber;
+	}
+
+	/**
+	 * Getter of error pages number
+	 * @return the number of pages in error
+	 */
+	public int getErrorPagesNumber() {
+		return errorPagesNumber;
+	}
+
+	/**
+	 * Getter of redirect pages number
+	 * @return the number of redirect pages
+	 */
+	public int getRedirectPagesNumber() {
+		return redirectPagesNumber;
+	}
+
+	/**
+	 * Getter of truncated pages number
+	 * @return the number of truncated pages
+	 */
+	public int getTruncatedPagesNumber() {
+		return truncatedPagesNumber;
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.pojo.crawl;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * Describes the result of a fetch (http response or error)
+ * 
+ * @author lbertelo
+ */
+public class FetchResult {
+
+	/**
+	 * Link of the fetched page
+	 */
+	private Link link;
+
+	/**
+	 * Http response code (null if the request failed)
+	 */
+	private Integer responseCode;
+
+	/**
+	 * Http header fields (the names are in lower case)
+	 */
+	private Map<String, String> headerFields;
+
+	/**
+	 * Content of the response (null if it isn't read)
+	 */
+	private byte[] content;
+
+	/**
+	 * Error occurred during the fetch
+	 */
+	private String error;
+
+	/**
+	 * Reason why the content is truncated (null if the content is fully read)
+	 */
+	private String truncation;
+
+	/**
+	 * Default constructor
+	 * @param link link of the fetched page
+	 */
+	public FetchResult(Link link) {
+		this.link = link;
+		headerFields = new HashMap<String, String>();
+	}
+
+	/**
+	 * Getter of link
+	 * @return the link
+	 */
+	public Link getLink() {
+		return link;
+	}
+
+	/**
+	 * Getter of response code
+	 * @return the response code
+	 */
+	public Integer getResponseCode() {
+		return responseCode;
+	}
+
+	/**
+	 * Setter of response code
+	 * @param responseCode the response code
+	 */
+	public void setResponseCode(Integer responseCode) {
+		this.responseCode = responseCode;
+	}
+
+	/**
+	 * Returns the value of a header field
+	 * @param name the name of the header field (case insensitive)
+	 * @return the value or null if the header field doesn't exist
+	 */
+	public String getHeaderField(String name) {
+		return headerFields.get(name.toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Sets the value of a header field
+	 * @param name the name of the header field (case insensitive)
+	 * @param value the value
+	 */
+	public void setHeaderField(String name, String value) {
+		headerFields.put(name.toLowerCase(Locale.ENGLISH), value);
+	}
+
+	/**
+	 * Returns the entity tag of the content
+	 * @return the "ETag" header field or null if it is unknown
+	 */
+	public String getETag() {
+		return getHeaderField("ETag");
+	}
+
+	/**
+	 * Returns the last modification date of the content
+	 * @return the "Last-Modified" header field or null if it is unknown
+	 */
+	public String getLastModified() {
+		return getHeaderField("Last-Modified");
+	}
+
+	/**
+	 * Indicates if the server answers that the content hasn't changed since
+	 * the previous fetch (conditional request)
+	 * @return true if the response code is 304
+	 */
+	public boolean isNotModified() {
+		return responseCode != null && responseCode == 304;
+	}
+
+	/**
+	 * Returns the content type
+	 * @return the content type or null if it is unknown
+	 */
+	public String getContentType() {
+		return getHeaderField("Content-Type");
+	}
+
+	/**
+	 * Returns the charset of the content type
+	 * @return the charset or null if it is unknown
+	 */
+	public String getCharset() {
+		String contentType = getContentType();
+		if (contentType != null) {
+			for (String parameter : contentType.split(";")) {
+				parameter = parameter.trim();
+				if (parameter.toLowerCase(Locale.ENGLISH).startsWith("charset=")) {
+					return parameter.substring("charset=".length()).replace("\"", "").trim();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Getter of content
+	 * @return the content
+	 */
+	public byte[] getContent() {
+		return content;
+	}
+
+	/**
+	 * Setter of content
+	 * @param content the content
+	 */
+	public void setContent(byte[] content) {
+		this.content = content;
+	}
+
+	/**
+	 * Getter of error
+	 * @return the error
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Setter of error
+	 * @param error the error
+	 */
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	/**
+	 * Getter of truncation
+	 * @return the reason why the content is truncated (null if the content is
+	 *         fully read)
+	 */
+	public String getTruncation() {
+		return truncation;
+	}
+
+	/**
+	 * Setter of truncation
+	 * @param truncation the reason why the content is truncated
+	 */
+	public void setTruncation(String truncation) {
+		this.truncation = truncation;
+	}
+
+	/**
+	 * Indicates if the content must be read : the request succeeded and the
+	 * content type is text
+	 * @return true if the content must be read, false otherwise
+	 */
+	public boolean isReadable() {
+		return error == null && responseCode != null && responseCode < 400
+				&& (getContentType() == null || getContentType().startsWith("text"));
+	}
+
+}
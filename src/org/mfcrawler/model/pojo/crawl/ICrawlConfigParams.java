@@ -44,6 +44,67 @@ public interface ICrawlConfigParams {
 	 */
 	static final int THREAD_NUMBER_MAX = 50;
 
+	/**
+	 * Default value for parse thread number
+	 */
+	static final int PARSE_THREAD_NUMBER_DEFAULT = 2;
+
+	/**
+	 * Default value for score thread number
+	 */
+	static final int SCORE_THREAD_NUMBER_DEFAULT = 1;
+
+	/**
+	 * Default value for persist thread number
+	 */
+	static final int PERSIST_THREAD_NUMBER_DEFAULT = 2;
+
+	/**
+	 * Minimum value for stage thread number (parse, score and persist)
+	 */
+	static final int STAGE_THREAD_NUMBER_MIN = 1;
+
+	/**
+	 * Maximum value for parse and score thread number
+	 */
+	static final int STAGE_THREAD_NUMBER_MAX = 32;
+
+	/**
+	 * Maximum value for persist thread number (each thread holds a connection
+	 * of the pool)
+	 */
+	static final int PERSIST_THREAD_NUMBER_MAX = 8;
+
+	/**
+	 * Default value for persist batch size
+	 */
+	static final int PERSIST_BATCH_SIZE_DEFAULT = 50;
+
+	/**
+	 * Minimum value for persist batch size
+	 */
+	static final int PERSIST_BATCH_SIZE_MIN = 1;
+
+	/**
+	 * Maximum value for persist batch size
+	 */
+	static final int PERSIST_BATCH_SIZE_MAX = 1_000;
+
+	/**
+	 * Default value for persist flush interval
+	 */
+	static final int PERSIST_FLUSH_INTERVAL_DEFAULT = 500;
+
+	/**
+	 * Minimum value for persist flush interval
+	 */
+	static final int PERSIST_FLUSH_INTERVAL_MIN = 0;
+
+	/**
+	 * Maximum value for persist flush interval
+	 */
+	static final int PERSIST_FLUSH_INTERVAL_MAX = 10_000;
+
 	/**
 	 * Default value for inner deep
 	 */
@@ -0,0 +1,35 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.pojo.site;
+
+/**
+ * Loader of the content of a page, called on the first access to the content
+ * (so that the content isn't read if it isn't used)
+ * 
+ * @author lbertelo
+ */
+public interface IContentLoader {
+
+	/**
+	 * Loads the content of the page as saved in database
+	 * @return the encoded content (see ContentCodec), null if the page has no
+	 *         content
+	 */
+	byte[] loadEncodedContent();
+
+}
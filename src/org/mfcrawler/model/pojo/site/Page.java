@@ -17,11 +17,14 @@
 
 package org.mfcrawler.model.pojo.site;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 import org.mfcrawler.model.pojo.site.link.Link;
+import org.mfcrawler.model.util.ContentCodec;
 
 /**
  * Describes a page identified by a link
@@ -45,6 +48,24 @@ public class Page {
 	 */
 	private String content;
 
+	/**
+	 * Content of the page as saved in database (decoded on the first access
+	 * to the content)
+	 */
+	private byte[] encodedContent;
+
+	/**
+	 * Loader of the content (called on the first access to the content, null
+	 * if the content is loaded)
+	 */
+	private IContentLoader contentLoader;
+
+	/**
+	 * Term vector of the content (words and occurrences, encoded by the
+	 * TermVector class)
+	 */
+	private byte[] termVector;
+
 	/**
 	 * Score of the page (calculated or estimated)
 	 */
@@ -85,6 +106,42 @@ public class Page {
 	 */
 	private String crawlError;
 
+	/**
+	 * Reason why the content is truncated (null if the content is complete)
+	 */
+	private String truncation;
+
+	/**
+	 * Value of the "ETag" header field of the last fetch
+	 */
+	private String eTag;
+
+	/**
+	 * Value of the "Last-Modified" header field of the last fetch
+	 */
+	private String lastModified;
+
+	/**
+	 * Digest of the content of the last fetch
+	 */
+	private String contentDigest;
+
+	/**
+	 * Indicates if the page hasn't changed since the previous crawl (its
+	 * content and its links aren't rewritten)
+	 */
+	private boolean unchanged;
+
+	/**
+	 * Number of incoming external links (as stored in database)
+	 */
+	private Integer incomingExternLinksNumber;
+
+	/**
+	 * Number of incoming internal links (as stored in database)
+	 */
+	private Integer incomingInternLinksNumber;
+
 	/**
 	 * List of incoming external links
 	 */
@@ -154,15 +211,82 @@ public class Page {
 	 * @return the content
 	 */
 	public String getContent() {
+		loadContent();
+		if (encodedContent != null) {
+			content = ContentCodec.decode(encodedContent);
+			encodedContent = null;
+		}
 		return content;
 	}
 
+	/**
+	 * Return a reader of the content, decoded while it is read (the whole
+	 * content isn't built if it isn't decoded yet)
+	 * @return the reader of the content (null if there is no content)
+	 */
+	public Reader getContentReader() {
+		loadContent();
+		if (content != null) {
+			return new StringReader(content);
+		} else {
+			return ContentCodec.newReader(encodedContent);
+		}
+	}
+
+	/**
+	 * Loads the content with the content loader (only once)
+	 */
+	private void loadContent() {
+		if (contentLoader != null) {
+			encodedContent = contentLoader.loadEncodedContent();
+			contentLoader = null;
+		}
+	}
+
 	/**
 	 * Setter of content
 	 * @param content the content
 	 */
 	public void setContent(String content) {
 		this.content = content;
+		encodedContent = null;
+		contentLoader = null;
+	}
+
+	/**
+	 * Setter of content, with the content as saved in database
+	 * @param encodedContent the encoded content (see ContentCodec)
+	 */
+	public void setEncodedContent(byte[] encodedContent) {
+		this.encodedContent = encodedContent;
+		content = null;
+		contentLoader = null;
+	}
+
+	/**
+	 * Setter of content loader, the content is loaded on the first access
+	 * @param contentLoader the loader of the content
+	 */
+	public void setContentLoader(IContentLoader contentLoader) {
+		this.contentLoader = contentLoader;
+		content = null;
+		encodedContent = null;
+	}
+
+	/**
+	 * Getter of term vector
+	 * @return the encoded term vector
+	 */
+	public byte[] getTermVector() {
+		return termVector;
+	}
+
+	/**
+	 * Setter of term vector
+	 * @param termVector the encoded term vector
+	 */
+	public void setTermVector(byte[] termVector) {
+		this.termVector = termVector;
 	}
 
 	/**
@@ -293,6 +417,120 @@ public class Page {
 		this.crawlError = crawlError;
 	}
 
+	/**
+	 * Getter of truncation
+	 * @return the reason why the content is truncated (null if the content is
+	 *         complete)
+	 */
+	public String getTruncation() {
+		return truncation;
+	}
+
+	/**
+	 * Setter of truncation
+	 * @param truncation the reason why the content is truncated
+	 */
+	public void setTruncation(String truncation) {
+		this.truncation = truncation;
+	}
+
+	/**
+	 * Getter of eTag
+	 * @return the "ETag" header field of the last fetch
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Setter of eTag
+	 * @param eTag the "ETag" header field of the last fetch
+	 */
+	public void setETag(String eTag) {
+		this.eTag = eTag;
+	}
+
+	/**
+	 * Getter of last modified
+	 * @return the "Last-Modified" header field of the last fetch
+	 */
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Setter of last modified
+	 * @param lastModified the "Last-Modified" header field of the last fetch
+	 */
+	public void setLastModified(String lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Getter of content digest
+	 * @return the digest of the content of the last fetch
+	 */
+	public String getContentDigest() {
+		return contentDigest;
+	}
+
+	/**
+	 * Setter of content digest
+	 * @param contentDigest the digest of the content of the last fetch
+	 */
+	public void setContentDigest(String contentDigest) {
+		this.contentDigest = contentDigest;
+	}
+
+	/**
+	 * Getter of unchanged
+	 * @return true if the page hasn't changed since the previous crawl
+	 */
+	public boolean isUnchanged() {
+		return unchanged;
+	}
+
+	/**
+	 * Setter of unchanged
+	 * @param unchanged true if the page hasn't changed since the previous
+	 *            crawl
+	 */
+	public void setUnchanged(boolean unchanged) {
+		this.unchanged = unchanged;
+	}
+
+	/**
+	 * Getter of incoming external links number
+	 * @return the number of incoming external links
+	 */
+	public Integer getIncomingExternLinksNumber() {
+		return incomingExternLinksNumber;
+	}
+
+	/**
+	 * Setter of incoming external links number
+	 * @param incomingExternLinksNumber the number of incoming external links
+	 */
+	public void setIncomingExternLinksNumber(Integer incomingExternLinksNumber) {
+		this.incomingExternLinksNumber = incomingExternLinksNumber;
+	}
+
+	/**
+	 * Getter of incoming internal links number
+	 * @return the number of incoming internal links
+	 */
+	public Integer getIncomingInternLinksNumber() {
+		return incomingInternLinksNumber;
+	}
+
+	/**
+	 * Setter of incoming internal links number
+	 * @param incomingInternLinksNumber the number of incoming internal links
+	 */
+	public void setIncomingInternLinksNumber(Integer incomingInternLinksNumber) {
+		this.incomingInternLinksNumber = incomingInternLinksNumber;
+	}
+
 	/**
 	 * Getter of incoming external links
 	 * @return the list of incoming external links
@@ -0,0 +1,132 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.pojo.site;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.mfcrawler.model.util.ContentCodec;
+
+/**
+ * Describes the content of a crawled page with its score and its term vector,
+ * identified by its row in database (used to recalculate the scores and to
+ * analyze the words)
+ * 
+ * @author lbertelo
+ */
+public class PageContent {
+
+	/**
+	 * Identifier of the page row
+	 */
+	private long id;
+
+	/**
+	 * Score of the page (null if not calculated)
+	 */
+	private Double score;
+
+	/**
+	 * Encoded term vector of the content (null if not built)
+	 */
+	private byte[] termVector;
+
+	/**
+	 * Content of the page (may be null if the term vector is known)
+	 */
+	private String content;
+
+	/**
+	 * Content of the page as saved in database (decoded on the first access
+	 * to the content)
+	 */
+	private byte[] encodedContent;
+
+	/**
+	 * Default constructor
+	 * @param id the identifier of the page row
+	 * @param score the score of the page
+	 * @param termVector the encoded term vector of the content
+	 * @param encodedContent the content of the page as saved in database
+	 */
+	public PageContent(long id, Double score, byte[] termVector, byte[] encodedContent) {
+		this.id = id;
+		this.score = score;
+		this.termVector = termVector;
+		this.encodedContent = encodedContent;
+	}
+
+	/**
+	 * Getter of id
+	 * @return the identifier of the page row
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Getter of score
+	 * @return the score
+	 */
+	public Double getScore() {
+		return score;
+	}
+
+	/**
+	 * Getter of term vector
+	 * @return the encoded term vector
+	 */
+	public byte[] getTermVector() {
+		return termVector;
+	}
+
+	/**
+	 * Getter of content
+	 * @return the content
+	 */
+	public String getContent() {
+		if (encodedContent != null) {
+			content = ContentCodec.decode(encodedContent);
+			encodedContent = null;
+		}
+		return content;
+	}
+
+	/**
+	 * Return a reader of the content, decoded while it is read (the whole
+	 * content isn't built if it isn't decoded yet)
+	 * @return the reader of the content (null if there is no content)
+	 */
+	public Reader getContentReader() {
+		if (content != null) {
+			return new StringReader(content);
+		} else {
+			return ContentCodec.newReader(encodedContent);
+		}
+	}
+
+	/**
+	 * Indicates if the page content has a content (without decoding it)
+	 * @return true if there is a content, false otherwise
+	 */
+	public boolean hasContent() {
+		return content != null || encodedContent != null;
+	}
+
+}
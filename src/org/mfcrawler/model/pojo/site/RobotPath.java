@@ -17,6 +17,8 @@
 
 package org.mfcrawler.model.pojo.site;
 
+import java.util.regex.Pattern;
+
 import org.mfcrawler.model.util.I18nUtil;
 
 /**
@@ -56,6 +58,11 @@ public class RobotPath {
 	 */
 	private String path;
 
+	/**
+	 * Compiled pattern of the path (compiled at the first check)
+	 */
+	private volatile Pattern pattern;
+
 	/**
 	 * Default constructor
 	 * @param allow the boolean allow
@@ -96,6 +103,7 @@ public class RobotPath {
 	 */
 	public void setPath(String path) {
 		this.path = path;
+		pattern = null;
 	}
 
 	/**
@@ -104,12 +112,23 @@ public class RobotPath {
 	 * @return true if urlPath checks the robotPath, false otherwise
 	 */
 	public boolean checkPath(String urlPath) {
-		StringBuilder pathPattern = new StringBuilder();
-		pathPattern.append(PATTERN_START);
-		pathPattern.append(path.replaceAll(PATTERN_REPLACE, PATTERN_REPLACE_BY));
-		pathPattern.append(PATTERN_END);
+		if (pattern == null) {
+			StringBuilder pathPattern = new StringBuilder();
+			pathPattern.append(PATTERN_START);
+			pathPattern.append(path.replaceAll(PATTERN_REPLACE, PATTERN_REPLACE_BY));
+			pathPattern.append(PATTERN_END);
+			pattern = Pattern.compile(pathPattern.toString());
+		}
 
-		return urlPath.matches(pathPattern.toString());
+		return pattern.matcher(urlPath).matches();
+	}
+
+	/**
+	 * Indicates if the path is checked only by the same url (no wildcard)
+	 * @return true if the path is literal, false otherwise
+	 */
+	public boolean isLiteral() {
+		return path.indexOf('*') == -1 && !path.contains(PATTERN_END);
 	}
 
 	@Override
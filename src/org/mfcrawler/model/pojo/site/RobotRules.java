@@ -0,0 +1,129 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.pojo.site;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rules of a robots.txt compiled once to check the urls of a site : the
+ * literal paths are found in a map, only the paths with a wildcard are checked
+ * by their pattern. As with the list of robotPaths, the last robotPath
+ * checking an url decides.
+ * 
+ * @author lbertelo
+ */
+public class RobotRules {
+
+	/**
+	 * List of robotPaths from robots.txt
+	 */
+	private List<RobotPath> robotPathList;
+
+	/**
+	 * Crawl delay from robots.txt (in secondes)
+	 */
+	private Integer robotCrawlDelay;
+
+	/**
+	 * Time of the crawl of robots.txt (in milliseconds)
+	 */
+	private long crawlTime;
+
+	/**
+	 * Index of the last literal robotPath for each path
+	 */
+	private Map<String, Integer> literalPathMap;
+
+	/**
+	 * Indexes of the robotPaths with a wildcard (in the order of the list)
+	 */
+	private int[] wildcardPathIndexes;
+
+	/**
+	 * Default constructor
+	 * @param site the site with its robots.txt information
+	 */
+	public RobotRules(Site site) {
+		robotPathList = site.getRobotPathList();
+		robotCrawlDelay = site.getRobotCrawlDelay();
+		crawlTime = (site.getCrawlTime() == null) ? 0 : site.getCrawlTime().getTime();
+
+		literalPathMap = new HashMap<String, Integer>();
+		List<Integer> wildcardPathList = new ArrayList<Integer>();
+		for (int i = 0; i < robotPathList.size(); i++) {
+			RobotPath robotPath = robotPathList.get(i);
+			if (robotPath.isLiteral()) {
+				literalPathMap.put(robotPath.getPath(), i);
+			} else {
+				wildcardPathList.add(i);
+			}
+		}
+
+		wildcardPathIndexes = new int[wildcardPathList.size()];
+		for (int i = 0; i < wildcardPathIndexes.length; i++) {
+			wildcardPathIndexes[i] = wildcardPathList.get(i);
+		}
+	}
+
+	/**
+	 * Getter of robotPathList
+	 * @return the list of robotPaths
+	 */
+	public List<RobotPath> getRobotPathList() {
+		return robotPathList;
+	}
+
+	/**
+	 * Getter of robot crawl delay
+	 * @return the robot crawl delay
+	 */
+	public Integer getRobotCrawlDelay() {
+		return robotCrawlDelay;
+	}
+
+	/**
+	 * Getter of crawl time
+	 * @return the time of the crawl of robots.txt (in milliseconds)
+	 */
+	public long getCrawlTime() {
+		return crawlTime;
+	}
+
+	/**
+	 * Indicates if an url can be crawled
+	 * @param urlPath the path of the url
+	 * @return true if the url is allowed, false otherwise
+	 */
+	public boolean isAllowed(String urlPath) {
+		Integer literalIndex = literalPathMap.get(urlPath);
+		int lastIndex = (literalIndex == null) ? -1 : literalIndex;
+
+		// Only the robotPaths after the literal one can change the decision
+		for (int i = wildcardPathIndexes.length - 1; i >= 0 && wildcardPathIndexes[i] > lastIndex; i--) {
+			if (robotPathList.get(wildcardPathIndexes[i]).checkPath(urlPath)) {
+				lastIndex = wildcardPathIndexes[i];
+			}
+		}
+
+		return lastIndex == -1 || robotPathList.get(lastIndex).isAllow();
+	}
+
+}
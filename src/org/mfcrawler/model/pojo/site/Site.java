@@ -55,6 +55,11 @@ public class Site {
 	 */
 	private Integer robotCrawlDelay;
 
+	/**
+	 * Compiled rules from robots.txt (null if they aren't loaded)
+	 */
+	private RobotRules robotRules;
+
 	/**
 	 * List of incoming domains
 	 */
@@ -176,6 +181,22 @@ public class Site {
 		this.robotCrawlDelay = robotCrawlDelay;
 	}
 
+	/**
+	 * Getter of robot rules
+	 * @return the compiled rules from robots.txt (null if they aren't loaded)
+	 */
+	public RobotRules getRobotRules() {
+		return robotRules;
+	}
+
+	/**
+	 * Setter of robot rules
+	 * @param robotRules the compiled rules from robots.txt
+	 */
+	public void setRobotRules(RobotRules robotRules) {
+		this.robotRules = robotRules;
+	}
+
 	/**
 	 * Getter of incoming domains
 	 * @return the list of incoming domains
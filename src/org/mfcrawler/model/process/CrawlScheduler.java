@@ -0,0 +1,408 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.ApplicationModel;
+import org.mfcrawler.model.pojo.ApplicationConfig;
+import org.mfcrawler.model.pojo.EFetchMode;
+import org.mfcrawler.model.pojo.crawl.CrawlConfig;
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.CrawlResponse;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+import org.mfcrawler.model.process.fetch.IFetchListener;
+import org.mfcrawler.model.process.fetch.IPageFetcher;
+import org.mfcrawler.model.process.fetch.HttpConnectionPool;
+import org.mfcrawler.model.process.fetch.NioPageFetcher;
+import org.mfcrawler.model.process.fetch.VirtualThreadPageFetcher;
+import org.mfcrawler.model.process.pipeline.CrawlPipeline;
+
+/**
+ * The CrawlScheduler owns the foundPageManager : it handles the crawl
+ * responses and feeds the dispatch queue in which the crawl threads take
+ * their orders. In asynchronous and virtual threads fetch modes, the orders
+ * are fetched before being dispatched and the crawl threads only submit the
+ * fetched pages to the crawl pipeline (parse, score and persist stages),
+ * which sends back the crawl responses.
+ * 
+ * @author lbertelo
+ */
+public class CrawlScheduler extends Thread {
+
+	/**
+	 * Maximum time (in milliseconds) the scheduler sleeps without event
+	 */
+	private static final long MAX_SLEEP_TIME = 1000;
+
+	/**
+	 * Minimum time (in milliseconds) between two notifications of the sites
+	 * and pages number
+	 */
+	private static final long NOTIFY_SITES_PAGES_DELAY = 1000;
+
+	/**
+	 * Minimum time (in milliseconds) between two notifications of the queue
+	 * depths
+	 */
+	private static final long NOTIFY_QUEUE_DEPTHS_DELAY = 1000;
+
+	/**
+	 * Name of the fetch stage (the dispatch queue) in the queue depths
+	 */
+	private static final String FETCH_STAGE_NAME = "Fetch";
+
+	/**
+	 * Number of threads used by the asynchronous fetcher for name resolutions
+	 * and "https" fetches
+	 */
+	private static final int BLOCKING_FETCH_THREAD_NUMBER = 20;
+
+	/**
+	 * Number of bytes in a kilobyte
+	 */
+	private static final int KILOBYTE = 1024;
+
+	/**
+	 * The supervisor
+	 */
+	private Supervisor supervisor;
+
+	/**
+	 * The foundPageManager (only used by the scheduler thread)
+	 */
+	private FoundPageManager foundPageManager;
+
+	/**
+	 * The crawl pipeline processing the fetched pages
+	 */
+	private CrawlPipeline crawlPipeline;
+
+	/**
+	 * Queue containing the crawl orders for the crawl threads
+	 */
+	private BlockingQueue<CrawlOrder> dispatchQueue;
+
+	/**
+	 * Queue containing the crawl responses of the crawl threads
+	 */
+	private Queue<CrawlResponse> responseQueue;
+
+	/**
+	 * Number of crawl threads waiting for an order
+	 */
+	private AtomicInteger waitingThreadNumber;
+
+	/**
+	 * Asynchronous fetcher (null in blocking fetch mode)
+	 */
+	private IPageFetcher asyncFetcher;
+
+	/**
+	 * Maximum number of fetches in flight (asynchronous and virtual threads
+	 * fetch modes)
+	 */
+	private int asyncFetchNumber;
+
+	/**
+	 * Number of dispatched orders without response
+	 */
+	private int inFlightNumber;
+
+	/**
+	 * Page request timeout used by the fetcher
+	 */
+	private int pageRequestTimeout;
+
+	/**
+	 * Robots request timeout used by the fetcher
+	 */
+	private int robotsRequestTimeout;
+
+	/**
+	 * Indicates if the scheduler is running
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Indicates if the found pages must be reloaded
+	 */
+	private volatile boolean reloadRequested;
+
+	/**
+	 * Date of the last notification of the sites and pages number
+	 */
+	private long lastNotifyTime;
+
+	/**
+	 * Date of the last notification of the queue depths
+	 */
+	private long lastQueueDepthsNotifyTime;
+
+	/**
+	 * Default constructor
+	 * @param supervisor the supervisor
+	 * @param foundPageManager the foundPageManager
+	 * @param crawlConfig the crawl configuration
+	 */
+	public CrawlScheduler(Supervisor supervisor, FoundPageManager foundPageManager, CrawlConfig crawlConfig) {
+		super("Crawl scheduler");
+		this.supervisor = supervisor;
+		this.foundPageManager = foundPageManager;
+		crawlPipeline = new CrawlPipeline(this, crawlConfig);
+		dispatchQueue = new LinkedBlockingQueue<CrawlOrder>();
+		responseQueue = new ConcurrentLinkedQueue<CrawlResponse>();
+		waitingThreadNumber = new AtomicInteger(0);
+		running = true;
+		reloadRequested = false;
+		lastNotifyTime = 0;
+		lastQueueDepthsNotifyTime = 0;
+		inFlightNumber = 0;
+
+		ApplicationConfig config = ApplicationModel.getConfig();
+		pageRequestTimeout = config.getPageRequestTimeout();
+		robotsRequestTimeout = config.getRobotsRequestTimeout();
+		asyncFetchNumber = config.getAsyncFetchNumber();
+		if (config.getFetchMode() == EFetchMode.ASYNC) {
+			try {
+				asyncFetcher = new NioPageFetcher(config.getUserAgent(), config.getProxyUse(),
+						BLOCKING_FETCH_THREAD_NUMBER, config.getConnectTimeout(), config.getPageMaxSize() * KILOBYTE,
+						config.getPageMaxDownloadTime());
+			} catch (IOException e) {
+				Logger.getLogger(CrawlScheduler.class.getName()).log(Level.SEVERE,
+						"Error to open the asynchronous fetcher (blocking fetch mode is used)", e);
+			}
+		} else if (config.getFetchMode() == EFetchMode.VIRTUAL_THREADS) {
+			asyncFetcher = new VirtualThreadPageFetcher(config.getUserAgent(), config.getConnectTimeout(),
+					config.getPageMaxSize() * KILOBYTE, config.getPageMaxDownloadTime());
+		}
+	}
+
+	/**
+	 * Getter of crawl pipeline
+	 * @return the crawl pipeline
+	 */
+	public CrawlPipeline getCrawlPipeline() {
+		return crawlPipeline;
+	}
+
+	// CrawlThread method
+
+	/**
+	 * Takes a crawl order in the dispatch queue
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return the crawl order or null if no order are available
+	 */
+	public CrawlOrder takeOrder(long timeout) {
+		CrawlOrder order = null;
+		waitingThreadNumber.incrementAndGet();
+		LockSupport.unpark(this);
+		try {
+			order = dispatchQueue.poll(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Logger.getLogger(CrawlScheduler.class.getName()).log(Level.WARNING, "Error to take crawl order", e);
+		} finally {
+			waitingThreadNumber.decrementAndGet();
+		}
+		return order;
+	}
+
+	/**
+	 * Adds a crawl response (sent by the crawl pipeline)
+	 * @param response the crawl response
+	 */
+	public void addResponse(CrawlResponse response) {
+		responseQueue.offer(response);
+		LockSupport.unpark(this);
+	}
+
+	// Supervisor method
+
+	/**
+	 * Asks to reload the found pages
+	 */
+	public void reloadFoundPages() {
+		reloadRequested = true;
+		LockSupport.unpark(this);
+	}
+
+	/**
+	 * Stops the scheduler (when all the crawl threads are stopped)
+	 */
+	public void shutdown() {
+		running = false;
+		LockSupport.unpark(this);
+	}
+
+	// MAIN
+
+	@Override
+	public void run() {
+		long sleepTime = 0;
+		crawlPipeline.start();
+
+		while (running) {
+			if (sleepTime > 0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(sleepTime));
+			}
+
+			handleResponses();
+			if (reloadRequested) {
+				reloadRequested = false;
+				foundPageManager.reload();
+			}
+			sleepTime = dispatchOrders();
+			notifyQueueDepths();
+		}
+
+		// Last responses (the orders not taken will be found again at the next
+		// start)
+		crawlPipeline.shutdown();
+		handleResponses();
+		if (asyncFetcher != null) {
+			asyncFetcher.close();
+		}
+		HttpConnectionPool.get().closeAll();
+		dispatchQueue.clear();
+		foundPageManager.close();
+		supervisor.notifySitesPagesNumber();
+		notifyQueueDepths();
+	}
+
+	/**
+	 * Notifies the queue depths of the fetch stage and of the pipeline stages
+	 * (at most once per second)
+	 */
+	private void notifyQueueDepths() {
+		long now = System.currentTimeMillis();
+		if (running && now - lastQueueDepthsNotifyTime < NOTIFY_QUEUE_DEPTHS_DELAY) {
+			return;
+		}
+		lastQueueDepthsNotifyTime = now;
+
+		Map<String, Integer> queueDepthMap = new LinkedHashMap<String, Integer>();
+		queueDepthMap.put(FETCH_STAGE_NAME, dispatchQueue.size());
+		queueDepthMap.putAll(crawlPipeline.getQueueDepths());
+		supervisor.notifyQueueDepths(queueDepthMap);
+	}
+
+	/**
+	 * Handles the crawl responses
+	 */
+	private void handleResponses() {
+		CrawlResponse response = responseQueue.poll();
+		boolean handled = (response != null);
+		while (response != null) {
+			if (inFlightNumber > 0) {
+				inFlightNumber--;
+			}
+			foundPageManager.addCrawlDate(response.getLink().getDomain(), response.getCrawlDate());
+			if (response.getAllowCrawlMap() != null) {
+				foundPageManager.updateAllowCrawl(response.getAllowCrawlMap());
+			}
+			foundPageManager.updateFoundPages(response.getLink(), response.getFoundPages());
+			response = responseQueue.poll();
+		}
+
+		long now = System.currentTimeMillis();
+		if (handled && now - lastNotifyTime >= NOTIFY_SITES_PAGES_DELAY) {
+			lastNotifyTime = now;
+			supervisor.notifySitesPagesNumber();
+		}
+	}
+
+	/**
+	 * Feeds the dispatch queue with one order per waiting crawl thread (or
+	 * starts the fetches in asynchronous fetch mode)
+	 * @return the time to sleep in milliseconds
+	 */
+	private long dispatchOrders() {
+		if (!supervisor.isStarted()) {
+			return MAX_SLEEP_TIME;
+		}
+
+		while (canDispatch()) {
+			if (!supervisor.hasRemainingCrawl()) {
+				if (inFlightNumber == 0) {
+					supervisor.stopCrawl();
+				}
+				return MAX_SLEEP_TIME;
+			}
+
+			CrawlOrder order = foundPageManager.getFoundPage();
+			if (order.getLink() == null) {
+				return Math.min(order.getWait().longValue(), MAX_SLEEP_TIME);
+			}
+
+			Logger.getLogger(Supervisor.class.getName()).log(Level.INFO, "Crawl : " + order.getLink());
+			if (!order.getLink().isRobotsTxt()) {
+				supervisor.decrementRemainingCrawlNumber();
+			}
+
+			inFlightNumber++;
+			if (asyncFetcher != null) {
+				fetchOrder(order);
+			} else {
+				dispatchQueue.offer(order);
+			}
+		}
+
+		return MAX_SLEEP_TIME;
+	}
+
+	/**
+	 * Indicates if an order can be dispatched
+	 * @return true if a crawl thread waits (or if the maximum number of fetches
+	 *         in flight isn't reached), false otherwise
+	 */
+	private boolean canDispatch() {
+		if (asyncFetcher != null) {
+			return inFlightNumber < asyncFetchNumber;
+		} else {
+			return dispatchQueue.size() < waitingThreadNumber.get();
+		}
+	}
+
+	/**
+	 * Starts the fetch of the order, the order is dispatched when the fetch is
+	 * completed
+	 * @param order the crawl order
+	 */
+	private void fetchOrder(final CrawlOrder order) {
+		int timeout = order.getLink().isRobotsTxt() ? robotsRequestTimeout : pageRequestTimeout;
+		asyncFetcher.fetch(order, timeout, new IFetchListener() {
+			@Override
+			public void fetchCompleted(FetchResult fetchResult) {
+				order.setFetchResult(fetchResult);
+				dispatchQueue.offer(order);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.mfcrawler.model.IPropertyName;
+import org.mfcrawler.model.SwingPropertyChangeModel;
+import org.mfcrawler.model.process.crawl.CrawlThread;
+
+/**
+ * Notifies the actions of the crawl threads at a fixed rate : the status slots
+ * of the threads are read together and their messages are notified only if
+ * they have changed
+ * 
+ * @author lbertelo
+ */
+public class CrawlThreadMonitor extends Thread {
+
+	/**
+	 * Time (in milliseconds) between two readings of the status slots
+	 */
+	private static final long TICK_DELAY = 250;
+
+	/**
+	 * The swing property change model
+	 */
+	private SwingPropertyChangeModel propertyChangeModel;
+
+	/**
+	 * List of the crawl threads (shared with the supervisor)
+	 */
+	private List<CrawlThread> crawlThreadList;
+
+	/**
+	 * Messages of the last notification
+	 */
+	private List<String> lastMessages;
+
+	/**
+	 * Indicates if the monitor is running
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Default constructor
+	 * @param propertyChangeModel the swing property change model
+	 * @param crawlThreadList the list of the crawl threads
+	 */
+	public CrawlThreadMonitor(SwingPropertyChangeModel propertyChangeModel, List<CrawlThread> crawlThreadList) {
+		super("Crawl thread monitor");
+		this.propertyChangeModel = propertyChangeModel;
+		this.crawlThreadList = crawlThreadList;
+		lastMessages = new ArrayList<String>();
+		running = true;
+		setDaemon(true);
+	}
+
+	/**
+	 * Stops the monitor (after a last notification)
+	 */
+	void shutdown() {
+		running = false;
+		LockSupport.unpark(this);
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			notifyThreadInfos();
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(TICK_DELAY));
+		}
+		notifyThreadInfos();
+	}
+
+	/**
+	 * Notifies the messages of the crawl threads (by thread identifier) if
+	 * they have changed since the last notification
+	 */
+	private void notifyThreadInfos() {
+		List<String> messages = new ArrayList<String>();
+		for (CrawlThread crawlThread : crawlThreadList) {
+			messages.add(crawlThread.getCrawlInfo().getMessage());
+		}
+
+		if (!messages.equals(lastMessages)) {
+			lastMessages = messages;
+			propertyChangeModel.notify(IPropertyName.CRAWL_THREAD_INFO, messages);
+		}
+	}
+
+}
@@ -17,22 +17,23 @@
 
 package org.mfcrawler.model.process;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.mfcrawler.model.dao.DbmsManager;
 import org.mfcrawler.model.dao.site.PageDAO;
 import org.mfcrawler.model.dao.site.SiteDAO;
+import org.mfcrawler.model.pojo.crawl.CrawlConfig;
 import org.mfcrawler.model.pojo.crawl.CrawlOrder;
 import org.mfcrawler.model.pojo.crawl.CrawlProject;
 import org.mfcrawler.model.pojo.site.Page;
-import org.mfcrawler.model.pojo.site.RobotPath;
 import org.mfcrawler.model.pojo.site.Site;
 import org.mfcrawler.model.pojo.site.link.Domain;
 import org.mfcrawler.model.pojo.site.link.Link;
+import org.mfcrawler.model.process.frontier.Frontier;
 
 /**
  * Manages the found page to crawl
@@ -47,19 +48,19 @@ public class FoundPageManager {
 	private CrawlProject crawlProject;
 
 	/**
-	 * Map containing sites waiting
+	 * The frontier containing the found pages to crawl
 	 */
-	private Map<Domain, Site> siteWaitMap;
+	private Frontier frontier;
 
 	/**
-	 * Domains currently crawled
+	 * Indicates if the frontier must be (re)loaded from the database
 	 */
-	private List<Domain> domainInProgress;
+	private boolean frontierToLoad;
 
 	/**
-	 * Date to wait crawl thread
+	 * Map containing the "allow crawl" values not saved in database yet
 	 */
-	private Date nextWaitDate;
+	private Map<Link, Boolean> allowCrawlMap;
 
 	/**
 	 * Page DAO
@@ -77,28 +78,94 @@ public class FoundPageManager {
 	 */
 	public FoundPageManager(CrawlProject crawlProject) {
 		this.crawlProject = crawlProject;
-		siteWaitMap = new HashMap<Domain, Site>();
-		domainInProgress = new ArrayList<Domain>();
+		frontier = new Frontier();
+		allowCrawlMap = new HashMap<Link, Boolean>();
 	}
 
 	/**
-	 * Initialize the foundPageManager
+	 * Initialize the foundPageManager (the frontier is loaded at the first
+	 * search)
 	 */
 	public void init() {
 		pageDao = new PageDAO();
 		siteDao = new SiteDAO();
+		frontierToLoad = true;
+
+		// The rules of robots.txt depend on the user agent of the config
+		DbmsManager.get().getRobotRulesCache().clear();
+	}
+
+	/**
+	 * Asks to reload the frontier from the database (used when the found pages
+	 * are modified outside the crawl threads)
+	 */
+	public void reload() {
+		frontierToLoad = true;
+	}
+
+	/**
+	 * Close the foundPageManager : saves the "allow crawl" values in database
+	 * and empties the frontier
+	 */
+	public void close() {
+		saveAllowCrawl();
+		frontier.clear();
+		frontierToLoad = true;
+	}
+
+	/**
+	 * Updates the frontier after a crawl (methods launched after a crawl)
+	 * @param crawledLink link of the crawled page
+	 * @param foundPages the found pages (as saved in database)
+	 */
+	public void updateFoundPages(Link crawledLink, List<Page> foundPages) {
+		if (!crawledLink.isRobotsTxt()) {
+			frontier.remove(crawledLink);
+		}
+
+		if (foundPages != null && !frontierToLoad) {
+			for (Page foundPage : foundPages) {
+				if (foundPage.getAllowCrawl() == null) {
+					foundPage.setAllowCrawl(allowCrawlMap.get(foundPage.getLink()));
+				}
+				frontier.offer(foundPage);
+			}
+		}
 	}
 
 	/**
-	 * Add crawl date to the siteWaitDateMap (Methods launched after a crawl)
+	 * Updates the "allow crawl" values of the found pages after the robots.txt
+	 * of their site is saved (the values are already saved in database)
+	 * @param allowCrawlMap the "allow crawl" values by page link
+	 */
+	public void updateAllowCrawl(Map<Link, Boolean> allowCrawlMap) {
+		for (Map.Entry<Link, Boolean> allowCrawlEntry : allowCrawlMap.entrySet()) {
+			Page page = frontier.get(allowCrawlEntry.getKey());
+			if (page != null) {
+				page.setAllowCrawl(allowCrawlEntry.getValue());
+			}
+			this.allowCrawlMap.remove(allowCrawlEntry.getKey());
+		}
+	}
+
+	/**
+	 * Add crawl date of the domain and puts it on waiting according to its
+	 * crawl delay (Methods launched after a crawl)
 	 * @param domain the domain
 	 * @param crawlDate the crawlDate
 	 */
 	public void addCrawlDate(Domain domain, Date crawlDate) {
 		Site site = siteDao.getSiteWithRobotInfo(domain);
-		site.setCrawlTime(crawlDate);
-		siteWaitMap.put(site.getDomain(), site);
-		domainInProgress.remove(domain);
+		int delay;
+
+		if (site != null && Boolean.TRUE.equals(site.getRobotFileExist()) && site.getRobotCrawlDelay() != null) {
+			delay = 1000 * site.getRobotCrawlDelay();
+		} else {
+			delay = crawlProject.getCrawlConfig().getCrawlDelay();
+		}
+
+		long time = crawlDate.getTime();
+		frontier.endCrawl(domain, time, time + delay);
 	}
 
 	/**
@@ -106,45 +173,102 @@ public class FoundPageManager {
 	 * @return the crawl order
 	 */
 	public CrawlOrder getFoundPage() {
-		Page page;
-		Boolean findPage = false;
-		List<Domain> forbiddenDomain = getForbiddenDomainList();
+		if (frontierToLoad) {
+			loadFrontier();
+		}
+
+		CrawlConfig crawlConfig = crawlProject.getCrawlConfig();
+		long now = System.currentTimeMillis();
+		CrawlOrder order = null;
 
-		do {
-			// Get the most interesting found Page
-			page = pageDao.getInterestingFoundPage(forbiddenDomain, crawlProject.getCrawlConfig());
+		while (order == null) {
+			// Get the most interesting found Page of the ready domains
+			Page page = frontier.peek(now);
 
-			// If no page are found
-			if (page == null) {
-				CrawlOrder order = new CrawlOrder();
-				Integer wait = crawlProject.getCrawlConfig().getCrawlDelay();
+			if (page == null || !checkScore(page, crawlConfig)) {
+				// No page are found
+				order = new CrawlOrder();
+				Integer wait = crawlConfig.getCrawlDelay();
 
 				// Try to get a better "wait"
-				if (nextWaitDate != null) {
-					int difWaitDate = (int) (nextWaitDate.getTime() - new Date().getTime());
+				Long nextReadyTime = frontier.getNextReadyTime();
+				if (nextReadyTime != null) {
+					int difWaitDate = (int) (nextReadyTime - now);
 					if (difWaitDate > 0) {
 						wait = Integer.valueOf(difWaitDate);
 					}
 				}
 
 				order.setWait(wait);
-				return order;
+			} else {
+				frontier.poll(now);
+				if (checkDeep(page, crawlConfig)) {
+					order = checkPage(page, now);
+				}
 			}
+		}
 
-			findPage = checkPage(page, forbiddenDomain);
-		} while (!findPage);
+		return order;
+	}
 
-		domainInProgress.add(page.getLink().getDomain());
-		return new CrawlOrder(page);
+	/**
+	 * Loads the frontier from the database
+	 */
+	private void loadFrontier() {
+		saveAllowCrawl();
+		frontier.load(pageDao.getFoundPagesToCrawl());
+		frontierToLoad = false;
 	}
 
 	/**
-	 * Check if the page can be crawled
+	 * Saves the "allow crawl" values in database
+	 */
+	private void saveAllowCrawl() {
+		if (!allowCrawlMap.isEmpty()) {
+			pageDao.beginTransaction();
+			pageDao.updateAllowCrawlPages(allowCrawlMap);
+			pageDao.endTransaction();
+			allowCrawlMap.clear();
+		}
+	}
+
+	/**
+	 * Check if the score of the page is enough to crawl it
 	 * @param page the page
-	 * @param forbiddenDomain the list of forbidden domains
-	 * @return true if the page can be crawled, false otherwise
+	 * @param crawlConfig the crawl config
+	 * @return true if the page must be crawled now or has enough score
 	 */
-	private boolean checkPage(Page page, List<Domain> forbiddenDomain) {
+	private boolean checkScore(Page page, CrawlConfig crawlConfig) {
+		if (Boolean.TRUE.equals(page.getCrawlNow())) {
+			return true;
+		}
+		return page.getScore() != null && page.getScore() >= crawlConfig.getMinimumScore();
+	}
+
+	/**
+	 * Check if the deeps of the page respect the crawl config
+	 * @param page the page
+	 * @param crawlConfig the crawl config
+	 * @return true if the deeps are allowed, false otherwise
+	 */
+	private boolean checkDeep(Page page, CrawlConfig crawlConfig) {
+		if (!crawlConfig.getInnerDeep().equals(-1) && page.getInnerDeep() > crawlConfig.getInnerDeep()) {
+			return false;
+		}
+		if (!crawlConfig.getOuterDeep().equals(-1) && page.getOuterDeep() > crawlConfig.getOuterDeep()) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Check if the page can be crawled and returns the crawl order
+	 * @param page the page (removed from the frontier)
+	 * @param now the current time in milliseconds
+	 * @return the crawl order (for the page or for the robots.txt), null if the
+	 *         page can't be crawled now
+	 */
+	private CrawlOrder checkPage(Page page, long now) {
 		Domain domain = page.getLink().getDomain();
 		Site site = siteDao.getSiteWithRobotInfo(domain);
 
@@ -158,81 +282,47 @@ public class FoundPageManager {
 
 			siteDao.updateBlacklist(domain, blacklisted);
 			if (blacklisted) {
-				return false;
+				frontier.removeDomain(domain);
+				return null;
 			}
+		} else if (site.getBlacklisted()) {
+			frontier.removeDomain(domain);
+			return null;
 		}
 
 		// Check if page are allowed to crawl
 		if (page.getAllowCrawl() == null) {
 			if (site == null || site.getRobotFileExist() == null) {
-				Link linkRobots = new Link(page.getLink().getDomain());
-				page.setLink(linkRobots);
-				return true;
-			} else {
-				boolean allowPath = true;
-				for (RobotPath robotPath : site.getRobotPathList()) {
-					if (robotPath.checkPath(page.getLink().getLinkPath().getPath())) {
-						allowPath = robotPath.isAllow();
-					}
-				}
-
-				page.setAllowCrawl(allowPath);
-				pageDao.updateAllowCrawlPage(page.getLink(), page.getAllowCrawl());
-			}
-		}
-
-		if (page.getAllowCrawl()) {
-			return true;
-		} else {
-			// Checking for page which are not allowed to crawl
-			Site siteWait = siteWaitMap.get(page.getLink().getDomain());
-			if (crawlProject.getCrawlConfig().getForceCrawl() && siteWait == null) {
-				return true;
+				// The page will be crawled after the robots.txt
+				CrawlOrder order = new CrawlOrder(page);
+				order.setLink(new Link(domain));
+				order.setETag(null);
+				order.setLastModified(null);
+				frontier.startCrawl(domain);
+				frontier.offer(page);
+				return order;
 			} else {
-				forbiddenDomain.add(page.getLink().getDomain());
+				page.setAllowCrawl(site.getRobotRules().isAllowed(page.getLink().getLinkPath().getPath()));
+				allowCrawlMap.put(page.getLink(), page.getAllowCrawl());
 			}
 		}
 
-		return false;
-	}
-
-	/**
-	 * Constructs the list of forbidden domains
-	 * @return the list of forbidden domains
-	 */
-	private List<Domain> getForbiddenDomainList() {
-		List<Domain> domainList = new ArrayList<Domain>();
-		domainList.addAll(domainInProgress);
-
-		Date now = new Date();
-		nextWaitDate = null;
-		List<Site> siteWaitMapValues = new ArrayList<Site>(siteWaitMap.values());
-		for (Site siteWait : siteWaitMapValues) {
-			int delay;
-
-			if (siteWait.getRobotFileExist().booleanValue() && siteWait.getRobotCrawlDelay() != null) {
-				delay = 1000 * siteWait.getRobotCrawlDelay();
-			} else {
-				delay = crawlProject.getCrawlConfig().getCrawlDelay();
+		if (!page.getAllowCrawl()) {
+			if (!crawlProject.getCrawlConfig().getForceCrawl()) {
+				return null;
 			}
 
-			int forceCrawlDelay = crawlProject.getCrawlConfig().getForceCrawlDelay();
-			long time = siteWait.getCrawlTime().getTime();
-			Date waitDate = new Date(time + delay);
-			Date deleteDate = new Date(time + forceCrawlDelay);
-
-			if (nextWaitDate == null || nextWaitDate.after(waitDate)) {
-				nextWaitDate = waitDate;
-			}
-
-			if (waitDate.after(now)) {
-				domainList.add(siteWait.getDomain());
-			} else if (deleteDate.before(now)) {
-				siteWaitMap.remove(siteWait.getDomain());
+			// Pages which are not allowed to crawl wait the "force crawl delay"
+			long forceCrawlTime = frontier.getLastCrawlTime(domain) + crawlProject.getCrawlConfig().getForceCrawlDelay();
+			if (forceCrawlTime > now) {
+				frontier.offer(page);
+				frontier.delay(domain, forceCrawlTime);
+				return null;
 			}
 		}
 
-		return domainList;
+		frontier.startCrawl(domain);
+		return new CrawlOrder(page);
 	}
 
 }
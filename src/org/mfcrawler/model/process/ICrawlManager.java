@@ -18,8 +18,8 @@
 package org.mfcrawler.model.process;
 
 import org.mfcrawler.model.pojo.crawl.CrawlOrder;
-import org.mfcrawler.model.pojo.crawl.CrawlResponse;
 import org.mfcrawler.model.process.crawl.CrawlThreadInfo;
+import org.mfcrawler.model.process.pipeline.PipelineTask;
 
 /**
  * Allow to manage the crawl threads
@@ -36,12 +36,19 @@ public interface ICrawlManager {
 	CrawlThreadInfo initCrawlThread(Integer id);
 
 	/**
-	 * Manage the crawl thread, handle the crawl response and give a crawl order
+	 * Manage the crawl thread and give a crawl order
 	 * @param id identifier of the crawl thread
-	 * @param response the crawl response
 	 * @return the crawl order
 	 */
-	CrawlOrder manageCrawlThread(Integer id, CrawlResponse response);
+	CrawlOrder manageCrawlThread(Integer id);
+
+	/**
+	 * Submit a fetched page to the crawl pipeline (wait while the pipeline is
+	 * full)
+	 * @param id identifier of the crawl thread
+	 * @param task the pipeline task
+	 */
+	void processCrawl(Integer id, PipelineTask task);
 
 	/**
 	 * Finalize the crawl thread
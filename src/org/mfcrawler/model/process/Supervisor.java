@@ -19,18 +19,21 @@ package org.mfcrawler.model.process;
 
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.mfcrawler.model.IPropertyName;
 import org.mfcrawler.model.SwingPropertyChangeModel;
+import org.mfcrawler.model.dao.DbmsManager;
 import org.mfcrawler.model.pojo.crawl.CrawlOrder;
 import org.mfcrawler.model.pojo.crawl.CrawlProject;
-import org.mfcrawler.model.pojo.crawl.CrawlResponse;
 import org.mfcrawler.model.process.crawl.CrawlThread;
 import org.mfcrawler.model.process.crawl.CrawlThreadInfo;
+import org.mfcrawler.model.process.pipeline.PipelineTask;
 import org.mfcrawler.model.util.I18nUtil;
 
 /**
@@ -40,6 +43,12 @@ import org.mfcrawler.model.util.I18nUtil;
  */
 public class Supervisor implements ICrawlManager {
 
+	/**
+	 * Maximum time (in milliseconds) a crawl thread waits for an order before
+	 * checking the stop conditions
+	 */
+	private static final long ORDER_TIMEOUT = 500;
+
 	/**
 	 * The swing property change model
 	 */
@@ -60,15 +69,26 @@ public class Supervisor implements ICrawlManager {
 	 */
 	private FoundPageManager foundPageManager;
 
+	/**
+	 * The crawl scheduler (null if the crawls have never been started)
+	 */
+	private volatile CrawlScheduler crawlScheduler;
+
+	/**
+	 * The monitor of the crawl threads (null if the crawls have never been
+	 * started)
+	 */
+	private CrawlThreadMonitor crawlThreadMonitor;
+
 	/**
 	 * Indicates if the crawls are started
 	 */
-	private boolean start;
+	private volatile boolean start;
 
 	/**
 	 * Number of remaining crawl
 	 */
-	private Integer remainingCrawlNumber;
+	private AtomicInteger remainingCrawlNumber;
 
 	/**
 	 * Default constructor
@@ -78,11 +98,11 @@ public class Supervisor implements ICrawlManager {
 	public Supervisor(SwingPropertyChangeModel propertyChangeModel, CrawlProject crawlProject) {
 		this.propertyChangeModel = propertyChangeModel;
 		this.crawlProject = crawlProject;
-		crawlThreadList = new ArrayList<CrawlThread>();
+		crawlThreadList = new CopyOnWriteArrayList<CrawlThread>();
 		foundPageManager = new FoundPageManager(crawlProject);
 
 		start = false;
-		remainingCrawlNumber = crawlProject.getCrawlConfig().getRemainingCrawlNumber();
+		remainingCrawlNumber = new AtomicInteger(crawlProject.getCrawlConfig().getRemainingCrawlNumber());
 	}
 
 	// Model method
@@ -92,7 +112,7 @@ public class Supervisor implements ICrawlManager {
 	 * @param number the number of remaining crawl
 	 */
 	public void setRemainingCrawlNumber(Integer number) {
-		remainingCrawlNumber = number;
+		remainingCrawlNumber.set(number);
 	}
 
 	/**
@@ -117,8 +137,30 @@ public class Supervisor implements ICrawlManager {
 	 */
 	public void startCrawl() {
 		if (testBeforeStart()) {
+			// The previous scheduler must have closed the foundPageManager
+			if (crawlScheduler != null) {
+				try {
+					crawlScheduler.join();
+				} catch (InterruptedException e) {
+					Logger.getLogger(Supervisor.class.getName()).log(Level.WARNING, "Error to join crawl scheduler", e);
+				}
+			}
+			// The previous monitor must have notified the stop of its threads
+			if (crawlThreadMonitor != null) {
+				try {
+					crawlThreadMonitor.join();
+				} catch (InterruptedException e) {
+					Logger.getLogger(Supervisor.class.getName()).log(Level.WARNING, "Error to join crawl thread monitor",
+							e);
+				}
+			}
+
 			start = true;
 			foundPageManager.init();
+			crawlScheduler = new CrawlScheduler(this, foundPageManager, crawlProject.getCrawlConfig());
+			crawlScheduler.start();
+			crawlThreadMonitor = new CrawlThreadMonitor(propertyChangeModel, crawlThreadList);
+			crawlThreadMonitor.start();
 
 			launchCrawlThread();
 			propertyChangeModel.notify(IPropertyName.PROCESSING, I18nUtil.getMessage("processing.inProgress"));
@@ -151,6 +193,17 @@ public class Supervisor implements ICrawlManager {
 		}
 	}
 
+	/**
+	 * Reloads the found pages to crawl (used when the found pages are modified
+	 * outside the crawl threads)
+	 */
+	public void reloadFoundPages() {
+		CrawlScheduler scheduler = crawlScheduler;
+		if (scheduler != null) {
+			scheduler.reloadFoundPages();
+		}
+	}
+
 	/**
 	 * Launches tests before start the supervisor
 	 * @return true if all the tests succeed, false otherwise
@@ -177,65 +230,88 @@ public class Supervisor implements ICrawlManager {
 		return true;
 	}
 
-	// CrawlThread method
+	// CrawlScheduler method
 
-	@Override
-	public synchronized CrawlThreadInfo initCrawlThread(Integer crawlThreadId) {
-		CrawlThreadInfo crawlThreadInfo = new CrawlThreadInfo(crawlThreadId, propertyChangeModel);
-		crawlThreadInfo.noticeStart();
-		return crawlThreadInfo;
+	/**
+	 * Indicates if crawls remain to be done
+	 * @return true if crawls remain, false otherwise
+	 */
+	boolean hasRemainingCrawl() {
+		return remainingCrawlNumber.get() != 0;
 	}
 
-	@Override
-	public synchronized CrawlOrder manageCrawlThread(Integer crawlThreadId, CrawlResponse response) {
-		if (response != null) {
-			foundPageManager.addCrawlDate(response.getLink().getDomain(), response.getCrawlDate());
+	/**
+	 * Decrements the number of remaining crawl (if it isn't unlimited)
+	 */
+	void decrementRemainingCrawlNumber() {
+		int remaining = remainingCrawlNumber.get();
+		while (remaining > 0 && !remainingCrawlNumber.compareAndSet(remaining, remaining - 1)) {
+			remaining = remainingCrawlNumber.get();
 		}
-
-		if (crawlThreadId == 0) {
-			propertyChangeModel.notify(IPropertyName.SITES_PAGES_NUMBER, null);
+		if (remaining > 0) {
+			propertyChangeModel.notify(IPropertyName.REMAINING_CRAWL_NUMBER, remaining - 1);
 		}
+	}
 
-		if (remainingCrawlNumber == 0) {
-			stopCrawl();
-		}
+	/**
+	 * Notifies a snapshot of the sites and pages numbers (the crawl scheduler
+	 * calls it at most once per second)
+	 */
+	void notifySitesPagesNumber() {
+		propertyChangeModel.notify(IPropertyName.SITES_PAGES_NUMBER, DbmsManager.get().getCrawlCounters()
+				.getSnapshot());
+	}
 
-		CrawlOrder order;
-		if (crawlThreadId >= crawlProject.getCrawlConfig().getThreadNumber() || !start) {
-			CrawlThread.wakeUpAll();
-			order = new CrawlOrder();
-			if (crawlThreadId + 1 == crawlThreadList.size()) {
-				order.setStop(true);
-			} else {
-				order.setWait(2000);
-			}
-		} else {
-			CrawlThread.wakeUpOne();
-			order = foundPageManager.getFoundPage();
+	/**
+	 * Notifies the queue depths of the crawl stages
+	 * @param queueDepthMap the map of the queue depths (by stage name)
+	 */
+	void notifyQueueDepths(Map<String, Integer> queueDepthMap) {
+		propertyChangeModel.notify(IPropertyName.QUEUE_DEPTHS, queueDepthMap);
+	}
+
+	// CrawlThread method
 
-			if (order.getLink() != null) {
-				Logger.getLogger(Supervisor.class.getName()).log(Level.INFO, "Crawl : " + order.getLink());
+	@Override
+	public synchronized CrawlThreadInfo initCrawlThread(Integer crawlThreadId) {
+		return new CrawlThreadInfo(crawlThreadId);
+	}
 
-				if (remainingCrawlNumber > 0 && !order.getLink().isRobotsTxt()) {
-					remainingCrawlNumber--;
-					propertyChangeModel.notify(IPropertyName.REMAINING_CRAWL_NUMBER, remainingCrawlNumber);
+	@Override
+	public CrawlOrder manageCrawlThread(Integer crawlThreadId) {
+		CrawlOrder order = null;
+		while (order == null) {
+			if (crawlThreadId >= crawlProject.getCrawlConfig().getThreadNumber() || !start) {
+				CrawlThread.wakeUpAll();
+				order = new CrawlOrder();
+				if (crawlThreadId + 1 == crawlThreadList.size()) {
+					order.setStop(true);
+				} else {
+					order.setWait(2000);
 				}
+			} else {
+				order = crawlScheduler.takeOrder(ORDER_TIMEOUT);
 			}
 		}
 
 		return order;
 	}
 
+	@Override
+	public void processCrawl(Integer crawlThreadId, PipelineTask task) {
+		crawlScheduler.getCrawlPipeline().submit(task);
+	}
+
 	@Override
 	public void finalizeCrawlThread(Integer crawlThreadId) {
 		CrawlThread crawlThread = crawlThreadList.get(crawlThreadId);
-		crawlThread.getCrawlInfo().noticeStop();
 		crawlThreadList.remove(crawlThread);
 
 		propertyChangeModel.notify(IPropertyName.LAUNCHED_THREADS, Integer.valueOf(crawlThreadList.size()));
 		if (crawlThreadList.isEmpty()) {
+			crawlScheduler.shutdown();
+			crawlThreadMonitor.shutdown();
 			propertyChangeModel.notify(IPropertyName.PROCESSING, I18nUtil.getMessage("processing.stopped"));
-			propertyChangeModel.notify(IPropertyName.SITES_PAGES_NUMBER, null);
 		}
 
 		CrawlThread.wakeUpAll();
@@ -0,0 +1,100 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.content;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the code points of a content from a reader, through a buffer (the
+ * contents are tokenized without building the whole text)
+ * 
+ * @author lbertelo
+ */
+final class CodePointReader {
+
+	/**
+	 * Size of the buffer (in chars)
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The reader of the content
+	 */
+	private final Reader reader;
+
+	/**
+	 * Buffer of the chars read
+	 */
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	/**
+	 * Position of the next char in the buffer
+	 */
+	private int position;
+
+	/**
+	 * Number of chars in the buffer
+	 */
+	private int length;
+
+	/**
+	 * Default constructor
+	 * @param reader the reader of the content
+	 */
+	CodePointReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the next code point
+	 * @return the code point, -1 at the end of the content
+	 * @throws IOException
+	 */
+	int read() throws IOException {
+		if (position == length && !fill()) {
+			return -1;
+		}
+
+		char high = buffer[position++];
+		if (Character.isHighSurrogate(high) && (position < length || fill())) {
+			char low = buffer[position];
+			if (Character.isLowSurrogate(low)) {
+				position++;
+				return Character.toCodePoint(high, low);
+			}
+		}
+		return high;
+	}
+
+	/**
+	 * Fills the buffer with the next chars
+	 * @return true if chars are read, false at the end of the content
+	 * @throws IOException
+	 */
+	private boolean fill() throws IOException {
+		int readLength = reader.read(buffer);
+		while (readLength == 0) {
+			readLength = reader.read(buffer);
+		}
+		position = 0;
+		length = Math.max(readLength, 0);
+		return readLength > 0;
+	}
+
+}
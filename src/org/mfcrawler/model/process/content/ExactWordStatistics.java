@@ -0,0 +1,117 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exact statistics of the words : the sums of all the words are kept (the
+ * memory grows with the number of distinct words)
+ * 
+ * @author lbertelo
+ */
+final class ExactWordStatistics extends WordStatistics {
+
+	/**
+	 * Sums by word
+	 */
+	private final Map<String, GlobalSum> globalSumMap = new HashMap<String, GlobalSum>();
+
+	@Override
+	void add(String word, double wordFrequency, double docScore) {
+		GlobalSum globalSum = globalSumMap.get(word);
+		if (globalSum == null) {
+			globalSumMap.put(word, new GlobalSum(wordFrequency, 1.0, docScore));
+		} else {
+			globalSum.increment(wordFrequency, 1.0, docScore);
+		}
+	}
+
+	@Override
+	void merge(WordStatistics statistics) {
+		for (Map.Entry<String, GlobalSum> entry : ((ExactWordStatistics) statistics).globalSumMap.entrySet()) {
+			GlobalSum other = entry.getValue();
+			GlobalSum globalSum = globalSumMap.get(entry.getKey());
+			if (globalSum == null) {
+				globalSumMap.put(entry.getKey(), other);
+			} else {
+				globalSum.increment(other.wordsFreqSum, other.nbDocsSum, other.scoreDocsSum);
+			}
+		}
+	}
+
+	@Override
+	List<GlobalAnalysis> getAnalysis(double nbDocsTotal, double scoresTotal) {
+		List<GlobalAnalysis> analysisResult = new ArrayList<GlobalAnalysis>(globalSumMap.size());
+		for (Map.Entry<String, GlobalSum> entry : globalSumMap.entrySet()) {
+			GlobalSum globalSum = entry.getValue();
+			analysisResult.add(toGlobalAnalysis(entry.getKey(), globalSum.wordsFreqSum, globalSum.nbDocsSum,
+					globalSum.scoreDocsSum, nbDocsTotal, scoresTotal));
+		}
+		return analysisResult;
+	}
+
+	/**
+	 * Sums of a word
+	 */
+	private static final class GlobalSum {
+		/**
+		 * The sum of the words frequency
+		 */
+		private double wordsFreqSum;
+
+		/**
+		 * The sum of the number of documents
+		 */
+		private double nbDocsSum;
+
+		/**
+		 * The sum of the score of documents
+		 */
+		private double scoreDocsSum;
+
+		/**
+		 * Default constructor
+		 * @param wordsFreq the frequency of the word
+		 * @param nbDocs the number of documents
+		 * @param scoreDocs the score of the documents
+		 */
+		private GlobalSum(double wordsFreq, double nbDocs, double scoreDocs) {
+			wordsFreqSum = wordsFreq;
+			nbDocsSum = nbDocs;
+			scoreDocsSum = scoreDocs;
+		}
+
+		/**
+		 * Increments the attributes
+		 * @param wordsFreq the frequency of the word
+		 * @param nbDocs the number of documents
+		 * @param scoreDocs the score of the documents
+		 */
+		private void increment(double wordsFreq, double nbDocs, double scoreDocs) {
+			wordsFreqSum += wordsFreq;
+			nbDocsSum += nbDocs;
+			scoreDocsSum += scoreDocs;
+		}
+	}
+
+}
@@ -17,22 +17,13 @@
 
 package org.mfcrawler.model.process.content;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.mfcrawler.model.IPropertyName;
 import org.mfcrawler.model.SwingPropertyChangeModel;
-import org.mfcrawler.model.dao.iterator.PageDbIterator;
-import org.mfcrawler.model.dao.site.PageDAO;
-import org.mfcrawler.model.pojo.site.Page;
-import org.mfcrawler.model.pojo.site.link.Link;
-import org.mfcrawler.model.util.I18nUtil;
 
 /**
  * Manages the keywords
@@ -67,9 +58,10 @@ public final class KeywordManager {
 	private static final String REGEX_WORD = "\\w+";
 
 	/**
-	 * Keyword Map with word as a key and score as a value
+	 * Keyword matcher compiled from the keyword map (immutable, replaced when
+	 * the keyword map changes)
 	 */
-	private static Map<String, Integer> keywordMap = new HashMap<String, Integer>();
+	private static volatile KeywordMatcher keywordMatcher = new KeywordMatcher(new HashMap<String, Integer>());
 
 	/**
 	 * Private constructor
@@ -80,18 +72,26 @@ public final class KeywordManager {
 
 	/**
 	 * Getter of keyword map
-	 * @return the static keyword map
+	 * @return the static keyword map (unmodifiable)
 	 */
-	public static synchronized Map<String, Integer> getKeywordMap() {
-		return keywordMap;
+	public static Map<String, Integer> getKeywordMap() {
+		return keywordMatcher.getKeywordMap();
 	}
 
 	/**
-	 * Setter of the keyword map
+	 * Getter of keyword matcher
+	 * @return the keyword matcher of the current keyword map
+	 */
+	static KeywordMatcher getKeywordMatcher() {
+		return keywordMatcher;
+	}
+
+	/**
+	 * Setter of the keyword map (compiles the keyword matcher)
 	 * @param keywordMap the static keyword map
 	 */
-	public static synchronized void setKeywordMap(Map<String, Integer> newKeywordMap) {
-		keywordMap = newKeywordMap;
+	public static void setKeywordMap(Map<String, Integer> newKeywordMap) {
+		keywordMatcher = new KeywordMatcher(newKeywordMap);
 	}
 
 	/**
@@ -169,89 +169,26 @@ public final class KeywordManager {
 	}
 
 	/**
-	 * Calculates the score of a content
+	 * Calculates the score of a content (all the keywords are counted in a
+	 * single pass)
 	 * @param content the content of a page
 	 * @return the score calculated
 	 */
-	public static synchronized double calculateContent(String content) {
-		double score = 0.0;
-
-		for (String word : keywordMap.keySet()) {
-			Pattern pattern = Pattern.compile(makeRegexPattern(word), Pattern.CASE_INSENSITIVE);
-			Matcher matcher = pattern.matcher(content);
-			int occurrence = 0;
-			while (matcher.find()) {
-				occurrence++;
-			}
-
-			int weight = keywordMap.get(word);
-			score += calculate(occurrence, weight);
-		}
-
-		return score;
+	public static double calculateContent(String content) {
+		return keywordMatcher.calculateContent(content);
 	}
 
 	/**
-	 * Recalculates the scores of all the pages
+	 * Recalculates the scores of all the pages (in parallel, see
+	 * ScoreRecalculator)
 	 * @param propertyChangeModel to notify the progression
+	 * @param previousKeywordMap the previous keyword map (only the keywords
+	 *            whose weights have changed are counted), null to count all
+	 *            the keywords
 	 */
-	public static void recalculateAllPages(SwingPropertyChangeModel propertyChangeModel) {
-		Set<Link> crawledLinks = new HashSet<Link>();
-		Map<Link, Double> estimatedScoreLinks = new HashMap<Link, Double>();
-
-		PageDAO pageDao = new PageDAO();
-		pageDao.beginTransaction();
-
-		pageDao.initAllScores();
-		PageDbIterator pageDbIterator = pageDao.getCrawledPagesToRecalculate();
-
-		propertyChangeModel.notify(IPropertyName.LOADING, I18nUtil.getMessage("loading.recalculateScores.step2"));
-		while (pageDbIterator.hasNext()) {
-			Page page = pageDbIterator.next();
-
-			// Sets the score
-			double currentScore;
-			if (!page.getRedirectPage()) {
-				if (page.getCrawlError() == null && page.getContent() != null) {
-					currentScore = calculateContent(page.getContent());
-				} else {
-					currentScore = 0.0;
-				}
-			} else {
-				Double estimatedScore = estimatedScoreLinks.get(page.getLink());
-				if (estimatedScore != null) {
-					currentScore = estimatedScore;
-				} else {
-					currentScore = 0.0;
-				}
-			}
-			
-			// Update score page
-			pageDao.updateScorePage(page.getLink(), currentScore);
-			crawledLinks.add(page.getLink());
-			estimatedScoreLinks.remove(page.getLink());
-
-			// Browses outgoing links
-			pageDao.loadLinks(page, false);
-			List<Link> outgoingLinkList = new ArrayList<Link>();
-			outgoingLinkList.addAll(page.getOutgoingInternLinks());
-			outgoingLinkList.addAll(page.getOutgoingExternLinks());
-			
-			for (Link outgoingLink : outgoingLinkList) {
-				Double estimatedScore = estimatedScoreLinks.get(outgoingLink);
-				if (!crawledLinks.contains(outgoingLink)
-						&& (estimatedScore == null || estimatedScore.doubleValue() < currentScore)) {
-					estimatedScoreLinks.put(outgoingLink, currentScore);
-				}
-			}
-		}
-
-		propertyChangeModel.notify(IPropertyName.LOADING, I18nUtil.getMessage("loading.recalculateScores.step3"));
-		for (Link link : estimatedScoreLinks.keySet()) {
-			pageDao.updateScorePage(link, estimatedScoreLinks.get(link));
-		}
-
-		pageDao.endTransaction();
+	public static void recalculateAllPages(SwingPropertyChangeModel propertyChangeModel,
+			Map<String, Integer> previousKeywordMap) {
+		new ScoreRecalculator(keywordMatcher, previousKeywordMap).recalculate(propertyChangeModel);
 	}
 
 }
@@ -0,0 +1,453 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton built from a keyword map, which counts the
+ * occurrences of all the keywords in a single pass. The matching follows the
+ * rules of the pattern "(?U)\b(keyword)\b" with CASE_INSENSITIVE : unicode
+ * word boundaries, unicode case folding and no overlapping occurrences of a
+ * same keyword. It can be shared across threads.
+ * 
+ * @author lbertelo
+ */
+final class KeywordMatcher {
+
+	/**
+	 * Keyword map with word as a key and score as a value
+	 */
+	private final Map<String, Integer> keywordMap;
+
+	/**
+	 * Weights of the keywords (in the iteration order of the keyword map)
+	 */
+	private final int[] weights;
+
+	/**
+	 * Lengths of the keywords (in code points)
+	 */
+	private final int[] lengths;
+
+	/**
+	 * Number of the last code points whose word flags are kept while a
+	 * content is read (the code point before the longest keyword and the code
+	 * point after it)
+	 */
+	private final int wordFlagsLength;
+
+	/**
+	 * Root of the automaton
+	 */
+	private final Node root;
+
+	/**
+	 * Indexes of the keywords by folded word (null if a keyword isn't a single
+	 * word, so that the term vectors can't be used)
+	 */
+	private final Map<String, int[]> termKeywords;
+
+	/**
+	 * Default constructor, compiles the keyword map
+	 * @param keywordMap the keyword map
+	 */
+	KeywordMatcher(Map<String, Integer> keywordMap) {
+		this.keywordMap = Collections.unmodifiableMap(new HashMap<String, Integer>(keywordMap));
+		weights = new int[keywordMap.size()];
+		lengths = new int[keywordMap.size()];
+
+		// Builds the trie (keyword indexes follow the iteration order of the map)
+		BuildNode buildRoot = new BuildNode();
+		int index = 0;
+		for (Map.Entry<String, Integer> entry : keywordMap.entrySet()) {
+			String word = entry.getKey();
+			weights[index] = entry.getValue();
+			lengths[index] = word.codePointCount(0, word.length());
+
+			BuildNode node = buildRoot;
+			for (int i = 0; i < word.length(); i += Character.charCount(word.codePointAt(i))) {
+				int codePoint = fold(word.codePointAt(i));
+				BuildNode child = node.children.get(codePoint);
+				if (child == null) {
+					child = new BuildNode();
+					node.children.put(codePoint, child);
+				}
+				node = child;
+			}
+			node.keywords.add(index);
+			index++;
+		}
+
+		int maxLength = 0;
+		for (int length : lengths) {
+			maxLength = Math.max(maxLength, length);
+		}
+		wordFlagsLength = maxLength + 2;
+
+		root = compile(buildRoot);
+		termKeywords = buildTermKeywords(keywordMap);
+	}
+
+	/**
+	 * Builds the indexes of the keywords by folded word
+	 * @param keywordMap the keyword map
+	 * @return the indexes of the keywords, null if a keyword isn't a single word
+	 */
+	private static Map<String, int[]> buildTermKeywords(Map<String, Integer> keywordMap) {
+		Map<String, int[]> termKeywords = new HashMap<String, int[]>();
+		int index = 0;
+		for (String word : keywordMap.keySet()) {
+			if (word.isEmpty()) {
+				return null;
+			}
+			for (int i = 0; i < word.length(); i += Character.charCount(word.codePointAt(i))) {
+				if (!isWordCharacter(word.codePointAt(i))) {
+					return null;
+				}
+			}
+
+			String foldedWord = foldWord(word);
+			int[] indexes = termKeywords.get(foldedWord);
+			if (indexes == null) {
+				indexes = new int[] { index };
+			} else {
+				indexes = Arrays.copyOf(indexes, indexes.length + 1);
+				indexes[indexes.length - 1] = index;
+			}
+			termKeywords.put(foldedWord, indexes);
+			index++;
+		}
+		return termKeywords;
+	}
+
+	/**
+	 * Getter of keyword map
+	 * @return the keyword map (unmodifiable)
+	 */
+	Map<String, Integer> getKeywordMap() {
+		return keywordMap;
+	}
+
+	/**
+	 * Calculates the score of a content
+	 * @param content the content of a page
+	 * @return the score calculated
+	 */
+	double calculateContent(String content) {
+		return calculate(countKeywords(content));
+	}
+
+	/**
+	 * Calculates the score of a content read from a reader
+	 * @param reader the reader of the content
+	 * @return the score calculated
+	 * @throws IOException
+	 */
+	double calculateContent(Reader reader) throws IOException {
+		return calculate(countKeywords(reader));
+	}
+
+	/**
+	 * Indicates if the scores can be calculated with the term vectors (all
+	 * the keywords are single words)
+	 * @return true if the term vectors can be used, false otherwise
+	 */
+	boolean isTermIndexable() {
+		return termKeywords != null;
+	}
+
+	/**
+	 * Calculates the score of a content from its term vector (same score as
+	 * calculateContent if isTermIndexable)
+	 * @param termVector the term vector of the content
+	 * @return the score calculated
+	 */
+	double calculateTerms(TermVector termVector) {
+		int[] occurrences = new int[weights.length];
+		while (termVector.next()) {
+			int[] indexes = termKeywords.get(foldWord(termVector.getTerm()));
+			if (indexes != null) {
+				for (int index : indexes) {
+					occurrences[index] += termVector.getCount();
+				}
+			}
+		}
+		return calculate(occurrences);
+	}
+
+	/**
+	 * Calculates the score from the occurrences of the keywords
+	 * @param occurrences the occurrences (in the iteration order of the
+	 *            keyword map)
+	 * @return the score calculated
+	 */
+	private double calculate(int[] occurrences) {
+		double score = 0.0;
+		for (int i = 0; i < occurrences.length; i++) {
+			score += KeywordManager.calculate(occurrences[i], weights[i]);
+		}
+		return score;
+	}
+
+	/**
+	 * Counts the occurrences of each keyword in a content
+	 * @param content the content of a page
+	 * @return the occurrences (in the iteration order of the keyword map)
+	 */
+	int[] countKeywords(String content) {
+		try {
+			return countKeywords(new StringReader(content));
+		} catch (IOException e) {
+			// A string is always readable
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Counts the occurrences of each keyword in a content read from a reader
+	 * (the content is matched while it is read, the word boundaries are
+	 * checked with the word flags of the last code points)
+	 * @param reader the reader of the content
+	 * @return the occurrences (in the iteration order of the keyword map)
+	 * @throws IOException
+	 */
+	int[] countKeywords(Reader reader) throws IOException {
+		int[] occurrences = new int[weights.length];
+		long[] lastEnds = new long[weights.length];
+		boolean[] wordFlags = new boolean[wordFlagsLength];
+
+		CodePointReader codePoints = new CodePointReader(reader);
+		int codePoint = codePoints.read();
+		boolean word = codePoint >= 0 && isWordCharacter(codePoint);
+		wordFlags[0] = word;
+
+		Node state = root;
+		long position = 0;
+		while (codePoint >= 0) {
+			int nextCodePoint = codePoints.read();
+			boolean nextWord = nextCodePoint >= 0 && isWordCharacter(nextCodePoint);
+			long end = position + 1;
+			wordFlags[(int) (end % wordFlagsLength)] = nextWord;
+			int folded = fold(codePoint);
+
+			Node next = state.getChild(folded);
+			while (next == null && state != root) {
+				state = state.fail;
+				next = state.getChild(folded);
+			}
+			if (next != null) {
+				state = next;
+			}
+
+			if (word != nextWord) {
+				Node output = (state.keywords.length > 0) ? state : state.output;
+				while (output != null) {
+					for (int keyword : output.keywords) {
+						long start = end - lengths[keyword];
+						// Occurrences of a same keyword don't overlap (like Matcher.find)
+						if (start >= lastEnds[keyword] && isWordBoundary(wordFlags, start)) {
+							occurrences[keyword]++;
+							lastEnds[keyword] = end;
+						}
+					}
+					output = output.output;
+				}
+			}
+
+			codePoint = nextCodePoint;
+			word = nextWord;
+			position = end;
+		}
+
+		return occurrences;
+	}
+
+	/**
+	 * Folds the case of a code point (as the regex CASE_INSENSITIVE with
+	 * UNICODE_CASE)
+	 * @param codePoint the code point
+	 * @return the folded code point
+	 */
+	static int fold(int codePoint) {
+		return Character.toLowerCase(Character.toUpperCase(codePoint));
+	}
+
+	/**
+	 * Folds the case of a word (code point by code point)
+	 * @param word the word
+	 * @return the folded word
+	 */
+	private static String foldWord(String word) {
+		StringBuilder foldedWord = new StringBuilder(word.length());
+		for (int i = 0; i < word.length(); i += Character.charCount(word.codePointAt(i))) {
+			foldedWord.appendCodePoint(fold(word.codePointAt(i)));
+		}
+		return foldedWord.toString();
+	}
+
+	/**
+	 * Indicates if a code point is a word character (as "\w" with
+	 * UNICODE_CHARACTER_CLASS)
+	 * @param codePoint the code point
+	 * @return true if it's a word character, false otherwise
+	 */
+	static boolean isWordCharacter(int codePoint) {
+		if (Character.isAlphabetic(codePoint)) {
+			return true;
+		}
+		switch (Character.getType(codePoint)) {
+		case Character.NON_SPACING_MARK:
+		case Character.ENCLOSING_MARK:
+		case Character.COMBINING_SPACING_MARK:
+		case Character.DECIMAL_DIGIT_NUMBER:
+		case Character.CONNECTOR_PUNCTUATION:
+			return true;
+		default:
+			// Join controls
+			return codePoint == 0x200C || codePoint == 0x200D;
+		}
+	}
+
+	/**
+	 * Indicates if there is a word boundary at a position of a content
+	 * @param wordFlags the word flags of the last code points read (by
+	 *            position modulo their number)
+	 * @param position the position (in code points, among the last ones read)
+	 * @return true if there is a word boundary, false otherwise
+	 */
+	private static boolean isWordBoundary(boolean[] wordFlags, long position) {
+		boolean left = position > 0 && wordFlags[(int) ((position - 1) % wordFlags.length)];
+		boolean right = wordFlags[(int) (position % wordFlags.length)];
+		return left != right;
+	}
+
+	/**
+	 * Compiles the trie into the automaton (failure and output links computed
+	 * with a breadth-first traversal)
+	 * @param buildRoot the root of the trie
+	 * @return the root of the automaton
+	 */
+	private static Node compile(BuildNode buildRoot) {
+		Map<BuildNode, Node> nodeMap = new HashMap<BuildNode, Node>();
+		Node compiledRoot = new Node(buildRoot);
+		nodeMap.put(buildRoot, compiledRoot);
+
+		Queue<BuildNode> queue = new ArrayDeque<BuildNode>();
+		queue.add(buildRoot);
+		while (!queue.isEmpty()) {
+			BuildNode buildNode = queue.poll();
+			Node node = nodeMap.get(buildNode);
+
+			int i = 0;
+			for (Map.Entry<Integer, BuildNode> entry : buildNode.children.entrySet()) {
+				Node child = new Node(entry.getValue());
+				node.children[i++] = child;
+				nodeMap.put(entry.getValue(), child);
+
+				// The failure link is the longest proper suffix in the trie
+				Node fail = node.fail;
+				while (fail != null && fail.getChild(entry.getKey()) == null) {
+					fail = fail.fail;
+				}
+				child.fail = (fail == null) ? compiledRoot : fail.getChild(entry.getKey());
+				child.output = (child.fail.keywords.length > 0) ? child.fail : child.fail.output;
+
+				queue.add(entry.getValue());
+			}
+		}
+
+		return compiledRoot;
+	}
+
+	/**
+	 * Node of the trie during the construction
+	 */
+	private static final class BuildNode {
+		private final TreeMap<Integer, BuildNode> children = new TreeMap<Integer, BuildNode>();
+		private final List<Integer> keywords = new ArrayList<Integer>();
+	}
+
+	/**
+	 * Node of the automaton
+	 */
+	private static final class Node {
+
+		/**
+		 * Sorted code points of the transitions
+		 */
+		private final int[] codePoints;
+
+		/**
+		 * Children (same order as the code points)
+		 */
+		private final Node[] children;
+
+		/**
+		 * Indexes of the keywords ending at this node
+		 */
+		private final int[] keywords;
+
+		/**
+		 * Failure link (null for the root)
+		 */
+		private Node fail;
+
+		/**
+		 * Next node with keywords in the failure chain
+		 */
+		private Node output;
+
+		private Node(BuildNode buildNode) {
+			codePoints = new int[buildNode.children.size()];
+			int i = 0;
+			for (Integer codePoint : buildNode.children.keySet()) {
+				codePoints[i++] = codePoint;
+			}
+			children = new Node[codePoints.length];
+
+			keywords = new int[buildNode.keywords.size()];
+			for (i = 0; i < keywords.length; i++) {
+				keywords[i] = buildNode.keywords.get(i);
+			}
+		}
+
+		/**
+		 * Return the child for a code point
+		 * @param codePoint the (folded) code point
+		 * @return the child or null if there is no transition
+		 */
+		private Node getChild(int codePoint) {
+			int i = Arrays.binarySearch(codePoints, codePoint);
+			return (i >= 0) ? children[i] : null;
+		}
+	}
+
+}
@@ -0,0 +1,495 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.IPropertyName;
+import org.mfcrawler.model.SwingPropertyChangeModel;
+import org.mfcrawler.model.dao.DbmsManager;
+import org.mfcrawler.model.dao.iterator.LinkIdDbIterator;
+import org.mfcrawler.model.dao.iterator.PageContentDbIterator;
+import org.mfcrawler.model.dao.site.PageDAO;
+import org.mfcrawler.model.pojo.site.PageContent;
+import org.mfcrawler.model.util.I18nUtil;
+import org.mfcrawler.model.util.LongDoubleHashMap;
+import org.mfcrawler.model.util.LongIntHashMap;
+
+/**
+ * Recalculates the scores of all the pages :
+ * <ul>
+ * <li>the contents are scored in parallel on a fork-join pool, by ranges of
+ * page identifiers</li>
+ * <li>the scores are propagated to the found pages and the redirect pages
+ * following the crawl order (with maps of page identifiers)</li>
+ * <li>the scores are written with JDBC batches, committed periodically</li>
+ * </ul>
+ * In incremental mode, only the keywords whose weights have changed are
+ * counted and the difference is added to the previous score. When all the
+ * keywords are single words, the contents are scored with their term vectors
+ * (the term vectors of the pages crawled by a previous version are built
+ * during the recalculation).
+ * 
+ * @author lbertelo
+ */
+final class ScoreRecalculator {
+
+	/**
+	 * Number of crawled pages scored by a task
+	 */
+	private static final int RANGE_SIZE = 500;
+
+	/**
+	 * Maximum number of threads scoring the contents (each one holds a
+	 * database connection)
+	 */
+	private static final int MAX_PARALLELISM = 4;
+
+	/**
+	 * Number of scores updated by transaction
+	 */
+	private static final int COMMIT_INTERVAL = 1_000;
+
+	/**
+	 * Keyword matcher of the new keyword map
+	 */
+	private final KeywordMatcher keywordMatcher;
+
+	/**
+	 * Keyword matcher of the weight differences (null if not incremental)
+	 */
+	private final KeywordMatcher deltaMatcher;
+
+	/**
+	 * Indicates if the contents are scored with their term vectors (the
+	 * contents are only read for the pages without term vector)
+	 */
+	private final boolean termVectorUsed;
+
+	/**
+	 * Identifiers of the crawled pages (ordered by crawl time)
+	 */
+	private long[] pageIds;
+
+	/**
+	 * Positions of the crawled pages in the crawl order, by identifier
+	 */
+	private LongIntHashMap pageRanks;
+
+	/**
+	 * Positions of the redirect pages in the crawl order
+	 */
+	private BitSet redirectPages;
+
+	/**
+	 * Scores of the crawled pages (same order as the identifiers)
+	 */
+	private double[] scores;
+
+	/**
+	 * Estimated scores of the found pages, by identifier
+	 */
+	private LongDoubleHashMap estimatedScores;
+
+	/**
+	 * Default constructor
+	 * @param keywordMatcher the keyword matcher of the new keyword map
+	 * @param previousKeywordMap the previous keyword map (null to recalculate
+	 *            all the keywords)
+	 */
+	ScoreRecalculator(KeywordMatcher keywordMatcher, Map<String, Integer> previousKeywordMap) {
+		this.keywordMatcher = keywordMatcher;
+
+		Map<String, Integer> deltaMap = null;
+		if (previousKeywordMap != null) {
+			deltaMap = getWeightDifferences(previousKeywordMap, keywordMatcher.getKeywordMap());
+		}
+
+		// Incremental only if fewer keywords are counted
+		if (deltaMap != null && deltaMap.size() < keywordMatcher.getKeywordMap().size()) {
+			deltaMatcher = new KeywordMatcher(deltaMap);
+		} else {
+			deltaMatcher = null;
+		}
+
+		termVectorUsed = keywordMatcher.isTermIndexable() && (deltaMatcher == null || deltaMatcher.isTermIndexable());
+	}
+
+	/**
+	 * Return the weight differences between two keyword maps (the keywords
+	 * whose weights haven't changed are omitted)
+	 * @param previousKeywordMap the previous keyword map
+	 * @param keywordMap the new keyword map
+	 * @return the map of weight differences
+	 */
+	private static Map<String, Integer> getWeightDifferences(Map<String, Integer> previousKeywordMap,
+			Map<String, Integer> keywordMap) {
+		Set<String> words = new HashSet<String>(previousKeywordMap.keySet());
+		words.addAll(keywordMap.keySet());
+
+		// The score is linear in the weight : calculate(o, w2) - calculate(o, w1) = calculate(o, w2 - w1)
+		Map<String, Integer> deltaMap = new HashMap<String, Integer>();
+		for (String word : words) {
+			Integer previousWeight = previousKeywordMap.get(word);
+			Integer weight = keywordMap.get(word);
+			int delta = (weight == null ? 0 : weight) - (previousWeight == null ? 0 : previousWeight);
+			if (delta != 0) {
+				deltaMap.put(word, delta);
+			}
+		}
+		return deltaMap;
+	}
+
+	/**
+	 * Recalculates the scores of all the pages
+	 * @param propertyChangeModel to notify the progression
+	 */
+	void recalculate(SwingPropertyChangeModel propertyChangeModel) {
+		Connection connection = DbmsManager.get().getNewConnection();
+		PageDAO pageDao = new PageDAO(connection);
+
+		redirectPages = new BitSet();
+		pageIds = pageDao.getCrawledPageIds(redirectPages);
+		pageRanks = new LongIntHashMap(pageIds.length);
+		for (int rank = 0; rank < pageIds.length; rank++) {
+			pageRanks.put(pageIds[rank], rank);
+		}
+		scores = new double[pageIds.length];
+		estimatedScores = new LongDoubleHashMap(pageIds.length);
+
+		propertyChangeModel.notify(IPropertyName.LOADING, I18nUtil.getMessage("loading.recalculateScores.step2"));
+		scoreContents();
+		propagateScores(pageDao);
+
+		propertyChangeModel.notify(IPropertyName.LOADING, I18nUtil.getMessage("loading.recalculateScores.step3"));
+		writeScores(pageDao);
+
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			Logger.getLogger(ScoreRecalculator.class.getName()).log(Level.WARNING, "Error to close connection", e);
+		}
+	}
+
+	/**
+	 * Scores the contents of the crawled pages in parallel
+	 */
+	private void scoreContents() {
+		if (pageIds.length == 0) {
+			return;
+		}
+
+		// Ranges of identifiers containing RANGE_SIZE crawled pages
+		long[] sortedIds = pageIds.clone();
+		Arrays.sort(sortedIds);
+		int rangeNumber = (sortedIds.length + RANGE_SIZE - 1) / RANGE_SIZE;
+		long[] firstIds = new long[rangeNumber];
+		long[] lastIds = new long[rangeNumber];
+		for (int i = 0; i < rangeNumber; i++) {
+			firstIds[i] = sortedIds[i * RANGE_SIZE];
+			lastIds[i] = sortedIds[Math.min((i + 1) * RANGE_SIZE, sortedIds.length) - 1];
+		}
+
+		int parallelism = Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new ScoreRangesTask(firstIds, lastIds, 0, rangeNumber));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Scores the contents of a range of identifiers (the missing term vectors
+	 * of the range are built and saved)
+	 * @param firstId the first identifier of the range
+	 * @param lastId the last identifier of the range
+	 */
+	private void scoreRange(long firstId, long lastId) {
+		Connection connection = DbmsManager.get().getNewConnection();
+		try {
+			PageDAO pageDao = new PageDAO(connection);
+			long[] builtIds = new long[RANGE_SIZE];
+			byte[][] builtTermVectors = new byte[RANGE_SIZE][];
+			int builtNumber = 0;
+
+			PageContentDbIterator iterator = pageDao.getContentsToScore(firstId, lastId, !termVectorUsed);
+			while (iterator.hasNext()) {
+				PageContent pageContent = iterator.next();
+				byte[] termVector = pageContent.getTermVector();
+				if (termVector == null && builtNumber < RANGE_SIZE) {
+					termVector = buildTermVector(pageContent);
+					if (termVector != null) {
+						builtIds[builtNumber] = pageContent.getId();
+						builtTermVectors[builtNumber] = termVector;
+						builtNumber++;
+					}
+				}
+
+				int rank = pageRanks.get(pageContent.getId(), -1);
+				// The pages crawled since the start of the recalculation are ignored
+				if (rank >= 0) {
+					if (deltaMatcher != null && pageContent.getScore() != null) {
+						scores[rank] = pageContent.getScore() + calculate(deltaMatcher, termVector, pageContent);
+					} else {
+						scores[rank] = calculate(keywordMatcher, termVector, pageContent);
+					}
+				}
+			}
+
+			if (builtNumber > 0) {
+				pageDao.beginTransaction();
+				pageDao.updateTermVectors(builtIds, builtTermVectors, builtNumber);
+				pageDao.endTransaction();
+			}
+		} finally {
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				Logger.getLogger(ScoreRecalculator.class.getName()).log(Level.WARNING, "Error to close connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the score of a page content with its term vector if possible
+	 * (else the content is matched while it is decoded)
+	 * @param matcher the keyword matcher
+	 * @param termVector the encoded term vector (may be null)
+	 * @param pageContent the page content
+	 * @return the score calculated
+	 */
+	private double calculate(KeywordMatcher matcher, byte[] termVector, PageContent pageContent) {
+		if (termVectorUsed && termVector != null) {
+			return matcher.calculateTerms(new TermVector(termVector));
+		}
+
+		Reader reader = pageContent.getContentReader();
+		if (reader == null) {
+			return 0.0;
+		}
+		try {
+			return matcher.calculateContent(reader);
+		} catch (IOException e) {
+			Logger.getLogger(ScoreRecalculator.class.getName()).log(Level.SEVERE, "Error to read content", e);
+			return 0.0;
+		} finally {
+			close(reader);
+		}
+	}
+
+	/**
+	 * Builds the term vector of a page content (tokenized while it is
+	 * decoded)
+	 * @param pageContent the page content
+	 * @return the encoded term vector (null if the content is unreadable)
+	 */
+	private static byte[] buildTermVector(PageContent pageContent) {
+		Reader reader = pageContent.getContentReader();
+		if (reader == null) {
+			return null;
+		}
+		try {
+			return TermVector.build(reader);
+		} catch (IOException e) {
+			Logger.getLogger(ScoreRecalculator.class.getName()).log(Level.SEVERE, "Error to read content", e);
+			return null;
+		} finally {
+			close(reader);
+		}
+	}
+
+	/**
+	 * Close the reader of a content (catch IO Exception)
+	 * @param reader the reader
+	 */
+	private static void close(Reader reader) {
+		try {
+			reader.close();
+		} catch (IOException e) {
+			Logger.getLogger(ScoreRecalculator.class.getName()).log(Level.WARNING, "Error to close content", e);
+		}
+	}
+
+	/**
+	 * Propagates the scores through the outgoing links of the crawled pages :
+	 * a found page gets the best score of the crawled pages linking to it and a
+	 * redirect page gets the best score of the pages linking to it and
+	 * crawled before it
+	 * @param pageDao the pageDao
+	 */
+	private void propagateScores(PageDAO pageDao) {
+		// The scores of the redirect pages are unknown until the links are browsed
+		for (int rank = redirectPages.nextSetBit(0); rank >= 0; rank = redirectPages.nextSetBit(rank + 1)) {
+			scores[rank] = Double.NaN;
+		}
+
+		// The links which depend on redirect pages are deferred and browsed in crawl order
+		long[] deferredLinks = new long[16];
+		long[] deferredTargetIds = new long[16];
+		int deferredNumber = 0;
+
+		LinkIdDbIterator iterator = pageDao.getCrawledLinkIds();
+		while (iterator.hasNext()) {
+			long[] linkIds = iterator.next();
+			int sourceRank = pageRanks.get(linkIds[0], -1);
+			int targetRank = pageRanks.get(linkIds[1], -1);
+			if (sourceRank < 0 || (targetRank >= 0 && (targetRank < sourceRank || !redirectPages.get(targetRank)))) {
+				// Crawled after the start of the recalculation or the score of the target is already known
+				continue;
+			}
+
+			if (targetRank < 0 && !redirectPages.get(sourceRank)) {
+				estimatedScores.putMax(linkIds[1], scores[sourceRank]);
+			} else {
+				if (deferredNumber == deferredLinks.length) {
+					deferredLinks = Arrays.copyOf(deferredLinks, deferredNumber * 2);
+					deferredTargetIds = Arrays.copyOf(deferredTargetIds, deferredNumber * 2);
+				}
+				deferredLinks[deferredNumber] = ((long) sourceRank << 32) | deferredNumber;
+				deferredTargetIds[deferredNumber] = linkIds[1];
+				deferredNumber++;
+			}
+		}
+
+		Arrays.sort(deferredLinks, 0, deferredNumber);
+		for (int i = 0; i < deferredNumber; i++) {
+			int sourceRank = (int) (deferredLinks[i] >>> 32);
+			long targetId = deferredTargetIds[(int) deferredLinks[i]];
+			int targetRank = pageRanks.get(targetId, -1);
+
+			double sourceScore = scores[sourceRank];
+			if (Double.isNaN(sourceScore)) {
+				// Redirect page without link from a previous page
+				sourceScore = 0.0;
+				scores[sourceRank] = sourceScore;
+			}
+
+			if (targetRank < 0) {
+				estimatedScores.putMax(targetId, sourceScore);
+			} else if (Double.isNaN(scores[targetRank]) || scores[targetRank] < sourceScore) {
+				scores[targetRank] = sourceScore;
+			}
+		}
+
+		for (int rank = redirectPages.nextSetBit(0); rank >= 0; rank = redirectPages.nextSetBit(rank + 1)) {
+			if (Double.isNaN(scores[rank])) {
+				scores[rank] = 0.0;
+			}
+		}
+	}
+
+	/**
+	 * Writes the scores, the found pages without estimated score get a null
+	 * score
+	 * @param pageDao the pageDao
+	 */
+	private void writeScores(PageDAO pageDao) {
+		long[] batchIds = new long[COMMIT_INTERVAL];
+		double[] batchScores = new double[COMMIT_INTERVAL];
+		int batchNumber = 0;
+
+		pageDao.beginTransaction();
+		pageDao.initAllScores();
+
+		for (int rank = 0; rank < pageIds.length; rank++) {
+			batchIds[batchNumber] = pageIds[rank];
+			batchScores[batchNumber] = scores[rank];
+			batchNumber++;
+			if (batchNumber == COMMIT_INTERVAL) {
+				commitScores(pageDao, batchIds, batchScores, batchNumber);
+				batchNumber = 0;
+			}
+		}
+
+		for (int slot = 0; slot < estimatedScores.capacity(); slot++) {
+			if (estimatedScores.isUsed(slot)) {
+				batchIds[batchNumber] = estimatedScores.keyAt(slot);
+				batchScores[batchNumber] = estimatedScores.valueAt(slot);
+				batchNumber++;
+				if (batchNumber == COMMIT_INTERVAL) {
+					commitScores(pageDao, batchIds, batchScores, batchNumber);
+					batchNumber = 0;
+				}
+			}
+		}
+
+		pageDao.updateScores(batchIds, batchScores, batchNumber);
+		pageDao.endTransaction();
+	}
+
+	/**
+	 * Updates a batch of scores and commits the transaction
+	 * @param pageDao the pageDao
+	 * @param pageIds the identifiers of the pages
+	 * @param scores the scores
+	 * @param pageNumber the number of pages
+	 */
+	private static void commitScores(PageDAO pageDao, long[] pageIds, double[] scores, int pageNumber) {
+		pageDao.updateScores(pageIds, scores, pageNumber);
+		pageDao.endTransaction();
+		pageDao.beginTransaction();
+	}
+
+	/**
+	 * Fork-join task which scores ranges of identifiers (split in two until
+	 * there is one range)
+	 */
+	private class ScoreRangesTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] firstIds;
+		private final long[] lastIds;
+		private final int start;
+		private final int end;
+
+		private ScoreRangesTask(long[] firstIds, long[] lastIds, int start, int end) {
+			this.firstIds = firstIds;
+			this.lastIds = lastIds;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start == 1) {
+				scoreRange(firstIds[start], lastIds[start]);
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new ScoreRangesTask(firstIds, lastIds, start, middle), new ScoreRangesTask(firstIds, lastIds,
+						middle, end));
+			}
+		}
+	}
+
+}
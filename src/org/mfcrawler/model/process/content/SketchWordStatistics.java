@@ -0,0 +1,119 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Approximate statistics of the words with a bounded memory : the sums are
+ * kept by a sketch shared between the threads, and each thread only keeps
+ * the words which appear in the most documents (space-saving selection,
+ * pruned when the candidates are twice the number of words kept).
+ * 
+ * @author lbertelo
+ */
+final class SketchWordStatistics extends WordStatistics {
+
+	/**
+	 * The sketch shared between the threads
+	 */
+	private final WordSketch sketch;
+
+	/**
+	 * Number of words kept
+	 */
+	private final int wordNumber;
+
+	/**
+	 * Words which may be among the most frequent
+	 */
+	private final Set<String> candidates = new HashSet<String>();
+
+	/**
+	 * Minimum number of documents of a new candidate (estimated number of
+	 * documents of the last word kept by the last pruning)
+	 */
+	private int threshold;
+
+	/**
+	 * Default constructor
+	 * @param sketch the sketch shared between the threads
+	 * @param wordNumber the number of words kept
+	 */
+	SketchWordStatistics(WordSketch sketch, int wordNumber) {
+		this.sketch = sketch;
+		this.wordNumber = wordNumber;
+		threshold = 0;
+	}
+
+	@Override
+	void add(String word, double wordFrequency, double docScore) {
+		long hash = WordSketch.hash(word);
+		sketch.add(hash, wordFrequency, docScore);
+
+		if (sketch.estimateDocs(hash) > threshold && candidates.add(word) && candidates.size() >= 2 * wordNumber) {
+			prune();
+		}
+	}
+
+	@Override
+	void merge(WordStatistics statistics) {
+		candidates.addAll(((SketchWordStatistics) statistics).candidates);
+	}
+
+	@Override
+	List<GlobalAnalysis> getAnalysis(double nbDocsTotal, double scoresTotal) {
+		if (candidates.size() > wordNumber) {
+			prune();
+		}
+
+		List<GlobalAnalysis> analysisResult = new ArrayList<GlobalAnalysis>(candidates.size());
+		for (String word : candidates) {
+			long hash = WordSketch.hash(word);
+			analysisResult.add(toGlobalAnalysis(word, sketch.estimateFrequency(hash), sketch.estimateDocs(hash),
+					sketch.estimateScore(hash), nbDocsTotal, scoresTotal));
+		}
+		return analysisResult;
+	}
+
+	/**
+	 * Keeps the candidates which appear in the most documents and updates the
+	 * threshold
+	 */
+	private void prune() {
+		// Sorted by number of documents (high bits) then by position (low bits)
+		String[] words = candidates.toArray(new String[candidates.size()]);
+		long[] estimates = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			estimates[i] = ((long) sketch.estimateDocs(WordSketch.hash(words[i])) << 32) | i;
+		}
+		Arrays.sort(estimates);
+
+		candidates.clear();
+		for (int i = estimates.length - 1; i >= Math.max(estimates.length - wordNumber, 0); i--) {
+			candidates.add(words[(int) estimates[i]]);
+		}
+		threshold = (int) (estimates[Math.max(estimates.length - wordNumber, 0)] >>> 32);
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Term vector of a content : the words of the content (as "\w+" with
+ * UNICODE_CHARACTER_CLASS, case kept) with their occurrences. It is built once
+ * when the page is crawled and stored encoded (deflated list of UTF-8 terms
+ * and counts), so that the scores and the word analysis don't read the
+ * contents again. The encoded vector is read as an iterator.
+ * 
+ * @author lbertelo
+ */
+public final class TermVector {
+
+	/**
+	 * Input of the encoded vector
+	 */
+	private final DataInputStream input;
+
+	/**
+	 * Number of terms not read yet
+	 */
+	private int remainingTerms;
+
+	/**
+	 * Current term
+	 */
+	private String term;
+
+	/**
+	 * Occurrences of the current term
+	 */
+	private int count;
+
+	/**
+	 * Default constructor
+	 * @param termVector the encoded term vector
+	 */
+	public TermVector(byte[] termVector) {
+		input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(termVector)));
+		try {
+			remainingTerms = readVarInt(input);
+		} catch (IOException e) {
+			Logger.getLogger(TermVector.class.getName()).log(Level.SEVERE, "Error to read term vector", e);
+			remainingTerms = 0;
+		}
+	}
+
+	/**
+	 * Moves to the next term
+	 * @return true if there is a next term, false otherwise
+	 */
+	public boolean next() {
+		if (remainingTerms <= 0) {
+			return false;
+		}
+
+		try {
+			byte[] termBytes = new byte[readVarInt(input)];
+			input.readFully(termBytes);
+			term = new String(termBytes, StandardCharsets.UTF_8);
+			count = readVarInt(input);
+			remainingTerms--;
+			return true;
+		} catch (IOException e) {
+			Logger.getLogger(TermVector.class.getName()).log(Level.SEVERE, "Error to read term vector", e);
+			remainingTerms = 0;
+			return false;
+		}
+	}
+
+	/**
+	 * Getter of the current term
+	 * @return the term (with the case of the content)
+	 */
+	public String getTerm() {
+		return term;
+	}
+
+	/**
+	 * Getter of the occurrences of the current term
+	 * @return the occurrences
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Builds the encoded term vector of a content
+	 * @param content the content of a page
+	 * @return the encoded term vector
+	 */
+	public static byte[] build(String content) {
+		try {
+			return build(new StringReader(content));
+		} catch (IOException e) {
+			Logger.getLogger(TermVector.class.getName()).log(Level.SEVERE, "Error to build term vector", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Builds the encoded term vector of a content read from a reader (the
+	 * content is tokenized while it is read)
+	 * @param reader the reader of the content
+	 * @return the encoded term vector
+	 * @throws IOException
+	 */
+	public static byte[] build(Reader reader) throws IOException {
+		Map<String, int[]> termMap = new HashMap<String, int[]>();
+		CodePointReader codePoints = new CodePointReader(reader);
+		StringBuilder word = new StringBuilder();
+		int codePoint;
+		do {
+			codePoint = codePoints.read();
+			if (codePoint >= 0 && KeywordMatcher.isWordCharacter(codePoint)) {
+				word.appendCodePoint(codePoint);
+			} else if (word.length() > 0) {
+				String term = word.toString();
+				int[] occurrence = termMap.get(term);
+				if (occurrence == null) {
+					termMap.put(term, new int[] { 1 });
+				} else {
+					occurrence[0]++;
+				}
+				word.setLength(0);
+			}
+		} while (codePoint >= 0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(bytes));
+		writeVarInt(output, termMap.size());
+		for (Map.Entry<String, int[]> entry : termMap.entrySet()) {
+			byte[] termBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			writeVarInt(output, termBytes.length);
+			output.write(termBytes);
+			writeVarInt(output, entry.getValue()[0]);
+		}
+		output.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes a positive integer with a variable length (7 bits by byte)
+	 * @param output the output
+	 * @param value the value
+	 * @throws IOException
+	 */
+	private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte(value);
+	}
+
+	/**
+	 * Reads a positive integer with a variable length (7 bits by byte)
+	 * @param input the input
+	 * @return the value
+	 * @throws IOException
+	 */
+	private static int readVarInt(DataInputStream input) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = input.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+}
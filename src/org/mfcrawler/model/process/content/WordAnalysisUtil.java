@@ -21,19 +21,50 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-import org.mfcrawler.model.dao.iterator.PageDbIterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.ApplicationModel;
+import org.mfcrawler.model.dao.iterator.PageContentDbIterator;
 import org.mfcrawler.model.dao.site.PageDAO;
+import org.mfcrawler.model.pojo.ApplicationConfig;
+import org.mfcrawler.model.pojo.EAnalysisMode;
 import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.PageContent;
 import org.mfcrawler.model.pojo.site.Site;
 
 /**
- * Analyzes words of a page, a site, or all the crawled pages
+ * Analyzes words of a page, a site, or all the crawled pages (the sites and
+ * the crawled pages are analyzed with the term vectors of the pages)
  * 
  * @author lbertelo
  */
 public class WordAnalysisUtil {
 
+	/**
+	 * Maximum number of threads analyzing the documents
+	 */
+	private static final int MAX_PARALLELISM = 4;
+
+	/**
+	 * Number of documents sent together to a thread
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * Time (in milliseconds) between the checks of the threads while the queue
+	 * is full
+	 */
+	private static final long PUT_TIMEOUT = 500;
+
 	/**
 	 * Analyzes the content of a page
 	 * @param page the analyzed page
@@ -64,15 +95,14 @@ public class WordAnalysisUtil {
 	public static List<BasicAnalysis> analyze(Site site) {
 		List<BasicAnalysis> analysisResult = new ArrayList<BasicAnalysis>();
 		Map<String, Integer> wordsOccurrences = new HashMap<String, Integer>();
-		Map<String, Integer> keywordMap = KeywordManager.getKeywordMap();
+		KeywordMatcher keywordMatcher = KeywordManager.getKeywordMatcher();
+		Map<String, Integer> keywordMap = keywordMatcher.getKeywordMap();
 
 		PageDAO pageDao = new PageDAO();
-		PageDbIterator pageDbIterator = pageDao.getPagesWithContent(site.getDomain());
-		while (pageDbIterator.hasNext()) {
-			Page page = pageDbIterator.next();
-			if (page.getContent() != null) {
-				KeywordManager.countOccurrences(wordsOccurrences, page.getContent(), keywordMap.keySet());
-			}
+		PageContentDbIterator pageContentIterator = pageDao.getPagesWithContent(site.getDomain(),
+				!keywordMatcher.isTermIndexable());
+		while (pageContentIterator.hasNext()) {
+			countOccurrences(wordsOccurrences, pageContentIterator.next(), keywordMatcher);
 		}
 		initKeywordsOccurences(wordsOccurrences, keywordMap);
 
@@ -83,6 +113,32 @@ public class WordAnalysisUtil {
 		return analysisResult;
 	}
 
+	/**
+	 * Counts the occurrences of words and keywords in a page content (from its
+	 * term vector if the keywords are single words) and adds the result to
+	 * wordsOccur
+	 * @param wordsOccur the map modified with words as keys and occurrences as
+	 *            values
+	 * @param pageContent the page content
+	 * @param keywordMatcher the keyword matcher
+	 */
+	private static void countOccurrences(Map<String, Integer> wordsOccur, PageContent pageContent,
+			KeywordMatcher keywordMatcher) {
+		if (keywordMatcher.isTermIndexable() && pageContent.getTermVector() != null) {
+			// A single word keyword is counted as any word
+			TermVector termVector = new TermVector(pageContent.getTermVector());
+			while (termVector.next()) {
+				String word = termVector.getTerm().toLowerCase();
+				Integer occurrence = wordsOccur.get(word);
+				wordsOccur.put(word, (occurrence == null) ? termVector.getCount() : occurrence
+						+ termVector.getCount());
+			}
+		} else if (pageContent.getContent() != null) {
+			KeywordManager.countOccurrences(wordsOccur, pageContent.getContent(), keywordMatcher.getKeywordMap()
+					.keySet());
+		}
+	}
+
 	/**
 	 * Initializes keywords in the wordsOccurences Map
 	 * @param wordsOccurrences
@@ -97,131 +153,151 @@ public class WordAnalysisUtil {
 	}
 
 	/**
-	 * Analyzes the content of all the crawled pages with content
+	 * Analyzes the content of all the crawled pages with content : the pages
+	 * are read by the calling thread and analyzed in parallel, exactly or with
+	 * a bounded memory (depending on the analysis mode)
 	 * @return the result of the analysis
 	 */
 	public static List<GlobalAnalysis> analyze() {
-		Map<String, Integer> keywordMap = KeywordManager.getKeywordMap();
-
-		double nbDocsTotal = 0;
-		double scoresTotal = 0;
-		Map<String, GlobalSum> globalSumMap = new HashMap<String, GlobalSum>();
+		KeywordMatcher keywordMatcher = KeywordManager.getKeywordMatcher();
+		ApplicationConfig config = ApplicationModel.getConfig();
+		WordSketch sketch = null;
+		if (config.getAnalysisMode() == EAnalysisMode.STREAMING) {
+			sketch = new WordSketch(config.getAnalysisSketchSize());
+		}
 
-		PageDAO pageDao = new PageDAO();
-		PageDbIterator pageDbIterator = pageDao.getPagesWithContent();
-		// Explore documents
-		while (pageDbIterator.hasNext()) {
-			Page page = pageDbIterator.next();
-			if (page.getContent() != null) {
-				nbDocsTotal += 1.0;
-				scoresTotal += page.getScore();
-
-				Map<String, Integer> wordsOccurrences = new HashMap<String, Integer>();
-				KeywordManager.countOccurrences(wordsOccurrences, page.getContent(), keywordMap.keySet());
-
-				// Explore words of the document
-				for (String word : wordsOccurrences.keySet()) {
-					Integer occurrence = wordsOccurrences.get(word);
-					Double frequency = Math.log(occurrence);
-
-					GlobalSum globalSum = globalSumMap.get(word);
-					if (globalSum == null) {
-						globalSumMap.put(word, new GlobalSum(frequency, page.getScore()));
-					} else {
-						globalSum.increment(frequency, page.getScore());
-					}
-				}
+		int workerNumber = Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM);
+		BlockingQueue<List<PageContent>> queue = new ArrayBlockingQueue<List<PageContent>>(2 * workerNumber);
+		ExecutorService executor = Executors.newFixedThreadPool(workerNumber);
+		List<Future<WordStatistics>> futureList = new ArrayList<Future<WordStatistics>>();
+		for (int i = 0; i < workerNumber; i++) {
+			WordStatistics statistics;
+			if (sketch == null) {
+				statistics = new ExactWordStatistics();
+			} else {
+				statistics = new SketchWordStatistics(sketch, config.getAnalysisWordNumber());
 			}
+			futureList.add(executor.submit(new AnalysisWorker(queue, statistics, keywordMatcher)));
 		}
 
-		// Final counting
 		List<GlobalAnalysis> analysisResult = new ArrayList<GlobalAnalysis>();
-		for (String word : globalSumMap.keySet()) {
-			GlobalSum globalSum = globalSumMap.get(word);
-			
-			Double wordFrequency = 0.0;
-			Double docFrequency = 0.0;
-			Double tfIdf = 0.0;
-			if (nbDocsTotal != 0.0) {
-				wordFrequency = globalSum.getWordsFreqSum() / nbDocsTotal;
-				docFrequency = globalSum.getNbDocsSum() / nbDocsTotal;
-				tfIdf = wordFrequency * Math.log(1.0 / docFrequency);
+		try {
+			double nbDocsTotal = 0;
+			double scoresTotal = 0;
+			boolean workersAlive = true;
+
+			PageDAO pageDao = new PageDAO();
+			PageContentDbIterator pageContentIterator = pageDao.getPagesWithContent(!keywordMatcher.isTermIndexable());
+			// Explore documents
+			List<PageContent> batch = new ArrayList<PageContent>(BATCH_SIZE);
+			while (workersAlive && pageContentIterator.hasNext()) {
+				PageContent page = pageContentIterator.next();
+				// The contents are decoded by the workers
+				if (page.getTermVector() != null || page.hasContent()) {
+					nbDocsTotal += 1.0;
+					scoresTotal += getScore(page);
+
+					batch.add(page);
+					if (batch.size() == BATCH_SIZE) {
+						workersAlive = put(queue, batch, futureList);
+						batch = new ArrayList<PageContent>(BATCH_SIZE);
+					}
+				}
 			}
-			
-			Double weightedTfIdf = 0.0;
-			if (scoresTotal != 0.0) {
-				weightedTfIdf = tfIdf * (globalSum.getScoreDocsSum() / scoresTotal);
+			if (workersAlive && !batch.isEmpty()) {
+				workersAlive = put(queue, batch, futureList);
+			}
+			// An empty batch stops a worker
+			for (int i = 0; workersAlive && i < workerNumber; i++) {
+				workersAlive = put(queue, new ArrayList<PageContent>(), futureList);
+			}
+
+			// Final counting
+			WordStatistics statistics = futureList.get(0).get();
+			for (int i = 1; i < futureList.size(); i++) {
+				statistics.merge(futureList.get(i).get());
 			}
-			
-			analysisResult.add(new GlobalAnalysis(word, wordFrequency, docFrequency, tfIdf, weightedTfIdf));
+			analysisResult = statistics.getAnalysis(nbDocsTotal, scoresTotal);
+		} catch (InterruptedException e) {
+			Logger.getLogger(WordAnalysisUtil.class.getName()).log(Level.WARNING, "Error to analyze contents", e);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Logger.getLogger(WordAnalysisUtil.class.getName()).log(Level.SEVERE, "Error to analyze contents", e);
+		} finally {
+			executor.shutdownNow();
 		}
 
 		return analysisResult;
 	}
 
 	/**
-	 * Utility class used by global analysis for the calculations
+	 * Puts a batch of documents in the queue (waits while the queue is full)
+	 * @param queue the queue of the workers
+	 * @param batch the batch of documents
+	 * @param futureList the results of the workers
+	 * @return true if the batch is put, false if a worker has stopped
+	 * @throws InterruptedException
 	 */
-	private static class GlobalSum {
-		/**
-		 * The sum of the words frequency
-		 */
-		private double wordsFreqSum;
-
-		/**
-		 * The sum of the number of documents
-		 */
-		private double nbDocsSum;
-
-		/**
-		 * The sum of the score of documents
-		 */
-		private double scoreDocsSum;
-
-		/**
-		 * Default constructor
-		 * @param wordFreq the frequency of the word
-		 * @param scoreDoc the score of the document (the page)
-		 */
-		public GlobalSum(double wordFreq, double scoreDoc) {
-			wordsFreqSum = wordFreq;
-			nbDocsSum = 1.0;
-			scoreDocsSum = scoreDoc;
+	private static boolean put(BlockingQueue<List<PageContent>> queue, List<PageContent> batch,
+			List<Future<WordStatistics>> futureList) throws InterruptedException {
+		while (!queue.offer(batch, PUT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+			for (Future<WordStatistics> future : futureList) {
+				if (future.isDone()) {
+					return false;
+				}
+			}
 		}
+		return true;
+	}
 
-		/**
-		 * Increments the attributes
-		 * @param wordFreq the frequency of the word
-		 * @param scoreDoc the score of the document (the page)
-		 */
-		public void increment(double wordFreq, double scoreDoc) {
-			wordsFreqSum += wordFreq;
-			nbDocsSum += 1.0;
-			scoreDocsSum += scoreDoc;
-		}
+	/**
+	 * Return the score of a page content (0 if not calculated)
+	 * @param pageContent the page content
+	 * @return the score
+	 */
+	private static double getScore(PageContent pageContent) {
+		return (pageContent.getScore() == null) ? 0.0 : pageContent.getScore();
+	}
 
-		/**
-		 * Getter of the sum of the words frequency
-		 * @return the sum of the words frequency
-		 */
-		public double getWordsFreqSum() {
-			return wordsFreqSum;
-		}
+	/**
+	 * Worker of the global analysis which counts the words of the documents
+	 * until it takes an empty batch
+	 */
+	private static class AnalysisWorker implements Callable<WordStatistics> {
+
+		private final BlockingQueue<List<PageContent>> queue;
+		private final WordStatistics statistics;
+		private final KeywordMatcher keywordMatcher;
 
-		/**
-		 * Getter of the sum of the number of documents
-		 * @return the sum of the number of documents
-		 */
-		public double getNbDocsSum() {
-			return nbDocsSum;
+		private AnalysisWorker(BlockingQueue<List<PageContent>> queue, WordStatistics statistics,
+				KeywordMatcher keywordMatcher) {
+			this.queue = queue;
+			this.statistics = statistics;
+			this.keywordMatcher = keywordMatcher;
 		}
 
-		/**
-		 * Getter of the sum of the score of documents
-		 * @return the sum of the score of documents
-		 */
-		public double getScoreDocsSum() {
-			return scoreDocsSum;
+		@Override
+		public WordStatistics call() throws InterruptedException {
+			// Reused for all the documents
+			Map<String, Integer> wordsOccurrences = new HashMap<String, Integer>();
+
+			List<PageContent> batch = queue.take();
+			while (!batch.isEmpty()) {
+				for (PageContent page : batch) {
+					double score = getScore(page);
+					wordsOccurrences.clear();
+					countOccurrences(wordsOccurrences, page, keywordMatcher);
+
+					// Explore words of the document
+					for (Map.Entry<String, Integer> entry : wordsOccurrences.entrySet()) {
+						statistics.add(entry.getKey(), Math.log(entry.getValue().intValue()), score);
+					}
+				}
+				batch = queue.take();
+			}
+
+			return statistics;
 		}
 	}
+
 }
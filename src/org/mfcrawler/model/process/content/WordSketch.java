@@ -0,0 +1,176 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of the word sums used by the streaming analysis : each
+ * word updates one cell by row and its sums are estimated from its cells, so
+ * the memory doesn't depend on the number of distinct words. The numbers of
+ * documents and the frequencies (positive values) are estimated by the
+ * minimum of the cells, the scores (signed values) by their median. It can be
+ * updated by several threads.
+ * 
+ * @author lbertelo
+ */
+final class WordSketch {
+
+	/**
+	 * Number of rows (independent hash functions)
+	 */
+	private static final int DEPTH = 4;
+
+	/**
+	 * Size of a cell in bytes (document count, frequency sum and score sum)
+	 */
+	private static final int CELL_SIZE = 4 + 8 + 8;
+
+	/**
+	 * Number of cells by row
+	 */
+	private final int width;
+
+	/**
+	 * Numbers of documents
+	 */
+	private final AtomicIntegerArray docCounts;
+
+	/**
+	 * Sums of the word frequencies (bits of doubles)
+	 */
+	private final AtomicLongArray frequencySums;
+
+	/**
+	 * Sums of the document scores (bits of doubles)
+	 */
+	private final AtomicLongArray scoreSums;
+
+	/**
+	 * Default constructor
+	 * @param memorySize the memory size of the sketch (in Mo)
+	 */
+	WordSketch(int memorySize) {
+		width = (int) Math.max(1L, memorySize * 1024L * 1024L / CELL_SIZE / DEPTH);
+		docCounts = new AtomicIntegerArray(width * DEPTH);
+		frequencySums = new AtomicLongArray(width * DEPTH);
+		scoreSums = new AtomicLongArray(width * DEPTH);
+	}
+
+	/**
+	 * Return the hash of a word (FNV-1a then finalizer of MurmurHash3)
+	 * @param word the word
+	 * @return the hash
+	 */
+	static long hash(String word) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < word.length(); i++) {
+			hash ^= word.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * Adds a word of a document
+	 * @param hash the hash of the word
+	 * @param wordFrequency the frequency of the word in the document
+	 * @param docScore the score of the document
+	 */
+	void add(long hash, double wordFrequency, double docScore) {
+		for (int row = 0; row < DEPTH; row++) {
+			int cell = cell(hash, row);
+			docCounts.incrementAndGet(cell);
+			addDouble(frequencySums, cell, wordFrequency);
+			addDouble(scoreSums, cell, docScore);
+		}
+	}
+
+	/**
+	 * Estimates the number of documents containing a word (never
+	 * underestimated)
+	 * @param hash the hash of the word
+	 * @return the number of documents
+	 */
+	int estimateDocs(long hash) {
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, docCounts.get(cell(hash, row)));
+		}
+		return estimate;
+	}
+
+	/**
+	 * Estimates the sum of the frequencies of a word (never underestimated)
+	 * @param hash the hash of the word
+	 * @return the sum of the frequencies
+	 */
+	double estimateFrequency(long hash) {
+		double estimate = Double.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, Double.longBitsToDouble(frequencySums.get(cell(hash, row))));
+		}
+		return estimate;
+	}
+
+	/**
+	 * Estimates the sum of the scores of the documents containing a word
+	 * @param hash the hash of the word
+	 * @return the sum of the scores
+	 */
+	double estimateScore(long hash) {
+		double[] values = new double[DEPTH];
+		for (int row = 0; row < DEPTH; row++) {
+			values[row] = Double.longBitsToDouble(scoreSums.get(cell(hash, row)));
+		}
+		Arrays.sort(values);
+		return (values[(DEPTH - 1) / 2] + values[DEPTH / 2]) / 2.0;
+	}
+
+	/**
+	 * Return the cell of a word in a row (double hashing)
+	 * @param hash the hash of the word
+	 * @param row the row
+	 * @return the index of the cell
+	 */
+	private int cell(long hash, int row) {
+		int rowHash = (int) hash + row * ((int) (hash >>> 32) | 1);
+		return row * width + (rowHash & Integer.MAX_VALUE) % width;
+	}
+
+	/**
+	 * Adds a value to a double stored as bits
+	 * @param array the array of doubles
+	 * @param index the index
+	 * @param value the value to add
+	 */
+	private static void addDouble(AtomicLongArray array, int index, double value) {
+		long current;
+		do {
+			current = array.get(index);
+		} while (!array.compareAndSet(index, current, Double.doubleToRawLongBits(Double.longBitsToDouble(current)
+				+ value)));
+	}
+
+}
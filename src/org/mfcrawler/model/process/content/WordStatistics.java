@@ -0,0 +1,83 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.content;
+
+import java.util.List;
+
+/**
+ * Statistics of the words used by the global analysis, filled by a single
+ * thread then merged with the statistics of the other threads
+ * 
+ * @author lbertelo
+ */
+abstract class WordStatistics {
+
+	/**
+	 * Adds a word of a document
+	 * @param word the word
+	 * @param wordFrequency the frequency of the word in the document
+	 * @param docScore the score of the document (the page)
+	 */
+	abstract void add(String word, double wordFrequency, double docScore);
+
+	/**
+	 * Merges the statistics filled by another thread
+	 * @param statistics the statistics of the same type
+	 */
+	abstract void merge(WordStatistics statistics);
+
+	/**
+	 * Return the result of the analysis
+	 * @param nbDocsTotal the number of documents
+	 * @param scoresTotal the sum of the scores of the documents
+	 * @return the analysis of the words
+	 */
+	abstract List<GlobalAnalysis> getAnalysis(double nbDocsTotal, double scoresTotal);
+
+	/**
+	 * Calculates the analysis of a word from its sums
+	 * @param word the word
+	 * @param wordsFreqSum the sum of the word frequencies
+	 * @param nbDocsSum the number of documents containing the word
+	 * @param scoreDocsSum the sum of the scores of the documents containing the
+	 *            word
+	 * @param nbDocsTotal the number of documents
+	 * @param scoresTotal the sum of the scores of the documents
+	 * @return the analysis of the word
+	 */
+	static GlobalAnalysis toGlobalAnalysis(String word, double wordsFreqSum, double nbDocsSum, double scoreDocsSum,
+			double nbDocsTotal, double scoresTotal) {
+		double wordFrequency = 0.0;
+		double docFrequency = 0.0;
+		double tfIdf = 0.0;
+		if (nbDocsTotal != 0.0) {
+			wordFrequency = wordsFreqSum / nbDocsTotal;
+			docFrequency = nbDocsSum / nbDocsTotal;
+			tfIdf = wordFrequency * Math.log(1.0 / docFrequency);
+		}
+
+		double weightedTfIdf = 0.0;
+		if (scoresTotal != 0.0) {
+			weightedTfIdf = tfIdf * (scoreDocsSum / scoresTotal);
+		}
+
+		return new GlobalAnalysis(word, wordFrequency, docFrequency, tfIdf, weightedTfIdf);
+	}
+
+}
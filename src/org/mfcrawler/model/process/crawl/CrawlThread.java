@@ -17,38 +17,22 @@
 
 package org.mfcrawler.model.process.crawl;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import net.htmlparser.jericho.Element;
-import net.htmlparser.jericho.Source;
-
 import org.mfcrawler.model.ApplicationModel;
-import org.mfcrawler.model.dao.DbmsManager;
-import org.mfcrawler.model.dao.site.PageDAO;
-import org.mfcrawler.model.dao.site.SiteDAO;
 import org.mfcrawler.model.pojo.ApplicationConfig;
 import org.mfcrawler.model.pojo.crawl.CrawlOrder;
-import org.mfcrawler.model.pojo.crawl.CrawlResponse;
-import org.mfcrawler.model.pojo.site.Page;
-import org.mfcrawler.model.pojo.site.Site;
-import org.mfcrawler.model.pojo.site.link.Link;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
 import org.mfcrawler.model.process.ICrawlManager;
-import org.mfcrawler.model.process.content.KeywordManager;
-import org.mfcrawler.model.process.extraction.PageExtractionUtil;
+import org.mfcrawler.model.process.fetch.PooledPageFetcher;
+import org.mfcrawler.model.process.pipeline.PipelineTask;
 
 /**
- * CrawlThread executes the crawling action
+ * CrawlThread executes the fetch stage of the crawl : it fetches the pages
+ * (unless the scheduler has already fetched them) and submits them to the
+ * crawl pipeline
  * 
  * @author lbertelo
  */
@@ -59,6 +43,11 @@ public class CrawlThread extends Thread {
 	 */
 	private static final Object WAIT_OBJECT = new Object();
 
+	/**
+	 * Number of bytes in a kilobyte
+	 */
+	private static final int KILOBYTE = 1024;
+
 	/**
 	 * The crawlManager
 	 */
@@ -74,11 +63,6 @@ public class CrawlThread extends Thread {
 	 */
 	private CrawlThreadInfo crawlInfo;
 
-	/**
-	 * User agent used by the crawler
-	 */
-	private String userAgent;
-
 	/**
 	 * Page request timeout used by the crawler
 	 */
@@ -90,24 +74,9 @@ public class CrawlThread extends Thread {
 	private Integer robotsRequestTimeout;
 
 	/**
-	 * Table of forbidden file extensions
-	 */
-	private String forbiddenFileExtensions[];
-
-	/**
-	 * Connection to the database
+	 * Fetcher used if the page hasn't been fetched yet
 	 */
-	private Connection connectionDb;
-
-	/**
-	 * Page DAO
-	 */
-	private PageDAO pageDao;
-
-	/**
-	 * Site DAO
-	 */
-	private SiteDAO siteDao;
+	private PooledPageFetcher fetcher;
 
 	/**
 	 * Default constructor
@@ -121,14 +90,10 @@ public class CrawlThread extends Thread {
 		crawlInfo = crawlManager.initCrawlThread(id);
 
 		ApplicationConfig config = ApplicationModel.getConfig();
-		userAgent = config.getUserAgent();
 		pageRequestTimeout = config.getPageRequestTimeout();
 		robotsRequestTimeout = config.getRobotsRequestTimeout();
-		forbiddenFileExtensions = config.getForbiddenFileExtensions().split("\\|");
-
-		connectionDb = DbmsManager.get().getNewConnection();
-		pageDao = new PageDAO(connectionDb);
-		siteDao = new SiteDAO(connectionDb);
+		fetcher = new PooledPageFetcher(config.getUserAgent(), config.getConnectTimeout(),
+				config.getPageMaxSize() * KILOBYTE, config.getPageMaxDownloadTime());
 	}
 
 	/**
@@ -175,21 +140,7 @@ public class CrawlThread extends Thread {
 
 	@Override
 	public void run() {
-		// Check before launching the loop
-		if (connectionDb != null) {
-			loopCrawl();
-		}
-
-		// Close the thread database connection
-		try {
-			if (connectionDb != null) {
-				connectionDb.close();
-			}
-		} catch (SQLException e) {
-			Logger.getLogger(CrawlThread.class.getName()).log(Level.WARNING, "Error to close DB connection", e);
-		}
-		// Check before launching the loop
-
+		loopCrawl();
 		crawlManager.finalizeCrawlThread(id);
 	}
 
@@ -199,27 +150,21 @@ public class CrawlThread extends Thread {
 	private void loopCrawl() {
 		boolean stop = false;
 		CrawlOrder order;
-		CrawlResponse response = null;
 
 		while (!stop) {
-			order = crawlManager.manageCrawlThread(id, response);
+			order = crawlManager.manageCrawlThread(id);
 			stop = order.getStop();
 			if (!stop) {
 				if (order.getWait() != 0) {
-					// no response because no crawl
-					response = null;
 					crawlInfo.notice(CrawlThreadInfo.CI_WAIT);
 					waitThread(order.getWait().longValue());
 				} else {
-					response = new CrawlResponse(order);
-					response.setCrawlDate(new Date());
+					PipelineTask task = new PipelineTask(order, new Date());
+					task.setFetchResult(fetch(order));
 
-					// perform a crawl for a site or for a page
-					if (order.getLink().isRobotsTxt()) {
-						performCrawlSite(order);
-					} else {
-						performCrawlPage(order);
-					}
+					// Waits while the pipeline is full
+					crawlInfo.notice(CrawlThreadInfo.CI_SUBMIT, order.getLink());
+					crawlManager.processCrawl(id, task);
 
 					crawlInfo.notice(CrawlThreadInfo.CI_SEARCH);
 				}
@@ -228,190 +173,21 @@ public class CrawlThread extends Thread {
 	}
 
 	/**
-	 * Perfoms a crawl for a page
+	 * Fetches the page or the robots.txt of the order
 	 * @param order the crawl order
-	 */
-	private void performCrawlPage(CrawlOrder order) {
-		Page page = new Page(order.getLink());
-		page.setInnerDeep(order.getInnerDeep());
-		page.setOuterDeep(order.getOuterDeep());
-		page.setRedirectPage(false);
-		page.setCrawlTime(new Date());
-
-		HttpURLConnection httpConnection = null;
-		try {
-			// Opening connection
-			crawlInfo.notice(CrawlThreadInfo.CI_LOAD + order.getLink());
-			httpConnection = getHttpConnection(order.getLink());
-			httpConnection.setReadTimeout(pageRequestTimeout);
-
-			// Sends the request
-			httpConnection.connect();
-			if (httpConnection.getResponseCode() >= 400) {
-				page.setCrawlError("HTTP RESPONSE CODE : " + httpConnection.getResponseCode());
-			} else if (httpConnection.getContentType() != null && !httpConnection.getContentType().startsWith("text")) {
-				page.setCrawlError("CONTENT TYPE : " + httpConnection.getContentType());
-			}
-
-		} catch (Exception e) {
-			Logger.getLogger(CrawlThread.class.getName()).log(Level.WARNING,
-					"Crawl error : Get page => " + order.getLink(), e);
-			page.setCrawlError(e.toString());
-		}
-
-		// Read content
-		if (page.getCrawlError() == null) {
-			crawlInfo.notice(CrawlThreadInfo.CI_READ + order.getLink());
-
-			try {
-				// Parses the html content using Jericho
-				Source parsedContent = new Source(httpConnection);
-				parsedContent.setLogger(null);
-				parsedContent.fullSequentialParse();
-				page.setContent(parsedContent.getTextExtractor().toString().trim());
-
-				page.setTitle(page.getLink().toString());
-				Element titleElement = parsedContent.getFirstElement("title");
-				if (titleElement != null) {
-					String title = titleElement.getTextExtractor().toString().trim();
-					if (!title.isEmpty()) {
-						page.setTitle(title);
-					}
-				}
-
-				// Redirect request
-				if (httpConnection.getResponseCode() >= 300 || page.getContent().isEmpty()) {
-					page.setRedirectPage(true);
-					PageExtractionUtil.redirectLinksExtraction(page, httpConnection, parsedContent,
-							forbiddenFileExtensions);
-				} else {
-					PageExtractionUtil.pageLinksExtraction(page, parsedContent, forbiddenFileExtensions);
-				}
-
-			} catch (Exception e) {
-				Logger.getLogger(CrawlThread.class.getName()).log(Level.WARNING, "Crawl error : Read content", e);
-				page.setCrawlError(e.toString());
-			}
-		}
-
-		// Sets the score
-		if (page.getCrawlError() != null) {
-			page.setScore(0.0);
-		} else if (page.getRedirectPage()) {
-			page.setScore(order.getExpectedScore());
+	 * @return the fetch result
+	 */
+	private FetchResult fetch(CrawlOrder order) {
+		FetchResult fetchResult = order.getFetchResult();
+		if (fetchResult == null) {
+			crawlInfo.notice(CrawlThreadInfo.CI_LOAD, order.getLink());
+			int timeout = order.getLink().isRobotsTxt() ? robotsRequestTimeout : pageRequestTimeout;
+			fetchResult = fetcher.fetch(order, timeout);
 		} else {
-			crawlInfo.notice(CrawlThreadInfo.CI_CALC + order.getLink());
-			double score = KeywordManager.calculateContent(page.getContent());
-			page.setScore(score);
-		}
-
-		// Sends information to Database
-		crawlInfo.notice(CrawlThreadInfo.CI_SAVE + order.getLink());
-		savePageInDataBase(page);
-	}
-
-	/**
-	 * Perfoms a crawl for a robots.txt
-	 * @param order the crawl order
-	 */
-	private void performCrawlSite(CrawlOrder order) {
-		Site site = new Site(order.getLink().getDomain());
-		site.setRobotFileExist(true);
-		site.setCrawlTime(new Date());
-
-		String robotFileContent = null;
-
-		HttpURLConnection httpConnection = null;
-		try {
-			// Opening connection
-			crawlInfo.notice(CrawlThreadInfo.CI_LOAD + order.getLink());
-			httpConnection = getHttpConnection(order.getLink());
-			httpConnection.setReadTimeout(robotsRequestTimeout);
-
-			// Sends the request
-			httpConnection.connect();
-			if (httpConnection.getResponseCode() >= 400
-					|| (httpConnection.getContentType() != null && !httpConnection.getContentType().startsWith("text"))) {
-				site.setRobotFileExist(false);
-			}
-
-		} catch (Exception e) {
-			Logger.getLogger(CrawlThread.class.getName()).log(Level.WARNING,
-					"Crawl error : Get site => " + order.getLink(), e);
-			site.setRobotFileExist(false);
-		}
-
-		// Read content
-		if (site.getRobotFileExist()) {
-			crawlInfo.notice(CrawlThreadInfo.CI_READ + order.getLink());
-			try {
-				BufferedReader reader = new BufferedReader(new InputStreamReader(httpConnection.getInputStream()));
-				String line = null;
-				StringBuilder contentBuffer = new StringBuilder();
-				while ((line = reader.readLine()) != null) {
-					contentBuffer.append(line).append("\n");
-				}
-				robotFileContent = contentBuffer.toString();
-			} catch (Exception e) {
-				site.setRobotFileExist(false);
-			}
-		}
-
-		// Sends information to Database
-		crawlInfo.notice(CrawlThreadInfo.CI_SAVE + order.getLink());
-		siteDao.updateSiteRobot(site, robotFileContent);
-	}
-
-	// CONNECTION
-
-	/**
-	 * Get the http connection (works with "http" and "https")
-	 * @param link the link
-	 * @return the http connection
-	 * @throws IOException
-	 */
-	private HttpURLConnection getHttpConnection(Link link) throws IOException {
-		URL serverAddr = new URL(link.getUrl());
-		HttpURLConnection httpConnection = (HttpURLConnection) serverAddr.openConnection();
-
-		httpConnection.setRequestMethod("GET");
-		httpConnection.setRequestProperty("User-Agent", userAgent);
-
-		return httpConnection;
-	}
-
-	// SAVE
-
-	/**
-	 * Saves page information in database
-	 * @param page the page
-	 */
-	private void savePageInDataBase(Page page) {
-		pageDao.beginTransaction();
-		pageDao.updateCrawledPage(page);
-
-		List<Link> outgoingLink = new ArrayList<Link>();
-		outgoingLink.addAll(page.getOutgoingExternLinks());
-		outgoingLink.addAll(page.getOutgoingInternLinks());
-		for (Link link : outgoingLink) {
-			Page foundPage = new Page(link);
-			foundPage.setCrawlNow(false);
-			foundPage.setScore(page.getScore());
-
-			if (page.getLink().getDomain().equals(link.getDomain())) {
-				foundPage.setInnerDeep(page.getInnerDeep() + 1);
-				foundPage.setOuterDeep(page.getOuterDeep());
-				foundPage.getIncomingInternLinks().add(page.getLink());
-			} else {
-				foundPage.setInnerDeep(0);
-				foundPage.setOuterDeep(page.getOuterDeep() + 1);
-				foundPage.getIncomingExternLinks().add(page.getLink());
-			}
-
-			pageDao.updateFoundPage(foundPage);
-			siteDao.insertEmptySite(link.getDomain());
+			// The pipeline only needs the fetch result
+			order.setFetchResult(null);
 		}
-		pageDao.endTransaction();
+		return fetchResult;
 	}
 
 }
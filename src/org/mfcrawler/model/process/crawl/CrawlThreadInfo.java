@@ -17,20 +17,23 @@
 
 package org.mfcrawler.model.process.crawl;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import org.mfcrawler.model.IPropertyName;
-import org.mfcrawler.model.SwingPropertyChangeModel;
+import org.mfcrawler.model.pojo.site.link.Link;
 import org.mfcrawler.model.util.I18nUtil;
 
 /**
- * Allows to notify the action threads
+ * Status slot of a crawl thread : the thread only writes its action (without
+ * allocation nor notification), the crawl thread monitor reads the slots and
+ * notifies their messages
  * 
  * @author lbertelo
  */
 public class CrawlThreadInfo {
 
+	/**
+	 * CrawlThreadInfo for starting
+	 */
+	public static final String CI_START = "Started";
+
 	/**
 	 * CrawlThreadInfo for waiting
 	 */
@@ -42,19 +45,9 @@ public class CrawlThreadInfo {
 	public static final String CI_LOAD = I18nUtil.getMessage("crawlThread.load");
 
 	/**
-	 * CrawlThreadInfo for reading page
-	 */
-	public static final String CI_READ = I18nUtil.getMessage("crawlThread.read");
-
-	/**
-	 * CrawlThreadInfo for calculating score
-	 */
-	public static final String CI_CALC = I18nUtil.getMessage("crawlThread.calc");
-
-	/**
-	 * CrawlThreadInfo for saving in database
+	 * CrawlThreadInfo for submitting to the pipeline
 	 */
-	public static final String CI_SAVE = I18nUtil.getMessage("crawlThread.save");
+	public static final String CI_SUBMIT = I18nUtil.getMessage("crawlThread.submit");
 
 	/**
 	 * CrawlThreadInfo for searching a page to crawl
@@ -67,52 +60,56 @@ public class CrawlThreadInfo {
 	private Integer crawlThreadId;
 
 	/**
-	 * The swing property change model
+	 * The current action (written after its link, so a new action is read
+	 * with its link or a newer one)
+	 */
+	private volatile String info;
+
+	/**
+	 * The link of the current action (null if the action has no link)
 	 */
-	private SwingPropertyChangeModel propertyChangeModel;
+	private volatile Link link;
 
 	/**
 	 * Default constructor
-	 * @param crawlThreadId
-	 * @param propertyChangeModel
+	 * @param crawlThreadId the crawl thread identifier
 	 */
-	public CrawlThreadInfo(Integer crawlThreadId, SwingPropertyChangeModel propertyChangeModel) {
+	public CrawlThreadInfo(Integer crawlThreadId) {
 		this.crawlThreadId = crawlThreadId;
-		this.propertyChangeModel = propertyChangeModel;
+		info = CI_START;
 	}
 
 	/**
-	 * Notice a message
-	 * @param info the message
+	 * Notice an action
+	 * @param info the action
 	 */
 	public void notice(String info) {
-		String noticeInfo = "Thread " + (crawlThreadId + 1) + " : " + info;
-		Map<Integer, String> map = new HashMap<Integer, String>();
-		map.put(crawlThreadId, noticeInfo);
-		sendNotice(map);
+		notice(info, null);
 	}
 
 	/**
-	 * Notice a starting
+	 * Notice an action on a link
+	 * @param info the action
+	 * @param link the link
 	 */
-	public void noticeStart() {
-		notice("Started");
+	public void notice(String info, Link link) {
+		this.link = link;
+		this.info = info;
 	}
 
 	/**
-	 * Notice a stopping
+	 * Return the message of the current action
+	 * @return the message
 	 */
-	public void noticeStop() {
-		Map<Integer, String> map = new HashMap<Integer, String>();
-		map.put(crawlThreadId, null);
-		sendNotice(map);
+	public String getMessage() {
+		String currentInfo = info;
+		Link currentLink = link;
+		StringBuilder message = new StringBuilder("Thread ").append(crawlThreadId + 1).append(" : ")
+				.append(currentInfo);
+		if (currentLink != null) {
+			message.append(currentLink);
+		}
+		return message.toString();
 	}
 
-	/**
-	 * Send crawl thread notification
-	 * @param map the message
-	 */
-	private void sendNotice(final Map<Integer, String> map) {
-		propertyChangeModel.notify(IPropertyName.CRAWL_THREAD_INFO, map);
-	}
 }
@@ -0,0 +1,295 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.crawl;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.htmlparser.jericho.Element;
+import net.htmlparser.jericho.Source;
+import net.htmlparser.jericho.StreamedSource;
+
+import org.mfcrawler.model.ApplicationModel;
+import org.mfcrawler.model.pojo.EParseMode;
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.Site;
+import org.mfcrawler.model.process.extraction.PageExtractionUtil;
+
+/**
+ * Parses the fetched pages : extracts their text, title and links
+ * 
+ * @author lbertelo
+ */
+public class PageParser {
+
+	/**
+	 * The "Location" Http Header
+	 */
+	private static final String HTTP_HEADER_LOCATION = "Location";
+
+	/**
+	 * Algorithm of the content digest
+	 */
+	private static final String DIGEST_ALGORITHM = "SHA-1";
+
+	/**
+	 * Hexadecimal digits of the content digest
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Table of forbidden file extensions
+	 */
+	private String forbiddenFileExtensions[];
+
+	/**
+	 * The way the pages are parsed
+	 */
+	private EParseMode parseMode;
+
+	/**
+	 * Default constructor
+	 * @param forbiddenFileExtensions the forbidden file extensions
+	 */
+	public PageParser(String forbiddenFileExtensions[]) {
+		this.forbiddenFileExtensions = forbiddenFileExtensions;
+		parseMode = ApplicationModel.getConfig().getParseMode();
+	}
+
+	/**
+	 * Parses a fetched page
+	 * @param order the crawl order
+	 * @param fetchResult the fetch result
+	 * @return the page (without score)
+	 */
+	public Page parsePage(CrawlOrder order, FetchResult fetchResult) {
+		Page page = new Page(order.getLink());
+		page.setInnerDeep(order.getInnerDeep());
+		page.setOuterDeep(order.getOuterDeep());
+		page.setRedirectPage(false);
+		page.setCrawlTime(new Date());
+
+		if (fetchResult.getError() != null) {
+			page.setCrawlError(fetchResult.getError());
+		} else if (fetchResult.isNotModified() && (order.getETag() != null || order.getLastModified() != null)) {
+			// The server answers the conditional request : the page keeps its content
+			page.setUnchanged(true);
+			page.setETag(fetchResult.getETag() != null ? fetchResult.getETag() : order.getETag());
+			page.setLastModified(fetchResult.getLastModified() != null ? fetchResult.getLastModified() : order
+					.getLastModified());
+			return page;
+		} else if (fetchResult.getResponseCode() >= 400) {
+			page.setCrawlError("HTTP RESPONSE CODE : " + fetchResult.getResponseCode());
+		} else if (fetchResult.getContentType() != null && !fetchResult.getContentType().startsWith("text")) {
+			page.setCrawlError("CONTENT TYPE : " + fetchResult.getContentType());
+		} else {
+			// The truncated content is parsed and scored as it is
+			page.setTruncation(fetchResult.getTruncation());
+			page.setETag(fetchResult.getETag());
+			page.setLastModified(fetchResult.getLastModified());
+			page.setContentDigest(digest(fetchResult.getContent()));
+
+			// The same content isn't parsed and scored again
+			if (page.getContentDigest() != null && page.getContentDigest().equals(order.getContentDigest())) {
+				page.setUnchanged(true);
+				return page;
+			}
+		}
+
+		// Read content
+		if (page.getCrawlError() == null && parseMode == EParseMode.STREAMED) {
+			try {
+				// Extracts the content, the title and the links in a single pass
+				StreamedSource streamedSource = streamContent(fetchResult);
+				streamedSource.setLogger(null);
+				try {
+					PageExtractionUtil.streamedExtraction(page, streamedSource, fetchResult.getResponseCode() >= 300,
+							fetchResult.getHeaderField(HTTP_HEADER_LOCATION), forbiddenFileExtensions);
+				} finally {
+					streamedSource.close();
+				}
+			} catch (Exception e) {
+				Logger.getLogger(PageParser.class.getName()).log(Level.WARNING, "Crawl error : Read content", e);
+				page.setCrawlError(e.toString());
+			}
+		} else if (page.getCrawlError() == null) {
+			try {
+				// Parses the html content using Jericho
+				Source parsedContent = parseContent(fetchResult);
+				parsedContent.setLogger(null);
+				parsedContent.fullSequentialParse();
+				page.setContent(parsedContent.getTextExtractor().toString().trim());
+
+				page.setTitle(page.getLink().toString());
+				Element titleElement = parsedContent.getFirstElement("title");
+				if (titleElement != null) {
+					String title = titleElement.getTextExtractor().toString().trim();
+					if (!title.isEmpty()) {
+						page.setTitle(title);
+					}
+				}
+
+				// Redirect request
+				if (fetchResult.getResponseCode() >= 300 || page.getContent().isEmpty()) {
+					page.setRedirectPage(true);
+					PageExtractionUtil.redirectLinksExtraction(page, fetchResult.getHeaderField(HTTP_HEADER_LOCATION),
+							parsedContent, forbiddenFileExtensions);
+				} else {
+					PageExtractionUtil.pageLinksExtraction(page, parsedContent, forbiddenFileExtensions);
+				}
+
+			} catch (Exception e) {
+				Logger.getLogger(PageParser.class.getName()).log(Level.WARNING, "Crawl error : Read content", e);
+				page.setCrawlError(e.toString());
+			}
+		}
+
+		return page;
+	}
+
+	/**
+	 * Parses a fetched robots.txt
+	 * @param site the site of the robots.txt (its "robotFileExist" is set)
+	 * @param fetchResult the fetch result
+	 * @return the content of the robots.txt or null if it doesn't exist
+	 */
+	public String parseRobotFile(Site site, FetchResult fetchResult) {
+		site.setRobotFileExist(fetchResult.isReadable() && fetchResult.getResponseCode() < 300);
+		site.setCrawlTime(new Date());
+
+		String robotFileContent = null;
+
+		// Read content
+		if (site.getRobotFileExist()) {
+			try {
+				BufferedReader reader = new BufferedReader(new StringReader(decodeContent(fetchResult)));
+				String line = null;
+				StringBuilder contentBuffer = new StringBuilder();
+				while ((line = reader.readLine()) != null) {
+					contentBuffer.append(line).append("\n");
+				}
+				robotFileContent = contentBuffer.toString();
+			} catch (Exception e) {
+				site.setRobotFileExist(false);
+			}
+		}
+
+		return robotFileContent;
+	}
+
+	/**
+	 * Parses the content with Jericho (the charset of the content type is used
+	 * if it is known, otherwise Jericho detects the encoding)
+	 * @param fetchResult the fetch result
+	 * @return the parsed content
+	 * @throws IOException
+	 */
+	private Source parseContent(FetchResult fetchResult) throws IOException {
+		Charset charset = getCharset(fetchResult);
+		if (charset != null) {
+			return new Source(new String(fetchResult.getContent(), charset));
+		} else {
+			return new Source(new ByteArrayInputStream(fetchResult.getContent()));
+		}
+	}
+
+	/**
+	 * Streams the content with Jericho (the charset of the content type is
+	 * used if it is known, otherwise Jericho detects the encoding)
+	 * @param fetchResult the fetch result
+	 * @return the streamed content
+	 * @throws IOException
+	 */
+	private StreamedSource streamContent(FetchResult fetchResult) throws IOException {
+		Charset charset = getCharset(fetchResult);
+		InputStream inputStream = new ByteArrayInputStream(fetchResult.getContent());
+		if (charset != null) {
+			return new StreamedSource(new InputStreamReader(inputStream, charset));
+		} else {
+			return new StreamedSource(inputStream);
+		}
+	}
+
+	/**
+	 * Decodes the content with the charset of the content type (or the default
+	 * charset)
+	 * @param fetchResult the fetch result
+	 * @return the decoded content
+	 */
+	private String decodeContent(FetchResult fetchResult) {
+		Charset charset = getCharset(fetchResult);
+		if (charset == null) {
+			charset = Charset.defaultCharset();
+		}
+		return new String(fetchResult.getContent(), charset);
+	}
+
+	/**
+	 * Calculates the digest of the content
+	 * @param content the content
+	 * @return the hexadecimal digest or null if it can't be calculated
+	 */
+	private static String digest(byte[] content) {
+		if (content == null) {
+			return null;
+		}
+
+		try {
+			byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+			char[] hexDigest = new char[digest.length * 2];
+			for (int i = 0; i < digest.length; i++) {
+				hexDigest[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0f];
+				hexDigest[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0f];
+			}
+			return new String(hexDigest);
+		} catch (NoSuchAlgorithmException e) {
+			Logger.getLogger(PageParser.class.getName()).log(Level.SEVERE, "Error to calculate content digest", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the charset of the content type
+	 * @param fetchResult the fetch result
+	 * @return the charset or null if it is unknown or not supported
+	 */
+	private Charset getCharset(FetchResult fetchResult) {
+		String charsetName = fetchResult.getCharset();
+		try {
+			if (charsetName != null && Charset.isSupported(charsetName)) {
+				return Charset.forName(charsetName);
+			}
+		} catch (IllegalArgumentException e) {
+			Logger.getLogger(PageParser.class.getName()).log(Level.FINE, "Unknown charset : " + charsetName, e);
+		}
+		return null;
+	}
+
+}
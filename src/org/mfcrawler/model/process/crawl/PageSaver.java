@@ -0,0 +1,293 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.crawl;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mfcrawler.model.dao.CrawlCounters;
+import org.mfcrawler.model.dao.DbmsManager;
+import org.mfcrawler.model.dao.site.PageDAO;
+import org.mfcrawler.model.dao.site.SiteDAO;
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.RobotRules;
+import org.mfcrawler.model.pojo.site.Site;
+import org.mfcrawler.model.pojo.site.link.Domain;
+import org.mfcrawler.model.pojo.site.link.Link;
+import org.mfcrawler.model.process.extraction.RobotExtractionUtil;
+
+/**
+ * Saves the crawled pages and sites in database (write-behind : the pages and
+ * sites are gathered then saved together in one transaction)
+ * 
+ * @author lbertelo
+ */
+public class PageSaver {
+
+	/**
+	 * Page DAO
+	 */
+	private PageDAO pageDao;
+
+	/**
+	 * Site DAO
+	 */
+	private SiteDAO siteDao;
+
+	/**
+	 * Crawled pages waiting to be saved
+	 */
+	private List<Page> crawledPageList;
+
+	/**
+	 * Crawled pages which haven't changed since their previous crawl (waiting
+	 * to be saved)
+	 */
+	private List<Page> unchangedPageList;
+
+	/**
+	 * Sites (and content of their robots.txt) waiting to be saved
+	 */
+	private Map<Site, String> robotFileMap;
+
+	/**
+	 * "Allow crawl" values of the pages of the sites whose robots.txt has been
+	 * saved by the last flush
+	 */
+	private Map<Domain, Map<Link, Boolean>> allowCrawlMaps;
+
+	/**
+	 * Default constructor
+	 * @param connectionDb the database connection used to save the pages
+	 */
+	public PageSaver(Connection connectionDb) {
+		pageDao = new PageDAO(connectionDb);
+		siteDao = new SiteDAO(connectionDb);
+		crawledPageList = new ArrayList<Page>();
+		unchangedPageList = new ArrayList<Page>();
+		robotFileMap = new LinkedHashMap<Site, String>();
+		allowCrawlMaps = new HashMap<Domain, Map<Link, Boolean>>();
+	}
+
+	/**
+	 * Adds the robots.txt information of a site to save
+	 * @param site the site
+	 * @param robotFileContent the content of the robots.txt (null if it
+	 *            doesn't exist)
+	 */
+	public void addSite(Site site, String robotFileContent) {
+		robotFileMap.put(site, robotFileContent);
+	}
+
+	/**
+	 * Adds a crawled page to save
+	 * @param page the page
+	 */
+	public void addPage(Page page) {
+		if (page.isUnchanged()) {
+			unchangedPageList.add(page);
+		} else {
+			crawledPageList.add(page);
+		}
+	}
+
+	/**
+	 * Saves the added pages and sites in one transaction
+	 * @return the found pages of the saved pages (as saved in database)
+	 */
+	public Map<Link, Page> flush() {
+		Map<Link, Page> savedPageMap = new HashMap<Link, Page>();
+		Set<Domain> domainSet = new LinkedHashSet<Domain>();
+		allowCrawlMaps.clear();
+
+		Map<Domain, RobotRules> robotRulesMap = new HashMap<Domain, RobotRules>();
+		for (Map.Entry<Site, String> robotFileEntry : robotFileMap.entrySet()) {
+			Site site = robotFileEntry.getKey();
+			RobotExtractionUtil.extraction(site, robotFileEntry.getValue());
+			robotRulesMap.put(site.getDomain(), new RobotRules(site));
+		}
+
+		int newPagesNumber = 0;
+		Map<Link, Page> crawlStateMap = new HashMap<Link, Page>();
+
+		pageDao.beginTransaction();
+
+		// The page table is locked first (then the content table and the site table)
+		if (!unchangedPageList.isEmpty()) {
+			// The unchanged pages keep their content and their links
+			pageDao.updateUnchangedPages(unchangedPageList);
+		}
+
+		if (!crawledPageList.isEmpty()) {
+			// The previous states update the crawl counters
+			crawlStateMap = pageDao.getCrawlStates(crawledPageList);
+			pageDao.updateCrawledPages(crawledPageList);
+
+			Map<Link, Page> foundPageMap = new LinkedHashMap<Link, Page>();
+			for (Page page : crawledPageList) {
+				addFoundPages(foundPageMap, page, page.getOutgoingInternLinks());
+				addFoundPages(foundPageMap, page, page.getOutgoingExternLinks());
+				domainSet.add(page.getLink().getDomain());
+				for (Link link : page.getOutgoingExternLinks()) {
+					domainSet.add(link.getDomain());
+				}
+			}
+
+			setAllowCrawl(foundPageMap.values(), robotRulesMap);
+			savedPageMap = pageDao.mergeFoundPages(foundPageMap.values());
+			for (Page foundPage : foundPageMap.values()) {
+				if (savedPageMap.get(foundPage.getLink()) == foundPage) {
+					newPagesNumber++;
+				}
+			}
+
+			// The links reference the identifiers of the saved pages
+			Set<Link> linkSet = new LinkedHashSet<Link>(foundPageMap.keySet());
+			for (Page page : crawledPageList) {
+				linkSet.add(page.getLink());
+			}
+			Map<Link, Long> pageIds = pageDao.getPageIds(linkSet);
+			pageDao.updateContents(crawledPageList, pageIds);
+			pageDao.updateLinks(crawledPageList, pageIds);
+		}
+
+		// All the known pages of a site are evaluated when its robots.txt arrives
+		for (Map.Entry<Domain, RobotRules> robotRulesEntry : robotRulesMap.entrySet()) {
+			Map<Link, Boolean> allowCrawlMap = new HashMap<Link, Boolean>();
+			for (Link link : pageDao.getDomainLinks(robotRulesEntry.getKey())) {
+				allowCrawlMap.put(link, robotRulesEntry.getValue().isAllowed(link.getLinkPath().getPath()));
+			}
+			if (!allowCrawlMap.isEmpty()) {
+				pageDao.updateAllowCrawlPages(allowCrawlMap);
+			}
+			allowCrawlMaps.put(robotRulesEntry.getKey(), allowCrawlMap);
+		}
+
+		if (!domainSet.isEmpty()) {
+			siteDao.mergeEmptySites(domainSet);
+		}
+
+		for (Map.Entry<Site, String> robotFileEntry : robotFileMap.entrySet()) {
+			siteDao.updateSiteRobot(robotFileEntry.getKey(), robotFileEntry.getValue());
+		}
+
+		if (pageDao.endTransaction()) {
+			CrawlCounters crawlCounters = DbmsManager.get().getCrawlCounters();
+			crawlCounters.addFoundPages(newPagesNumber);
+			for (Page page : crawledPageList) {
+				Page crawlState = crawlStateMap.get(page.getLink());
+				if (crawlState != null) {
+					crawlCounters.updateCrawledPage(crawlState, page);
+				}
+			}
+		}
+		crawledPageList.clear();
+		unchangedPageList.clear();
+		robotFileMap.clear();
+
+		return savedPageMap;
+	}
+
+	/**
+	 * Returns the "allow crawl" values of the pages of a site whose robots.txt
+	 * has been saved by the last flush
+	 * @param domain the domain of the site
+	 * @return the "allow crawl" values by page link (null if the robots.txt
+	 *         of the site hasn't been saved by the last flush)
+	 */
+	public Map<Link, Boolean> getAllowCrawlMap(Domain domain) {
+		return allowCrawlMaps.get(domain);
+	}
+
+	/**
+	 * Sets the "allow crawl" value of the found pages whose site has a known
+	 * robots.txt (the other ones are evaluated when their robots.txt arrives)
+	 * @param foundPages the found pages
+	 * @param robotRulesMap the rules of the robots.txt saved by this flush
+	 */
+	private void setAllowCrawl(Collection<Page> foundPages, Map<Domain, RobotRules> robotRulesMap) {
+		Map<Domain, RobotRules> knownRulesMap = new HashMap<Domain, RobotRules>(robotRulesMap);
+		for (Page foundPage : foundPages) {
+			Domain domain = foundPage.getLink().getDomain();
+			if (!knownRulesMap.containsKey(domain)) {
+				Site site = siteDao.getSiteWithRobotInfo(domain);
+				if (site != null && site.getRobotFileExist() != null) {
+					knownRulesMap.put(domain, site.getRobotRules());
+				} else {
+					knownRulesMap.put(domain, null);
+				}
+			}
+
+			RobotRules robotRules = knownRulesMap.get(domain);
+			if (robotRules != null) {
+				foundPage.setAllowCrawl(robotRules.isAllowed(foundPage.getLink().getLinkPath().getPath()));
+			}
+		}
+	}
+
+	/**
+	 * Adds the found pages of a crawled page (a found page already added
+	 * keeps the minimal deep and the maximal score)
+	 * @param foundPageMap the map of the found pages
+	 * @param page the crawled page
+	 * @param outgoingLinks the outgoing links of the crawled page
+	 */
+	private static void addFoundPages(Map<Link, Page> foundPageMap, Page page, List<Link> outgoingLinks) {
+		for (Link link : outgoingLinks) {
+			Page foundPage = new Page(link);
+			foundPage.setCrawlNow(false);
+			foundPage.setScore(page.getScore());
+
+			if (page.getLink().getDomain().equals(link.getDomain())) {
+				foundPage.setInnerDeep(page.getInnerDeep() + 1);
+				foundPage.setOuterDeep(page.getOuterDeep());
+				foundPage.getIncomingInternLinks().add(page.getLink());
+			} else {
+				foundPage.setInnerDeep(0);
+				foundPage.setOuterDeep(page.getOuterDeep() + 1);
+				foundPage.getIncomingExternLinks().add(page.getLink());
+			}
+
+			Page addedPage = foundPageMap.get(link);
+			if (addedPage == null) {
+				foundPageMap.put(link, foundPage);
+			} else {
+				if (addedPage.getOuterDeep() > foundPage.getOuterDeep()
+						|| (addedPage.getOuterDeep().intValue() == foundPage.getOuterDeep().intValue() && addedPage
+								.getInnerDeep() > foundPage.getInnerDeep())) {
+					addedPage.setOuterDeep(foundPage.getOuterDeep());
+					addedPage.setInnerDeep(foundPage.getInnerDeep());
+				}
+				if (addedPage.getScore() < foundPage.getScore()) {
+					addedPage.setScore(foundPage.getScore());
+				}
+				addedPage.getIncomingInternLinks().addAll(foundPage.getIncomingInternLinks());
+				addedPage.getIncomingExternLinks().addAll(foundPage.getIncomingExternLinks());
+			}
+		}
+	}
+
+}
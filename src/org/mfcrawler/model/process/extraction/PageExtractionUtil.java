@@ -17,17 +17,28 @@
 
 package org.mfcrawler.model.process.extraction;
 
-import java.net.HttpURLConnection;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import net.htmlparser.jericho.CharacterReference;
 import net.htmlparser.jericho.Element;
+import net.htmlparser.jericho.EndTag;
+import net.htmlparser.jericho.HTMLElementName;
+import net.htmlparser.jericho.HTMLElements;
+import net.htmlparser.jericho.Segment;
 import net.htmlparser.jericho.Source;
+import net.htmlparser.jericho.StartTag;
+import net.htmlparser.jericho.StartTagType;
+import net.htmlparser.jericho.StreamedSource;
+import net.htmlparser.jericho.Tag;
 
 import org.mfcrawler.model.pojo.site.Page;
 import org.mfcrawler.model.pojo.site.link.Link;
@@ -49,15 +60,21 @@ public class PageExtractionUtil {
 	 */
 	private static final Integer MAX_PATH_LENGTH = 2048;
 
+	/**
+	 * Maximum length for a title
+	 */
+	private static final Integer MAX_TITLE_LENGTH = 2048;
+
 	/**
 	 * Regex representing a url
 	 */
 	private static final String LINK_REGEX = "href\\s?=\\s?[\"|']([http://|https://|/]\\S+)[\"|']";
 
 	/**
-	 * The "Location" Http Header
+	 * Pattern of the url in the content of a meta refresh
 	 */
-	private static final String HTTP_HEADER_LOCATION = "Location";
+	private static final Pattern REFRESH_URL_PATTERN = Pattern.compile("url\\s*=\\s*['\"]?([^'\"]+)",
+			Pattern.CASE_INSENSITIVE);
 
 	/**
 	 * Extracts links from a page
@@ -80,14 +97,13 @@ public class PageExtractionUtil {
 	/**
 	 * Extracts links from a redirect pages
 	 * @param page the page
-	 * @param httpConnection the http connection (allow to read http header
-	 *            fields)
+	 * @param location the "Location" http header field (null if it doesn't
+	 *            exist)
 	 * @param parsedContent the content of the page
 	 * @param forbiddenFileExtensions the forbidden file extensions
 	 */
-	public static void redirectLinksExtraction(Page page, HttpURLConnection httpConnection, Source parsedContent,
+	public static void redirectLinksExtraction(Page page, String location, Source parsedContent,
 			String forbiddenFileExtensions[]) {
-		String location = httpConnection.getHeaderField(HTTP_HEADER_LOCATION);
 		if (location != null) {
 			addLinkToPage(page, location, forbiddenFileExtensions);
 		}
@@ -101,6 +117,124 @@ public class PageExtractionUtil {
 		}
 	}
 
+	/**
+	 * Extracts the content, the title and the links of a page in a single
+	 * forward pass over a streamed source (the page becomes a redirect page
+	 * if it is a redirect response or if its content is empty). As the text
+	 * extractor of Jericho, the contents of the script and style elements are
+	 * ignored and the tags which aren't inline-level are replaced by spaces.
+	 * @param page the page
+	 * @param streamedSource the streamed content of the page
+	 * @param redirectResponse true if the response is a redirect response
+	 * @param location the "Location" http header field (null if it doesn't
+	 *            exist)
+	 * @param forbiddenFileExtensions the forbidden file extensions
+	 * @throws IOException
+	 */
+	public static void streamedExtraction(Page page, StreamedSource streamedSource, boolean redirectResponse,
+			String location, String forbiddenFileExtensions[]) throws IOException {
+		TextCollector content = new TextCollector();
+		TextCollector title = null;
+		boolean titleRead = false;
+		String ignoredElement = null;
+		List<String> anchorUrls = new ArrayList<String>();
+		List<String> redirectUrls = new ArrayList<String>();
+
+		for (Segment segment : streamedSource) {
+			if (segment instanceof Tag) {
+				Tag tag = (Tag) segment;
+				String name = tag.getName();
+				if (ignoredElement != null) {
+					// Waits for the end of the script or style element
+					if (tag instanceof EndTag && name.equals(ignoredElement)) {
+						ignoredElement = null;
+					}
+					continue;
+				}
+
+				if (tag.getTagType() == StartTagType.NORMAL) {
+					StartTag startTag = (StartTag) tag;
+					if (name.equals(HTMLElementName.SCRIPT) || name.equals(HTMLElementName.STYLE)) {
+						if (!startTag.isSyntacticalEmptyElementTag()) {
+							ignoredElement = name;
+						}
+						continue;
+					} else if (name.equals(HTMLElementName.TITLE) && !titleRead) {
+						title = new TextCollector();
+					} else {
+						extractUrls(startTag, anchorUrls, redirectUrls);
+					}
+				} else if (tag instanceof EndTag && name.equals(HTMLElementName.TITLE) && title != null) {
+					titleRead = true;
+				}
+
+				if (name.equals(HTMLElementName.BR) || !HTMLElements.getInlineLevelElementNames().contains(name)) {
+					content.appendSpace();
+				}
+			} else if (ignoredElement == null) {
+				if (segment instanceof CharacterReference) {
+					int codePoint = ((CharacterReference) segment).getCodePoint();
+					if (codePoint != CharacterReference.INVALID_CODE_POINT) {
+						content.appendCodePoint(codePoint);
+						if (title != null && !titleRead) {
+							title.appendCodePoint(codePoint);
+							titleRead = title.length() >= MAX_TITLE_LENGTH;
+						}
+					}
+				} else {
+					CharBuffer text = streamedSource.getCurrentSegmentCharBuffer();
+					content.append(text);
+					if (title != null && !titleRead) {
+						title.append(text);
+						titleRead = title.length() >= MAX_TITLE_LENGTH;
+					}
+				}
+			}
+		}
+
+		page.setContent(content.toString());
+		page.setTitle(page.getLink().toString());
+		if (title != null && !title.toString().isEmpty()) {
+			page.setTitle(title.toString());
+		}
+
+		if (redirectResponse || page.getContent().isEmpty()) {
+			page.setRedirectPage(true);
+			if (location != null) {
+				addLinkToPage(page, location, forbiddenFileExtensions);
+			}
+			anchorUrls = redirectUrls;
+		}
+		for (String url : anchorUrls) {
+			addLinkToPage(page, url, forbiddenFileExtensions);
+		}
+	}
+
+	/**
+	 * Extracts the urls of a start tag : the href of the links (and of the
+	 * other tags for the redirect pages) and the url of the meta refresh
+	 * @param startTag the start tag
+	 * @param anchorUrls the urls of the links (modified)
+	 * @param redirectUrls the urls of a redirect page (modified)
+	 */
+	private static void extractUrls(StartTag startTag, List<String> anchorUrls, List<String> redirectUrls) {
+		String href = startTag.getAttributeValue("href");
+		if (href != null) {
+			if (startTag.getName().equals(HTMLElementName.A)) {
+				anchorUrls.add(href.trim());
+			}
+			redirectUrls.add(href.trim());
+		} else if (startTag.getName().equals(HTMLElementName.META)
+				&& "refresh".equalsIgnoreCase(startTag.getAttributeValue("http-equiv"))) {
+			String refresh = startTag.getAttributeValue("content");
+			Matcher matcher = REFRESH_URL_PATTERN.matcher(refresh == null ? "" : refresh);
+			if (matcher.find()) {
+				anchorUrls.add(matcher.group(1).trim());
+				redirectUrls.add(matcher.group(1).trim());
+			}
+		}
+	}
+
 	/**
 	 * Adds url to the page checks before if the url is valid
 	 * @param page the page
@@ -170,4 +304,60 @@ public class PageExtractionUtil {
 		return true;
 	}
 
+	/**
+	 * Collects a text and collapses its white spaces (the non-breaking spaces
+	 * are converted to spaces, the leading and trailing spaces are removed)
+	 */
+	private static class TextCollector {
+
+		private final StringBuilder text = new StringBuilder();
+		private boolean space = false;
+
+		/**
+		 * Appends a white space
+		 */
+		private void appendSpace() {
+			space = true;
+		}
+
+		/**
+		 * Appends a character sequence
+		 * @param charSequence the character sequence
+		 */
+		private void append(CharSequence charSequence) {
+			for (int i = 0; i < charSequence.length(); i++) {
+				appendCodePoint(charSequence.charAt(i));
+			}
+		}
+
+		/**
+		 * Appends a code point
+		 * @param codePoint the code point
+		 */
+		private void appendCodePoint(int codePoint) {
+			if (Character.isWhitespace(codePoint) || codePoint == '\u00A0' || codePoint == '\u200B') {
+				space = true;
+			} else {
+				if (space && text.length() > 0) {
+					text.append(' ');
+				}
+				space = false;
+				text.appendCodePoint(codePoint);
+			}
+		}
+
+		/**
+		 * Return the length of the text
+		 * @return the length
+		 */
+		private int length() {
+			return text.length();
+		}
+
+		@Override
+		public String toString() {
+			return text.toString();
+		}
+	}
+
 }
@@ -0,0 +1,97 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodes the contents compressed by the servers ("gzip" and "deflate"
+ * content encodings)
+ * 
+ * @author lbertelo
+ */
+final class ContentDecoder {
+
+	/**
+	 * Value of the "Accept-Encoding" header field sent by the fetchers
+	 */
+	static final String ACCEPT_ENCODING = "gzip, deflate";
+
+	/**
+	 * Size of the decoding buffer
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Private constructor (utility class)
+	 */
+	private ContentDecoder() {
+	}
+
+	/**
+	 * Returns the stream of the decoded content
+	 * @param inputStream the stream of the encoded content
+	 * @param contentEncoding the content encoding (null if the content isn't
+	 *        encoded)
+	 * @return the stream of the decoded content (the stream itself if the
+	 *         encoding isn't supported)
+	 * @throws IOException
+	 */
+	static InputStream decode(InputStream inputStream, String contentEncoding) throws IOException {
+		if (contentEncoding == null) {
+			return inputStream;
+		}
+
+		String encoding = contentEncoding.trim().toLowerCase(Locale.ENGLISH);
+		if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+			return new GZIPInputStream(inputStream, BUFFER_SIZE);
+		} else if (encoding.equals("deflate")) {
+			// Some servers send the raw deflate data without the zlib wrapper
+			PushbackInputStream pushbackStream = new PushbackInputStream(inputStream, 2);
+			byte[] header = new byte[2];
+			int length = 0;
+			int read = 0;
+			while (length < header.length && read != -1) {
+				read = pushbackStream.read(header, length, header.length - length);
+				if (read != -1) {
+					length += read;
+				}
+			}
+			pushbackStream.unread(header, 0, length);
+
+			boolean zlibWrapper = (length == 2 && (header[0] & 0x0F) == 8
+					&& (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0);
+			final Inflater inflater = new Inflater(!zlibWrapper);
+			return new InflaterInputStream(pushbackStream, inflater, BUFFER_SIZE) {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					inflater.end();
+				}
+			};
+		}
+		return inputStream;
+	}
+
+}
@@ -0,0 +1,348 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Pool of the idle http connections by host (shared by all the fetchers) :
+ * the consecutive requests to the same host reuse the same connection
+ * instead of paying again the TCP and TLS setup. The reuse of the
+ * connections is counted by host.
+ * 
+ * @author lbertelo
+ */
+public class HttpConnectionPool {
+
+	/**
+	 * Maximum number of idle connections kept for a host
+	 */
+	private static final int MAX_IDLE_CONNECTIONS_BY_HOST = 4;
+
+	/**
+	 * Maximum number of idle connections kept for all the hosts
+	 */
+	private static final int MAX_IDLE_CONNECTIONS = 256;
+
+	/**
+	 * Maximum time (in ms) an idle connection is kept (the servers usually
+	 * close them after a few seconds)
+	 */
+	private static final long MAX_IDLE_TIME = 10_000;
+
+	/**
+	 * Minimum time (in ms) between two removals of the expired connections
+	 */
+	private static final long EVICTION_DELAY = 1_000;
+
+	/**
+	 * Unique instance of the pool
+	 */
+	private static HttpConnectionPool instance;
+
+	/**
+	 * Idle connections by host key (the last released first)
+	 */
+	private Map<String, Deque<PooledConnection>> idleConnectionMap;
+
+	/**
+	 * Number of idle connections
+	 */
+	private int idleConnectionNumber;
+
+	/**
+	 * Time of the last removal of the expired connections
+	 */
+	private long lastEvictionTime;
+
+	/**
+	 * Number of requests and number of requests on a reused connection by
+	 * host key
+	 */
+	private Map<String, long[]> reuseMap;
+
+	/**
+	 * Private constructor (singleton)
+	 */
+	private HttpConnectionPool() {
+		idleConnectionMap = new HashMap<String, Deque<PooledConnection>>();
+		idleConnectionNumber = 0;
+		lastEvictionTime = 0;
+		reuseMap = new HashMap<String, long[]>();
+	}
+
+	/**
+	 * Return the unique instance of HttpConnectionPool
+	 * @return instance of HttpConnectionPool
+	 */
+	public synchronized static HttpConnectionPool get() {
+		if (instance == null) {
+			instance = new HttpConnectionPool();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns an idle connection to the host or opens a new one
+	 * @param secure true if the connection uses TLS
+	 * @param host the host of the server (or of the proxy)
+	 * @param port the port of the server (or of the proxy)
+	 * @param connectTimeout the connect timeout in milliseconds (0 means no
+	 *        timeout)
+	 * @return the connection
+	 * @throws IOException if the connection can't be opened
+	 */
+	PooledConnection acquire(boolean secure, String host, int port, int connectTimeout) throws IOException {
+		String hostKey = (secure ? "https://" : "http://") + host + ":" + port;
+		PooledConnection connection = pollIdleConnection(hostKey);
+		if (connection == null) {
+			connection = new PooledConnection(hostKey, openSocket(secure, host, port, connectTimeout));
+		}
+		return connection;
+	}
+
+	/**
+	 * Gives back a connection whose response is fully read
+	 * @param connection the connection
+	 * @param keepAliveTime the time (in ms) the server keeps the connection
+	 *        open (0 if it is unknown)
+	 */
+	void release(PooledConnection connection, long keepAliveTime) {
+		long now = System.currentTimeMillis();
+		long idleTime = (keepAliveTime > 0) ? Math.min(keepAliveTime, MAX_IDLE_TIME) : MAX_IDLE_TIME;
+		connection.setReused(true);
+		connection.setExpiryTime(now + idleTime);
+
+		PooledConnection closedConnection = null;
+		boolean eviction;
+		synchronized (this) {
+			eviction = (now - lastEvictionTime >= EVICTION_DELAY);
+			Deque<PooledConnection> idleConnections = idleConnectionMap.get(connection.getHostKey());
+			if (idleConnections == null) {
+				idleConnections = new ArrayDeque<PooledConnection>();
+				idleConnectionMap.put(connection.getHostKey(), idleConnections);
+			}
+			if (idleConnections.size() < MAX_IDLE_CONNECTIONS_BY_HOST
+					&& idleConnectionNumber < MAX_IDLE_CONNECTIONS) {
+				idleConnections.push(connection);
+				idleConnectionNumber++;
+			} else {
+				closedConnection = connection;
+			}
+		}
+
+		if (closedConnection != null) {
+			closedConnection.close();
+		}
+		if (eviction) {
+			closeExpiredConnections(now);
+		}
+	}
+
+	/**
+	 * Closes all the idle connections
+	 */
+	public void closeAll() {
+		List<PooledConnection> closedConnections = new ArrayList<PooledConnection>();
+		synchronized (this) {
+			for (Deque<PooledConnection> idleConnections : idleConnectionMap.values()) {
+				closedConnections.addAll(idleConnections);
+			}
+			idleConnectionMap.clear();
+			idleConnectionNumber = 0;
+		}
+
+		for (PooledConnection connection : closedConnections) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Returns the number of requests
+	 * @return the number of requests
+	 */
+	public synchronized long getRequestNumber() {
+		long requestNumber = 0;
+		for (long[] counts : reuseMap.values()) {
+			requestNumber += counts[0];
+		}
+		return requestNumber;
+	}
+
+	/**
+	 * Returns the number of requests sent on a reused connection
+	 * @return the number of reused connections
+	 */
+	public synchronized long getReusedNumber() {
+		long reusedNumber = 0;
+		for (long[] counts : reuseMap.values()) {
+			reusedNumber += counts[1];
+		}
+		return reusedNumber;
+	}
+
+	/**
+	 * Returns the reuse rates of the hosts with the most requests
+	 * @param hostNumber the maximum number of hosts
+	 * @return the map of the reuse rates between 0 and 1 (by host, sorted by
+	 *         decreasing number of requests)
+	 */
+	public synchronized Map<String, Double> getReuseRates(int hostNumber) {
+		List<Map.Entry<String, long[]>> entries = new ArrayList<Map.Entry<String, long[]>>(reuseMap.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, long[]>>() {
+			@Override
+			public int compare(Map.Entry<String, long[]> entry1, Map.Entry<String, long[]> entry2) {
+				return Long.compare(entry2.getValue()[0], entry1.getValue()[0]);
+			}
+		});
+
+		Map<String, Double> reuseRateMap = new LinkedHashMap<String, Double>();
+		for (Map.Entry<String, long[]> entry : entries.subList(0, Math.min(hostNumber, entries.size()))) {
+			reuseRateMap.put(entry.getKey(), (double) entry.getValue()[1] / entry.getValue()[0]);
+		}
+		return reuseRateMap;
+	}
+
+	/**
+	 * Takes the last released connection of the host which is still usable
+	 * @param hostKey the key of the host
+	 * @return the connection or null if there isn't any usable connection
+	 */
+	private PooledConnection pollIdleConnection(String hostKey) {
+		long now = System.currentTimeMillis();
+		PooledConnection connection = null;
+		List<PooledConnection> closedConnections = new ArrayList<PooledConnection>();
+
+		synchronized (this) {
+			Deque<PooledConnection> idleConnections = idleConnectionMap.get(hostKey);
+			while (connection == null && idleConnections != null && !idleConnections.isEmpty()) {
+				connection = idleConnections.pop();
+				idleConnectionNumber--;
+				if (connection.getExpiryTime() < now || !connection.isUsable()) {
+					closedConnections.add(connection);
+					connection = null;
+				}
+			}
+			if (idleConnections != null && idleConnections.isEmpty()) {
+				idleConnectionMap.remove(hostKey);
+			}
+		}
+
+		for (PooledConnection closedConnection : closedConnections) {
+			closedConnection.close();
+		}
+		return connection;
+	}
+
+	/**
+	 * Closes the expired idle connections of all the hosts
+	 * @param now the current time
+	 */
+	private void closeExpiredConnections(long now) {
+		List<PooledConnection> closedConnections = new ArrayList<PooledConnection>();
+		synchronized (this) {
+			lastEvictionTime = now;
+			Iterator<Deque<PooledConnection>> dequeIterator = idleConnectionMap.values().iterator();
+			while (dequeIterator.hasNext()) {
+				Deque<PooledConnection> idleConnections = dequeIterator.next();
+				Iterator<PooledConnection> connectionIterator = idleConnections.iterator();
+				while (connectionIterator.hasNext()) {
+					PooledConnection connection = connectionIterator.next();
+					if (connection.getExpiryTime() < now) {
+						connectionIterator.remove();
+						idleConnectionNumber--;
+						closedConnections.add(connection);
+					}
+				}
+				if (idleConnections.isEmpty()) {
+					dequeIterator.remove();
+				}
+			}
+		}
+
+		for (PooledConnection connection : closedConnections) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Counts a request to the host of the connection, once its response has
+	 * been read or has failed for good (a request sent again because the
+	 * server had closed the idle connection is only counted on the new
+	 * connection). It must be called before the connection is released.
+	 * @param connection the connection of the request
+	 */
+	synchronized void countRequest(PooledConnection connection) {
+		long[] counts = reuseMap.get(connection.getHostKey());
+		if (counts == null) {
+			counts = new long[2];
+			reuseMap.put(connection.getHostKey(), counts);
+		}
+		counts[0]++;
+		if (connection.isReused()) {
+			counts[1]++;
+		}
+	}
+
+	/**
+	 * Opens a socket to the host (the TLS handshake is done and the name of
+	 * the host is checked with its certificate)
+	 * @param secure true if the connection uses TLS
+	 * @param host the host
+	 * @param port the port
+	 * @param connectTimeout the connect timeout in milliseconds
+	 * @return the connected socket
+	 * @throws IOException
+	 */
+	private static Socket openSocket(boolean secure, String host, int port, int connectTimeout) throws IOException {
+		Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.connect(new InetSocketAddress(host, port), connectTimeout);
+			if (secure) {
+				SSLSocketFactory sslSocketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+				SSLSocket sslSocket = (SSLSocket) sslSocketFactory.createSocket(socket, host, port, true);
+				SSLParameters sslParameters = sslSocket.getSSLParameters();
+				sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(sslParameters);
+				socket = sslSocket;
+			}
+		} catch (IOException e) {
+			socket.close();
+			throw e;
+		}
+		return socket;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+
+/**
+ * Allow to fetch the pages
+ * 
+ * @author lbertelo
+ */
+public interface IPageFetcher {
+
+	/**
+	 * Truncation reason when the content exceeds the maximum size
+	 */
+	String TRUNCATION_MAX_SIZE = "MAXIMUM SIZE REACHED";
+
+	/**
+	 * Truncation reason when the download exceeds the maximum time
+	 */
+	String TRUNCATION_MAX_DOWNLOAD_TIME = "MAXIMUM DOWNLOAD TIME REACHED";
+
+	/**
+	 * Fetches a page, the listener is notified when the fetch is completed
+	 * (maybe in the calling thread). The request is conditional if the order
+	 * has the validators of a previous crawl.
+	 * @param order the crawl order of the page
+	 * @param timeout the read timeout in milliseconds (0 means no timeout)
+	 * @param listener the listener
+	 */
+	void fetch(CrawlOrder order, int timeout, IFetchListener listener);
+
+	/**
+	 * Closes the fetcher and releases its resources
+	 */
+	void close();
+
+}
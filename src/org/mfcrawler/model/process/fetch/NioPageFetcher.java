@@ -0,0 +1,625 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * Asynchronous fetcher using non-blocking sockets : one selector thread keeps
+ * all the "http" connections in flight. The "https" requests (and all the
+ * requests if a proxy is used) are done by a small pool of blocking fetchers.
+ * 
+ * @author lbertelo
+ */
+public class NioPageFetcher implements IPageFetcher, Runnable {
+
+	/**
+	 * Maximum time (in milliseconds) the selector waits for an event
+	 */
+	private static final long SELECT_TIMEOUT = 200;
+
+	/**
+	 * Size of the read buffer
+	 */
+	private static final int BUFFER_SIZE = 16384;
+
+	/**
+	 * Default http port
+	 */
+	private static final int HTTP_PORT = 80;
+
+	/**
+	 * Charset of the http headers
+	 */
+	private static final Charset HEADER_CHARSET = Charset.forName("ISO-8859-1");
+
+	/**
+	 * End of the http header
+	 */
+	private static final byte[] HEADER_END = new byte[] { '\r', '\n', '\r', '\n' };
+
+	/**
+	 * Request in flight
+	 */
+	private static class NioRequest {
+		private Link link;
+		private CrawlOrder order;
+		private int timeout;
+		private IFetchListener listener;
+		private InetSocketAddress address;
+		private ByteBuffer requestBuffer;
+		private SocketChannel channel;
+		private ByteArrayOutputStream response;
+		private long startTime;
+		private long lastActivityTime;
+		private int headerEndMatch;
+		private long responseLimit;
+		private String truncation;
+		private boolean completed;
+
+		private NioRequest(CrawlOrder order, int timeout, IFetchListener listener) {
+			this.order = order;
+			link = order.getLink();
+			this.timeout = timeout;
+			this.listener = listener;
+			response = new ByteArrayOutputStream();
+			responseLimit = -1;
+		}
+	}
+
+	/**
+	 * User agent used by the crawler
+	 */
+	private String userAgent;
+
+	/**
+	 * Indicates if the requests must use the proxy (so the blocking fetchers)
+	 */
+	private boolean proxyUse;
+
+	/**
+	 * Connect timeout (in ms)
+	 */
+	private int connectTimeout;
+
+	/**
+	 * Maximum size of the content (in bytes)
+	 */
+	private int maxContentSize;
+
+	/**
+	 * Maximum download time of a page (in ms)
+	 */
+	private int maxDownloadTime;
+
+	/**
+	 * The selector
+	 */
+	private Selector selector;
+
+	/**
+	 * The selector thread
+	 */
+	private Thread selectorThread;
+
+	/**
+	 * Indicates if the fetcher is running
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Requests waiting to be registered with the selector
+	 */
+	private Queue<NioRequest> pendingRequests;
+
+	/**
+	 * Read buffer (only used by the selector thread)
+	 */
+	private ByteBuffer readBuffer;
+
+	/**
+	 * Blocking fetcher used for "https" requests
+	 */
+	private PooledPageFetcher blockingFetcher;
+
+	/**
+	 * Executor used for name resolutions and blocking fetches
+	 */
+	private ExecutorService blockingExecutor;
+
+	/**
+	 * Default constructor
+	 * @param userAgent the user agent
+	 * @param proxyUse true if a proxy is used
+	 * @param blockingThreadNumber number of threads for the blocking fetches
+	 * @param connectTimeout the connect timeout in milliseconds (0 means no
+	 *        timeout)
+	 * @param maxContentSize the maximum size of the content (in bytes)
+	 * @param maxDownloadTime the maximum download time of a page (in ms)
+	 * @throws IOException if the selector can't be opened
+	 */
+	public NioPageFetcher(String userAgent, boolean proxyUse, int blockingThreadNumber, int connectTimeout,
+			int maxContentSize, int maxDownloadTime) throws IOException {
+		this.userAgent = userAgent;
+		this.proxyUse = proxyUse;
+		this.connectTimeout = connectTimeout;
+		this.maxContentSize = maxContentSize;
+		this.maxDownloadTime = maxDownloadTime;
+		selector = Selector.open();
+		pendingRequests = new ConcurrentLinkedQueue<NioRequest>();
+		readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+		blockingFetcher = new PooledPageFetcher(userAgent, connectTimeout, maxContentSize, maxDownloadTime);
+		blockingExecutor = Executors.newFixedThreadPool(blockingThreadNumber, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Blocking fetch");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		running = true;
+		selectorThread = new Thread(this, "Nio fetch");
+		selectorThread.setDaemon(true);
+		selectorThread.start();
+	}
+
+	@Override
+	public void fetch(final CrawlOrder order, final int timeout, final IFetchListener listener) {
+		final NioRequest request = new NioRequest(order, timeout, listener);
+		final Link link = order.getLink();
+
+		try {
+			blockingExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					if (proxyUse || !"http".equals(link.getLinkPath().getProtocol())) {
+						notifyListener(listener, blockingFetcher.fetch(order, timeout));
+					} else {
+						prepareRequest(request);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			complete(request, "Fetcher closed");
+		}
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		selector.wakeup();
+		blockingExecutor.shutdownNow();
+	}
+
+	// MAIN
+
+	@Override
+	public void run() {
+		while (running) {
+			try {
+				selector.select(SELECT_TIMEOUT);
+				registerPendingRequests();
+
+				Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
+				while (keyIterator.hasNext()) {
+					SelectionKey key = keyIterator.next();
+					keyIterator.remove();
+					handleKey(key);
+				}
+
+				checkTimeouts();
+			} catch (IOException | ClosedSelectorException e) {
+				Logger.getLogger(NioPageFetcher.class.getName()).log(Level.SEVERE, "Error in the selector loop", e);
+			}
+		}
+
+		// The requests in flight are cancelled
+		for (SelectionKey key : new ArrayList<SelectionKey>(selector.keys())) {
+			complete((NioRequest) key.attachment(), "Fetcher closed");
+		}
+		NioRequest request = pendingRequests.poll();
+		while (request != null) {
+			complete(request, "Fetcher closed");
+			request = pendingRequests.poll();
+		}
+
+		try {
+			selector.close();
+		} catch (IOException e) {
+			Logger.getLogger(NioPageFetcher.class.getName()).log(Level.WARNING, "Error to close the selector", e);
+		}
+	}
+
+	/**
+	 * Resolves the address and builds the request (done in the blocking
+	 * executor), then gives the request to the selector thread
+	 * @param request the request
+	 */
+	private void prepareRequest(NioRequest request) {
+		try {
+			URL url = new URL(request.link.getUrl());
+			int port = (url.getPort() == -1) ? HTTP_PORT : url.getPort();
+			String file = url.getFile().isEmpty() ? "/" : url.getFile();
+			String host = (port == HTTP_PORT) ? url.getHost() : url.getHost() + ":" + port;
+
+			request.address = new InetSocketAddress(url.getHost(), port);
+			if (request.address.isUnresolved()) {
+				throw new IOException("java.net.UnknownHostException: " + url.getHost());
+			}
+
+			StringBuilder httpRequest = new StringBuilder();
+			httpRequest.append("GET ").append(file).append(" HTTP/1.0\r\n");
+			httpRequest.append("Host: ").append(host).append("\r\n");
+			httpRequest.append("User-Agent: ").append(userAgent).append("\r\n");
+			httpRequest.append("Accept: text/html, text/*;q=0.9, */*;q=0.1\r\n");
+			httpRequest.append("Accept-Encoding: ").append(ContentDecoder.ACCEPT_ENCODING).append("\r\n");
+			PooledPageFetcher.appendConditionalFields(httpRequest, request.order);
+			httpRequest.append("Connection: close\r\n\r\n");
+			request.requestBuffer = ByteBuffer.wrap(httpRequest.toString().getBytes(HEADER_CHARSET));
+
+			pendingRequests.offer(request);
+			selector.wakeup();
+		} catch (IOException e) {
+			complete(request, e.toString());
+		}
+	}
+
+	/**
+	 * Opens the connections of the pending requests
+	 */
+	private void registerPendingRequests() {
+		NioRequest request = pendingRequests.poll();
+		while (request != null) {
+			try {
+				request.channel = SocketChannel.open();
+				request.channel.configureBlocking(false);
+				request.startTime = System.currentTimeMillis();
+				request.lastActivityTime = request.startTime;
+				if (request.channel.connect(request.address)) {
+					request.channel.register(selector, SelectionKey.OP_WRITE, request);
+				} else {
+					request.channel.register(selector, SelectionKey.OP_CONNECT, request);
+				}
+			} catch (IOException e) {
+				complete(request, e.toString());
+			}
+			request = pendingRequests.poll();
+		}
+	}
+
+	/**
+	 * Handles a selected key
+	 * @param key the key
+	 */
+	private void handleKey(SelectionKey key) {
+		NioRequest request = (NioRequest) key.attachment();
+		try {
+			if (!key.isValid()) {
+				complete(request, "Connection closed");
+			} else if (key.isConnectable()) {
+				if (request.channel.finishConnect()) {
+					key.interestOps(SelectionKey.OP_WRITE);
+				}
+			} else if (key.isWritable()) {
+				request.channel.write(request.requestBuffer);
+				if (!request.requestBuffer.hasRemaining()) {
+					key.interestOps(SelectionKey.OP_READ);
+				}
+			} else if (key.isReadable()) {
+				readBuffer.clear();
+				int length = request.channel.read(readBuffer);
+				if (length == -1) {
+					complete(request, null);
+					return;
+				}
+				addToResponse(request, length);
+				if (request.truncation != null) {
+					complete(request, null);
+					return;
+				}
+			}
+			request.lastActivityTime = System.currentTimeMillis();
+		} catch (IOException e) {
+			complete(request, e.toString());
+		}
+	}
+
+	/**
+	 * Adds the read bytes to the response, the content beyond the maximum size
+	 * isn't kept (the header is bounded by the maximum size too)
+	 * @param request the request
+	 * @param length the number of bytes in the read buffer
+	 */
+	private void addToResponse(NioRequest request, int length) {
+		byte[] bytes = readBuffer.array();
+		int responseSize = request.response.size();
+
+		// Searches the end of the header to know where the content starts
+		for (int i = 0; i < length && request.responseLimit == -1; i++) {
+			if (bytes[i] == HEADER_END[request.headerEndMatch]) {
+				request.headerEndMatch++;
+			} else {
+				request.headerEndMatch = (bytes[i] == HEADER_END[0]) ? 1 : 0;
+			}
+			if (request.headerEndMatch == HEADER_END.length) {
+				request.responseLimit = (long) responseSize + i + 1 + maxContentSize;
+			}
+		}
+
+		long limit = (request.responseLimit == -1) ? maxContentSize : request.responseLimit;
+		if (responseSize + length > limit) {
+			request.response.write(bytes, 0, (int) (limit - responseSize));
+			request.truncation = TRUNCATION_MAX_SIZE;
+		} else {
+			request.response.write(bytes, 0, length);
+		}
+	}
+
+	/**
+	 * Cancels the requests without activity since their timeout or not
+	 * connected in time and stops the downloads exceeding the maximum time
+	 */
+	private void checkTimeouts() {
+		long now = System.currentTimeMillis();
+		for (SelectionKey key : new ArrayList<SelectionKey>(selector.keys())) {
+			NioRequest request = (NioRequest) key.attachment();
+			if (connectTimeout > 0 && !request.channel.isConnected() && now - request.startTime > connectTimeout) {
+				complete(request, "java.net.SocketTimeoutException: connect timed out");
+			} else if (request.timeout > 0 && now - request.lastActivityTime > request.timeout) {
+				complete(request, "java.net.SocketTimeoutException: Read timed out");
+			} else if (now - request.startTime > maxDownloadTime) {
+				if (request.responseLimit != -1) {
+					// The content already read is kept
+					request.truncation = TRUNCATION_MAX_DOWNLOAD_TIME;
+					complete(request, null);
+				} else {
+					complete(request, "java.net.SocketTimeoutException: " + TRUNCATION_MAX_DOWNLOAD_TIME);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Completes the request : closes the connection, builds the fetch result
+	 * and notifies the listener
+	 * @param request the request
+	 * @param error the error or null if the response is fully read
+	 */
+	private void complete(NioRequest request, String error) {
+		if (request.completed) {
+			return;
+		}
+		request.completed = true;
+
+		if (request.channel != null) {
+			try {
+				request.channel.close();
+			} catch (IOException e) {
+				Logger.getLogger(NioPageFetcher.class.getName()).log(Level.WARNING, "Error to close channel", e);
+			}
+		}
+
+		FetchResult fetchResult = new FetchResult(request.link);
+		if (error != null) {
+			Logger.getLogger(NioPageFetcher.class.getName()).log(Level.WARNING,
+					"Fetch error => " + request.link + " : " + error);
+			fetchResult.setError(error);
+		} else {
+			parseResponse(request.response.toByteArray(), fetchResult);
+			if (fetchResult.getContent() != null) {
+				fetchResult.setTruncation(request.truncation);
+				decodeContent(fetchResult);
+			}
+		}
+		request.response = null;
+
+		notifyListener(request.listener, fetchResult);
+	}
+
+	/**
+	 * Decodes the compressed content (the decoded content is bounded by the
+	 * maximum size too)
+	 * @param fetchResult the fetch result
+	 */
+	private void decodeContent(FetchResult fetchResult) {
+		String contentEncoding = fetchResult.getHeaderField("Content-Encoding");
+		if (contentEncoding == null) {
+			return;
+		}
+
+		InputStream encodedStream = new ByteArrayInputStream(fetchResult.getContent());
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		try {
+			InputStream decodedStream = ContentDecoder.decode(encodedStream, contentEncoding);
+			if (decodedStream == encodedStream) {
+				return;
+			}
+			try {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int length;
+				while ((length = decodedStream.read(buffer)) != -1) {
+					if (length > maxContentSize - content.size()) {
+						content.write(buffer, 0, maxContentSize - content.size());
+						fetchResult.setTruncation(TRUNCATION_MAX_SIZE);
+						break;
+					}
+					content.write(buffer, 0, length);
+				}
+			} finally {
+				decodedStream.close();
+			}
+			fetchResult.setContent(content.toByteArray());
+		} catch (EOFException e) {
+			// The end of a truncated content is missing
+			if (fetchResult.getTruncation() != null) {
+				fetchResult.setContent(content.toByteArray());
+			} else {
+				fetchResult.setContent(null);
+				fetchResult.setError(e.toString());
+			}
+		} catch (IOException e) {
+			fetchResult.setContent(null);
+			fetchResult.setError(e.toString());
+		}
+	}
+
+	/**
+	 * Notifies the listener (its exceptions don't stop the fetcher)
+	 * @param listener the listener
+	 * @param fetchResult the fetch result
+	 */
+	private void notifyListener(IFetchListener listener, FetchResult fetchResult) {
+		try {
+			listener.fetchCompleted(fetchResult);
+		} catch (RuntimeException e) {
+			Logger.getLogger(NioPageFetcher.class.getName()).log(Level.SEVERE, "Error in fetch listener", e);
+		}
+	}
+
+	/**
+	 * Parses the http response (status line, header fields and content)
+	 * @param response the bytes of the response
+	 * @param fetchResult the fetch result to fill
+	 */
+	private static void parseResponse(byte[] response, FetchResult fetchResult) {
+		int headerEnd = indexOf(response, new byte[] { '\r', '\n', '\r', '\n' }, 0);
+		if (headerEnd == -1) {
+			fetchResult.setError("Invalid http response");
+			return;
+		}
+
+		String[] headerLines = new String(response, 0, headerEnd, HEADER_CHARSET).split("\r\n");
+		String[] statusLine = headerLines[0].split(" ");
+		try {
+			fetchResult.setResponseCode(Integer.valueOf(statusLine[1]));
+		} catch (RuntimeException e) {
+			fetchResult.setError("Invalid http status line : " + headerLines[0]);
+			return;
+		}
+
+		for (int i = 1; i < headerLines.length; i++) {
+			int separator = headerLines[i].indexOf(':');
+			if (separator > 0) {
+				fetchResult.setHeaderField(headerLines[i].substring(0, separator).trim(),
+						headerLines[i].substring(separator + 1).trim());
+			}
+		}
+
+		if (fetchResult.isReadable()) {
+			int contentStart = headerEnd + 4;
+			String transferEncoding = fetchResult.getHeaderField("Transfer-Encoding");
+			if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ENGLISH).contains("chunked")) {
+				fetchResult.setContent(decodeChunks(response, contentStart));
+			} else {
+				byte[] content = new byte[response.length - contentStart];
+				System.arraycopy(response, contentStart, content, 0, content.length);
+				fetchResult.setContent(content);
+			}
+		}
+	}
+
+	/**
+	 * Decodes a "chunked" content
+	 * @param response the bytes of the response
+	 * @param start start of the content
+	 * @return the decoded content
+	 */
+	private static byte[] decodeChunks(byte[] response, int start) {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		byte[] lineEnd = new byte[] { '\r', '\n' };
+		int position = start;
+
+		while (position < response.length) {
+			int sizeEnd = indexOf(response, lineEnd, position);
+			if (sizeEnd == -1) {
+				break;
+			}
+			String sizeLine = new String(response, position, sizeEnd - position, HEADER_CHARSET);
+			int extension = sizeLine.indexOf(';');
+			if (extension != -1) {
+				sizeLine = sizeLine.substring(0, extension);
+			}
+
+			int chunkSize;
+			try {
+				chunkSize = Integer.parseInt(sizeLine.trim(), 16);
+			} catch (NumberFormatException e) {
+				break;
+			}
+			if (chunkSize == 0) {
+				break;
+			}
+
+			int chunkStart = sizeEnd + lineEnd.length;
+			int length = Math.min(chunkSize, response.length - chunkStart);
+			content.write(response, chunkStart, length);
+			position = chunkStart + chunkSize + lineEnd.length;
+		}
+
+		return content.toByteArray();
+	}
+
+	/**
+	 * Searches a sequence of bytes
+	 * @param data the bytes
+	 * @param pattern the searched sequence
+	 * @param start start of the search
+	 * @return the index of the sequence or -1 if it isn't found
+	 */
+	private static int indexOf(byte[] data, byte[] pattern, int start) {
+		for (int i = start; i <= data.length - pattern.length; i++) {
+			int j = 0;
+			while (j < pattern.length && data[i + j] == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Http connection kept open between two requests to the same host
+ * 
+ * @author lbertelo
+ */
+class PooledConnection {
+
+	/**
+	 * Size of the buffers
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Key of the host (protocol, host and port of the server or the proxy)
+	 */
+	private String hostKey;
+
+	/**
+	 * The socket
+	 */
+	private Socket socket;
+
+	/**
+	 * Input stream of the socket
+	 */
+	private InputStream inputStream;
+
+	/**
+	 * Output stream of the socket
+	 */
+	private OutputStream outputStream;
+
+	/**
+	 * Indicates if the connection has already been used by a request
+	 */
+	private boolean reused;
+
+	/**
+	 * Time after which the idle connection mustn't be used anymore
+	 */
+	private long expiryTime;
+
+	/**
+	 * Default constructor
+	 * @param hostKey the key of the host
+	 * @param socket the connected socket
+	 * @throws IOException
+	 */
+	PooledConnection(String hostKey, Socket socket) throws IOException {
+		this.hostKey = hostKey;
+		this.socket = socket;
+		inputStream = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+		outputStream = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+		reused = false;
+	}
+
+	/**
+	 * Getter of host key
+	 * @return the key of the host
+	 */
+	String getHostKey() {
+		return hostKey;
+	}
+
+	/**
+	 * Getter of input stream
+	 * @return the input stream
+	 */
+	InputStream getInputStream() {
+		return inputStream;
+	}
+
+	/**
+	 * Getter of output stream
+	 * @return the output stream
+	 */
+	OutputStream getOutputStream() {
+		return outputStream;
+	}
+
+	/**
+	 * Indicates if the connection has already been used by a request
+	 * @return true if the connection is reused, false otherwise
+	 */
+	boolean isReused() {
+		return reused;
+	}
+
+	/**
+	 * Setter of reused
+	 * @param reused true if the connection has already been used
+	 */
+	void setReused(boolean reused) {
+		this.reused = reused;
+	}
+
+	/**
+	 * Getter of expiry time
+	 * @return the time after which the idle connection mustn't be used
+	 */
+	long getExpiryTime() {
+		return expiryTime;
+	}
+
+	/**
+	 * Setter of expiry time
+	 * @param expiryTime the time after which the idle connection mustn't be
+	 *        used
+	 */
+	void setExpiryTime(long expiryTime) {
+		this.expiryTime = expiryTime;
+	}
+
+	/**
+	 * Sets the read timeout of the socket
+	 * @param timeout the read timeout in milliseconds (0 means no timeout)
+	 * @throws SocketException
+	 */
+	void setReadTimeout(int timeout) throws SocketException {
+		socket.setSoTimeout(timeout);
+	}
+
+	/**
+	 * Indicates if the connection can be used : it isn't closed and the
+	 * server hasn't sent anything (like the end of the stream) since the last
+	 * response
+	 * @return true if the connection can be used, false otherwise
+	 */
+	boolean isUsable() {
+		try {
+			return !socket.isClosed() && !socket.isInputShutdown() && inputStream.available() == 0;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Closes the connection (catch IO Exception)
+	 */
+	void close() {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			Logger.getLogger(PooledConnection.class.getName()).log(Level.FINE, "Error to close connection", e);
+		}
+	}
+
+}
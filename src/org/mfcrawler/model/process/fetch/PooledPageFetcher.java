@@ -0,0 +1,554 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * Blocking fetcher sending HTTP/1.1 requests on the keep-alive connections of
+ * the connection pool (works with "http" and "https", the "http" requests go
+ * through the proxy of the system properties). The compressed contents are
+ * decoded.
+ * 
+ * @author lbertelo
+ */
+public class PooledPageFetcher implements IPageFetcher {
+
+	/**
+	 * Size of the read buffer
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Maximum length of a line of the http header
+	 */
+	private static final int MAX_LINE_LENGTH = 8192;
+
+	/**
+	 * Maximum number of lines of the http header
+	 */
+	private static final int MAX_HEADER_LINES = 256;
+
+	/**
+	 * Maximum size of a content read only to reuse the connection (a bigger
+	 * content closes the connection)
+	 */
+	private static final int MAX_DRAIN_SIZE = 65_536;
+
+	/**
+	 * Charset of the http requests
+	 */
+	private static final Charset REQUEST_CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Charset of the http headers
+	 */
+	private static final Charset HEADER_CHARSET = Charset.forName("ISO-8859-1");
+
+	/**
+	 * Pattern of the timeout of the "Keep-Alive" header field (in seconds)
+	 */
+	private static final Pattern KEEP_ALIVE_TIMEOUT_PATTERN = Pattern.compile("timeout\\s*=\\s*(\\d+)");
+
+	/**
+	 * User agent used by the crawler
+	 */
+	private String userAgent;
+
+	/**
+	 * Connect timeout (in ms)
+	 */
+	private int connectTimeout;
+
+	/**
+	 * Maximum size of the content (in bytes)
+	 */
+	private int maxContentSize;
+
+	/**
+	 * Maximum download time of a page (in ms)
+	 */
+	private int maxDownloadTime;
+
+	/**
+	 * The connection pool
+	 */
+	private HttpConnectionPool connectionPool;
+
+	/**
+	 * Default constructor
+	 * @param userAgent the user agent
+	 * @param connectTimeout the connect timeout in milliseconds (0 means no
+	 *        timeout)
+	 * @param maxContentSize the maximum size of the content (in bytes)
+	 * @param maxDownloadTime the maximum download time of a page (in ms)
+	 */
+	public PooledPageFetcher(String userAgent, int connectTimeout, int maxContentSize, int maxDownloadTime) {
+		this.userAgent = userAgent;
+		this.connectTimeout = connectTimeout;
+		this.maxContentSize = maxContentSize;
+		this.maxDownloadTime = maxDownloadTime;
+		connectionPool = HttpConnectionPool.get();
+	}
+
+	@Override
+	public void fetch(CrawlOrder order, int timeout, IFetchListener listener) {
+		listener.fetchCompleted(fetch(order, timeout));
+	}
+
+	/**
+	 * Fetches a page and waits the end of the fetch
+	 * @param order the crawl order of the page
+	 * @param timeout the read timeout in milliseconds (0 means no timeout)
+	 * @return the fetch result
+	 */
+	public FetchResult fetch(CrawlOrder order, int timeout) {
+		Link link = order.getLink();
+		FetchResult fetchResult = new FetchResult(link);
+		long startTime = System.currentTimeMillis();
+
+		try {
+			URL url = new URL(link.getUrl());
+			boolean secure = "https".equals(url.getProtocol());
+			int port = (url.getPort() == -1) ? url.getDefaultPort() : url.getPort();
+
+			// The "http" requests go through the proxy if it is used
+			String proxyHost = System.getProperty("http.proxyHost");
+			boolean proxyUse = !secure && proxyHost != null;
+			String connectHost = proxyUse ? proxyHost : url.getHost();
+			int connectPort = proxyUse ? Integer.parseInt(System.getProperty("http.proxyPort", "80")) : port;
+			byte[] request = buildRequest(url, port, proxyUse, order);
+
+			boolean completed = false;
+			while (!completed) {
+				PooledConnection connection = connectionPool.acquire(secure, connectHost, connectPort, connectTimeout);
+				try {
+					connection.setReadTimeout(timeout);
+					OutputStream outputStream = connection.getOutputStream();
+					outputStream.write(request);
+					outputStream.flush();
+
+					long keepAliveTime = readResponse(connection.getInputStream(), fetchResult, startTime);
+					connectionPool.countRequest(connection);
+					if (keepAliveTime >= 0) {
+						connectionPool.release(connection, keepAliveTime);
+					} else {
+						connection.close();
+					}
+					completed = true;
+				} catch (IOException e) {
+					connection.close();
+					// The server may have closed the idle connection just before
+					// the request, the request is sent again on another one
+					if (!connection.isReused() || fetchResult.getResponseCode() != null
+							|| e instanceof SocketTimeoutException) {
+						connectionPool.countRequest(connection);
+						throw e;
+					}
+				}
+			}
+
+		} catch (Exception e) {
+			Logger.getLogger(PooledPageFetcher.class.getName()).log(Level.WARNING, "Fetch error => " + link, e);
+			fetchResult.setError(e.toString());
+		}
+
+		return fetchResult;
+	}
+
+	@Override
+	public void close() {
+		// The connections are owned by the connection pool
+	}
+
+	/**
+	 * Builds the http request
+	 * @param url the url of the page
+	 * @param port the port of the server
+	 * @param proxyUse true if the request is sent to the proxy
+	 * @param order the crawl order of the page
+	 * @return the bytes of the request
+	 */
+	private byte[] buildRequest(URL url, int port, boolean proxyUse, CrawlOrder order) {
+		String file = url.getFile().isEmpty() ? "/" : url.getFile();
+		String host = (port == url.getDefaultPort()) ? url.getHost() : url.getHost() + ":" + port;
+
+		StringBuilder httpRequest = new StringBuilder();
+		httpRequest.append("GET ");
+		if (proxyUse) {
+			httpRequest.append(url.getProtocol()).append("://").append(host);
+		}
+		httpRequest.append(file).append(" HTTP/1.1\r\n");
+		httpRequest.append("Host: ").append(host).append("\r\n");
+		httpRequest.append("User-Agent: ").append(userAgent).append("\r\n");
+		httpRequest.append("Accept: text/html, text/*;q=0.9, */*;q=0.1\r\n");
+		httpRequest.append("Accept-Encoding: ").append(ContentDecoder.ACCEPT_ENCODING).append("\r\n");
+		appendConditionalFields(httpRequest, order);
+		httpRequest.append("Connection: keep-alive\r\n\r\n");
+		return httpRequest.toString().getBytes(REQUEST_CHARSET);
+	}
+
+	/**
+	 * Appends the header fields of a conditional request if the order has the
+	 * validators of a previous crawl (the server answers 304 if the page
+	 * hasn't changed)
+	 * @param httpRequest the http request
+	 * @param order the crawl order of the page
+	 */
+	static void appendConditionalFields(StringBuilder httpRequest, CrawlOrder order) {
+		if (order.getETag() != null) {
+			httpRequest.append("If-None-Match: ").append(order.getETag()).append("\r\n");
+		}
+		if (order.getLastModified() != null) {
+			httpRequest.append("If-Modified-Since: ").append(order.getLastModified()).append("\r\n");
+		}
+	}
+
+	/**
+	 * Reads the http response (the interim responses are skipped). The
+	 * content is read if it is readable, otherwise it is skipped to reuse the
+	 * connection.
+	 * @param inputStream the input stream of the connection
+	 * @param fetchResult the fetch result to fill
+	 * @param startTime the start time of the fetch
+	 * @return the time (in ms) the server keeps the connection open (0 if it
+	 *         is unknown) or -1 if the connection mustn't be reused
+	 * @throws IOException
+	 */
+	private long readResponse(InputStream inputStream, FetchResult fetchResult, long startTime) throws IOException {
+		String statusLine;
+		int responseCode;
+		do {
+			statusLine = readLine(inputStream);
+			if (statusLine == null) {
+				throw new EOFException("Connection closed by the server");
+			}
+			String[] statusLineParts = statusLine.split(" ");
+			try {
+				responseCode = Integer.parseInt(statusLineParts[1]);
+			} catch (RuntimeException e) {
+				throw new IOException("Invalid http status line : " + statusLine);
+			}
+			if (responseCode < 200) {
+				readHeaderFields(inputStream, null);
+			}
+		} while (responseCode < 200);
+
+		fetchResult.setResponseCode(responseCode);
+		readHeaderFields(inputStream, fetchResult);
+
+		// Persistent connection
+		String connectionField = fetchResult.getHeaderField("Connection");
+		connectionField = (connectionField == null) ? "" : connectionField.toLowerCase(Locale.ENGLISH);
+		boolean keepAlive;
+		if (statusLine.startsWith("HTTP/1.0")) {
+			keepAlive = connectionField.contains("keep-alive");
+		} else {
+			keepAlive = !connectionField.contains("close");
+		}
+
+		// Length of the content
+		InputStream bodyStream;
+		String transferEncoding = fetchResult.getHeaderField("Transfer-Encoding");
+		String contentLength = fetchResult.getHeaderField("Content-Length");
+		if (responseCode == 204 || responseCode == 304) {
+			bodyStream = new BodyInputStream(inputStream, 0);
+		} else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ENGLISH).contains("chunked")) {
+			bodyStream = new ChunkedInputStream(inputStream);
+		} else if (contentLength != null && contentLength.trim().matches("\\d{1,18}")) {
+			bodyStream = new BodyInputStream(inputStream, Long.parseLong(contentLength.trim()));
+		} else {
+			// The content ends with the connection
+			bodyStream = new BodyInputStream(inputStream, -1);
+			keepAlive = false;
+		}
+
+		if (fetchResult.isReadable()) {
+			String contentEncoding = fetchResult.getHeaderField("Content-Encoding");
+			InputStream contentStream = ContentDecoder.decode(bodyStream, contentEncoding);
+			try {
+				fetchResult.setContent(readContent(contentStream, startTime, fetchResult));
+			} finally {
+				contentStream.close();
+			}
+			keepAlive = keepAlive && fetchResult.getTruncation() == null;
+		}
+		keepAlive = keepAlive && skipContent(bodyStream);
+
+		return keepAlive ? getKeepAliveTime(fetchResult) : -1;
+	}
+
+	/**
+	 * Reads the header fields until the empty line
+	 * @param inputStream the input stream of the connection
+	 * @param fetchResult the fetch result to fill (null if the header fields
+	 *        are skipped)
+	 * @throws IOException
+	 */
+	private static void readHeaderFields(InputStream inputStream, FetchResult fetchResult) throws IOException {
+		String line = readLine(inputStream);
+		int lineNumber = 0;
+		while (line != null && !line.isEmpty()) {
+			if (++lineNumber > MAX_HEADER_LINES) {
+				throw new IOException("Http header too long");
+			}
+			int separator = line.indexOf(':');
+			if (fetchResult != null && separator > 0) {
+				String name = line.substring(0, separator).trim();
+				// The first value of a header field is kept
+				if (fetchResult.getHeaderField(name) == null) {
+					fetchResult.setHeaderField(name, line.substring(separator + 1).trim());
+				}
+			}
+			line = readLine(inputStream);
+		}
+		if (line == null) {
+			throw new EOFException("Connection closed by the server");
+		}
+	}
+
+	/**
+	 * Reads a line of the http header
+	 * @param inputStream the input stream of the connection
+	 * @return the line without its end or null if the stream is ended
+	 * @throws IOException
+	 */
+	private static String readLine(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b = inputStream.read();
+		if (b == -1) {
+			return null;
+		}
+		while (b != -1 && b != '\n') {
+			if (line.size() >= MAX_LINE_LENGTH) {
+				throw new IOException("Http header line too long");
+			}
+			line.write(b);
+			b = inputStream.read();
+		}
+
+		String result = new String(line.toByteArray(), HEADER_CHARSET);
+		return result.endsWith("\r") ? result.substring(0, result.length() - 1) : result;
+	}
+
+	/**
+	 * Reads the content of the stream until its end, the maximum size or the
+	 * maximum download time (checked between two reads, so a stalled read is
+	 * bounded by the read timeout)
+	 * @param inputStream the input stream
+	 * @param startTime the start time of the fetch
+	 * @param fetchResult the fetch result (its truncation is set if the
+	 *        content isn't fully read)
+	 * @return the content
+	 * @throws IOException
+	 */
+	private byte[] readContent(InputStream inputStream, long startTime, FetchResult fetchResult) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int length;
+		while ((length = inputStream.read(buffer)) != -1) {
+			if (length > maxContentSize - content.size()) {
+				content.write(buffer, 0, maxContentSize - content.size());
+				fetchResult.setTruncation(TRUNCATION_MAX_SIZE);
+				break;
+			}
+			content.write(buffer, 0, length);
+
+			if (System.currentTimeMillis() - startTime > maxDownloadTime) {
+				fetchResult.setTruncation(TRUNCATION_MAX_DOWNLOAD_TIME);
+				break;
+			}
+		}
+		return content.toByteArray();
+	}
+
+	/**
+	 * Skips the rest of the content to reuse the connection
+	 * @param bodyStream the stream of the content
+	 * @return true if the content is fully read, false if it is too big
+	 * @throws IOException
+	 */
+	private static boolean skipContent(InputStream bodyStream) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int skippedSize = 0;
+		int length = 0;
+		while (skippedSize <= MAX_DRAIN_SIZE && length != -1) {
+			length = bodyStream.read(buffer);
+			skippedSize += length;
+		}
+		return length == -1;
+	}
+
+	/**
+	 * Returns the time the server keeps the connection open
+	 * @param fetchResult the fetch result
+	 * @return the time (in ms, 0 if it is unknown) or -1 if the server closes
+	 *         the connection immediately
+	 */
+	private static long getKeepAliveTime(FetchResult fetchResult) {
+		String keepAlive = fetchResult.getHeaderField("Keep-Alive");
+		if (keepAlive != null) {
+			Matcher matcher = KEEP_ALIVE_TIMEOUT_PATTERN.matcher(keepAlive.toLowerCase(Locale.ENGLISH));
+			if (matcher.find() && matcher.group(1).length() < 9) {
+				// Half a second is kept to send the next request in time
+				return Math.max(-1, Integer.parseInt(matcher.group(1)) * 1000L - 500);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Stream of a content delimited by its length or by the end of the
+	 * connection (the stream of the connection isn't closed)
+	 */
+	private static class BodyInputStream extends InputStream {
+		private InputStream inputStream;
+		private long remaining;
+
+		/**
+		 * Default constructor
+		 * @param inputStream the input stream of the connection
+		 * @param length the length of the content (-1 if the content ends
+		 *        with the connection)
+		 */
+		private BodyInputStream(InputStream inputStream, long length) {
+			this.inputStream = inputStream;
+			remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (read(b, 0, 1) == -1) ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining == 0) {
+				return -1;
+			}
+
+			int length = inputStream.read(b, off, (remaining < 0) ? len : (int) Math.min(len, remaining));
+			if (length == -1 && remaining > 0) {
+				throw new EOFException("Premature end of content");
+			} else if (length > 0 && remaining > 0) {
+				remaining -= length;
+			}
+			return length;
+		}
+	}
+
+	/**
+	 * Stream of a "chunked" content (the stream of the connection isn't
+	 * closed)
+	 */
+	private static class ChunkedInputStream extends InputStream {
+		private InputStream inputStream;
+		private long remaining;
+		private boolean firstChunk;
+		private boolean ended;
+
+		/**
+		 * Default constructor
+		 * @param inputStream the input stream of the connection
+		 */
+		private ChunkedInputStream(InputStream inputStream) {
+			this.inputStream = inputStream;
+			remaining = 0;
+			firstChunk = true;
+			ended = false;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (read(b, 0, 1) == -1) ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (ended) {
+				return -1;
+			}
+			if (remaining == 0) {
+				readChunkSize();
+				if (ended) {
+					return -1;
+				}
+			}
+
+			int length = inputStream.read(b, off, (int) Math.min(len, remaining));
+			if (length == -1) {
+				throw new EOFException("Premature end of chunked content");
+			}
+			remaining -= length;
+			return length;
+		}
+
+		/**
+		 * Reads the size of the next chunk (and the trailer after the last
+		 * chunk)
+		 * @throws IOException
+		 */
+		private void readChunkSize() throws IOException {
+			if (!firstChunk && readLine(inputStream) == null) {
+				throw new EOFException("Premature end of chunked content");
+			}
+			firstChunk = false;
+
+			String sizeLine = readLine(inputStream);
+			if (sizeLine == null) {
+				throw new EOFException("Premature end of chunked content");
+			}
+			int extension = sizeLine.indexOf(';');
+			if (extension != -1) {
+				sizeLine = sizeLine.substring(0, extension);
+			}
+			try {
+				remaining = Long.parseLong(sizeLine.trim(), 16);
+			} catch (NumberFormatException e) {
+				remaining = -1;
+			}
+			if (remaining < 0) {
+				throw new IOException("Invalid chunk size : " + sizeLine);
+			}
+
+			if (remaining == 0) {
+				readHeaderFields(inputStream, null);
+				ended = true;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.fetch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+
+/**
+ * Fetcher running each blocking fetch in its own virtual thread (Java 21 and
+ * later). The virtual thread executor is obtained by reflection so that the
+ * application still runs on older JVM : a cached pool of platform threads is
+ * used instead.
+ * 
+ * @author lbertelo
+ */
+public class VirtualThreadPageFetcher implements IPageFetcher {
+
+	/**
+	 * Blocking fetcher (stateless, shared by all the fetches)
+	 */
+	private PooledPageFetcher blockingFetcher;
+
+	/**
+	 * Executor running the fetches
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Default constructor
+	 * @param userAgent the user agent
+	 * @param connectTimeout the connect timeout in milliseconds (0 means no
+	 *        timeout)
+	 * @param maxContentSize the maximum size of the content (in bytes)
+	 * @param maxDownloadTime the maximum download time of a page (in ms)
+	 */
+	public VirtualThreadPageFetcher(String userAgent, int connectTimeout, int maxContentSize, int maxDownloadTime) {
+		blockingFetcher = new PooledPageFetcher(userAgent, connectTimeout, maxContentSize, maxDownloadTime);
+		executor = createVirtualThreadExecutor();
+		if (executor == null) {
+			Logger.getLogger(VirtualThreadPageFetcher.class.getName()).log(Level.INFO,
+					"Virtual threads aren't supported by the JVM, platform threads are used");
+			executor = Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Fetch");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Indicates if the JVM supports the virtual threads
+	 * @return true if the virtual threads are supported, false otherwise
+	 */
+	public static boolean isVirtualThreadSupported() {
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void fetch(final CrawlOrder order, final int timeout, final IFetchListener listener) {
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					listener.fetchCompleted(blockingFetcher.fetch(order, timeout));
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			FetchResult fetchResult = new FetchResult(order.getLink());
+			fetchResult.setError("Fetcher closed");
+			listener.fetchCompleted(fetchResult);
+		}
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Creates the virtual thread per task executor
+	 * @return the executor or null if the virtual threads aren't supported
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		if (!isVirtualThreadSupported()) {
+			return null;
+		}
+
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			Logger.getLogger(VirtualThreadPageFetcher.class.getName()).log(Level.WARNING,
+					"Error to create the virtual thread executor", e);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,273 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.frontier;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.link.Domain;
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * Queue of the found pages of a domain, ordered by crawl priority
+ * 
+ * @author lbertelo
+ */
+public class DomainQueue implements Comparable<DomainQueue> {
+
+	/**
+	 * The domain
+	 */
+	private Domain domain;
+
+	/**
+	 * Queue containing the entries ordered by crawl priority
+	 */
+	private PriorityQueue<FrontierEntry> entryQueue;
+
+	/**
+	 * Map containing the current entry of each link
+	 */
+	private Map<Link, FrontierEntry> entryMap;
+
+	/**
+	 * Indicates if a page of the domain is currently crawled
+	 */
+	private boolean inProgress;
+
+	/**
+	 * Indicates if the domain waits on the timer wheel
+	 */
+	private boolean waiting;
+
+	/**
+	 * Date of the last crawl of the domain in milliseconds (0 if unknown)
+	 */
+	private long lastCrawlTime;
+
+	/**
+	 * Default constructor
+	 * @param domain the domain
+	 */
+	public DomainQueue(Domain domain) {
+		this.domain = domain;
+		entryQueue = new PriorityQueue<FrontierEntry>();
+		entryMap = new HashMap<Link, FrontierEntry>();
+		inProgress = false;
+		waiting = false;
+		lastCrawlTime = 0;
+	}
+
+	/**
+	 * Getter of domain
+	 * @return the domain
+	 */
+	public Domain getDomain() {
+		return domain;
+	}
+
+	/**
+	 * Adds or updates a found page
+	 * @param page the found page
+	 * @return true if the page is new in the queue, false otherwise
+	 */
+	public boolean offer(Page page) {
+		FrontierEntry entry = new FrontierEntry(page);
+		FrontierEntry oldEntry = entryMap.put(page.getLink(), entry);
+		if (oldEntry != null) {
+			oldEntry.remove();
+		}
+		entryQueue.add(entry);
+		compact();
+		return oldEntry == null;
+	}
+
+	/**
+	 * Removes a found page
+	 * @param link link of the found page
+	 * @return true if the page was in the queue, false otherwise
+	 */
+	public boolean remove(Link link) {
+		FrontierEntry entry = entryMap.remove(link);
+		if (entry != null) {
+			entry.remove();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a found page of the queue
+	 * @param link link of the found page
+	 * @return the found page or null if it isn't in the queue
+	 */
+	public Page get(Link link) {
+		FrontierEntry entry = entryMap.get(link);
+		return (entry == null) ? null : entry.getPage();
+	}
+
+	/**
+	 * Retrieves the most interesting found page of the domain
+	 * @return the found page or null if the queue is empty
+	 */
+	public Page peek() {
+		FrontierEntry entry = peekEntry();
+		return (entry == null) ? null : entry.getPage();
+	}
+
+	/**
+	 * Retrieves and removes the most interesting found page of the domain
+	 * @return the found page or null if the queue is empty
+	 */
+	public Page poll() {
+		FrontierEntry entry = peekEntry();
+		if (entry == null) {
+			return null;
+		}
+
+		entryQueue.poll();
+		entryMap.remove(entry.getPage().getLink());
+		return entry.getPage();
+	}
+
+	/**
+	 * Indicates if the queue is empty
+	 * @return true if the queue is empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return entryMap.isEmpty();
+	}
+
+	/**
+	 * Returns the number of found pages in the queue
+	 * @return the number of found pages
+	 */
+	public int size() {
+		return entryMap.size();
+	}
+
+	/**
+	 * Removes all the found pages
+	 */
+	public void clear() {
+		entryQueue.clear();
+		entryMap.clear();
+	}
+
+	/**
+	 * Indicates if a page of the domain is currently crawled
+	 * @return true if a page is crawled, false otherwise
+	 */
+	public boolean isInProgress() {
+		return inProgress;
+	}
+
+	/**
+	 * Setter of inProgress
+	 * @param inProgress true if a page of the domain is currently crawled
+	 */
+	public void setInProgress(boolean inProgress) {
+		this.inProgress = inProgress;
+	}
+
+	/**
+	 * Indicates if the domain waits on the timer wheel
+	 * @return true if the domain waits, false otherwise
+	 */
+	public boolean isWaiting() {
+		return waiting;
+	}
+
+	/**
+	 * Setter of waiting
+	 * @param waiting true if the domain waits on the timer wheel
+	 */
+	public void setWaiting(boolean waiting) {
+		this.waiting = waiting;
+	}
+
+	/**
+	 * Indicates if a page of the domain can be crawled now
+	 * @return true if the domain is ready, false otherwise
+	 */
+	public boolean isReady() {
+		return !inProgress && !waiting && !isEmpty();
+	}
+
+	/**
+	 * Getter of last crawl time
+	 * @return the date of the last crawl in milliseconds (0 if unknown)
+	 */
+	public long getLastCrawlTime() {
+		return lastCrawlTime;
+	}
+
+	/**
+	 * Setter of last crawl time
+	 * @param lastCrawlTime the date of the last crawl in milliseconds
+	 */
+	public void setLastCrawlTime(long lastCrawlTime) {
+		this.lastCrawlTime = lastCrawlTime;
+	}
+
+	/**
+	 * Compares the domain queues according to their most interesting page
+	 * (the domain name separates the equal queues)
+	 */
+	@Override
+	public int compareTo(DomainQueue other) {
+		FrontierEntry entry = peekEntry();
+		FrontierEntry otherEntry = other.peekEntry();
+		int result;
+		if (entry == null || otherEntry == null) {
+			result = (entry == null) ? ((otherEntry == null) ? 0 : 1) : -1;
+		} else {
+			result = entry.compareTo(otherEntry);
+		}
+
+		if (result == 0) {
+			result = domain.getName().compareTo(other.domain.getName());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the first entry which isn't removed
+	 * @return the entry or null if the queue is empty
+	 */
+	private FrontierEntry peekEntry() {
+		FrontierEntry entry = entryQueue.peek();
+		while (entry != null && entry.isRemoved()) {
+			entryQueue.poll();
+			entry = entryQueue.peek();
+		}
+		return entry;
+	}
+
+	/**
+	 * Rebuilds the queue when it contains too many removed entries
+	 */
+	private void compact() {
+		if (entryQueue.size() > 2 * entryMap.size() + 64) {
+			entryQueue = new PriorityQueue<FrontierEntry>(entryMap.values());
+		}
+	}
+
+}
@@ -0,0 +1,293 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.frontier;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.mfcrawler.model.dao.iterator.PageDbIterator;
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.link.Domain;
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * In-memory frontier : the found pages to crawl are kept in one queue per
+ * domain. The domains which can be crawled are ordered by their most
+ * interesting page, the other domains wait on a timer wheel until their next
+ * allowed crawl time.
+ * 
+ * @author lbertelo
+ */
+public class Frontier {
+
+	/**
+	 * Duration of a tick of the timer wheel in milliseconds
+	 */
+	private static final long TICK_DURATION = 100;
+
+	/**
+	 * Number of slots of the timer wheel
+	 */
+	private static final int WHEEL_SIZE = 512;
+
+	/**
+	 * Map containing the queue of each domain
+	 */
+	private Map<Domain, DomainQueue> domainQueueMap;
+
+	/**
+	 * Domains ready to be crawled, ordered by their most interesting page
+	 */
+	private TreeSet<DomainQueue> readyDomainSet;
+
+	/**
+	 * Timer wheel containing the waiting domains
+	 */
+	private TimerWheel<DomainQueue> timerWheel;
+
+	/**
+	 * Number of found pages
+	 */
+	private int size;
+
+	/**
+	 * Default constructor
+	 */
+	public Frontier() {
+		domainQueueMap = new HashMap<Domain, DomainQueue>();
+		readyDomainSet = new TreeSet<DomainQueue>();
+		timerWheel = new TimerWheel<DomainQueue>(TICK_DURATION, WHEEL_SIZE, System.currentTimeMillis());
+		size = 0;
+	}
+
+	/**
+	 * Loads the found pages (replaces the found pages of the frontier, the
+	 * domain states are kept)
+	 * @param pageIterator the found page iterator
+	 */
+	public void load(PageDbIterator pageIterator) {
+		readyDomainSet.clear();
+		for (DomainQueue domainQueue : domainQueueMap.values()) {
+			domainQueue.clear();
+		}
+		size = 0;
+
+		while (pageIterator.hasNext()) {
+			offer(pageIterator.next());
+		}
+	}
+
+	/**
+	 * Adds or updates a found page (a crawled page which isn't to crawl now
+	 * is removed)
+	 * @param page the found page
+	 */
+	public void offer(Page page) {
+		if (page.getCrawlTime() != null && !Boolean.TRUE.equals(page.getCrawlNow())) {
+			remove(page.getLink());
+		} else {
+			DomainQueue domainQueue = getDomainQueue(page.getLink().getDomain());
+			readyDomainSet.remove(domainQueue);
+			if (domainQueue.offer(page)) {
+				size++;
+			}
+			updateReady(domainQueue);
+		}
+	}
+
+	/**
+	 * Removes the found page
+	 * @param link link of the found page
+	 */
+	public void remove(Link link) {
+		DomainQueue domainQueue = domainQueueMap.get(link.getDomain());
+		if (domainQueue != null) {
+			readyDomainSet.remove(domainQueue);
+			if (domainQueue.remove(link)) {
+				size--;
+			}
+			updateReady(domainQueue);
+		}
+	}
+
+	/**
+	 * Returns a found page of the frontier
+	 * @param link link of the found page
+	 * @return the found page or null if it isn't in the frontier
+	 */
+	public Page get(Link link) {
+		DomainQueue domainQueue = domainQueueMap.get(link.getDomain());
+		return (domainQueue == null) ? null : domainQueue.get(link);
+	}
+
+	/**
+	 * Removes all the found pages of the domain
+	 * @param domain the domain
+	 */
+	public void removeDomain(Domain domain) {
+		DomainQueue domainQueue = domainQueueMap.get(domain);
+		if (domainQueue != null) {
+			readyDomainSet.remove(domainQueue);
+			size -= domainQueue.size();
+			domainQueue.clear();
+		}
+	}
+
+	/**
+	 * Retrieves the most interesting found page of the ready domains
+	 * @param now the current time in milliseconds
+	 * @return the found page or null if no domain is ready
+	 */
+	public Page peek(long now) {
+		expire(now);
+		if (readyDomainSet.isEmpty()) {
+			return null;
+		}
+		return readyDomainSet.first().peek();
+	}
+
+	/**
+	 * Retrieves and removes the most interesting found page of the ready
+	 * domains
+	 * @param now the current time in milliseconds
+	 * @return the found page or null if no domain is ready
+	 */
+	public Page poll(long now) {
+		expire(now);
+		if (readyDomainSet.isEmpty()) {
+			return null;
+		}
+
+		DomainQueue domainQueue = readyDomainSet.pollFirst();
+		Page page = domainQueue.poll();
+		size--;
+		updateReady(domainQueue);
+		return page;
+	}
+
+	/**
+	 * Indicates that a page of the domain is crawled (the domain isn't ready
+	 * until the end of the crawl)
+	 * @param domain the domain
+	 */
+	public void startCrawl(Domain domain) {
+		DomainQueue domainQueue = getDomainQueue(domain);
+		readyDomainSet.remove(domainQueue);
+		domainQueue.setInProgress(true);
+	}
+
+	/**
+	 * Indicates the end of a crawl and puts the domain on waiting
+	 * @param domain the domain
+	 * @param crawlTime the crawl time in milliseconds
+	 * @param nextCrawlTime the next allowed crawl time in milliseconds
+	 */
+	public void endCrawl(Domain domain, long crawlTime, long nextCrawlTime) {
+		DomainQueue domainQueue = getDomainQueue(domain);
+		domainQueue.setInProgress(false);
+		domainQueue.setLastCrawlTime(crawlTime);
+		delay(domain, nextCrawlTime);
+	}
+
+	/**
+	 * Puts the domain on waiting (does nothing if it is already waiting)
+	 * @param domain the domain
+	 * @param nextCrawlTime the next allowed crawl time in milliseconds
+	 */
+	public void delay(Domain domain, long nextCrawlTime) {
+		DomainQueue domainQueue = getDomainQueue(domain);
+		if (!domainQueue.isWaiting()) {
+			readyDomainSet.remove(domainQueue);
+			domainQueue.setWaiting(true);
+			timerWheel.schedule(domainQueue, nextCrawlTime);
+		}
+	}
+
+	/**
+	 * Returns the date of the last crawl of the domain
+	 * @param domain the domain
+	 * @return the date of the last crawl in milliseconds (0 if unknown)
+	 */
+	public long getLastCrawlTime(Domain domain) {
+		DomainQueue domainQueue = domainQueueMap.get(domain);
+		return (domainQueue == null) ? 0 : domainQueue.getLastCrawlTime();
+	}
+
+	/**
+	 * Returns the next time when a waiting domain will be ready
+	 * @return the time in milliseconds or null if no domain is waiting
+	 */
+	public Long getNextReadyTime() {
+		return timerWheel.getNextExpirationTime();
+	}
+
+	/**
+	 * Returns the number of found pages in the frontier
+	 * @return the number of found pages
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the found pages and the domain states
+	 */
+	public void clear() {
+		domainQueueMap.clear();
+		readyDomainSet.clear();
+		timerWheel.clear();
+		size = 0;
+	}
+
+	/**
+	 * Makes ready the domains whose waiting is over
+	 * @param now the current time in milliseconds
+	 */
+	private void expire(long now) {
+		for (DomainQueue domainQueue : timerWheel.expire(now)) {
+			domainQueue.setWaiting(false);
+			updateReady(domainQueue);
+		}
+	}
+
+	/**
+	 * Adds the domain queue in the ready domains if it is ready
+	 * @param domainQueue the domain queue
+	 */
+	private void updateReady(DomainQueue domainQueue) {
+		if (domainQueue.isReady()) {
+			readyDomainSet.add(domainQueue);
+		}
+	}
+
+	/**
+	 * Returns the queue of the domain (creates it if it doesn't exist)
+	 * @param domain the domain
+	 * @return the domain queue
+	 */
+	private DomainQueue getDomainQueue(Domain domain) {
+		DomainQueue domainQueue = domainQueueMap.get(domain);
+		if (domainQueue == null) {
+			domainQueue = new DomainQueue(domain);
+			domainQueueMap.put(domain, domainQueue);
+		}
+		return domainQueue;
+	}
+
+}
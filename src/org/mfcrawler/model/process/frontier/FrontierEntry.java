@@ -0,0 +1,107 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.frontier;
+
+import org.mfcrawler.model.pojo.site.Page;
+
+/**
+ * Entry of the frontier : a found page and its removal flag (entries are
+ * lazily removed from the priority queue)
+ * 
+ * @author lbertelo
+ */
+public class FrontierEntry implements Comparable<FrontierEntry> {
+
+	/**
+	 * The found page
+	 */
+	private Page page;
+
+	/**
+	 * Indicates if the entry has been removed from the frontier
+	 */
+	private boolean removed;
+
+	/**
+	 * Default constructor
+	 * @param page the found page
+	 */
+	public FrontierEntry(Page page) {
+		this.page = page;
+		removed = false;
+	}
+
+	/**
+	 * Getter of page
+	 * @return the found page
+	 */
+	public Page getPage() {
+		return page;
+	}
+
+	/**
+	 * Indicates if the entry has been removed
+	 * @return true if the entry has been removed, false otherwise
+	 */
+	public boolean isRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Marks the entry as removed
+	 */
+	public void remove() {
+		removed = true;
+	}
+
+	/**
+	 * Compares the entries in the same order as the crawl priority : crawl now
+	 * first, then the score, the incoming extern links number and the incoming
+	 * intern links number (the most interesting entry is the smallest)
+	 */
+	@Override
+	public int compareTo(FrontierEntry other) {
+		int result = compareDesc(page.getCrawlNow(), other.page.getCrawlNow());
+		if (result == 0) {
+			result = compareDesc(page.getScore(), other.page.getScore());
+		}
+		if (result == 0) {
+			result = compareDesc(page.getIncomingExternLinksNumber(), other.page.getIncomingExternLinksNumber());
+		}
+		if (result == 0) {
+			result = compareDesc(page.getIncomingInternLinksNumber(), other.page.getIncomingInternLinksNumber());
+		}
+		return result;
+	}
+
+	/**
+	 * Compares two values in descending order (null values are the last)
+	 * @param value1 the first value
+	 * @param value2 the second value
+	 * @return the result of the comparison
+	 */
+	private static <T extends Comparable<T>> int compareDesc(T value1, T value2) {
+		if (value1 == null) {
+			return (value2 == null) ? 0 : 1;
+		} else if (value2 == null) {
+			return -1;
+		}
+		return value2.compareTo(value1);
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.process.frontier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timer wheel : the elements are put in slots according to their
+ * expiration time, expiring elements only visits the slots elapsed since the
+ * last call
+ * 
+ * @author lbertelo
+ * 
+ * @param <T> type of the scheduled elements
+ */
+public class TimerWheel<T> {
+
+	/**
+	 * Scheduled element and its expiration time
+	 */
+	private static class Timeout<T> {
+		private T element;
+		private long expirationTime;
+
+		private Timeout(T element, long expirationTime) {
+			this.element = element;
+			this.expirationTime = expirationTime;
+		}
+	}
+
+	/**
+	 * Duration of a tick in milliseconds
+	 */
+	private long tickDuration;
+
+	/**
+	 * Slots of the wheel
+	 */
+	private List<List<Timeout<T>>> wheel;
+
+	/**
+	 * Last processed tick
+	 */
+	private long currentTick;
+
+	/**
+	 * Number of scheduled elements
+	 */
+	private int size;
+
+	/**
+	 * Default constructor
+	 * @param tickDuration duration of a tick in milliseconds
+	 * @param wheelSize number of slots
+	 * @param now the current time in milliseconds
+	 */
+	public TimerWheel(long tickDuration, int wheelSize, long now) {
+		this.tickDuration = tickDuration;
+		wheel = new ArrayList<List<Timeout<T>>>(wheelSize);
+		for (int i = 0; i < wheelSize; i++) {
+			wheel.add(new ArrayList<Timeout<T>>());
+		}
+		currentTick = now / tickDuration;
+		size = 0;
+	}
+
+	/**
+	 * Schedules an element
+	 * @param element the element
+	 * @param expirationTime the expiration time in milliseconds
+	 */
+	public void schedule(T element, long expirationTime) {
+		long tick = Math.max((expirationTime + tickDuration - 1) / tickDuration, currentTick + 1);
+		getSlot(tick).add(new Timeout<T>(element, expirationTime));
+		size++;
+	}
+
+	/**
+	 * Removes and returns the expired elements
+	 * @param now the current time in milliseconds
+	 * @return the list of expired elements
+	 */
+	public List<T> expire(long now) {
+		List<T> expiredList = new ArrayList<T>();
+		long nowTick = now / tickDuration;
+
+		if (size > 0) {
+			long lastTick = Math.min(nowTick, currentTick + wheel.size());
+			for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+				List<Timeout<T>> slot = getSlot(tick);
+				for (int i = slot.size() - 1; i >= 0; i--) {
+					Timeout<T> timeout = slot.get(i);
+					if (timeout.expirationTime <= now) {
+						slot.remove(i);
+						expiredList.add(timeout.element);
+						size--;
+					}
+				}
+			}
+		}
+
+		currentTick = Math.max(currentTick, nowTick);
+		return expiredList;
+	}
+
+	/**
+	 * Returns the next expiration time
+	 * @return the next expiration time in milliseconds or null if there is no
+	 *         scheduled element
+	 */
+	public Long getNextExpirationTime() {
+		Long nextExpirationTime = null;
+
+		if (size > 0) {
+			for (long tick = currentTick + 1; tick <= currentTick + wheel.size(); tick++) {
+				long tickTime = tick * tickDuration;
+				for (Timeout<T> timeout : getSlot(tick)) {
+					if (timeout.expirationTime <= tickTime
+							&& (nextExpirationTime == null || timeout.expirationTime < nextExpirationTime)) {
+						nextExpirationTime = timeout.expirationTime;
+					}
+				}
+				if (nextExpirationTime != null) {
+					return nextExpirationTime;
+				}
+			}
+
+			// All the elements expire after a complete turn of the wheel
+			for (List<Timeout<T>> slot : wheel) {
+				for (Timeout<T> timeout : slot) {
+					if (nextExpirationTime == null || timeout.expirationTime < nextExpirationTime) {
+						nextExpirationTime = timeout.expirationTime;
+					}
+				}
+			}
+		}
+
+		return nextExpirationTime;
+	}
+
+	/**
+	 * Returns the number of scheduled elements
+	 * @return the number of scheduled elements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the scheduled elements
+	 */
+	public void clear() {
+		for (List<Timeout<T>> slot : wheel) {
+			slot.clear();
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns the slot of the tick
+	 * @param tick the tick
+	 * @return the slot
+	 */
+	private List<Timeout<T>> getSlot(long tick) {
+		return wheel.get((int) (tick % wheel.size()));
+	}
+
+}
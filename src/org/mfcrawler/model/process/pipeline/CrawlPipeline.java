@@ -0,0 +1,150 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.ApplicationModel;
+import org.mfcrawler.model.pojo.crawl.CrawlConfig;
+import org.mfcrawler.model.pojo.crawl.CrawlResponse;
+import org.mfcrawler.model.process.CrawlScheduler;
+
+/**
+ * The crawl pipeline processes the fetched pages through successive stages
+ * (parse, score and persist), each one with its own bounded queue and its
+ * own worker threads. The crawl response is sent to the scheduler when the
+ * page is saved.
+ * 
+ * @author lbertelo
+ */
+public class CrawlPipeline {
+
+	/**
+	 * Capacity of the queue of each stage
+	 */
+	private static final int STAGE_QUEUE_CAPACITY = 100;
+
+	/**
+	 * The crawl scheduler
+	 */
+	private CrawlScheduler crawlScheduler;
+
+	/**
+	 * Parse stage (first stage)
+	 */
+	private PipelineStage parseStage;
+
+	/**
+	 * Score stage
+	 */
+	private PipelineStage scoreStage;
+
+	/**
+	 * Persist stage (last stage)
+	 */
+	private PipelineStage persistStage;
+
+	/**
+	 * Default constructor
+	 * @param crawlScheduler the crawl scheduler receiving the crawl responses
+	 * @param crawlConfig the crawl configuration
+	 */
+	public CrawlPipeline(CrawlScheduler crawlScheduler, CrawlConfig crawlConfig) {
+		this.crawlScheduler = crawlScheduler;
+
+		String forbiddenFileExtensions[] = ApplicationModel.getConfig().getForbiddenFileExtensions().split("\\|");
+		parseStage = new ParseStage(this, crawlConfig.getParseThreadNumber(), STAGE_QUEUE_CAPACITY,
+				forbiddenFileExtensions);
+		scoreStage = new ScoreStage(this, crawlConfig.getScoreThreadNumber(), STAGE_QUEUE_CAPACITY);
+		persistStage = new PersistStage(this, crawlConfig.getPersistThreadNumber(), STAGE_QUEUE_CAPACITY,
+				crawlConfig.getPersistBatchSize(), crawlConfig.getPersistFlushInterval());
+		parseStage.setNextStage(scoreStage);
+		scoreStage.setNextStage(persistStage);
+	}
+
+	/**
+	 * Starts the worker threads of the stages
+	 */
+	public void start() {
+		persistStage.start();
+		scoreStage.start();
+		parseStage.start();
+	}
+
+	/**
+	 * Stops the stages once all the submitted tasks are processed (nothing
+	 * must be submitted anymore)
+	 */
+	public void shutdown() {
+		parseStage.shutdown();
+		scoreStage.shutdown();
+		persistStage.shutdown();
+	}
+
+	/**
+	 * Submits a fetched page to the pipeline (waits while the first stage is
+	 * full)
+	 * @param task the pipeline task
+	 */
+	public void submit(PipelineTask task) {
+		submit(parseStage, task);
+	}
+
+	/**
+	 * Returns the queue depth of each stage
+	 * @return the map of the queue depths (by stage name)
+	 */
+	public Map<String, Integer> getQueueDepths() {
+		Map<String, Integer> queueDepthMap = new LinkedHashMap<String, Integer>();
+		queueDepthMap.put(parseStage.getName(), parseStage.getQueueDepth());
+		queueDepthMap.put(scoreStage.getName(), scoreStage.getQueueDepth());
+		queueDepthMap.put(persistStage.getName(), persistStage.getQueueDepth());
+		return queueDepthMap;
+	}
+
+	/**
+	 * Submits a task to a stage (waits while the stage is full)
+	 * @param stage the pipeline stage
+	 * @param task the pipeline task
+	 */
+	void submit(PipelineStage stage, PipelineTask task) {
+		try {
+			stage.put(task);
+		} catch (InterruptedException e) {
+			Logger.getLogger(CrawlPipeline.class.getName()).log(Level.WARNING, "Error to submit pipeline task", e);
+			complete(task);
+		}
+	}
+
+	/**
+	 * Sends the crawl response of a task to the scheduler
+	 * @param task the pipeline task
+	 */
+	void complete(PipelineTask task) {
+		CrawlResponse response = new CrawlResponse(task.getOrder());
+		response.setCrawlDate(task.getCrawlDate());
+		response.setFoundPages(task.getFoundPages());
+		response.setAllowCrawlMap(task.getAllowCrawlMap());
+		crawlScheduler.addResponse(response);
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.util.List;
+
+/**
+ * Worker of a pipeline stage (each worker thread owns its own worker)
+ * 
+ * @author lbertelo
+ */
+public interface IStageWorker {
+
+	/**
+	 * Processes a batch of tasks (only one task if the stage isn't batched)
+	 * @param taskList the list of pipeline tasks
+	 */
+	void process(List<PipelineTask> taskList);
+
+	/**
+	 * Releases the resources of the worker
+	 */
+	void close();
+
+}
@@ -0,0 +1,76 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.util.List;
+
+import org.mfcrawler.model.pojo.site.Site;
+import org.mfcrawler.model.process.crawl.PageParser;
+
+/**
+ * Stage parsing the fetched pages (text, title and links extraction)
+ * 
+ * @author lbertelo
+ */
+public class ParseStage extends PipelineStage {
+
+	/**
+	 * Table of forbidden file extensions
+	 */
+	private String forbiddenFileExtensions[];
+
+	/**
+	 * Default constructor
+	 * @param pipeline the crawl pipeline
+	 * @param workerNumber the number of worker threads
+	 * @param queueCapacity the capacity of the queue
+	 * @param forbiddenFileExtensions the forbidden file extensions
+	 */
+	public ParseStage(CrawlPipeline pipeline, int workerNumber, int queueCapacity, String forbiddenFileExtensions[]) {
+		super(pipeline, "Parse", workerNumber, queueCapacity);
+		this.forbiddenFileExtensions = forbiddenFileExtensions;
+	}
+
+	@Override
+	protected IStageWorker createWorker() {
+		final PageParser pageParser = new PageParser(forbiddenFileExtensions);
+
+		return new IStageWorker() {
+			@Override
+			public void process(List<PipelineTask> taskList) {
+				for (PipelineTask task : taskList) {
+					if (task.getOrder().getLink().isRobotsTxt()) {
+						Site site = new Site(task.getOrder().getLink().getDomain());
+						task.setRobotFileContent(pageParser.parseRobotFile(site, task.getFetchResult()));
+						task.setSite(site);
+					} else {
+						task.setPage(pageParser.parsePage(task.getOrder(), task.getFetchResult()));
+					}
+					// The raw content isn't needed anymore
+					task.setFetchResult(null);
+				}
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mfcrawler.model.dao.DbmsManager;
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.link.Link;
+import org.mfcrawler.model.process.crawl.PageSaver;
+
+/**
+ * Stage saving the scored pages and the robots.txt in database (each worker
+ * thread owns its own database connection and saves its batch in one
+ * transaction)
+ * 
+ * @author lbertelo
+ */
+public class PersistStage extends PipelineStage {
+
+	/**
+	 * Default constructor
+	 * @param pipeline the crawl pipeline
+	 * @param workerNumber the number of worker threads
+	 * @param queueCapacity the capacity of the queue
+	 * @param batchSize the maximum number of pages saved in one transaction
+	 * @param flushInterval the maximum time (in milliseconds) to wait for
+	 *            filling a batch
+	 */
+	public PersistStage(CrawlPipeline pipeline, int workerNumber, int queueCapacity, int batchSize,
+			long flushInterval) {
+		super(pipeline, "Persist", workerNumber, queueCapacity, batchSize, flushInterval);
+	}
+
+	@Override
+	protected IStageWorker createWorker() {
+		final Connection connectionDb = DbmsManager.get().getNewConnection();
+		final PageSaver pageSaver = new PageSaver(connectionDb);
+
+		return new IStageWorker() {
+			@Override
+			public void process(List<PipelineTask> taskList) {
+				for (PipelineTask task : taskList) {
+					if (task.getSite() != null) {
+						pageSaver.addSite(task.getSite(), task.getRobotFileContent());
+					} else {
+						pageSaver.addPage(task.getPage());
+					}
+				}
+
+				Map<Link, Page> savedPageMap = pageSaver.flush();
+				for (PipelineTask task : taskList) {
+					if (task.getPage() != null) {
+						task.setFoundPages(getFoundPages(task.getPage(), savedPageMap));
+					} else if (task.getSite() != null) {
+						task.setAllowCrawlMap(pageSaver.getAllowCrawlMap(task.getSite().getDomain()));
+					}
+				}
+			}
+
+			@Override
+			public void close() {
+				try {
+					if (connectionDb != null) {
+						connectionDb.close();
+					}
+				} catch (SQLException e) {
+					Logger.getLogger(PersistStage.class.getName()).log(Level.WARNING, "Error to close DB connection", e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the found pages of a crawled page
+	 * @param page the crawled page
+	 * @param savedPageMap the found pages of the batch (as saved in database)
+	 * @return the found pages of the crawled page
+	 */
+	private static List<Page> getFoundPages(Page page, Map<Link, Page> savedPageMap) {
+		List<Link> outgoingLinks = new ArrayList<Link>(page.getOutgoingInternLinks());
+		outgoingLinks.addAll(page.getOutgoingExternLinks());
+
+		List<Page> foundPages = new ArrayList<Page>();
+		for (Link link : outgoingLinks) {
+			Page foundPage = savedPageMap.get(link);
+			if (foundPage != null) {
+				foundPages.add(foundPage);
+			}
+		}
+		return foundPages;
+	}
+
+}
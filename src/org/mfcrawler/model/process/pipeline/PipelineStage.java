@@ -0,0 +1,289 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stage of the crawl pipeline : a bounded queue consumed by a pool of worker
+ * threads. Putting a task blocks while the queue is full (back-pressure on
+ * the previous stage). A batched stage gives its workers up to "batchSize"
+ * tasks, waiting at most "flushInterval" for the batch to be filled.
+ * 
+ * @author lbertelo
+ */
+public abstract class PipelineStage {
+
+	/**
+	 * Maximum time (in milliseconds) a worker waits for a task before checking
+	 * if the stage is stopped
+	 */
+	private static final long POLL_TIMEOUT = 200;
+
+	/**
+	 * The crawl pipeline
+	 */
+	private CrawlPipeline pipeline;
+
+	/**
+	 * Name of the stage
+	 */
+	private String name;
+
+	/**
+	 * Number of worker threads
+	 */
+	private int workerNumber;
+
+	/**
+	 * Maximum number of tasks processed together by a worker
+	 */
+	private int batchSize;
+
+	/**
+	 * Maximum time (in milliseconds) a worker waits for filling a batch
+	 */
+	private long flushInterval;
+
+	/**
+	 * Queue of the tasks waiting for the stage
+	 */
+	private BlockingQueue<PipelineTask> queue;
+
+	/**
+	 * Next stage (null for the last stage)
+	 */
+	private PipelineStage nextStage;
+
+	/**
+	 * List of the worker threads
+	 */
+	private List<Thread> workerList;
+
+	/**
+	 * Indicates if the stage is running
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Default constructor
+	 * @param pipeline the crawl pipeline
+	 * @param name the name of the stage
+	 * @param workerNumber the number of worker threads
+	 * @param queueCapacity the capacity of the queue
+	 */
+	public PipelineStage(CrawlPipeline pipeline, String name, int workerNumber, int queueCapacity) {
+		this(pipeline, name, workerNumber, queueCapacity, 1, 0);
+	}
+
+	/**
+	 * Constructor of a batched stage
+	 * @param pipeline the crawl pipeline
+	 * @param name the name of the stage
+	 * @param workerNumber the number of worker threads
+	 * @param queueCapacity the capacity of the queue
+	 * @param batchSize the maximum number of tasks processed together
+	 * @param flushInterval the maximum time (in milliseconds) to wait for
+	 *            filling a batch
+	 */
+	public PipelineStage(CrawlPipeline pipeline, String name, int workerNumber, int queueCapacity, int batchSize,
+			long flushInterval) {
+		this.pipeline = pipeline;
+		this.name = name;
+		this.workerNumber = workerNumber;
+		this.batchSize = batchSize;
+		this.flushInterval = flushInterval;
+		queue = new ArrayBlockingQueue<PipelineTask>(queueCapacity);
+		workerList = new ArrayList<Thread>();
+	}
+
+	/**
+	 * Getter of name
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Setter of next stage
+	 * @param nextStage the next stage
+	 */
+	public void setNextStage(PipelineStage nextStage) {
+		this.nextStage = nextStage;
+	}
+
+	/**
+	 * Returns the number of tasks waiting for the stage
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Puts a task in the queue (waits while the queue is full)
+	 * @param task the pipeline task
+	 * @throws InterruptedException
+	 */
+	public void put(PipelineTask task) throws InterruptedException {
+		queue.put(task);
+	}
+
+	/**
+	 * Starts the worker threads
+	 */
+	public void start() {
+		running = true;
+		for (int i = 0; i < workerNumber; i++) {
+			Thread worker = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					loopWorker();
+				}
+			}, name + " " + i);
+			worker.start();
+			workerList.add(worker);
+		}
+	}
+
+	/**
+	 * Stops the worker threads once the queue is empty (the previous stages
+	 * must have been stopped)
+	 */
+	public void shutdown() {
+		running = false;
+		for (Thread worker : workerList) {
+			try {
+				worker.join();
+			} catch (InterruptedException e) {
+				Logger.getLogger(PipelineStage.class.getName()).log(Level.WARNING, "Error to join stage worker", e);
+			}
+		}
+		workerList.clear();
+	}
+
+	/**
+	 * Creates the worker of a worker thread (called by the worker thread)
+	 * @return the worker
+	 */
+	protected abstract IStageWorker createWorker();
+
+	/**
+	 * Passes a processed task to the next stage (or completes it)
+	 * @param task the pipeline task
+	 */
+	protected void forward(PipelineTask task) {
+		if (nextStage != null) {
+			pipeline.submit(nextStage, task);
+		} else {
+			pipeline.complete(task);
+		}
+	}
+
+	/**
+	 * Loops while the stage is running or tasks remain
+	 */
+	private void loopWorker() {
+		IStageWorker worker = createWorker();
+		List<PipelineTask> taskList = new ArrayList<PipelineTask>(batchSize);
+		try {
+			while (running || !queue.isEmpty()) {
+				PipelineTask task = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				if (task != null) {
+					taskList.add(task);
+					fillBatch(taskList);
+					if (!processBatch(worker, taskList)) {
+						// The worker may have been left inconsistent by the error
+						worker.close();
+						worker = createWorker();
+					}
+					taskList.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			Logger.getLogger(PipelineStage.class.getName()).log(Level.WARNING, "Error to wait pipeline task", e);
+		} finally {
+			worker.close();
+		}
+	}
+
+	/**
+	 * Fills the batch until it is full or the flush interval is elapsed (no
+	 * wait when the stage is stopping)
+	 * @param taskList the batch containing its first task
+	 * @throws InterruptedException
+	 */
+	private void fillBatch(List<PipelineTask> taskList) throws InterruptedException {
+		long flushTime = System.currentTimeMillis() + flushInterval;
+		while (taskList.size() < batchSize) {
+			queue.drainTo(taskList, batchSize - taskList.size());
+			long waitTime = flushTime - System.currentTimeMillis();
+			if (taskList.size() >= batchSize || waitTime <= 0 || !running) {
+				return;
+			}
+
+			PipelineTask task = queue.poll(waitTime, TimeUnit.MILLISECONDS);
+			if (task == null) {
+				return;
+			}
+			taskList.add(task);
+		}
+	}
+
+	/**
+	 * Processes a batch then passes its tasks to the next stage (or completes
+	 * them if an error occurred, so the scheduler always gets their responses)
+	 * @param worker the worker
+	 * @param taskList the batch
+	 * @return false if the worker must be replaced (an Error has been thrown,
+	 *         such as an OutOfMemoryError), true otherwise
+	 */
+	private boolean processBatch(IStageWorker worker, List<PipelineTask> taskList) {
+		try {
+			worker.process(taskList);
+		} catch (Exception e) {
+			Logger.getLogger(PipelineStage.class.getName()).log(Level.SEVERE,
+					"Error to process " + taskList.size() + " task(s) in stage " + name, e);
+			for (PipelineTask task : taskList) {
+				pipeline.complete(task);
+			}
+			return true;
+		} catch (Error e) {
+			Logger.getLogger(PipelineStage.class.getName()).log(Level.SEVERE,
+					"Fatal error to process " + taskList.size() + " task(s) in stage " + name, e);
+			for (PipelineTask task : taskList) {
+				pipeline.complete(task);
+			}
+			return false;
+		}
+
+		for (PipelineTask task : taskList) {
+			forward(task);
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,202 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.mfcrawler.model.pojo.crawl.CrawlOrder;
+import org.mfcrawler.model.pojo.crawl.FetchResult;
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.pojo.site.Site;
+import org.mfcrawler.model.pojo.site.link.Link;
+
+/**
+ * Describes a fetched crawl order going through the stages of the crawl
+ * pipeline
+ * 
+ * @author lbertelo
+ */
+public class PipelineTask {
+
+	/**
+	 * The crawl order
+	 */
+	private CrawlOrder order;
+
+	/**
+	 * Date of the crawl
+	 */
+	private Date crawlDate;
+
+	/**
+	 * The fetch result
+	 */
+	private FetchResult fetchResult;
+
+	/**
+	 * The parsed page (null for a robots.txt)
+	 */
+	private Page page;
+
+	/**
+	 * The parsed site (only for a robots.txt)
+	 */
+	private Site site;
+
+	/**
+	 * The content of the robots.txt (only for a robots.txt)
+	 */
+	private String robotFileContent;
+
+	/**
+	 * Found pages of the crawled page (as saved in database)
+	 */
+	private List<Page> foundPages;
+
+	/**
+	 * "Allow crawl" values of the pages of the site (only for a robots.txt)
+	 */
+	private Map<Link, Boolean> allowCrawlMap;
+
+	/**
+	 * Default constructor
+	 * @param order the crawl order
+	 * @param crawlDate the date of the crawl
+	 */
+	public PipelineTask(CrawlOrder order, Date crawlDate) {
+		this.order = order;
+		this.crawlDate = crawlDate;
+	}
+
+	/**
+	 * Getter of order
+	 * @return the crawl order
+	 */
+	public CrawlOrder getOrder() {
+		return order;
+	}
+
+	/**
+	 * Getter of crawl date
+	 * @return the crawl date
+	 */
+	public Date getCrawlDate() {
+		return crawlDate;
+	}
+
+	/**
+	 * Getter of fetch result
+	 * @return the fetch result
+	 */
+	public FetchResult getFetchResult() {
+		return fetchResult;
+	}
+
+	/**
+	 * Setter of fetch result
+	 * @param fetchResult the fetch result
+	 */
+	public void setFetchResult(FetchResult fetchResult) {
+		this.fetchResult = fetchResult;
+	}
+
+	/**
+	 * Getter of page
+	 * @return the page
+	 */
+	public Page getPage() {
+		return page;
+	}
+
+	/**
+	 * Setter of page
+	 * @param page the page
+	 */
+	public void setPage(Page page) {
+		this.page = page;
+	}
+
+	/**
+	 * Getter of site
+	 * @return the site
+	 */
+	public Site getSite() {
+		return site;
+	}
+
+	/**
+	 * Setter of site
+	 * @param site the site
+	 */
+	public void setSite(Site site) {
+		this.site = site;
+	}
+
+	/**
+	 * Getter of robot file content
+	 * @return the robot file content
+	 */
+	public String getRobotFileContent() {
+		return robotFileContent;
+	}
+
+	/**
+	 * Setter of robot file content
+	 * @param robotFileContent the robot file content
+	 */
+	public void setRobotFileContent(String robotFileContent) {
+		this.robotFileContent = robotFileContent;
+	}
+
+	/**
+	 * Getter of found pages
+	 * @return the found pages
+	 */
+	public List<Page> getFoundPages() {
+		return foundPages;
+	}
+
+	/**
+	 * Setter of found pages
+	 * @param foundPages the found pages
+	 */
+	public void setFoundPages(List<Page> foundPages) {
+		this.foundPages = foundPages;
+	}
+
+	/**
+	 * Getter of allow crawl map
+	 * @return the "allow crawl" values of the pages of the site (only for a
+	 *         robots.txt)
+	 */
+	public Map<Link, Boolean> getAllowCrawlMap() {
+		return allowCrawlMap;
+	}
+
+	/**
+	 * Setter of allow crawl map
+	 * @param allowCrawlMap the "allow crawl" values of the pages of the site
+	 */
+	public void setAllowCrawlMap(Map<Link, Boolean> allowCrawlMap) {
+		this.allowCrawlMap = allowCrawlMap;
+	}
+
+}
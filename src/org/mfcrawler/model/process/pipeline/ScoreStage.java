@@ -0,0 +1,75 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.process.pipeline;
+
+import java.util.List;
+
+import org.mfcrawler.model.pojo.site.Page;
+import org.mfcrawler.model.process.content.KeywordManager;
+import org.mfcrawler.model.process.content.TermVector;
+
+/**
+ * Stage calculating the score and the term vector of the parsed pages
+ * 
+ * @author lbertelo
+ */
+public class ScoreStage extends PipelineStage {
+
+	/**
+	 * Default constructor
+	 * @param pipeline the crawl pipeline
+	 * @param workerNumber the number of worker threads
+	 * @param queueCapacity the capacity of the queue
+	 */
+	public ScoreStage(CrawlPipeline pipeline, int workerNumber, int queueCapacity) {
+		super(pipeline, "Score", workerNumber, queueCapacity);
+	}
+
+	@Override
+	protected IStageWorker createWorker() {
+		return new IStageWorker() {
+			@Override
+			public void process(List<PipelineTask> taskList) {
+				for (PipelineTask task : taskList) {
+					Page page = task.getPage();
+					if (page == null || page.isUnchanged()) {
+						// robots.txt or page which keeps its previous score
+						continue;
+					}
+
+					if (page.getCrawlError() != null) {
+						page.setScore(0.0);
+					} else if (page.getRedirectPage()) {
+						page.setScore(task.getOrder().getExpectedScore());
+					} else {
+						page.setScore(KeywordManager.calculateContent(page.getContent()));
+						if (page.getContent() != null) {
+							page.setTermVector(TermVector.build(page.getContent()));
+						}
+					}
+				}
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+}
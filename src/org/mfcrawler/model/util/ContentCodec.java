@@ -0,0 +1,219 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.mfcrawler.model.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codec of the page contents saved in database : the first byte gives the
+ * codec of the following bytes (UTF-8 text, or UTF-8 text compressed with
+ * deflate and preceded by its length)
+ * 
+ * @author lbertelo
+ */
+public final class ContentCodec {
+
+	/**
+	 * Codec of the UTF-8 text
+	 */
+	public static final byte RAW = 0;
+
+	/**
+	 * Codec of the UTF-8 text compressed with deflate
+	 */
+	public static final byte DEFLATE = 1;
+
+	/**
+	 * Charset of the text
+	 */
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Minimum length of the text to compress (in bytes)
+	 */
+	private static final int MIN_LENGTH_TO_COMPRESS = 128;
+
+	/**
+	 * Compression level (the compression of text is nearly as good at the
+	 * fastest level)
+	 */
+	private static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+	/**
+	 * Length of the header (codec and length of the text)
+	 */
+	private static final int HEADER_LENGTH = 5;
+
+	/**
+	 * Deflater of the current thread (reused because of its native memory)
+	 */
+	private static final ThreadLocal<Deflater> deflater = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(COMPRESSION_LEVEL, true);
+		}
+	};
+
+	/**
+	 * Inflater of the current thread (reused because of its native memory)
+	 */
+	private static final ThreadLocal<Inflater> inflater = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater(true);
+		}
+	};
+
+	/**
+	 * Private constructor
+	 */
+	private ContentCodec() {
+	}
+
+	/**
+	 * Encodes a content (compressed if it makes it shorter)
+	 * @param content the content
+	 * @return the encoded content (null if the content is null)
+	 */
+	public static byte[] encode(String content) {
+		if (content == null) {
+			return null;
+		}
+
+		byte[] text = content.getBytes(CHARSET);
+		if (text.length >= MIN_LENGTH_TO_COMPRESS) {
+			Deflater threadDeflater = deflater.get();
+			threadDeflater.reset();
+			threadDeflater.setInput(text);
+			threadDeflater.finish();
+
+			// The compressed content is kept only if it is shorter
+			byte[] encoded = new byte[text.length];
+			int length = HEADER_LENGTH;
+			while (!threadDeflater.finished() && length < encoded.length) {
+				length += threadDeflater.deflate(encoded, length, encoded.length - length);
+			}
+
+			if (threadDeflater.finished() && length < encoded.length) {
+				encoded[0] = DEFLATE;
+				encoded[1] = (byte) (text.length >>> 24);
+				encoded[2] = (byte) (text.length >>> 16);
+				encoded[3] = (byte) (text.length >>> 8);
+				encoded[4] = (byte) text.length;
+				return Arrays.copyOf(encoded, length);
+			}
+		}
+
+		byte[] encoded = new byte[text.length + 1];
+		encoded[0] = RAW;
+		System.arraycopy(text, 0, encoded, 1, text.length);
+		return encoded;
+	}
+
+	/**
+	 * Decodes a content
+	 * @param encoded the encoded content
+	 * @return the content (null if the encoded content is null or unreadable)
+	 */
+	public static String decode(byte[] encoded) {
+		if (encoded == null || encoded.length == 0) {
+			return null;
+		}
+
+		switch (encoded[0]) {
+		case RAW:
+			return new String(encoded, 1, encoded.length - 1, CHARSET);
+
+		case DEFLATE:
+			int textLength = ((encoded[1] & 0xff) << 24) | ((encoded[2] & 0xff) << 16) | ((encoded[3] & 0xff) << 8)
+					| (encoded[4] & 0xff);
+			byte[] text = new byte[textLength];
+
+			Inflater threadInflater = inflater.get();
+			threadInflater.reset();
+			threadInflater.setInput(encoded, HEADER_LENGTH, encoded.length - HEADER_LENGTH);
+			try {
+				int length = 0;
+				while (length < textLength && !threadInflater.finished()) {
+					int inflatedLength = threadInflater.inflate(text, length, textLength - length);
+					if (inflatedLength == 0 && (threadInflater.needsInput() || threadInflater.needsDictionary())) {
+						break;
+					}
+					length += inflatedLength;
+				}
+				return new String(text, 0, length, CHARSET);
+			} catch (DataFormatException e) {
+				Logger.getLogger(ContentCodec.class.getName()).log(Level.SEVERE, "Error to decode content", e);
+				return null;
+			}
+
+		default:
+			Logger.getLogger(ContentCodec.class.getName()).log(Level.SEVERE, "Unknown content codec : " + encoded[0]);
+			return null;
+		}
+	}
+
+	/**
+	 * Return a reader of an encoded content : the content is decoded while it
+	 * is read, without building the whole text
+	 * @param encoded the encoded content
+	 * @return the reader (null if the encoded content is null or unreadable)
+	 */
+	public static Reader newReader(byte[] encoded) {
+		if (encoded == null || encoded.length == 0) {
+			return null;
+		}
+
+		InputStream text;
+		switch (encoded[0]) {
+		case RAW:
+			text = new ByteArrayInputStream(encoded, 1, encoded.length - 1);
+			break;
+
+		case DEFLATE:
+			// The inflater of the thread isn't used, the reader may be read by another thread
+			text = new InflaterInputStream(new ByteArrayInputStream(encoded, HEADER_LENGTH, encoded.length
+					- HEADER_LENGTH), new Inflater(true)) {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					inf.end();
+				}
+			};
+			break;
+
+		default:
+			Logger.getLogger(ContentCodec.class.getName()).log(Level.SEVERE, "Unknown content codec : " + encoded[0]);
+			return null;
+		}
+		return new InputStreamReader(text, CHARSET);
+	}
+
+}
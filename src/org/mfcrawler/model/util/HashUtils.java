@@ -0,0 +1,66 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.util;
+
+/**
+ * Utilities for the compact hash maps
+ * 
+ * @author lbertelo
+ */
+final class HashUtils {
+
+	/**
+	 * Maximum number of slots
+	 */
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * Private constructor
+	 */
+	private HashUtils() {
+
+	}
+
+	/**
+	 * Return the number of slots for an expected number of entries
+	 * @param expectedSize the expected number of entries
+	 * @param loadFactor the maximum load factor
+	 * @return the number of slots (power of two)
+	 */
+	static int capacity(int expectedSize, double loadFactor) {
+		int capacity = 16;
+		while (capacity < MAX_CAPACITY && capacity * loadFactor < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Spreads the bits of a long key (finalizer of MurmurHash3)
+	 * @param key the key
+	 * @return the hash
+	 */
+	static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+}
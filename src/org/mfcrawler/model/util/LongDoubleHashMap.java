@@ -0,0 +1,157 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.util;
+
+import java.util.Arrays;
+
+/**
+ * Compact hash map with long keys and double values (open addressing,
+ * without boxing), not thread-safe. The entries are browsed by slot :
+ * <code>for (int slot = 0; slot < map.capacity(); slot++) if (map.isUsed(slot)) ...</code>
+ * 
+ * @author lbertelo
+ */
+public class LongDoubleHashMap {
+
+	/**
+	 * Key of the free slots
+	 */
+	private static final long FREE_KEY = Long.MIN_VALUE;
+
+	/**
+	 * Maximum load factor
+	 */
+	private static final double LOAD_FACTOR = 0.6;
+
+	/**
+	 * Keys of the slots
+	 */
+	private long[] keys;
+
+	/**
+	 * Values of the slots
+	 */
+	private double[] values;
+
+	/**
+	 * Number of entries
+	 */
+	private int size;
+
+	/**
+	 * Default constructor
+	 * @param expectedSize the expected number of entries
+	 */
+	public LongDoubleHashMap(int expectedSize) {
+		allocate(HashUtils.capacity(expectedSize, LOAD_FACTOR));
+	}
+
+	/**
+	 * Getter of size
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the number of slots
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Indicates if a slot contains an entry
+	 * @param slot the slot
+	 * @return true if the slot is used, false otherwise
+	 */
+	public boolean isUsed(int slot) {
+		return keys[slot] != FREE_KEY;
+	}
+
+	/**
+	 * Return the key of a used slot
+	 * @param slot the slot
+	 * @return the key
+	 */
+	public long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * Return the value of a used slot
+	 * @param slot the slot
+	 * @return the value
+	 */
+	public double valueAt(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * Associates a value to a key if the key is missing or if its value is
+	 * lower
+	 * @param key the key (mustn't be Long.MIN_VALUE)
+	 * @param value the value
+	 */
+	public void putMax(long key, double value) {
+		int mask = keys.length - 1;
+		int slot = HashUtils.hash(key) & mask;
+		while (keys[slot] != FREE_KEY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		if (keys[slot] == FREE_KEY) {
+			keys[slot] = key;
+			values[slot] = value;
+			size++;
+			if (size > keys.length * LOAD_FACTOR) {
+				rehash();
+			}
+		} else if (values[slot] < value) {
+			values[slot] = value;
+		}
+	}
+
+	/**
+	 * Allocates the slots
+	 * @param capacity the number of slots (power of two)
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new double[capacity];
+		Arrays.fill(keys, FREE_KEY);
+	}
+
+	/**
+	 * Doubles the number of slots
+	 */
+	private void rehash() {
+		long[] oldKeys = keys;
+		double[] oldValues = values;
+		allocate(oldKeys.length * 2);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE_KEY) {
+				putMax(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+}
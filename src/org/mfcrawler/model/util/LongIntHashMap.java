@@ -0,0 +1,135 @@
+/*
+    Mini Focused Crawler : focused web crawler with a simple GUI
+    Copyright (C) 2013  lbertelo
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, version 3 of the License.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.mfcrawler.model.util;
+
+import java.util.Arrays;
+
+/**
+ * Compact hash map with long keys and int values (open addressing, without
+ * boxing), not thread-safe
+ * 
+ * @author lbertelo
+ */
+public class LongIntHashMap {
+
+	/**
+	 * Key of the free slots
+	 */
+	private static final long FREE_KEY = Long.MIN_VALUE;
+
+	/**
+	 * Maximum load factor
+	 */
+	private static final double LOAD_FACTOR = 0.6;
+
+	/**
+	 * Keys of the slots
+	 */
+	private long[] keys;
+
+	/**
+	 * Values of the slots
+	 */
+	private int[] values;
+
+	/**
+	 * Number of entries
+	 */
+	private int size;
+
+	/**
+	 * Default constructor
+	 * @param expectedSize the expected number of entries
+	 */
+	public LongIntHashMap(int expectedSize) {
+		allocate(HashUtils.capacity(expectedSize, LOAD_FACTOR));
+	}
+
+	/**
+	 * Getter of size
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the value of a key
+	 * @param key the key (mustn't be Long.MIN_VALUE)
+	 * @param defaultValue the value returned if the key is missing
+	 * @return the value or the default value
+	 */
+	public int get(long key, int defaultValue) {
+		int mask = keys.length - 1;
+		for (int slot = HashUtils.hash(key) & mask; keys[slot] != FREE_KEY; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return values[slot];
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Associates a value to a key
+	 * @param key the key (mustn't be Long.MIN_VALUE)
+	 * @param value the value
+	 */
+	public void put(long key, int value) {
+		int mask = keys.length - 1;
+		int slot = HashUtils.hash(key) & mask;
+		while (keys[slot] != FREE_KEY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		if (keys[slot] == FREE_KEY) {
+			keys[slot] = key;
+			size++;
+		}
+		values[slot] = value;
+
+		if (size > keys.length * LOAD_FACTOR) {
+			rehash();
+		}
+	}
+
+	/**
+	 * Allocates the slots
+	 * @param capacity the number of slots (power of two)
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, FREE_KEY);
+	}
+
+	/**
+	 * Doubles the number of slots
+	 */
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(oldKeys.length * 2);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE_KEY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+}
@@ -186,7 +186,7 @@ public final class ApplicationView implements PropertyChangeListener {
 		@Override
 		public void windowClosing(WindowEvent arg0) {
 			if (!loading) {
-				if (getModel().getSupervisor().isStopped()) {
+				if (getModel().isCrawlStopped()) {
 					getModel().closeModel();
 					closing = true;
 				} else {
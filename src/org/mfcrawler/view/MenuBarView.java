@@ -99,7 +99,7 @@ public class MenuBarView {
 	private class NewProjectAction implements ActionListener {
 		@Override
 		public void actionPerformed(ActionEvent arg0) {
-			if (!view.getModel().getSupervisor().isStopped()) {
+			if (!view.getModel().isCrawlStopped()) {
 				view.notifyDialog(IPropertyName.WARNING, I18nUtil.getMessage("warning.stopCrawl"));
 			} else {
 				NewProjectDialog newProjectDialog = new NewProjectDialog(view, view.getModel());
@@ -111,7 +111,7 @@ public class MenuBarView {
 	private class ManageProjectsAction implements ActionListener {
 		@Override
 		public void actionPerformed(ActionEvent event) {
-			if (!view.getModel().getSupervisor().isStopped()) {
+			if (!view.getModel().isCrawlStopped()) {
 				view.notifyDialog(IPropertyName.WARNING, I18nUtil.getMessage("warning.stopCrawl"));
 			} else {
 				ManageProjectsDialog manageProjectsDialog = new ManageProjectsDialog(view, view.getModel());
@@ -144,7 +144,7 @@ public class MenuBarView {
 	private class ProxyConfigAction implements ActionListener {
 		@Override
 		public void actionPerformed(ActionEvent event) {
-			if (!view.getModel().getSupervisor().isStopped()) {
+			if (!view.getModel().isCrawlStopped()) {
 				view.notifyDialog(IPropertyName.WARNING, I18nUtil.getMessage("warning.stopCrawl"));
 			} else {
 				ProxyConfigDialog proxyConfigDialog = new ProxyConfigDialog(view, view.getModel());
@@ -156,7 +156,7 @@ public class MenuBarView {
 	private class GeneralConfigAction implements ActionListener {
 		@Override
 		public void actionPerformed(ActionEvent event) {
-			if (!view.getModel().getSupervisor().isStopped()) {
+			if (!view.getModel().isCrawlStopped()) {
 				view.notifyDialog(IPropertyName.WARNING, I18nUtil.getMessage("warning.stopCrawl"));
 			} else {
 				GeneralConfigDialog generalConfigDialog = new GeneralConfigDialog(view, view.getModel());
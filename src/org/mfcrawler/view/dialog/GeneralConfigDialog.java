@@ -24,6 +24,7 @@ import java.awt.event.ActionListener;
 
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -35,6 +36,9 @@ import javax.swing.WindowConstants;
 
 import org.mfcrawler.model.ApplicationModel;
 import org.mfcrawler.model.pojo.ApplicationConfig;
+import org.mfcrawler.model.pojo.EAnalysisMode;
+import org.mfcrawler.model.pojo.EFetchMode;
+import org.mfcrawler.model.pojo.EParseMode;
 import org.mfcrawler.model.pojo.IAppConfigParams;
 import org.mfcrawler.model.util.ConversionUtils;
 import org.mfcrawler.model.util.I18nUtil;
@@ -48,7 +52,7 @@ import org.mfcrawler.view.ApplicationView;
 public class GeneralConfigDialog extends DefaultDialog implements IAppConfigParams {
 
 	private static final int DIALOG_WIDTH = 350;
-	private static final int DIALOG_HEIGHT = 250;
+	private static final int DIALOG_HEIGHT = 570;
 	private static final int FORBIDDEN_FILE_EXT_ROWS = 3;
 	private static final int FORBIDDEN_FILE_EXT_COLUMNS = 30;
 
@@ -56,7 +60,17 @@ public class GeneralConfigDialog extends DefaultDialog implements IAppConfigPara
 	private JSpinner cacheSizeOfDbmsSpinner;
 	private JSpinner pageRequestTimeoutSpinner;
 	private JSpinner robotsRequestTimeoutSpinner;
+	private JSpinner connectTimeoutSpinner;
+	private JSpinner pageMaxSizeSpinner;
+	private JSpinner pageMaxDownloadTimeSpinner;
 	private JTextArea forbiddenFileExtensionsTextArea;
+	private JComboBox<EFetchMode> fetchModeComboBox;
+	private JSpinner asyncFetchNumberSpinner;
+	private JSpinner seenLinkFilterSizeSpinner;
+	private JComboBox<EParseMode> parseModeComboBox;
+	private JComboBox<EAnalysisMode> analysisModeComboBox;
+	private JSpinner analysisWordNumberSpinner;
+	private JSpinner analysisSketchSizeSpinner;
 
 	public GeneralConfigDialog(ApplicationView view, ApplicationModel model) {
 		super(view, model);
@@ -69,7 +83,17 @@ public class GeneralConfigDialog extends DefaultDialog implements IAppConfigPara
 		cacheSizeOfDbmsSpinner.setValue(config.getCacheSizeOfDbms());
 		pageRequestTimeoutSpinner.setValue(config.getPageRequestTimeout());
 		robotsRequestTimeoutSpinner.setValue(config.getRobotsRequestTimeout());
+		connectTimeoutSpinner.setValue(config.getConnectTimeout());
+		pageMaxSizeSpinner.setValue(config.getPageMaxSize());
+		pageMaxDownloadTimeSpinner.setValue(config.getPageMaxDownloadTime());
 		forbiddenFileExtensionsTextArea.setText(config.getForbiddenFileExtensions());
+		fetchModeComboBox.setSelectedItem(config.getFetchMode());
+		asyncFetchNumberSpinner.setValue(config.getAsyncFetchNumber());
+		seenLinkFilterSizeSpinner.setValue(config.getSeenLinkFilterSize());
+		parseModeComboBox.setSelectedItem(config.getParseMode());
+		analysisModeComboBox.setSelectedItem(config.getAnalysisMode());
+		analysisWordNumberSpinner.setValue(config.getAnalysisWordNumber());
+		analysisSketchSizeSpinner.setValue(config.getAnalysisSketchSize());
 
 		super.display();
 	}
@@ -106,6 +130,31 @@ public class GeneralConfigDialog extends DefaultDialog implements IAppConfigPara
 		tempPanel.add(robotsRequestTimeoutSpinner);
 		dialog.getContentPane().add(tempPanel);
 
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel connectTimeoutLabel = new JLabel(I18nUtil.getMessage("dialog.applicationConfig.connectTimeout"));
+		tempPanel.add(connectTimeoutLabel);
+		connectTimeoutSpinner = new JSpinner(new SpinnerNumberModel(CONNECT_TIMEOUT_DEFAULT.intValue(),
+				REQUEST_TIMEOUT_MIN, REQUEST_TIMEOUT_MAX, REQUEST_TIMEOUT_SPINNER_STEP));
+		tempPanel.add(connectTimeoutSpinner);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel pageMaxSizeLabel = new JLabel(I18nUtil.getMessage("dialog.applicationConfig.pageMaxSize"));
+		tempPanel.add(pageMaxSizeLabel);
+		pageMaxSizeSpinner = new JSpinner(new SpinnerNumberModel(PAGE_MAX_SIZE_DEFAULT.intValue(), PAGE_MAX_SIZE_MIN,
+				PAGE_MAX_SIZE_MAX, PAGE_MAX_SIZE_STEP));
+		tempPanel.add(pageMaxSizeSpinner);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel pageMaxDownloadTimeLabel = new JLabel(
+				I18nUtil.getMessage("dialog.applicationConfig.pageMaxDownloadTime"));
+		tempPanel.add(pageMaxDownloadTimeLabel);
+		pageMaxDownloadTimeSpinner = new JSpinner(new SpinnerNumberModel(PAGE_MAX_DOWNLOAD_TIME_DEFAULT.intValue(),
+				PAGE_MAX_DOWNLOAD_TIME_MIN, PAGE_MAX_DOWNLOAD_TIME_MAX, PAGE_MAX_DOWNLOAD_TIME_STEP));
+		tempPanel.add(pageMaxDownloadTimeSpinner);
+		dialog.getContentPane().add(tempPanel);
+
 		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
 		JLabel forbiddenFileExtensionsLabel = new JLabel(
 				I18nUtil.getMessage("dialog.applicationConfig.forbiddenFileExtensions"));
@@ -115,6 +164,62 @@ public class GeneralConfigDialog extends DefaultDialog implements IAppConfigPara
 		tempPanel.add(forbiddenFileExtensionsTextArea);
 		dialog.getContentPane().add(tempPanel);
 
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel fetchModeLabel = new JLabel(I18nUtil.getMessage("dialog.applicationConfig.fetchMode"));
+		tempPanel.add(fetchModeLabel);
+		fetchModeComboBox = new JComboBox<EFetchMode>(EFetchMode.values());
+		tempPanel.add(fetchModeComboBox);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel asyncFetchNumberLabel = new JLabel(I18nUtil.getMessage("dialog.applicationConfig.asyncFetchNumber"));
+		tempPanel.add(asyncFetchNumberLabel);
+		asyncFetchNumberSpinner = new JSpinner(new SpinnerNumberModel(ASYNC_FETCH_NUMBER_DEFAULT.intValue(),
+				ASYNC_FETCH_NUMBER_MIN, ASYNC_FETCH_NUMBER_MAX, ASYNC_FETCH_NUMBER_STEP));
+		tempPanel.add(asyncFetchNumberSpinner);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel seenLinkFilterSizeLabel = new JLabel(
+				I18nUtil.getMessage("dialog.applicationConfig.seenLinkFilterSize"));
+		tempPanel.add(seenLinkFilterSizeLabel);
+		seenLinkFilterSizeSpinner = new JSpinner(new SpinnerNumberModel(SEEN_LINK_FILTER_SIZE_DEFAULT.intValue(),
+				SEEN_LINK_FILTER_SIZE_MIN, SEEN_LINK_FILTER_SIZE_MAX, SEEN_LINK_FILTER_SIZE_STEP));
+		tempPanel.add(seenLinkFilterSizeSpinner);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel parseModeLabel = new JLabel(I18nUtil.getMessage("dialog.applicationConfig.parseMode"));
+		tempPanel.add(parseModeLabel);
+		parseModeComboBox = new JComboBox<EParseMode>(EParseMode.values());
+		tempPanel.add(parseModeComboBox);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel analysisModeLabel = new JLabel(I18nUtil.getMessage("dialog.applicationConfig.analysisMode"));
+		tempPanel.add(analysisModeLabel);
+		analysisModeComboBox = new JComboBox<EAnalysisMode>(EAnalysisMode.values());
+		tempPanel.add(analysisModeComboBox);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel analysisWordNumberLabel = new JLabel(
+				I18nUtil.getMessage("dialog.applicationConfig.analysisWordNumber"));
+		tempPanel.add(analysisWordNumberLabel);
+		analysisWordNumberSpinner = new JSpinner(new SpinnerNumberModel(ANALYSIS_WORD_NUMBER_DEFAULT.intValue(),
+				ANALYSIS_WORD_NUMBER_MIN, ANALYSIS_WORD_NUMBER_MAX, ANALYSIS_WORD_NUMBER_STEP));
+		tempPanel.add(analysisWordNumberSpinner);
+		dialog.getContentPane().add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		JLabel analysisSketchSizeLabel = new JLabel(
+				I18nUtil.getMessage("dialog.applicationConfig.analysisSketchSize"));
+		tempPanel.add(analysisSketchSizeLabel);
+		analysisSketchSizeSpinner = new JSpinner(new SpinnerNumberModel(ANALYSIS_SKETCH_SIZE_DEFAULT.intValue(),
+				ANALYSIS_SKETCH_SIZE_MIN, ANALYSIS_SKETCH_SIZE_MAX, ANALYSIS_SKETCH_SIZE_STEP));
+		tempPanel.add(analysisSketchSizeSpinner);
+		dialog.getContentPane().add(tempPanel);
+
 		tempPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
 		JButton applyButton = new JButton(I18nUtil.getMessage("general.ok"));
 		applyButton.addActionListener(new ApplyAction());
@@ -141,7 +246,17 @@ public class GeneralConfigDialog extends DefaultDialog implements IAppConfigPara
 			config.setCacheSizeOfDbms(ConversionUtils.toInteger(cacheSizeOfDbmsSpinner.getValue()));
 			config.setPageRequestTimeout(ConversionUtils.toInteger(pageRequestTimeoutSpinner.getValue()));
 			config.setRobotsRequestTimeout(ConversionUtils.toInteger(robotsRequestTimeoutSpinner.getValue()));
+			config.setConnectTimeout(ConversionUtils.toInteger(connectTimeoutSpinner.getValue()));
+			config.setPageMaxSize(ConversionUtils.toInteger(pageMaxSizeSpinner.getValue()));
+			config.setPageMaxDownloadTime(ConversionUtils.toInteger(pageMaxDownloadTimeSpinner.getValue()));
 			config.setForbiddenFileExtensions(forbiddenFileExtensionsTextArea.getText());
+			config.setFetchMode((EFetchMode) fetchModeComboBox.getSelectedItem());
+			config.setAsyncFetchNumber(ConversionUtils.toInteger(asyncFetchNumberSpinner.getValue()));
+			config.setSeenLinkFilterSize(ConversionUtils.toInteger(seenLinkFilterSizeSpinner.getValue()));
+			config.setParseMode((EParseMode) parseModeComboBox.getSelectedItem());
+			config.setAnalysisMode((EAnalysisMode) analysisModeComboBox.getSelectedItem());
+			config.setAnalysisWordNumber(ConversionUtils.toInteger(analysisWordNumberSpinner.getValue()));
+			config.setAnalysisSketchSize(ConversionUtils.toInteger(analysisSketchSizeSpinner.getValue()));
 
 			hide();
 		}
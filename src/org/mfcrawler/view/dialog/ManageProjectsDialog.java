@@ -148,7 +148,7 @@ public class ManageProjectsDialog extends DefaultDialog {
 			if (selectedValues.size() == 1) {
 				CrawlProject crawlProject = projectMap.get(selectedValues.get(0));
 
-				if (getModel().getCurrentCrawlProject().equals(crawlProject)) {
+				if (crawlProject.equals(getModel().getCurrentCrawlProject())) {
 					getView().notifyDialog(IPropertyName.WARNING, I18nUtil.getMessage("warning.loadCurrentProject"));
 				} else {
 					getModel().loadCrawlProject(crawlProject.getName());
@@ -165,7 +165,7 @@ public class ManageProjectsDialog extends DefaultDialog {
 			for (String value : selectedValues) {
 				CrawlProject crawlProject = projectMap.get(value);
 
-				if (getModel().getCurrentCrawlProject().equals(crawlProject)) {
+				if (crawlProject.equals(getModel().getCurrentCrawlProject())) {
 					getView().notifyDialog(IPropertyName.ERROR, I18nUtil.getMessage("error.deleteCurrentProject"));
 				} else {
 					StringBuilder confirmMsg = new StringBuilder(I18nUtil.getMessage("general.theProject"))
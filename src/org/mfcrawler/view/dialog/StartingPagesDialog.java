@@ -236,6 +236,7 @@ public class StartingPagesDialog extends DefaultDialog {
 					pageDao.updateFoundPage(page);
 				}
 			}
+			getModel().getSupervisor().reloadFoundPages();
 			hide();
 		}
 	}
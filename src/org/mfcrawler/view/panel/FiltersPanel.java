@@ -139,7 +139,7 @@ public class FiltersPanel extends DefaultPanel {
 	private class ApplyFiltersAction implements ActionListener {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			if (getModel().getSupervisor().isStopped()) {
+			if (getModel().isCrawlStopped()) {
 				getModel().applyFilters(blackListSubPanel.getBlacklistDomains(), keywordSubPanel.getKeywordMap());
 				applyButton.setEnabled(false);
 			} else {
@@ -18,6 +18,7 @@
 package org.mfcrawler.view.panel;
 
 import java.beans.PropertyChangeEvent;
+import java.util.List;
 import java.util.Map;
 
 import javax.swing.BoxLayout;
@@ -28,6 +29,7 @@ import org.mfcrawler.model.ApplicationModel;
 import org.mfcrawler.model.IPropertyName;
 import org.mfcrawler.model.pojo.crawl.CrawlConfig;
 import org.mfcrawler.model.pojo.crawl.CrawlProject;
+import org.mfcrawler.model.pojo.crawl.CrawlStatistics;
 import org.mfcrawler.model.util.I18nUtil;
 import org.mfcrawler.view.ApplicationView;
 import org.mfcrawler.view.panel.monitoring.ConfigSubPanel;
@@ -54,6 +56,7 @@ public class MonitoringPanel extends DefaultPanel {
 		getModel().addListener(IPropertyName.SITES_PAGES_NUMBER, this);
 		getModel().addListener(IPropertyName.REMAINING_CRAWL_NUMBER, this);
 		getModel().addListener(IPropertyName.LAUNCHED_THREADS, this);
+		getModel().addListener(IPropertyName.QUEUE_DEPTHS, this);
 	}
 
 	@Override
@@ -82,15 +85,16 @@ public class MonitoringPanel extends DefaultPanel {
 
 		} else if (propertyName.equals(IPropertyName.CRAWL_THREAD_INFO)) {
 			@SuppressWarnings("unchecked")
-			Map<Integer, String> map = (Map<Integer, String>) evt.getNewValue();
-			detailedMonitorSubPanel.updateThreadInfo(map);
+			List<String> messages = (List<String>) evt.getNewValue();
+			detailedMonitorSubPanel.updateThreadInfo(messages);
 
 		} else if (propertyName.equals(IPropertyName.PROCESSING)) {
 			String processing = (String) evt.getNewValue();
 			monitorSubPanel.updateProcessingInfo(processing);
 
 		} else if (propertyName.equals(IPropertyName.SITES_PAGES_NUMBER)) {
-			monitorSubPanel.updateCrawledSitesPages();
+			CrawlStatistics crawlStatistics = (CrawlStatistics) evt.getNewValue();
+			monitorSubPanel.updateCrawledSitesPages(crawlStatistics);
 
 		} else if (propertyName.equals(IPropertyName.REMAINING_CRAWL_NUMBER)) {
 			Integer remainingCrawlNumber = (Integer) evt.getNewValue();
@@ -100,6 +104,11 @@ public class MonitoringPanel extends DefaultPanel {
 			Integer launchedThreads = (Integer) evt.getNewValue();
 			monitorSubPanel.updateLaunchedThreads(launchedThreads);
 
+		} else if (propertyName.equals(IPropertyName.QUEUE_DEPTHS)) {
+			@SuppressWarnings("unchecked")
+			Map<String, Integer> queueDepthMap = (Map<String, Integer>) evt.getNewValue();
+			monitorSubPanel.updateQueueDepths(queueDepthMap);
+
 		}
 	}
 
@@ -49,6 +49,11 @@ public class ConfigSubPanel extends DefaultSubPanel implements ICrawlConfigParam
 
 	private MonitoringPanel monitoringPanel;
 	private JSpinner threadNumberSpinner;
+	private JSpinner parseThreadNumberSpinner;
+	private JSpinner scoreThreadNumberSpinner;
+	private JSpinner persistThreadNumberSpinner;
+	private JSpinner persistBatchSizeSpinner;
+	private JSpinner persistFlushIntervalSpinner;
 	private JSpinner innerDeepSpinner;
 	private JSpinner outerDeepSpinner;
 	private JSpinner crawlNumberSpinner;
@@ -79,6 +84,48 @@ public class ConfigSubPanel extends DefaultSubPanel implements ICrawlConfigParam
 		tempPanel.add(threadNumberSpinner);
 		panel.add(tempPanel);
 
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel parseThreadNumberLabel = new JLabel(I18nUtil.getMessage("monitoring.crawlConfig.parseThreadNumber"));
+		tempPanel.add(parseThreadNumberLabel);
+		parseThreadNumberSpinner = new JSpinner(new SpinnerNumberModel(PARSE_THREAD_NUMBER_DEFAULT,
+				STAGE_THREAD_NUMBER_MIN, STAGE_THREAD_NUMBER_MAX, SPINNER_STEP));
+		tempPanel.add(parseThreadNumberSpinner);
+		panel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel scoreThreadNumberLabel = new JLabel(I18nUtil.getMessage("monitoring.crawlConfig.scoreThreadNumber"));
+		tempPanel.add(scoreThreadNumberLabel);
+		scoreThreadNumberSpinner = new JSpinner(new SpinnerNumberModel(SCORE_THREAD_NUMBER_DEFAULT,
+				STAGE_THREAD_NUMBER_MIN, STAGE_THREAD_NUMBER_MAX, SPINNER_STEP));
+		tempPanel.add(scoreThreadNumberSpinner);
+		panel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel persistThreadNumberLabel = new JLabel(
+				I18nUtil.getMessage("monitoring.crawlConfig.persistThreadNumber"));
+		tempPanel.add(persistThreadNumberLabel);
+		persistThreadNumberSpinner = new JSpinner(new SpinnerNumberModel(PERSIST_THREAD_NUMBER_DEFAULT,
+				STAGE_THREAD_NUMBER_MIN, PERSIST_THREAD_NUMBER_MAX, SPINNER_STEP));
+		tempPanel.add(persistThreadNumberSpinner);
+		panel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel persistBatchSizeLabel = new JLabel(I18nUtil.getMessage("monitoring.crawlConfig.persistBatchSize"));
+		tempPanel.add(persistBatchSizeLabel);
+		persistBatchSizeSpinner = new JSpinner(new SpinnerNumberModel(PERSIST_BATCH_SIZE_DEFAULT,
+				PERSIST_BATCH_SIZE_MIN, PERSIST_BATCH_SIZE_MAX, SPINNER_STEP));
+		tempPanel.add(persistBatchSizeSpinner);
+		panel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel persistFlushIntervalLabel = new JLabel(
+				I18nUtil.getMessage("monitoring.crawlConfig.persistFlushInterval"));
+		tempPanel.add(persistFlushIntervalLabel);
+		persistFlushIntervalSpinner = new JSpinner(new SpinnerNumberModel(PERSIST_FLUSH_INTERVAL_DEFAULT,
+				PERSIST_FLUSH_INTERVAL_MIN, PERSIST_FLUSH_INTERVAL_MAX, SPINNER_STEP));
+		tempPanel.add(persistFlushIntervalSpinner);
+		panel.add(tempPanel);
+
 		tempPanel = new JPanel(new FlowLayout());
 		JLabel innerDeepLabel = new JLabel(I18nUtil.getMessage("monitoring.crawlConfig.innerDeep"));
 		tempPanel.add(innerDeepLabel);
@@ -152,6 +199,11 @@ public class ConfigSubPanel extends DefaultSubPanel implements ICrawlConfigParam
 	public CrawlConfig getCrawlConfig() {
 		CrawlConfig crawlConfig = new CrawlConfig();
 		crawlConfig.setThreadNumber(ConversionUtils.toInteger(threadNumberSpinner.getValue()));
+		crawlConfig.setParseThreadNumber(ConversionUtils.toInteger(parseThreadNumberSpinner.getValue()));
+		crawlConfig.setScoreThreadNumber(ConversionUtils.toInteger(scoreThreadNumberSpinner.getValue()));
+		crawlConfig.setPersistThreadNumber(ConversionUtils.toInteger(persistThreadNumberSpinner.getValue()));
+		crawlConfig.setPersistBatchSize(ConversionUtils.toInteger(persistBatchSizeSpinner.getValue()));
+		crawlConfig.setPersistFlushInterval(ConversionUtils.toInteger(persistFlushIntervalSpinner.getValue()));
 		crawlConfig.setInnerDeep(ConversionUtils.toInteger(innerDeepSpinner.getValue()));
 		crawlConfig.setOuterDeep(ConversionUtils.toInteger(outerDeepSpinner.getValue()));
 		crawlConfig.setRemainingCrawlNumber(ConversionUtils.toInteger(crawlNumberSpinner.getValue()));
@@ -165,6 +217,11 @@ public class ConfigSubPanel extends DefaultSubPanel implements ICrawlConfigParam
 	public void setCrawlConfig(CrawlConfig crawlConfig) {
 		try {
 			threadNumberSpinner.setValue(crawlConfig.getThreadNumber());
+			parseThreadNumberSpinner.setValue(crawlConfig.getParseThreadNumber());
+			scoreThreadNumberSpinner.setValue(crawlConfig.getScoreThreadNumber());
+			persistThreadNumberSpinner.setValue(crawlConfig.getPersistThreadNumber());
+			persistBatchSizeSpinner.setValue(crawlConfig.getPersistBatchSize());
+			persistFlushIntervalSpinner.setValue(crawlConfig.getPersistFlushInterval());
 			innerDeepSpinner.setValue(crawlConfig.getInnerDeep());
 			outerDeepSpinner.setValue(crawlConfig.getOuterDeep());
 			crawlNumberSpinner.setValue(crawlConfig.getRemainingCrawlNumber());
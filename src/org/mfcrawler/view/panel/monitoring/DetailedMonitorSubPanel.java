@@ -18,7 +18,7 @@
 package org.mfcrawler.view.panel.monitoring;
 
 import java.awt.BorderLayout;
-import java.util.Map;
+import java.util.List;
 
 import javax.swing.DefaultListModel;
 import javax.swing.JList;
@@ -43,18 +43,19 @@ public class DetailedMonitorSubPanel extends DefaultSubPanel {
 		super(monitoringPanel, I18nUtil.getMessage("monitoring.detailedMonitoring"));
 	}
 
-	public void updateThreadInfo(Map<Integer, String> map) {
-		for (Integer key : map.keySet()) {
-			if (key >= listModel.getSize()) {
-				listModel.add(key, map.get(key));
-			} else if (map.get(key) != null) {
-				listModel.set(key, map.get(key));
-			} else if (key < listModel.size()) {
-				listModel.remove(key);
+	public void updateThreadInfo(List<String> messages) {
+		for (int i = 0; i < messages.size(); i++) {
+			if (i >= listModel.getSize()) {
+				listModel.addElement(messages.get(i));
+			} else if (!messages.get(i).equals(listModel.get(i))) {
+				listModel.set(i, messages.get(i));
 			}
 		}
+		while (listModel.getSize() > messages.size()) {
+			listModel.remove(listModel.getSize() - 1);
+		}
 	}
-	
+
 	@Override
 	protected JPanel buildContent() {
 		JPanel panel = new JPanel();
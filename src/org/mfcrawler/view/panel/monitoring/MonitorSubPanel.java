@@ -21,13 +21,16 @@ import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Map;
 
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
-import org.mfcrawler.model.dao.site.PageDAO;
-import org.mfcrawler.model.dao.site.SiteDAO;
+import org.mfcrawler.model.dao.DbmsManager;
+import org.mfcrawler.model.dao.SeenLinkFilter;
+import org.mfcrawler.model.pojo.crawl.CrawlStatistics;
+import org.mfcrawler.model.process.fetch.HttpConnectionPool;
 import org.mfcrawler.model.util.ConversionUtils;
 import org.mfcrawler.model.util.I18nUtil;
 import org.mfcrawler.view.panel.DefaultSubPanel;
@@ -40,11 +43,20 @@ import org.mfcrawler.view.panel.MonitoringPanel;
  */
 public class MonitorSubPanel extends DefaultSubPanel {
 
+	private static final int REUSE_RATE_HOST_NUMBER = 10;
+
 	private MonitoringPanel monitoringPanel;
 	private JLabel processingValue;
 	private JLabel launchedThreadsValue;
 	private JLabel crawledSitesNumber;
 	private JLabel crawledPagesNumber;
+	private JLabel foundPagesNumber;
+	private JLabel errorPagesNumber;
+	private JLabel redirectPagesNumber;
+	private JLabel truncatedPagesNumber;
+	private JLabel queueDepthsValue;
+	private JLabel seenLinkFilterValue;
+	private JLabel connectionReuseValue;
 	private JButton startButton;
 	private JButton stopButton;
 
@@ -90,6 +102,55 @@ public class MonitorSubPanel extends DefaultSubPanel {
 		tempPanel.add(crawledPagesNumber);
 		subPanel.add(tempPanel);
 
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel foundPagesLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.foundPages"));
+		tempPanel.add(foundPagesLabel);
+		foundPagesNumber = new JLabel("?");
+		tempPanel.add(foundPagesNumber);
+		subPanel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel errorPagesLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.errorPages"));
+		tempPanel.add(errorPagesLabel);
+		errorPagesNumber = new JLabel("?");
+		tempPanel.add(errorPagesNumber);
+		subPanel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel redirectPagesLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.redirectPages"));
+		tempPanel.add(redirectPagesLabel);
+		redirectPagesNumber = new JLabel("?");
+		tempPanel.add(redirectPagesNumber);
+		subPanel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel truncatedPagesLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.truncatedPages"));
+		tempPanel.add(truncatedPagesLabel);
+		truncatedPagesNumber = new JLabel("?");
+		tempPanel.add(truncatedPagesNumber);
+		subPanel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel queueDepthsLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.queueDepths"));
+		tempPanel.add(queueDepthsLabel);
+		queueDepthsValue = new JLabel("?");
+		tempPanel.add(queueDepthsValue);
+		subPanel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel seenLinkFilterLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.seenLinkFilter"));
+		tempPanel.add(seenLinkFilterLabel);
+		seenLinkFilterValue = new JLabel("?");
+		tempPanel.add(seenLinkFilterValue);
+		subPanel.add(tempPanel);
+
+		tempPanel = new JPanel(new FlowLayout());
+		JLabel connectionReuseLabel = new JLabel(I18nUtil.getMessage("monitoring.monitoring.connectionReuse"));
+		tempPanel.add(connectionReuseLabel);
+		connectionReuseValue = new JLabel("?");
+		tempPanel.add(connectionReuseValue);
+		subPanel.add(tempPanel);
+
 		panel.add(subPanel);
 
 		tempPanel = new JPanel(new FlowLayout());
@@ -115,12 +176,47 @@ public class MonitorSubPanel extends DefaultSubPanel {
 		launchedThreadsValue.setText(ConversionUtils.toString(launchedThreads));
 	}
 
-	public void updateCrawledSitesPages() {
-		SiteDAO siteDao = new SiteDAO();
-		PageDAO pageDao = new PageDAO();
+	public void updateCrawledSitesPages(CrawlStatistics crawlStatistics) {
+		crawledSitesNumber.setText(ConversionUtils.toString(crawlStatistics.getCrawledSitesNumber()));
+		crawledPagesNumber.setText(ConversionUtils.toString(crawlStatistics.getCrawledPagesNumber()));
+		foundPagesNumber.setText(ConversionUtils.toString(crawlStatistics.getFoundPagesNumber()));
+		errorPagesNumber.setText(ConversionUtils.toString(crawlStatistics.getErrorPagesNumber()));
+		redirectPagesNumber.setText(ConversionUtils.toString(crawlStatistics.getRedirectPagesNumber()));
+		truncatedPagesNumber.setText(ConversionUtils.toString(crawlStatistics.getTruncatedPagesNumber()));
+
+		SeenLinkFilter seenLinkFilter = DbmsManager.get().getSeenLinkFilter();
+		if (seenLinkFilter != null) {
+			seenLinkFilterValue.setText(seenLinkFilter.getLinkNumber() + " / " + seenLinkFilter.getMemorySize() + " Mo ("
+					+ String.format("%.2f", seenLinkFilter.getFalsePositiveRate() * 100) + " %)");
+		}
+
+		// Reuse rate of the connections (the hosts with the most requests in
+		// the tooltip)
+		HttpConnectionPool connectionPool = HttpConnectionPool.get();
+		long requestNumber = connectionPool.getRequestNumber();
+		if (requestNumber > 0) {
+			long reusedNumber = connectionPool.getReusedNumber();
+			connectionReuseValue.setText(reusedNumber + " / " + requestNumber + " ("
+					+ String.format("%.2f", reusedNumber * 100.0 / requestNumber) + " %)");
+
+			StringBuilder reuseRates = new StringBuilder("<html>");
+			for (Map.Entry<String, Double> entry : connectionPool.getReuseRates(REUSE_RATE_HOST_NUMBER).entrySet()) {
+				reuseRates.append(entry.getKey()).append(" : ").append(String.format("%.2f", entry.getValue() * 100))
+						.append(" %<br>");
+			}
+			connectionReuseValue.setToolTipText(reuseRates.append("</html>").toString());
+		}
+	}
 
-		crawledSitesNumber.setText(ConversionUtils.toString(siteDao.getCrawledSitesNumber()));
-		crawledPagesNumber.setText(ConversionUtils.toString(pageDao.getCrawledPagesNumber()));
+	public void updateQueueDepths(Map<String, Integer> queueDepthMap) {
+		StringBuilder queueDepths = new StringBuilder();
+		for (Map.Entry<String, Integer> entry : queueDepthMap.entrySet()) {
+			if (queueDepths.length() > 0) {
+				queueDepths.append(" | ");
+			}
+			queueDepths.append(entry.getKey()).append(" : ").append(entry.getValue());
+		}
+		queueDepthsValue.setText(queueDepths.toString());
 	}
 
 	// Listener Classes
@@ -254,6 +254,11 @@ public class PageDetailPanel {
 				resumeContent = page.getContent();
 			}
 			resumeContentText.setText(ConversionUtils.toString(resumeContent));
+			String resumeTitle = I18nUtil.getMessage("overview.pageDetail.resume");
+			if (page.getTruncation() != null) {
+				resumeTitle += " " + I18nUtil.getMessage("overview.pageDetail.truncated");
+			}
+			resumeContentText.setBorder(BorderFactory.createTitledBorder(resumeTitle));
 			changingPanel.add(scrollPaneResume, BorderLayout.CENTER);
 
 			content.setText(formatContent(page.getContent()));
@@ -389,6 +394,7 @@ public class PageDetailPanel {
 			if (option == JOptionPane.YES_OPTION) {
 				PageDAO pageDao = new PageDAO();
 				pageDao.updateCrawlNow(page.getLink(), true);
+				overviewPanel.getModel().getSupervisor().reloadFoundPages();
 			}
 		}
 	}
@@ -295,6 +295,7 @@ public class SiteDetailPanel {
 			if (option == JOptionPane.YES_OPTION) {
 				SiteDAO siteDao = new SiteDAO();
 				siteDao.updateCrawlNow(site.getDomain(), true);
+				overviewPanel.getModel().getSupervisor().reloadFoundPages();
 			}
 		}
 	}